@@ -0,0 +1,90 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import game.board.Board;
+
+/**
+ * Benchmarks of the board engine: setting the stones of a whole workload, 
+ * copying and scoring the board after the workload.
+ * @author janine.kleinrot
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+	/** The size of the board. */
+	@Param({"9", "13", "19"})
+	private int size;
+
+	/** The workload. */
+	@Param({"RANDOM", "LADDER", "CAPTURE"})
+	private Workload workload;
+
+	/** The moves of the workload. */
+	private int[] moves;
+
+	/** The board after the workload. */
+	private Board board;
+
+	/**
+	 * Create the moves of the workload and the board after the workload.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		moves = workload.createMoves(size);
+		board = new Board(size, false);
+		Workload.setStones(board, moves);
+	}
+
+	/**
+	 * Set the stones of all moves of the workload on a new board.
+	 * @return
+	 * 			The board.
+	 */
+	@Benchmark
+	public Board setStone() {
+		Board newBoard = new Board(size, false);
+		Workload.setStones(newBoard, moves);
+		return newBoard;
+	}
+
+	/**
+	 * Copy the board after the workload.
+	 * @return
+	 * 			The copy.
+	 */
+	@Benchmark
+	public Board copy() {
+		return board.copy();
+	}
+
+	/**
+	 * Calculate the winner on the board after the workload.
+	 * @return
+	 * 			The score of black.
+	 */
+	@Benchmark
+	public int calculateWinner() {
+		board.calculateWinner();
+		return board.getBlackScore();
+	}
+
+}
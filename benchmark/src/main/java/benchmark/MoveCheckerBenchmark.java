@@ -0,0 +1,96 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import game.KoRule;
+import game.MoveChecker;
+import game.MoveCheckerImpl;
+import game.PositionHistory;
+import game.board.Board;
+import game.board.stone.StoneColor;
+
+/**
+ * Benchmark of the move checker: checking every intersection of the board after the workload
+ * against the board situations that occurred during the workload.
+ * @author janine.kleinrot
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveCheckerBenchmark {
+
+	/** The size of the board. */
+	@Param({"9", "13", "19"})
+	private int size;
+
+	/** The workload. */
+	@Param({"RANDOM", "LADDER", "CAPTURE"})
+	private Workload workload;
+
+	/** The Ko rule. */
+	@Param({"SIMPLE_KO", "POSITIONAL_SUPERKO"})
+	private KoRule koRule;
+
+	/** The board after the workload. */
+	private Board board;
+
+	/** The board situations that occurred during the workload. */
+	private PositionHistory positionHistory;
+
+	/** The move checker. */
+	private MoveChecker moveChecker;
+
+	/** The stone color of the player to move after the workload. */
+	private StoneColor stoneColor;
+
+	/**
+	 * Play the workload and record the board situations.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		int[] moves = workload.createMoves(size);
+		board = new Board(size, false);
+		positionHistory = new PositionHistory(board.getHash());
+		for (int move : moves) {
+			Workload.play(board, move);
+			positionHistory.addPosition(board.getHash());
+		}
+		moveChecker = new MoveCheckerImpl(koRule);
+		stoneColor = Workload.getStoneColor(moves[moves.length - 1]).other();
+	}
+
+	/**
+	 * Check a move at every intersection of the board.
+	 * @return
+	 * 			The amount of valid moves.
+	 */
+	@Benchmark
+	public int checkMove() {
+		int validMoves = 0;
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				if (moveChecker.checkMove(x, y, stoneColor, board, positionHistory)) {
+					validMoves++;
+				}
+			}
+		}
+		return validMoves;
+	}
+
+}
@@ -0,0 +1,269 @@
+package benchmark;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import game.board.Board;
+import game.board.BoardState;
+import game.board.stone.StoneColor;
+import game.player.ai.Playout;
+
+/**
+ * The sequences of moves replayed by the benchmarks.
+ * A move is stored as twice the index x * size + y of the intersection plus the ordinal
+ * of the stone color.
+ * @author janine.kleinrot
+ */
+public enum Workload {
+
+	/** A game of random moves that do not fill own eyes and are not suicide. */
+	RANDOM {
+		@Override
+		public int[] createMoves(int size) {
+			Random random = new Random(SEED);
+			Board board = new Board(size, false);
+			int[] moves = new int[size * size];
+			StoneColor stoneColor = StoneColor.BLACK;
+			int moveCount = 0;
+			for (int attempt = 0; attempt < 10 * size * size && moveCount < moves.length;
+					attempt++) {
+				int index = random.nextInt(size * size);
+				BoardState boardState = board.getBoardState();
+				if (!boardState.isOccupied(index) && index != board.getKoIndex() &&
+						!Playout.isEye(boardState, index, stoneColor) &&
+						!board.isSuicide(index, stoneColor)) {
+					board.setStone(index / size, index % size, stoneColor);
+					moves[moveCount] = encode(index, stoneColor);
+					moveCount++;
+					stoneColor = stoneColor.other();
+				}
+			}
+			return copyOf(moves, moveCount);
+		}
+	},
+
+	/** A ladder that runs diagonally over the board until the white stones are captured. */
+	LADDER {
+		@Override
+		public int[] createMoves(int size) {
+			Board board = new Board(size, false);
+			int[] moves = new int[size * size];
+			int moveCount = 0;
+			int start = 2 * size + 2;
+			int[] setup = {encode(start, StoneColor.WHITE), encode(start - size, StoneColor.BLACK),
+				encode(start - 1, StoneColor.BLACK), encode(start + size - 1, StoneColor.BLACK)};
+			for (int move : setup) {
+				moves[moveCount] = move;
+				moveCount++;
+				play(board, move);
+			}
+			while (board.getBoardState().isOccupied(start)) {
+				int[] liberties = getLiberties(board.getBoardState(), start);
+				if (liberties.length == 1) {
+					moves[moveCount] = encode(liberties[0], StoneColor.BLACK);
+					moveCount++;
+					play(board, moves[moveCount - 1]);
+				} else if (liberties.length == 2) {
+					int atari = isLadder(board, start, liberties[0], liberties[1]) ? 0 : 1;
+					moves[moveCount] = encode(liberties[atari], StoneColor.BLACK);
+					moves[moveCount + 1] = encode(liberties[1 - atari], StoneColor.WHITE);
+					play(board, moves[moveCount]);
+					play(board, moves[moveCount + 1]);
+					moveCount = moveCount + 2;
+				} else {
+					break;
+				}
+			}
+			return copyOf(moves, moveCount);
+		}
+	},
+
+	/**
+	 * White fills the inside of the board and black the edge,
+	 * until the last black stone captures all white stones.
+	 */
+	CAPTURE {
+		@Override
+		public int[] createMoves(int size) {
+			int[] whiteMoves = new int[(size - 2) * (size - 2)];
+			int[] blackMoves = new int[4 * (size - 1)];
+			int whiteCount = 0;
+			int blackCount = 0;
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					if (x == 0 || y == 0 || x == size - 1 || y == size - 1) {
+						blackMoves[blackCount] = encode(x * size + y, StoneColor.BLACK);
+						blackCount++;
+					} else {
+						whiteMoves[whiteCount] = encode(x * size + y, StoneColor.WHITE);
+						whiteCount++;
+					}
+				}
+			}
+			int[] moves = new int[whiteCount + blackCount];
+			int moveCount = 0;
+			for (int i = 0; i < whiteCount; i++) {
+				moves[moveCount] = whiteMoves[i];
+				moveCount++;
+				if (i < blackCount - 1) {
+					moves[moveCount] = blackMoves[i];
+					moveCount++;
+				}
+			}
+			for (int i = Math.min(whiteCount, blackCount - 1); i < blackCount - 1; i++) {
+				moves[moveCount] = blackMoves[i];
+				moveCount++;
+			}
+			moves[moveCount] = blackMoves[blackCount - 1];
+			return moves;
+		}
+	};
+
+	/** The seed of the random games. */
+	private static final long SEED = 42L;
+
+	/**
+	 * Create the moves of the workload on a board of the provided size.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The moves.
+	 */
+	public abstract int[] createMoves(int size);
+
+	/**
+	 * Set the stones of the provided moves on the board.
+	 * @param board
+	 * 			The board.
+	 * @param moves
+	 * 			The moves.
+	 */
+	public static void setStones(Board board, int[] moves) {
+		for (int move : moves) {
+			play(board, move);
+		}
+	}
+
+	/**
+	 * Return the stone color of the provided move.
+	 * @param move
+	 * 			The move.
+	 * @return
+	 * 			The stone color.
+	 */
+	public static StoneColor getStoneColor(int move) {
+		return (move & 1) == 0 ? StoneColor.BLACK : StoneColor.WHITE;
+	}
+
+	/**
+	 * Return the move at the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param stoneColor
+	 * 			The stone color.
+	 * @return
+	 * 			The move.
+	 */
+	private static int encode(int index, StoneColor stoneColor) {
+		return index << 1 | (stoneColor == StoneColor.BLACK ? 0 : 1);
+	}
+
+	/**
+	 * Set the stone of the move on the board.
+	 * @param board
+	 * 			The board.
+	 * @param move
+	 * 			The move.
+	 */
+	public static void play(Board board, int move) {
+		int index = move >> 1;
+		board.setStone(index / board.getSize(), index % board.getSize(), getStoneColor(move));
+	}
+
+	/**
+	 * Whether an atari at the first liberty followed by an extension at the second liberty
+	 * leaves the group with at most two liberties, so the ladder continues.
+	 * @param board
+	 * 			The board.
+	 * @param stone
+	 * 			A stone of the group.
+	 * @param atari
+	 * 			The liberty where black plays atari.
+	 * @param extension
+	 * 			The liberty where white extends.
+	 * @return
+	 * 			True if the ladder continues and false otherwise.
+	 */
+	private static boolean isLadder(Board board, int stone, int atari, int extension) {
+		Board ladderBoard = board.copy();
+		play(ladderBoard, encode(atari, StoneColor.BLACK));
+		play(ladderBoard, encode(extension, StoneColor.WHITE));
+		return getLiberties(ladderBoard.getBoardState(), stone).length <= 2;
+	}
+
+	/**
+	 * Return the liberties of the group of the provided stone with a flood fill.
+	 * @param boardState
+	 * 			The board state.
+	 * @param stone
+	 * 			A stone of the group.
+	 * @return
+	 * 			The indexes of the liberties in increasing order.
+	 */
+	private static int[] getLiberties(BoardState boardState, int stone) {
+		int size = boardState.getSize();
+		StoneColor stoneColor = boardState.getStoneColor(stone);
+		boolean[] isVisited = new boolean[size * size];
+		boolean[] isLiberty = new boolean[size * size];
+		Deque<Integer> stones = new ArrayDeque<Integer>();
+		stones.push(stone);
+		isVisited[stone] = true;
+		int libertyCount = 0;
+		while (!stones.isEmpty()) {
+			int index = stones.pop();
+			int x = index / size;
+			int y = index % size;
+			int[] adjacentIndexes = {y + 1 < size ? index + 1 : -1, y > 0 ? index - 1 : -1,
+				x + 1 < size ? index + size : -1, x > 0 ? index - size : -1};
+			for (int adjacentIndex : adjacentIndexes) {
+				if (adjacentIndex >= 0 && !isVisited[adjacentIndex]) {
+					StoneColor adjacentColor = boardState.getStoneColor(adjacentIndex);
+					if (adjacentColor == null) {
+						isVisited[adjacentIndex] = true;
+						isLiberty[adjacentIndex] = true;
+						libertyCount++;
+					} else if (adjacentColor == stoneColor) {
+						isVisited[adjacentIndex] = true;
+						stones.push(adjacentIndex);
+					}
+				}
+			}
+		}
+		int[] liberties = new int[libertyCount];
+		int libertyNumber = 0;
+		for (int index = 0; index < size * size; index++) {
+			if (isLiberty[index]) {
+				liberties[libertyNumber] = index;
+				libertyNumber++;
+			}
+		}
+		return liberties;
+	}
+
+	/**
+	 * Return the first moves of the array.
+	 * @param moves
+	 * 			The moves.
+	 * @param moveCount
+	 * 			The amount of moves.
+	 * @return
+	 * 			The first moves.
+	 */
+	private static int[] copyOf(int[] moves, int moveCount) {
+		int[] copy = new int[moveCount];
+		System.arraycopy(moves, 0, copy, 0, moveCount);
+		return copy;
+	}
+
+}
@@ -1,12 +1,21 @@
 package client;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.util.Arrays;
 import java.util.Observable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import client.tui.GoClientTUI;
+import protocol.Command;
+import protocol.CommandEncoder;
+import protocol.CommandParser;
+import protocol.CommandType;
 import protocol.Protocol.General;
 import protocol.Protocol.Server;
 
@@ -25,11 +34,26 @@ public class GoClient extends Observable implements Runnable {
 	/** The socket. */
 	private Socket socket;
 	
-	/** Reader to read from input stream. */
-	private BufferedReader in;
+	/** The initial size of the buffer of a line. */
+	private static final int LINE_BUFFER_SIZE = 128;
 	
-	/** Writer to write to output stream. */
-	private BufferedWriter out;
+	/** Stream to read from input stream. */
+	private InputStream in;
+	
+	/** Stream to write to output stream. */
+	private OutputStream out;
+	
+	/** The bytes of the line read last. */
+	private byte[] line;
+	
+	/** The parser of the lines read. */
+	private CommandParser parser;
+	
+	/** The encoder of the commands sent. */
+	private CommandEncoder encoder;
+	
+	/** The lock of the encoder, since commands are sent by several threads. */
+	private Lock encoderLock;
 	
 	/**	If the Go client is connected to the Go server. */
 	private boolean isConnected;
@@ -52,19 +76,29 @@ public class GoClient extends Observable implements Runnable {
 		Thread goClientTUIThread = new Thread(goClientTUI);
 		goClientTUIThread.start();
 		isConnected = false;
+		line = new byte[LINE_BUFFER_SIZE];
+		parser = new CommandParser();
+		encoder = new CommandEncoder();
+		encoderLock = new ReentrantLock();
 	}
 	
 	/**
-	 * Send provided message over socket to GoClientHandler.
-	 * @param message
-	 * 			Message send.
+	 * Send the provided command over socket to GoClientHandler.
+	 * @param type
+	 * 			The type of the command.
+	 * @param arguments
+	 * 			The arguments of the command.
 	 */
-	public void sendMessage(String message) {
+	public void sendCommand(CommandType type, String... arguments) {
+		encoderLock.lock();
 		try {
-			out.write(message);
+			int length = encoder.encode(type, arguments);
+			out.write(encoder.getBuffer(), 0, length);
 			out.flush();
 		} catch (IOException e) {
 			e.printStackTrace();
+		} finally {
+			encoderLock.unlock();
 		}
 	}
 	
@@ -79,36 +113,44 @@ public class GoClient extends Observable implements Runnable {
 				e.printStackTrace();
 			}
 		}
-		String message = "";
 		try {
-			while ((message = in.readLine()) != null) {
-				String[] words = message.split("\\" + General.DELIMITER1);
-				if (words.length == 12 && words[0].equals(Server.NAME)) {
-					goClientActor.showConnectionConfirmed(words);
-				} else if (words.length == 3 && words[0].equals(Server.ERROR) && 
-						words[1].equals(Server.NAMETAKEN)) {
+			int length;
+			while ((length = readLine()) != -1) {
+				Command command = parser.parseLine(line, length);
+				CommandType type = command.getType();
+				int argumentCount = command.getArgumentCount();
+				if (argumentCount == 11 && type == CommandType.NAME) {
+					goClientActor.showConnectionConfirmed(command.getArgument(0));
+				} else if (argumentCount == 2 && type == CommandType.ERROR && 
+						command.isArgument(0, Server.NAMETAKEN)) {
 					goClientActor.handleNameError();
 					socket = null;
 					isConnected = false;
 					readMessage();
-				} else if (words.length == 2 && words[0].equals(Server.START)) {
+				} else if ((argumentCount == 1 || argumentCount == 2) && 
+						type == CommandType.START) {
 					goClientActor.getGameSettings();
-				} else if (words.length == 6 && words[0].equals(Server.START)) {
-					goClientActor.setReceivedGameSettings(words[2], words[3], words[4], words[5]);
-				} else if (words.length == 4 && words[0].equals(Server.TURN) 
-						&& words[3].equals(name)) {
-					goClientActor.getPlayer().processPreviousMove(words[2], words[1]);
+				} else if (argumentCount == 5 && type == CommandType.START) {
+					goClientActor.setReceivedGameSettings(command.getArgument(1), 
+							command.getArgument(2), command.getArgument(3), 
+							command.getArgument(4));
+				} else if (argumentCount == 3 && type == CommandType.TURN 
+						&& command.isArgument(2, name)) {
+					goClientActor.getPlayer().processPreviousMove(command.getArgument(1), 
+							command.getArgument(0));
 					goClientActor.getPlayer().determineMove();
-				} else if (words.length == 4 && words[0].equals(Server.TURN) 
-						&& !words[3].equals(name)) {
-					goClientActor.getPlayer().processPreviousMove(words[2], words[1]);
-				} else if (words.length == 3 && words[0].equals(Server.ERROR) && 
-						words[1].equals(Server.INVALID)) {
+				} else if (argumentCount == 3 && type == CommandType.TURN) {
+					goClientActor.getPlayer().processPreviousMove(command.getArgument(1), 
+							command.getArgument(0));
+				} else if (argumentCount == 2 && type == CommandType.ERROR && 
+						command.isArgument(0, Server.INVALID)) {
 					goClientActor.handleInvalidMove();
-				} else if (words.length == 6 && words[0].equals(Server.ENDGAME)) {
-					goClientActor.handleEndOfGame(words[1], words[2], words[3], words[4], words[5]);
-				} else if (words.length == 3 && words[0].equals(Server.ERROR) && 
-						words[1].equals(Server.UNKNOWN)) {
+				} else if (argumentCount == 5 && type == CommandType.ENDGAME) {
+					goClientActor.handleEndOfGame(command.getArgument(0), command.getArgument(1), 
+							command.getArgument(2), command.getArgument(3), 
+							command.getArgument(4));
+				} else if (argumentCount == 2 && type == CommandType.ERROR && 
+						command.isArgument(0, Server.UNKNOWN)) {
 					goClientActor.handleUnknownCommand();
 				}
 			}
@@ -122,6 +164,29 @@ public class GoClient extends Observable implements Runnable {
 		}
 	}
 	
+	/**
+	 * Read a line into the line buffer.
+	 * @return
+	 * 			The length of the line without the command end, or -1 at the end of the stream.
+	 * @throws IOException
+	 * 			If the socket can not be read.
+	 */
+	private int readLine() throws IOException {
+		int length = 0;
+		int b;
+		while ((b = in.read()) != General.COMMAND_END.charAt(0)) {
+			if (b == -1) {
+				return length == 0 ? -1 : length;
+			}
+			if (length == line.length) {
+				line = Arrays.copyOf(line, line.length * 2);
+			}
+			line[length] = (byte) b;
+			length++;
+		}
+		return length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+	}
+	
 	/**
 	 * Run continuously while the thread is running.
 	 */
@@ -149,21 +214,21 @@ public class GoClient extends Observable implements Runnable {
 	}
 	
 	/**
-	 * Set the reader of the GoClient to the provided reader.
+	 * Set the input stream of the GoClient to the provided input stream.
 	 * @param inActor
-	 * 			The reader.
+	 * 			The input stream.
 	 */
-	public void setReader(BufferedReader inActor) {
-		in = inActor;
+	public void setInputStream(InputStream inActor) {
+		in = new BufferedInputStream(inActor);
 	}
 	
 	/**
-	 * Set the writer of the GoClient to the provided writer.
+	 * Set the output stream of the GoClient to the provided output stream.
 	 * @param outActor
-	 * 			The writer.
+	 * 			The output stream.
 	 */
-	public void setWriter(BufferedWriter outActor) {
-		out = outActor;
+	public void setOutputStream(OutputStream outActor) {
+		out = new BufferedOutputStream(outActor);
 	}
 	
 	/**
@@ -28,10 +28,10 @@ public interface GoClientActor {
 	
 	/**
 	 * Notify GoClientTUI that the connection is confirmed.
-	 * @param words
-	 * 			The input received over the socket from the Go server.
+	 * @param serverName
+	 * 			The name of the Go server.
 	 */
-	public void showConnectionConfirmed(String[] words);
+	public void showConnectionConfirmed(String serverName);
 	
 	/**
 	 * Ask the GoClient for a new name.
@@ -1,10 +1,6 @@
 package client;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.Socket;
@@ -16,6 +12,7 @@ import game.board.stone.StoneColor;
 import game.player.ComputerPlayer;
 import game.player.HumanPlayer;
 import game.player.Player;
+import protocol.CommandType;
 import protocol.Protocol.Client;
 import protocol.Protocol.General;
 import protocol.Protocol.Server;
@@ -75,16 +72,11 @@ public class GoClientActorImpl extends Observable implements GoClientActor {
 			if (goClient.getSocket() == null) {
 				goClient.setSocket(new Socket(InetAddress.getByName(ipAddress), 
 						Integer.parseInt(port)));
-				goClient.setReader(new BufferedReader(new InputStreamReader(
-						goClient.getSocket().getInputStream())));
-				goClient.setWriter(new BufferedWriter(new OutputStreamWriter(
-						goClient.getSocket().getOutputStream())));
-				goClient.sendMessage(Client.NAME + General.DELIMITER1 + goClient.getName() + 
-						General.DELIMITER1 + Client.VERSION + General.DELIMITER1 +  
-						Client.VERSIONNO + General.DELIMITER1 + Client.EXTENSIONS + 
-						General.DELIMITER1 + 0 + General.DELIMITER1 + 0 + General.DELIMITER1 + 0 + 
-						General.DELIMITER1 + 0 + General.DELIMITER1 + 0 + General.DELIMITER1 + 0 + 
-						General.DELIMITER1 + 0 + General.COMMAND_END);
+				goClient.setInputStream(goClient.getSocket().getInputStream());
+				goClient.setOutputStream(goClient.getSocket().getOutputStream());
+				goClient.sendCommand(CommandType.NAME, goClient.getName(), Client.VERSION, 
+						Integer.toString(Client.VERSIONNO), Client.EXTENSIONS, 
+						"0", "0", "0", "0", "0", "0", "0");
 				goClient.setIsConnected();
 				isConnected = true;
 			} else {
@@ -116,9 +108,9 @@ public class GoClientActorImpl extends Observable implements GoClientActor {
 	}
 	
 	@Override
-	public void showConnectionConfirmed(String[] words) {
+	public void showConnectionConfirmed(String serverName) {
 		setChanged();
-		notifyObservers("Connected to " + words[1]);
+		notifyObservers("Connected to " + serverName);
 	}
 	
 	@Override
@@ -138,8 +130,7 @@ public class GoClientActorImpl extends Observable implements GoClientActor {
 		if (playerType.isEmpty() && goClient.getSocket() != null && 
 				(goPlayerType.equals("human") || goPlayerType.equals("computer"))) {
 			this.playerType = goPlayerType;
-			goClient.sendMessage(Client.REQUESTGAME + General.DELIMITER1 + 2 +
-					General.DELIMITER1 + Client.RANDOM + General.COMMAND_END);
+			goClient.sendCommand(CommandType.REQUESTGAME, "2", Client.RANDOM);
 			setChanged();
 			notifyObservers("Game requested " + playerType);
 		} else if (playerType.isEmpty() && goClient.getSocket() != null && 
@@ -170,8 +161,7 @@ public class GoClientActorImpl extends Observable implements GoClientActor {
 			if (stoneColorString.equals("white")) {
 				try {
 					Integer.parseInt(boardSize);
-					goClient.sendMessage(Client.SETTINGS + General.DELIMITER1 + General.WHITE + 
-							General.DELIMITER1 + boardSize + General.COMMAND_END);
+					goClient.sendCommand(CommandType.SETTINGS, General.WHITE, boardSize);
 					setChanged();
 					notifyObservers("Game settings set white");
 				} catch (NumberFormatException e) {
@@ -181,8 +171,7 @@ public class GoClientActorImpl extends Observable implements GoClientActor {
 			} else if (stoneColorString.equals("black")) {
 				try {
 					Integer.parseInt(boardSize);
-					goClient.sendMessage(Client.SETTINGS + General.DELIMITER1 + General.BLACK + 
-							General.DELIMITER1 + boardSize + General.COMMAND_END);
+					goClient.sendCommand(CommandType.SETTINGS, General.BLACK, boardSize);
 					setChanged();
 					notifyObservers("Game settings set black");
 				} catch (NumberFormatException e) {
@@ -252,7 +241,7 @@ public class GoClientActorImpl extends Observable implements GoClientActor {
 	
 	@Override
 	public void sendMove(String move) {
-		goClient.sendMessage(Client.MOVE + General.DELIMITER1 + move + General.COMMAND_END);
+		goClient.sendCommand(CommandType.MOVE, move);
 	}
 
 	@Override
@@ -307,7 +296,7 @@ public class GoClientActorImpl extends Observable implements GoClientActor {
 	@Override
 	public void exit() {
 		if (isConnected) {
-			goClient.sendMessage(Client.EXIT);
+			goClient.sendCommand(CommandType.EXIT);
 		}
 		goClient.exit();
 	}
@@ -315,7 +304,7 @@ public class GoClientActorImpl extends Observable implements GoClientActor {
 	@Override
 	public void quitGame() {
 		if (isConnected) {
-			goClient.sendMessage(Client.QUIT + General.COMMAND_END);
+			goClient.sendCommand(CommandType.QUIT);
 		}
 	}
 	
@@ -0,0 +1,341 @@
+package client.handler;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import client.GoClientState;
+import game.GoClientStateListener;
+import game.board.Board;
+import protocol.BinaryProtocol;
+import protocol.Command;
+import protocol.CommandEncoder;
+import protocol.CommandParser;
+import protocol.CommandType;
+import protocol.EncodedCommand;
+import protocol.Protocol.Client;
+import protocol.Protocol.Server;
+import server.GoServer;
+
+/**
+ * The part of a client handler that does not depend on how the messages are read from 
+ * and written to the socket. 
+ * Every complete line received from the GoClient is handled by handleLine.
+ * After a NAME command that asks for the binary framing, the GoClient sends frames,
+ * which are handled by handleFrame, and the commands to the GoClient are encoded as frames.
+ * Both are parsed into a reused Command, and the commands sent are encoded 
+ * into a reused buffer that is handed to write.
+ * The name of the GoClient is only set by the first NAME that connects it, since the 
+ * client handler is registered at the GoServer under that name.
+ * @author janine.kleinrot
+ */
+public abstract class AbstractGoClientHandler implements GoClientHandler {
+	
+	/** The Go server. */
+	private GoServer goServer;
+	
+	/** The name of the server. */
+	private String name;
+	
+	/** The actor of the client. */
+	private GoClientHandlerActor goClientHandlerActor;
+	
+	/** The GoClientState. */
+	private volatile GoClientState goClientState;
+	
+	/** The opponent. */
+	private GoClientHandler opponent;
+	
+	/** The name of the GoClient. */
+	private String goClientName;
+	
+	/** The stone color of the GoClient. */
+	private String stoneColor;
+	
+	/** The board size. */
+	private String boardSize;
+	
+	/** 
+	 * The size of the board of the game, which the moves are parsed with, 
+	 * or 0 if the board size is not a number. 
+	 */
+	private volatile int moveBoardSize;
+	
+	/** The board size asked for in the last game request, or 0 if any board size is fine. */
+	private volatile int requestedBoardSize;
+	
+	/** The name of the opponent asked for in the last game request, or null for RANDOM. */
+	private volatile String requestedOpponent;
+	
+	/** Lock for Bart. */
+	private Lock lock;
+	
+	/** Whether the messages are sent and received as binary frames. */
+	private volatile boolean isBinary;
+	
+	/** The parser of the messages received. */
+	private CommandParser parser;
+	
+	/** The encoder of the commands sent. */
+	private CommandEncoder encoder;
+	
+	/** The lock of the encoder, since commands are sent by several threads. */
+	private Lock encoderLock;
+	
+	/**
+	 * Creates a new client handler.
+	 * Initializes the actor.
+	 * Initializes the GoClientState to UNCONNECTED.
+	 * @param gameManager
+	 * 			The gameManager of the GoServer.
+	 * @param goServer
+	 * 			The GoServer.
+	 */
+	public AbstractGoClientHandler(GoClientStateListener gameManager, GoServer goServer) {
+		this.goServer = goServer;
+		this.name = "Go Server";
+		goClientHandlerActor = new GoClientHandlerActorImpl(this, gameManager);
+		goClientState = GoClientState.UNCONNECTED;
+		lock = new ReentrantLock();
+		parser = new CommandParser();
+		encoder = new CommandEncoder();
+		encoderLock = new ReentrantLock();
+	}
+	
+	/**
+	 * Handle a line received from the GoClient.
+	 * @param line
+	 * 			The bytes of the line, without the command end.
+	 * @param length
+	 * 			The length of the line.
+	 */
+	protected void handleLine(byte[] line, int length) {
+		handleCommand(parser.parseLine(line, length));
+	}
+	
+	/**
+	 * Handle a frame received from the GoClient.
+	 * @param frame
+	 * 			The bytes of the frame, starting with the opcode.
+	 * @param length
+	 * 			The length of the frame.
+	 */
+	protected void handleFrame(byte[] frame, int length) {
+		handleCommand(parser.parseFrame(frame, length));
+	}
+	
+	/**
+	 * Handle a command received from the GoClient.
+	 * @param command
+	 * 			The command.
+	 */
+	private void handleCommand(Command command) {
+		int argumentCount = command.getArgumentCount();
+		switch (command.getType()) {
+			case NAME:
+				if (argumentCount == BinaryProtocol.NAME_ARGUMENTS || 
+						BinaryProtocol.hasBinaryFlag(command)) {
+					lock.lock();
+					try {
+						if (goClientState == GoClientState.UNCONNECTED) {
+							goClientName = command.getArgument(0);
+							goClientHandlerActor.confirmConnection(command, name);
+							isBinary = goClientState == GoClientState.CONNECTED && 
+									BinaryProtocol.isRequested(command);
+						} else {
+							sendCommand(CommandType.ERROR, Server.OTHER, 
+									"The name " + goClientName + " is already set");
+						}
+					} finally {
+						lock.unlock();
+					}
+					return;
+				}
+				break;
+			case REQUESTGAME:
+				if (argumentCount == 2 || argumentCount == 3) {
+					requestedBoardSize = argumentCount == 3 ? 
+							Math.max(command.getIntArgument(2), 0) : 0;
+					requestedOpponent = command.isArgument(1, Client.RANDOM) ? 
+							null : command.getArgument(1);
+					lock.lock();
+					try {
+						goClientHandlerActor.handleGameRequest();
+					} finally {
+						lock.unlock();
+					}
+					return;
+				}
+				break;
+			case SETTINGS:
+				if (argumentCount == 2) {
+					stoneColor = command.getArgument(0);
+					setBoardSize(command.getArgument(1));
+					goClientHandlerActor.notifyOtherClientOfGameSettings(opponent, stoneColor, 
+							boardSize);
+					return;
+				}
+				break;
+			case MOVE:
+				if (argumentCount == 1) {
+					goClientHandlerActor.confirmMove(command.getMove(0, moveBoardSize), this);
+					return;
+				}
+				break;
+			case QUIT:
+				if (argumentCount == 0) {
+					goClientHandlerActor.endAbortedGame();
+					return;
+				}
+				break;
+			case EXIT:
+				if (argumentCount == 0) {
+					goClientHandlerActor.endConnection();
+					return;
+				}
+				break;
+			case OBSERVE:
+				if (argumentCount == 1) {
+					goClientHandlerActor.observe(command.getArgument(0));
+					return;
+				} else if (argumentCount == 0) {
+					goClientHandlerActor.stopObserving();
+					return;
+				}
+				break;
+			default:
+				break;
+		}
+		sendCommand(CommandType.ERROR, Server.UNKNOWN, "Command not known by Go server");
+	}
+	
+	/**
+	 * Handle the end of the stream from the GoClient by ending the game,
+	 * changing the GoClientState to UNCONNECTED and removing the client handler 
+	 * from the GoServer.
+	 */
+	protected void handleDisconnect() {
+		goClientHandlerActor.endAbortedGame();
+		setGoClientState(GoClientState.UNCONNECTED);
+		goServer.removeGoClientHandler(this);
+	}
+	
+	/**
+	 * Whether the messages are sent and received as binary frames.
+	 * @return
+	 * 			True if the binary framing is used and false otherwise.
+	 */
+	protected boolean isBinary() {
+		return isBinary;
+	}
+	
+	@Override
+	public void sendCommand(CommandType type, String... arguments) {
+		encoderLock.lock();
+		try {
+			encoder.setBinary(isBinary);
+			int length = encoder.encode(type, arguments);
+			write(encoder.getBuffer(), length);
+		} finally {
+			encoderLock.unlock();
+		}
+	}
+	
+	@Override
+	public void sendEncodedCommand(EncodedCommand command) {
+		encoderLock.lock();
+		try {
+			write(command.getBuffer(isBinary));
+		} finally {
+			encoderLock.unlock();
+		}
+	}
+	
+	/**
+	 * Write an encoded command to the GoClient. 
+	 * Called with the encoder locked, so the commands are written in the order 
+	 * in which they are encoded. The bytes are only valid during the call.
+	 * @param bytes
+	 * 			The bytes of the command.
+	 * @param length
+	 * 			The amount of bytes.
+	 */
+	protected abstract void write(byte[] bytes, int length);
+	
+	/**
+	 * Write a command that is shared with other recipients to the GoClient.
+	 * Called with the encoder locked, like write.
+	 * @param buffer
+	 * 			The read-only view of the bytes of the command, only used by this GoClientHandler.
+	 */
+	protected abstract void write(ByteBuffer buffer);
+	
+	@Override
+	public void setGoClientState(GoClientState goClientState) {
+		this.goClientState = goClientState;
+		goServer.getGoClientRegistry().updateGoClientState(this);
+		goServer.getGoClientStateEventBus().publish(this, goClientState);
+	}
+	
+	@Override
+	public GoClientState getGoClientState() {
+		return goClientState;
+	}
+	
+	@Override
+	public void run() {
+		readMessage();
+		
+	}
+
+	@Override
+	public void setOpponent(GoClientHandler opponent) {
+		this.opponent = opponent;
+	}
+	
+	@Override
+	public String getGoClientName() {
+		return goClientName;
+	}
+
+	@Override
+	public String getStoneColor() {
+		return stoneColor;
+	}
+
+	@Override
+	public String getBoardSize() {
+		return boardSize;
+	}
+	
+	@Override
+	public void setBoardSize(String boardSize) {
+		this.boardSize = boardSize;
+		try {
+			moveBoardSize = Board.getValidSize(Integer.parseInt(boardSize));
+		} catch (NumberFormatException e) {
+			moveBoardSize = 0;
+		}
+	}
+	
+	@Override
+	public int getRequestedBoardSize() {
+		return requestedBoardSize;
+	}
+	
+	@Override
+	public String getRequestedOpponent() {
+		return requestedOpponent;
+	}
+	
+	@Override
+	public GoClientHandlerActor getGoClientHandlerActor() {
+		return goClientHandlerActor;
+	}
+	
+	@Override
+	public GoServer getGoServer() {
+		return goServer;
+	}
+
+}
@@ -1,6 +1,8 @@
 package client.handler;
 
 import client.GoClientState;
+import protocol.CommandType;
+import protocol.EncodedCommand;
 import server.GoServer;
 
 /**
@@ -15,11 +17,27 @@ public interface GoClientHandler extends Runnable {
 	public void run();
 	
 	/**
-	 * Send provided message over socket to GoClient.
-	 * @param message
-	 * 			Message send.
+	 * Send the provided command over socket to GoClient.
+	 * @param type
+	 * 			The type of the command.
+	 * @param arguments
+	 * 			The arguments of the command.
 	 */
-	public void sendMessage(String message);
+	public void sendCommand(CommandType type, String... arguments);
+	
+	/**
+	 * Send the provided command, encoded once for all recipients, over socket to GoClient.
+	 * @param command
+	 * 			The encoded command.
+	 */
+	public void sendEncodedCommand(EncodedCommand command);
+	
+	/**
+	 * Return the amount of bytes sent to the GoClient that are not written to the socket yet.
+	 * @return
+	 * 			The amount of bytes.
+	 */
+	public int getPendingBytes();
 	
 	/**
 	 * Read message over socket from GoClient.
@@ -33,6 +51,13 @@ public interface GoClientHandler extends Runnable {
 	 */
 	public void setGoClientState(GoClientState goClientState);
 	
+	/**
+	 * Return the GoClientState.
+	 * @return
+	 * 			The goClientState.
+	 */
+	public GoClientState getGoClientState();
+	
 	/**
 	 * Set the opponent in the game.
 	 * @param opponent
@@ -67,6 +92,20 @@ public interface GoClientHandler extends Runnable {
 	 * 			The board size.
 	 */
 	public void setBoardSize(String boardSize); 
+	
+	/**
+	 * Return the board size the GoClient asked for when it requested a game.
+	 * @return
+	 * 			The board size, or 0 if any board size is fine.
+	 */
+	public int getRequestedBoardSize();
+	
+	/**
+	 * Return the name of the GoClient asked for as opponent when the GoClient requested a game.
+	 * @return
+	 * 			The name, or null if the GoClient asked for a RANDOM opponent.
+	 */
+	public String getRequestedOpponent();
 
 	/**
 	 * Get the GoClientHandlerActor of the GoClientHandler.
@@ -2,6 +2,7 @@ package client.handler;
 
 import client.GoClientState;
 import game.Game;
+import protocol.Command;
 
 /**
  * Handle the actions required after input received from the GoClient.
@@ -11,12 +12,12 @@ public interface GoClientHandlerActor {
 
 	/**
 	 * Send information of itself to the client.
-	 * @param words
-	 * 			Decomposed received message.
+	 * @param command
+	 * 			The NAME command received.
 	 * @param name
 	 * 			The name of the GoServer.
 	 */
-	public void confirmConnection(String[] words, String name);
+	public void confirmConnection(Command command, String name);
 
 	/**
 	 * Set the GoClientState to the provided GoClientState.
@@ -33,6 +34,8 @@ public interface GoClientHandlerActor {
 	
 	/**
 	 * Notify the other client of the choice made by the client on game settings.
+	 * The client gets an ERROR instead if it has no opponent or if the board size differs
+	 * from the board size it was sent with START.
 	 * @param opponent
 	 * 			The opponent GoClientHandler. 
 	 * @param stoneColor
@@ -53,11 +56,11 @@ public interface GoClientHandlerActor {
 	/**
 	 * Confirm the move made by the player.
 	 * @param move
-	 * 			The move made.
+	 * 			The index of the move made as parsed by MoveCodec, MoveCodec.PASS for a pass.
 	 * @param goClientHandler
 	 * 			The GoClientHandler.
 	 */
-	public void confirmMove(String move, GoClientHandler goClientHandler);
+	public void confirmMove(int move, GoClientHandler goClientHandler);
 	
 	/**
 	 * Set the game of the GoClientHandlerActor to the provided Game.
@@ -66,6 +69,26 @@ public interface GoClientHandlerActor {
 	 */
 	public void setGame(Game game);
 	
+	/**
+	 * Return the game the GoClient plays or played last.
+	 * @return
+	 * 			The game, or null if the GoClient did not play a game.
+	 */
+	public Game getGame();
+	
+	/**
+	 * Let the GoClient watch the game the provided player plays, instead of the game
+	 * it watched before.
+	 * @param playerName
+	 * 			The name of the player.
+	 */
+	public void observe(String playerName);
+	
+	/**
+	 * Stop watching the game the GoClient watches, if any.
+	 */
+	public void stopObserving();
+	
 	/** 
 	 * End the game if one of the GoClients aborted the game.
 	 */
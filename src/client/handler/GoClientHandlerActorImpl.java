@@ -3,6 +3,10 @@ package client.handler;
 import client.GoClientState;
 import game.Game;
 import game.GoClientStateListener;
+import game.matchmaking.BoardSizePairingPolicy;
+import protocol.BinaryProtocol;
+import protocol.Command;
+import protocol.CommandType;
 import protocol.Protocol.General;
 import protocol.Protocol.Server;
 
@@ -24,6 +28,9 @@ public class GoClientHandlerActorImpl implements GoClientHandlerActor {
 	/** The game. */
 	private Game game;
 	
+	/** The game the GoClient watches, or null if it does not watch a game. */
+	private Game observedGame;
+	
 	/** Whether the name of the GoClient is valid. */
 	private boolean isNameValid;
 	
@@ -41,30 +48,32 @@ public class GoClientHandlerActorImpl implements GoClientHandlerActor {
 	}
 
 	@Override
-	public void confirmConnection(String[] words, String name) {
-		goClientName = words[1];
+	public void confirmConnection(Command command, String name) {
+		goClientName = command.getArgument(0);
 		isNameValid = goClientHandler.getGoServer().addGoClientHandler(goClientHandler);
 		if (isNameValid) {
 			System.out.println("GO SERVER: Client " + goClientName.toUpperCase() + " connected");
-			goClientHandler.sendMessage(Server.NAME + General.DELIMITER1 + name + 
-					General.DELIMITER1 + Server.VERSION + General.DELIMITER1 + Server.VERSIONNO + 
-					General.DELIMITER1 + Server.EXTENSIONS + General.DELIMITER1 + 0 + 
-					General.DELIMITER1 + 0 + General.DELIMITER1 + 0 + General.DELIMITER1 + 
-					0 + General.DELIMITER1 + 0 + General.DELIMITER1 + 0 + 
-					General.DELIMITER1 + 0 + General.COMMAND_END);
+			if (BinaryProtocol.hasBinaryFlag(command)) {
+				goClientHandler.sendCommand(CommandType.NAME, name, Server.VERSION, 
+						Integer.toString(Server.VERSIONNO), Server.EXTENSIONS, 
+						"0", "0", "0", "0", "0", "0", "0", 
+						BinaryProtocol.isRequested(command) ? "1" : "0");
+			} else {
+				goClientHandler.sendCommand(CommandType.NAME, name, Server.VERSION, 
+						Integer.toString(Server.VERSIONNO), Server.EXTENSIONS, 
+						"0", "0", "0", "0", "0", "0", "0");
+			}
 			setGoClientState(GoClientState.CONNECTED);
 			System.out.println("GO SERVER: Waiting for clients to connect...");
 		} else {
-			goClientHandler.sendMessage(Server.ERROR + General.DELIMITER1 + Server.NAMETAKEN + 
-					General.DELIMITER1 + "The name " + goClientName + 
-					" is already taken" + General.COMMAND_END);
+			goClientHandler.sendCommand(CommandType.ERROR, Server.NAMETAKEN, 
+					"The name " + goClientName + " is already taken");
 		}
 	}
 	
 	@Override
 	public void setGoClientState(GoClientState goClientState) {
 		goClientHandler.setGoClientState(goClientState);
-		gameManager.goClientStateChanged(goClientHandler, goClientState);
 	}
 	
 	@Override
@@ -76,32 +85,33 @@ public class GoClientHandlerActorImpl implements GoClientHandlerActor {
 	@Override
 	public void notifyOtherClientOfGameSettings(GoClientHandler opponent, String stoneColor, 
 			String boardSize) {
-		if (stoneColor.equals(General.WHITE)) {
+		int agreedBoardSize = opponent == null ? 0 : BoardSizePairingPolicy.getStartBoardSize(
+				goClientHandler.getRequestedBoardSize(), opponent.getRequestedBoardSize());
+		if (opponent == null) {
+			goClientHandler.sendCommand(CommandType.ERROR, Server.OTHER, 
+					"There is no opponent to send the settings to");
+		} else if (agreedBoardSize != 0 && 
+				!boardSize.equals(Integer.toString(agreedBoardSize))) {
+			goClientHandler.sendCommand(CommandType.ERROR, Server.OTHER, 
+					"The board size should be " + agreedBoardSize);
+		} else if (stoneColor.equals(General.WHITE)) {
 			System.out.println("GO SERVER: " + opponent.getGoClientName().toUpperCase() + 
 					" plays with BLACK stones and " + goClientName.toUpperCase() + 
 					" plays with WHITE stones");
-			opponent.sendMessage(Server.START + General.DELIMITER1 + 2 + General.DELIMITER1 + 
-					General.BLACK + General.DELIMITER1 + boardSize + General.DELIMITER1 + 
-					goClientName + General.DELIMITER1 + opponent.getGoClientName() + 
-					General.COMMAND_END);
-			goClientHandler.sendMessage(Server.START + General.DELIMITER1 + 2 + 
-					General.DELIMITER1 + General.WHITE + General.DELIMITER1 + boardSize + 
-					General.DELIMITER1 + goClientName + General.DELIMITER1 + 
-					opponent.getGoClientName() + General.COMMAND_END);
+			opponent.sendCommand(CommandType.START, "2", General.BLACK, boardSize, 
+					goClientName, opponent.getGoClientName());
+			goClientHandler.sendCommand(CommandType.START, "2", General.WHITE, boardSize, 
+					goClientName, opponent.getGoClientName());
 			opponent.setBoardSize(boardSize);
 			gameManager.startGame(opponent, goClientHandler);
 		} else if (stoneColor.equals(General.BLACK)) {
 			System.out.println("GO SERVER: " + goClientName.toUpperCase()  + 
 					" plays with BLACK stones and " + 
 					opponent.getGoClientName().toUpperCase() + " plays with WHITE stones");
-			opponent.sendMessage(Server.START + General.DELIMITER1 + 2 + General.DELIMITER1 + 
-					General.WHITE + General.DELIMITER1 + boardSize + General.DELIMITER1 + 
-					goClientName + General.DELIMITER1 + opponent.getGoClientName() + 
-					General.COMMAND_END);
-			goClientHandler.sendMessage(Server.START + General.DELIMITER1 + 2 + 
-					General.DELIMITER1 + General.BLACK + General.DELIMITER1 + boardSize + 
-					General.DELIMITER1 + goClientName + General.DELIMITER1 + 
-					opponent.getGoClientName() + General.COMMAND_END);
+			opponent.sendCommand(CommandType.START, "2", General.WHITE, boardSize, 
+					goClientName, opponent.getGoClientName());
+			goClientHandler.sendCommand(CommandType.START, "2", General.BLACK, boardSize, 
+					goClientName, opponent.getGoClientName());
 			opponent.setBoardSize(boardSize);
 			gameManager.startGame(goClientHandler, opponent);
 		}
@@ -113,17 +123,49 @@ public class GoClientHandlerActorImpl implements GoClientHandlerActor {
 	}
 	
 	@Override
-	public void confirmMove(String move, GoClientHandler aGoClientHandler) {
-		game.confirmMove(move, aGoClientHandler);
-		
+	public void confirmMove(int move, GoClientHandler aGoClientHandler) {
+		if (game == null) {
+			goClientHandler.sendCommand(CommandType.ERROR, Server.OTHER, 
+					"There is no game to make the move in");
+		} else {
+			game.confirmMove(move, aGoClientHandler);
+		}
 	}
 	
 	public void setGame(Game game) {
 		this.game = game;
 	}
 
+	@Override
+	public void observe(String playerName) {
+		GoClientHandler player = goClientHandler.getGoServer().getGoClientHandler(playerName);
+		if (player == null || player.getGoClientState() != GoClientState.PLAYING_GAME || 
+				player.getGoClientHandlerActor().getGame() == null) {
+			goClientHandler.sendCommand(CommandType.ERROR, Server.OTHER, 
+					playerName + " does not play a game");
+			return;
+		}
+		stopObserving();
+		observedGame = player.getGoClientHandlerActor().getGame();
+		observedGame.addSpectator(goClientHandler);
+	}
+	
+	@Override
+	public void stopObserving() {
+		if (observedGame != null) {
+			observedGame.removeSpectator(goClientHandler);
+			observedGame = null;
+		}
+	}
+	
+	@Override
+	public Game getGame() {
+		return game;
+	}
+
 	@Override
 	public void endAbortedGame() {
+		stopObserving();
 		if (game != null) {
 			game.endAbortedGame(goClientHandler);
 		}
@@ -131,6 +173,7 @@ public class GoClientHandlerActorImpl implements GoClientHandlerActor {
 	
 	@Override
 	public void endConnection() {
+		stopObserving();
 		if (game != null) {
 			game.endGameExit(goClientHandler);
 		}
@@ -1,64 +1,41 @@
 package client.handler;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.net.Socket;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
-import client.GoClientState;
 import game.GoClientStateListener;
-import protocol.Protocol.Client;
+import protocol.CoalescingWriter;
 import protocol.Protocol.General;
-import protocol.Protocol.Server;
 import server.GoServer;
 
 /**
- * A client handler for the communication between the server and the clients.
+ * A client handler for the communication between the server and the clients
+ * that blocks a thread on reading the socket.
  * @author janine.kleinrot
  */
-public class GoClientHandlerImpl implements GoClientHandler {
+public class GoClientHandlerImpl extends AbstractGoClientHandler {
 	
-	/** The Go server. */
-	private GoServer goServer;
+	/** Stream to read from input stream. */
+	private DataInputStream in;
 	
-	/** Reader to read from input stream. */
-	private BufferedReader in;
+	/** The outbound queue that writes the pending commands to the output stream together. */
+	private CoalescingWriter out;
 	
-	/** Writer to write to output stream. */
-	private BufferedWriter out;
+	/** The initial size of the buffer of a line or frame. */
+	private static final int LINE_BUFFER_SIZE = 128;
 	
-	/** The name of the server. */
-	private String name;
-	
-	/** The actor of the client. */
-	private GoClientHandlerActor goClientHandlerActor;
-	
-	/** The GoClientState. */
-	private GoClientState goClientState;
-	
-	/** The opponent. */
-	private GoClientHandler opponent;
-	
-	/** The name of the GoClient. */
-	private String goClientName;
-	
-	/** The stone color of the GoClient. */
-	private String stoneColor;
-	
-	/** The board size. */
-	private String boardSize;
-	
-	/** Lock for Bart. */
-	private Lock lock;
+	/** The bytes of the line or frame read last. */
+	private byte[] line;
 	
 	/**
 	 * Creates a new client handler.
 	 * Initializes the actor.
-	 * Initializes the GoClientState to UNCONNECTED and add GoClientStateListener.
+	 * Initializes the GoClientState to UNCONNECTED.
 	 * @param socket
 	 * 			The socket of the client.
 	 * @param gameManager
@@ -68,113 +45,104 @@ public class GoClientHandlerImpl implements GoClientHandler {
 	 */
 	public GoClientHandlerImpl(Socket socket, GoClientStateListener gameManager, 
 			GoServer goServer) {
-		this.goServer = goServer;
-		this.name = "Go Server";
-		goClientHandlerActor = new GoClientHandlerActorImpl(this, gameManager);
-		goClientState = GoClientState.UNCONNECTED;
-		goClientState.addGoClientStateListener(gameManager);
-		lock = new ReentrantLock();
+		super(gameManager, goServer);
+		line = new byte[LINE_BUFFER_SIZE];
 		try {
-			in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-			out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+			in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			out = new CoalescingWriter(socket.getOutputStream(), goServer.getFlushLatency(), 
+					goServer.getFlushScheduler());
 		} catch (IOException e) {
 			System.out.println("ERROR: Could not create GoClientHandler");
 		}
 	}
 	
 	@Override
-	public void sendMessage(String message) {
+	protected void write(byte[] bytes, int length) {
 		try {
-			out.write(message);
-			out.flush();
+			out.write(bytes, length);
 		} catch (IOException e) {
 			System.out.println("ERROR: Connection lost with Go server");
 		}
 	}
 	
 	@Override
-	public void readMessage() {
-		String message = "";
+	protected void write(ByteBuffer buffer) {
 		try {
-			while ((message = in.readLine()) != null) {
-				String[] words = message.split("\\" + General.DELIMITER1);
-				if (words.length == 12 && words[0].equals(Client.NAME)) {
-					lock.lock();
-					goClientName = words[1];
-					goClientHandlerActor.confirmConnection(words, name);
-					lock.unlock();
-				} else if (words.length == 3 && words[0].equals(Client.REQUESTGAME)) {
-					lock.lock();
-					goClientHandlerActor.handleGameRequest();
-					lock.unlock();
-				} else if (words.length == 3 && words[0].equals(Client.SETTINGS)) {
-					stoneColor = words[1];
-					boardSize = words[2];
-					goClientHandlerActor.notifyOtherClientOfGameSettings(opponent, words[1], 
-							words[2]);
-				} else if (words.length == 2 && words[0].equals(Client.MOVE)) {
-					goClientHandlerActor.confirmMove(words[1], this);
-				} else if (words.length == 1 && words[0].equals(Client.QUIT)) {
-					goClientHandlerActor.endAbortedGame();
-				} else if (words.length == 1 && words[0].equals(Client.EXIT)) {
-					goClientHandlerActor.endConnection();
-				} else {
-					sendMessage(Server.ERROR + General.DELIMITER1 + Server.UNKNOWN + 
-							General.DELIMITER1 + "Command not known by Go server" + 
-							General.COMMAND_END);
-				}
-			}
-			goClientHandlerActor.endAbortedGame();
-			goServer.removeGoClientHandler(this);
+			out.write(buffer);
 		} catch (IOException e) {
 			System.out.println("ERROR: Connection lost with Go server");
 		}
 	}
 	
 	@Override
-	public void setGoClientState(GoClientState goClientState) {
-		this.goClientState = goClientState;
-	}
-	
-	@Override
-	public void run() {
-		readMessage();
-		
-	}
-
-	@Override
-	public void setOpponent(GoClientHandler opponent) {
-		this.opponent = opponent;
-	}
-	
-	@Override
-	public String getGoClientName() {
-		return goClientName;
-	}
-
-	@Override
-	public String getStoneColor() {
-		return stoneColor;
-	}
-
-	@Override
-	public String getBoardSize() {
-		return boardSize;
+	public int getPendingBytes() {
+		return out.getPendingLength();
 	}
 	
+	/**
+	 * Read lines until the GoClient switches to binary frames, and frames afterwards.
+	 * The disconnect is handled both at the end of the stream and when the connection 
+	 * is lost.
+	 */
 	@Override
-	public void setBoardSize(String boardSize) {
-		this.boardSize = boardSize;
+	public void readMessage() {
+		try {
+			while (true) {
+				if (isBinary()) {
+					int length;
+					try {
+						length = in.readUnsignedShort();
+					} catch (EOFException e) {
+						break;
+					}
+					ensureCapacity(length);
+					in.readFully(line, 0, length);
+					handleFrame(line, length);
+				} else {
+					int length = readLine();
+					if (length == -1) {
+						break;
+					}
+					handleLine(line, length);
+				}
+			}
+		} catch (IOException e) {
+			System.out.println("ERROR: Connection lost with Go server");
+		} finally {
+			handleDisconnect();
+		}
 	}
 	
-	@Override
-	public GoClientHandlerActor getGoClientHandlerActor() {
-		return goClientHandlerActor;
+	/**
+	 * Read a line into the line buffer.
+	 * @return
+	 * 			The length of the line without the command end, or -1 at the end of the stream.
+	 * @throws IOException
+	 * 			If the socket can not be read.
+	 */
+	private int readLine() throws IOException {
+		int length = 0;
+		int b;
+		while ((b = in.read()) != General.COMMAND_END.charAt(0)) {
+			if (b == -1) {
+				return length == 0 ? -1 : length;
+			}
+			ensureCapacity(length + 1);
+			line[length] = (byte) b;
+			length++;
+		}
+		return length > 0 && line[length - 1] == '\r' ? length - 1 : length;
 	}
 	
-	@Override
-	public GoServer getGoServer() {
-		return goServer;
+	/**
+	 * Grow the line buffer to at least the provided capacity.
+	 * @param capacity
+	 * 			The capacity.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (line.length < capacity) {
+			line = Arrays.copyOf(line, Math.max(capacity, line.length * 2));
+		}
 	}
 
 }
@@ -0,0 +1,201 @@
+package client.handler.test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import client.GoClientState;
+import client.handler.AbstractGoClientHandler;
+import client.handler.GoClientHandler;
+import game.Game;
+import protocol.MoveCodec;
+import server.GoServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for the handling of the commands of AbstractGoClientHandler.
+ * @author janine.kleinrot
+ */
+public class AbstractGoClientHandlerTest {
+
+	/** Test variable for the moves confirmed to the game. */
+	private List<Integer> moves;
+
+	/** Test variable for the GoServer of the client handlers, which is not started. */
+	private GoServer goServer;
+
+	/** Test variable for an AbstractGoClientHandler object that is not connected. */
+	private LineGoClientHandler goClientHandler;
+
+	/**
+	 * Create a client handler whose moves are confirmed to a game that records them.
+	 */
+	@Before
+	public void setUp() {
+		moves = new ArrayList<Integer>();
+		goServer = new GoServer("0");
+		goClientHandler = new LineGoClientHandler(goServer);
+		goClientHandler.getGoClientHandlerActor().setGame(new RecordingGame());
+	}
+
+	/**
+	 * Shut down the GameManager of the server.
+	 */
+	@After
+	public void tearDown() {
+		goServer.shutdown();
+	}
+
+	/**
+	 * Test that a NAME after the GoClient is connected is answered with an error and does
+	 * not add the client handler under a second name, so the first name is free again after
+	 * the GoClient disconnects.
+	 */
+	@Test
+	public void testSecondName() {
+		goClientHandler.receive("NAME$alice$VERSION$6$EXTENSIONS$0$0$0$0$0$0$0");
+		assertEquals(GoClientState.CONNECTED, goClientHandler.getGoClientState());
+		goClientHandler.receive("NAME$bob$VERSION$6$EXTENSIONS$0$0$0$0$0$0$0");
+		assertTrue(goClientHandler.getLastLine().startsWith("ERROR$OTHER$"));
+		assertEquals("alice", goClientHandler.getGoClientName());
+		assertNull(goServer.getGoClientHandler("bob"));
+		assertEquals(1, goServer.getGoClientRegistry().size());
+		goClientHandler.disconnect();
+		assertEquals(0, goServer.getGoClientRegistry().size());
+		assertEquals(0, goServer.getGoClientRegistry().getCount(GoClientState.CONNECTED));
+		LineGoClientHandler otherGoClientHandler = new LineGoClientHandler(goServer);
+		otherGoClientHandler.receive("NAME$alice$VERSION$6$EXTENSIONS$0$0$0$0$0$0$0");
+		assertSame(otherGoClientHandler, goServer.getGoClientHandler("alice"));
+	}
+
+	/**
+	 * Test that the moves are parsed with the size the board of the game gets,
+	 * also if the settings asked for a size outside 5 to 19.
+	 */
+	@Test
+	public void testMoveWithBoardSizeOutsideLimits() {
+		goClientHandler.receive("SETTINGS$BLACK$25");
+		goClientHandler.receive("MOVE$1_0");
+		goClientHandler.receive("MOVE$18_18");
+		goClientHandler.receive("MOVE$19_0");
+		goClientHandler.setBoardSize("3");
+		goClientHandler.receive("MOVE$4_4");
+		goClientHandler.receive("MOVE$PASS");
+		assertEquals(5, moves.size());
+		assertEquals(1 * 19 + 0, (int) moves.get(0));
+		assertEquals(18 * 19 + 18, (int) moves.get(1));
+		assertEquals(MoveCodec.NOT_ON_BOARD, (int) moves.get(2));
+		assertEquals(4 * 5 + 4, (int) moves.get(3));
+		assertEquals(MoveCodec.PASS, (int) moves.get(4));
+	}
+
+	/**
+	 * A client handler that is handed its lines directly and keeps the last line it writes.
+	 */
+	private static class LineGoClientHandler extends AbstractGoClientHandler {
+
+		/** The last line written, without the command end. */
+		private String lastLine;
+
+		/**
+		 * Create a client handler of the provided GoServer without a game manager.
+		 * @param goServer
+		 * 			The GoServer.
+		 */
+		public LineGoClientHandler(GoServer goServer) {
+			super(null, goServer);
+		}
+
+		/**
+		 * Return the last line written.
+		 * @return
+		 * 			The line, without the command end.
+		 */
+		public String getLastLine() {
+			return lastLine;
+		}
+
+		/**
+		 * Handle the end of the stream as if the GoClient disconnected.
+		 */
+		public void disconnect() {
+			handleDisconnect();
+		}
+
+		/**
+		 * Handle the provided line as if it was read from the GoClient.
+		 * @param line
+		 * 			The line.
+		 */
+		public void receive(String line) {
+			byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+			handleLine(bytes, bytes.length);
+		}
+
+		@Override
+		public int getPendingBytes() {
+			return 0;
+		}
+
+		@Override
+		public void readMessage() {
+		}
+
+		@Override
+		protected void write(byte[] bytes, int length) {
+			lastLine = new String(bytes, 0, length, StandardCharsets.UTF_8).trim();
+		}
+
+		@Override
+		protected void write(ByteBuffer buffer) {
+		}
+
+	}
+
+	/**
+	 * A game that records the moves confirmed to it.
+	 */
+	private class RecordingGame implements Game {
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void confirmMove(int moveMade, GoClientHandler goClientHandler) {
+			moves.add(moveMade);
+		}
+
+		@Override
+		public List<GoClientHandler> getGoClientHandlers() {
+			return new ArrayList<GoClientHandler>();
+		}
+
+		@Override
+		public void addSpectator(GoClientHandler goClientHandler) {
+		}
+
+		@Override
+		public void removeSpectator(GoClientHandler goClientHandler) {
+		}
+
+		@Override
+		public void endAbortedGame(GoClientHandler goClientHandler) {
+		}
+
+		@Override
+		public void endGameExit(GoClientHandler goClientHandler) {
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+package client.handler.test;
+
+import client.GoClientState;
+import client.handler.GoClientHandler;
+import client.handler.GoClientHandlerActor;
+import protocol.CommandType;
+import protocol.EncodedCommand;
+import server.GoServer;
+
+/**
+ * A GoClientHandler without connection with a name and a GoClientState, shared by the
+ * tests that only need a GoClientHandler to hand to the class they test. The commands
+ * sent are dropped and the GoClientState is changed without notifying anyone.
+ * A test that needs more overrides the methods it uses.
+ * @author janine.kleinrot
+ */
+public class GoClientHandlerStub implements GoClientHandler {
+
+	/** The name of the GoClient. */
+	private String goClientName;
+
+	/** The GoClientState. */
+	private volatile GoClientState goClientState;
+
+	/**
+	 * Create a new GoClientHandlerStub.
+	 * @param goClientName
+	 * 			The name of the GoClient.
+	 * @param goClientState
+	 * 			The GoClientState.
+	 */
+	public GoClientHandlerStub(String goClientName, GoClientState goClientState) {
+		this.goClientName = goClientName;
+		this.goClientState = goClientState;
+	}
+
+	@Override
+	public void run() {
+	}
+
+	@Override
+	public void sendCommand(CommandType type, String... arguments) {
+	}
+
+	@Override
+	public void sendEncodedCommand(EncodedCommand command) {
+	}
+
+	@Override
+	public int getPendingBytes() {
+		return 0;
+	}
+
+	@Override
+	public void readMessage() {
+	}
+
+	@Override
+	public void setGoClientState(GoClientState goClientState) {
+		this.goClientState = goClientState;
+	}
+
+	@Override
+	public GoClientState getGoClientState() {
+		return goClientState;
+	}
+
+	@Override
+	public void setOpponent(GoClientHandler opponent) {
+	}
+
+	@Override
+	public String getGoClientName() {
+		return goClientName;
+	}
+
+	@Override
+	public String getStoneColor() {
+		return null;
+	}
+
+	@Override
+	public String getBoardSize() {
+		return null;
+	}
+
+	@Override
+	public void setBoardSize(String boardSize) {
+	}
+
+	@Override
+	public int getRequestedBoardSize() {
+		return 0;
+	}
+
+	@Override
+	public String getRequestedOpponent() {
+		return null;
+	}
+
+	@Override
+	public GoClientHandlerActor getGoClientHandlerActor() {
+		return null;
+	}
+
+	@Override
+	public GoServer getGoServer() {
+		return null;
+	}
+
+}
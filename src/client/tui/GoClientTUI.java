@@ -226,6 +226,8 @@ public class GoClientTUI implements Observer, Runnable {
 			System.out.println(name.toUpperCase() + stoneColor + ": Waiting on move...");
 		} else if (((String) object).contains("draw")) {
 			System.out.println(name.toUpperCase() + ": " + object);
+		} else if (((String) object).contains("playouts per second")) {
+			System.out.println(name.toUpperCase() + stoneColor + ": " + object);
 		} else if (object.equals("Move made")) {
 			System.out.println(name.toUpperCase() + stoneColor + ": The move is made");
 			System.out.println(name.toUpperCase() + stoneColor + ": Waiting on opponent...");
@@ -0,0 +1,32 @@
+package game;
+
+import java.util.concurrent.CompletableFuture;
+
+import game.board.Board;
+
+/**
+ * Estimate which stones are dead at the end of a game, so they are removed before the board
+ * is scored and the players do not have to capture them before passing.
+ * @author janine.kleinrot
+ */
+public interface DeadStoneEstimator {
+
+	/**
+	 * Return which stones on the board are dead.
+	 * @param board
+	 * 			The board, which is not changed.
+	 * @return
+	 * 			Whether the stone at each intersection is dead, where the intersection 
+	 * 			at x and y has index x * size + y.
+	 */
+	public boolean[] getDeadStones(Board board);
+
+	/**
+	 * Estimate which stones on a copy of the board are dead without blocking the caller.
+	 * @param board
+	 * 			The board, which is copied before the call returns.
+	 * @return
+	 * 			The future that completes with whether the stone at each intersection is dead.
+	 */
+	public CompletableFuture<boolean[]> estimateDeadStones(Board board);
+}
@@ -0,0 +1,186 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import game.board.Board;
+import game.board.BoardState;
+import game.board.NeighborTable;
+import game.board.OwnershipMap;
+import game.board.stone.StoneColor;
+import game.player.ai.Playout;
+
+/**
+ * Estimate the dead stones with Benson's unconditional life and Monte Carlo ownership.
+ * Every thread of the ForkJoinPool finishes the game on its own board copy with light random
+ * playouts, which never fill an own eye, and counts after every playout which color owns
+ * each intersection. A chain is dead if the other color owns its intersections more often
+ * than its own color. Chains that are unconditionally alive are never dead and stones in an
+ * unconditionally alive area of the other color are always dead, whatever the playouts say.
+ * @author janine.kleinrot
+ */
+public class DeadStoneEstimatorImpl implements DeadStoneEstimator {
+
+	/** The default amount of playouts of an estimate. */
+	public static final int DEFAULT_PLAYOUTS = 256;
+
+	/** The pool that runs the playouts. */
+	private ForkJoinPool pool;
+
+	/** The amount of playouts of an estimate. */
+	private int playouts;
+
+	/** The random number generator split for every thread. */
+	private SplittableRandom random;
+
+	/**
+	 * Create a new DeadStoneEstimatorImpl that runs the default amount of playouts
+	 * on the threads of the provided pool.
+	 * @param pool
+	 * 			The pool that runs the playouts.
+	 */
+	public DeadStoneEstimatorImpl(ForkJoinPool pool) {
+		this(pool, DEFAULT_PLAYOUTS, new SplittableRandom());
+	}
+
+	/**
+	 * Create a new DeadStoneEstimatorImpl that runs the provided amount of playouts
+	 * on the threads of the provided pool.
+	 * @param pool
+	 * 			The pool that runs the playouts.
+	 * @param playouts
+	 * 			The amount of playouts of an estimate.
+	 * @param random
+	 * 			The random number generator split for every thread.
+	 */
+	public DeadStoneEstimatorImpl(ForkJoinPool pool, int playouts, SplittableRandom random) {
+		this.pool = pool;
+		this.playouts = playouts;
+		this.random = random;
+	}
+
+	@Override
+	public boolean[] getDeadStones(Board board) {
+		BoardState boardState = board.getBoardState();
+		int size = board.getSize();
+		int[] neighbors = NeighborTable.get(size);
+		UnconditionalLife unconditionalLife = new UnconditionalLife(boardState);
+		int[] ownership = sampleOwnership(board);
+		boolean[] deadStones = new boolean[size * size];
+		boolean[] isVisited = new boolean[size * size];
+		int[] chain = new int[size * size];
+		for (int start = 0; start < size * size; start++) {
+			StoneColor color = boardState.getStoneColor(start);
+			if (color != null && !isVisited[start]) {
+				isVisited[start] = true;
+				chain[0] = start;
+				int chainSize = 1;
+				int chainOwnership = 0;
+				for (int next = 0; next < chainSize; next++) {
+					int index = chain[next];
+					chainOwnership = chainOwnership + ownership[index];
+					for (int i = index * 4; i < index * 4 + 4 &&
+							neighbors[i] != NeighborTable.SENTINEL; i++) {
+						int adjacentIndex = neighbors[i];
+						if (!isVisited[adjacentIndex] &&
+								boardState.getStoneColor(adjacentIndex) == color) {
+							isVisited[adjacentIndex] = true;
+							chain[chainSize] = adjacentIndex;
+							chainSize++;
+						}
+					}
+				}
+				boolean isOwnedByOther = color == StoneColor.BLACK ? chainOwnership < 0 :
+						chainOwnership > 0;
+				for (int i = 0; i < chainSize; i++) {
+					int index = chain[i];
+					deadStones[index] = unconditionalLife.isDead(index) ||
+							(isOwnedByOther && !unconditionalLife.isAlive(index));
+				}
+			}
+		}
+		return deadStones;
+	}
+
+	@Override
+	public CompletableFuture<boolean[]> estimateDeadStones(Board board) {
+		Board boardCopy = board.copy();
+		return CompletableFuture.supplyAsync(() -> getDeadStones(boardCopy), pool);
+	}
+
+	/**
+	 * Run the playouts on the threads of the pool and add up the ownership they count.
+	 * @param board
+	 * 			The board, which is not changed.
+	 * @return
+	 * 			For every intersection the amount of playouts in which black owned it
+	 * 			minus the amount of playouts in which white owned it.
+	 */
+	private int[] sampleOwnership(Board board) {
+		int threads = Math.max(1, Math.min(pool.getParallelism(), playouts));
+		List<ForkJoinTask<int[]>> tasks = new ArrayList<ForkJoinTask<int[]>>(threads);
+		for (int i = 0; i < threads; i++) {
+			Board playoutBoard = board.copy();
+			SplittableRandom playoutRandom;
+			synchronized (random) {
+				playoutRandom = random.split();
+			}
+			int threadPlayouts = playouts / threads + (i < playouts % threads ? 1 : 0);
+			tasks.add(pool.submit(() ->
+				sampleOwnership(playoutBoard, playoutRandom, threadPlayouts)));
+		}
+		int[] ownership = new int[board.getSize() * board.getSize()];
+		for (ForkJoinTask<int[]> task : tasks) {
+			int[] threadOwnership = task.join();
+			for (int index = 0; index < ownership.length; index++) {
+				ownership[index] = ownership[index] + threadOwnership[index];
+			}
+		}
+		return ownership;
+	}
+
+	/**
+	 * Run the provided amount of playouts on the board and count which color owns every
+	 * intersection at the end of each playout. The players take turns to move first.
+	 * @param board
+	 * 			The board copy, which is back in its situation afterwards.
+	 * @param playoutRandom
+	 * 			The random number generator of the playouts.
+	 * @param threadPlayouts
+	 * 			The amount of playouts.
+	 * @return
+	 * 			For every intersection the amount of playouts in which black owned it
+	 * 			minus the amount of playouts in which white owned it.
+	 */
+	private static int[] sampleOwnership(Board board, SplittableRandom playoutRandom,
+			int threadPlayouts) {
+		Playout playout = new Playout(playoutRandom, 0.0);
+		BoardState boardState = board.getBoardState();
+		OwnershipMap ownershipMap = board.getOwnershipMap();
+		int[] ownership = new int[board.getSize() * board.getSize()];
+		int startMoveCount = board.getMoveCount();
+		for (int i = 0; i < threadPlayouts; i++) {
+			playout.play(board, i % 2 == 0 ? StoneColor.BLACK : StoneColor.WHITE, false);
+			for (int index = 0; index < ownership.length; index++) {
+				StoneColor owner = boardState.getStoneColor(index);
+				if (owner == null) {
+					owner = ownershipMap.getOwner(index);
+				}
+				if (owner == StoneColor.BLACK) {
+					ownership[index]++;
+				} else if (owner == StoneColor.WHITE) {
+					ownership[index]--;
+				}
+			}
+			while (board.getMoveCount() > startMoveCount) {
+				board.undo();
+			}
+		}
+		return ownership;
+	}
+
+}
@@ -8,18 +8,22 @@ import client.handler.GoClientHandler;
  * A game of Go.
  * @author janine.kleinrot
  */
-public interface Game extends Runnable {
+public interface Game {
 
-	public void run();
+	/**
+	 * Start the game by asking the GoClient playing with black for the first move.
+	 */
+	public void start();
 	
 	/**
 	 * Confirm the move made by the GoClient.
+	 * The move is handled after the events of the game submitted before it.
 	 * @param moveMade
-	 * 			The move.
+	 * 			The index of the move as parsed by MoveCodec, MoveCodec.PASS for a pass.
 	 * @param goClientHandler
 	 * 			The GoClientHandler that made the move.
 	 */
-	public void confirmMove(String moveMade, GoClientHandler goClientHandler);
+	public void confirmMove(int moveMade, GoClientHandler goClientHandler);
 	
 	/**
 	 * Return the goClientHandlers currently in the game.
@@ -27,6 +31,22 @@ public interface Game extends Runnable {
 	 * 			A list of GoClientHandlers.
 	 */
 	public List<GoClientHandler> getGoClientHandlers();
+	
+	/**
+	 * Let the goClientHandler watch the game. It receives a snapshot of the game 
+	 * followed by the TURN and ENDGAME commands, without ever holding up the game.
+	 * If the game is over, it only receives the snapshot.
+	 * @param goClientHandler
+	 * 			The goClientHandler of the spectator.
+	 */
+	public void addSpectator(GoClientHandler goClientHandler);
+	
+	/**
+	 * Stop sending the commands of the game to the goClientHandler.
+	 * @param goClientHandler
+	 * 			The goClientHandler of the spectator.
+	 */
+	public void removeSpectator(GoClientHandler goClientHandler);
 
 	/**
 	 * End the game aborted by the goClientHandler.
@@ -2,17 +2,38 @@ package game;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import client.GoClientState;
 import client.handler.GoClientHandler;
 import game.board.Board;
+import game.board.BoardState;
 import game.board.stone.StoneColor;
+import game.timer.HashedWheelTimer;
+import game.timer.Timeout;
+import protocol.CommandType;
+import protocol.EncodedCommand;
+import protocol.MoveCodec;
+import protocol.SpectatorProtocol;
 import protocol.Protocol.Client;
-import protocol.Protocol.General;
 import protocol.Protocol.Server;
 
 /**
  * A game of Go.
+ * The moves and the other events of the game are queued in the mailbox of the game
+ * and handled one at a time by a thread of the shared executor, so a game
+ * only uses a thread while it handles an event.
+ * The TURN and ENDGAME commands are encoded once and the same encoded command 
+ * is sent to every recipient of the game and offered to every spectator.
+ * Every turn starts a move clock on the shared timer, which is cancelled by the next
+ * valid move; if the clock runs out the player to move loses with ENDGAME TIMEOUT.
+ * When both players passed, the dead stones are estimated on the pool of the estimator
+ * and left out of the score by an event submitted when the estimate is done.
  * @author janine.kleinrot
  */
 public class GameImpl implements Game {
@@ -23,35 +44,41 @@ public class GameImpl implements Game {
 	/** The GoClientHandler communicating with the GoClient playing with white. */
 	private GoClientHandler secondGoClientHandler;
 	
-	/** The game manager. */
-	private GoClientStateListener gameManager;
+	/** The GoClientHandlers that receive the TURN and ENDGAME commands of the game. */
+	private List<GoClientHandler> recipients;
+	
+	/** The spectators of the game. Only used by the thread handling the events. */
+	private List<Spectator> spectators;
+	
+	/** The executor that sends the commands to the spectators. */
+	private Executor spectatorExecutor;
+	
+	/** The snapshot of the game after the last move, or null if it is not encoded yet. */
+	private EncodedCommand snapshot;
 	
 	/** The board. */
 	private Board board;
 	
-	/** The previous board situation. */ 
-	private Board previousBoard;
-	
-	/** The next board situation. */
-	private Board nextBoard;
+	/** The board situations that occurred in the game. */
+	private PositionHistory positionHistory;
 	
 	/** Whether the game is over. */
 	private boolean isGameOver;
 	
+	/** Whether the dead stones are estimated after both players passed. */
+	private boolean isScoring;
+	
 	/** The number of moves made in the game. */
 	private int numberOfMoves;
 	
-	/** Whether a move is made. */
-	private boolean isMoveMade;
-	
 	/** Whether the move is valid. */
 	private boolean isValidMove;
 	
 	/** The move represented as a string. */
 	private String move;
 	
-	/** The previous move represented as a string. */
-	private String previousMove;
+	/** The index of the previous move, MoveCodec.PASS if it was a pass. */
+	private int previousMove = MoveCodec.INVALID;
 	
 	/** The MoveChecker. */
 	private MoveChecker moveChecker;
@@ -68,182 +95,408 @@ public class GameImpl implements Game {
 	/**	The maximum amount of moves with white stones. */
 	private int maxWhiteStones;
 	
+	/** The executor that handles the events of the games. */
+	private Executor executor;
+	
+	/** The events of the game waiting to be handled. */
+	private Queue<Runnable> mailbox;
+	
+	/** Whether a thread of the executor is asked to handle the events in the mailbox. */
+	private AtomicBoolean isScheduled;
+	
+	/** The timer of the move clocks of the games. */
+	private HashedWheelTimer timer;
+	
+	/** The time in milliseconds a player has for a move, 0 if the moves are not timed. */
+	private long moveTimeout;
+	
+	/** The move clock of the player to move, or null if it is not running. */
+	private Timeout moveClock;
+	
+	/** The estimator of the dead stones that are removed when both players passed. */
+	private DeadStoneEstimator deadStoneEstimator;
+	
 	/**
 	 * Create a new Game.
 	 * @param firstGoClientHandler
 	 * 			The GoClientHandler communicating with the GoClient playing with black.
 	 * @param secondGoClientHandler
 	 * 			The GoClientHandler communicating with the GoClient playing with white.
-	 * @param gameManager
-	 * 			The gameManager.
+	 * @param koRule
+	 * 			The Ko rule of the game.
+	 * @param executor
+	 * 			The executor that handles the events of the game.
+	 * @param spectatorExecutor
+	 * 			The executor that sends the commands to the spectators.
+	 * @param timer
+	 * 			The timer of the move clocks.
+	 * @param moveTimeout
+	 * 			The time in milliseconds a player has for a move, 0 if the moves are not timed.
+	 * @param deadStoneEstimator
+	 * 			The estimator of the dead stones that are removed when both players passed.
 	 */
 	public GameImpl(GoClientHandler firstGoClientHandler, GoClientHandler secondGoClientHandler, 
-			GoClientStateListener gameManager) {
+			KoRule koRule, Executor executor, Executor spectatorExecutor, HashedWheelTimer timer, 
+			long moveTimeout, DeadStoneEstimator deadStoneEstimator) {
 		this.firstGoClientHandler = firstGoClientHandler;
 		this.secondGoClientHandler = secondGoClientHandler;
-		this.gameManager = gameManager;
+		recipients = new CopyOnWriteArrayList<GoClientHandler>();
+		recipients.add(firstGoClientHandler);
+		recipients.add(secondGoClientHandler);
+		spectators = new ArrayList<Spectator>();
+		this.spectatorExecutor = spectatorExecutor;
 		this.firstGoClientHandler.getGoClientHandlerActor().setGame(this);
 		this.secondGoClientHandler.getGoClientHandlerActor().setGame(this);
 		board = new Board(Integer.parseInt(firstGoClientHandler.getBoardSize()), false);
-		previousBoard = board.copy();
-		nextBoard = board.copy();
+		positionHistory = new PositionHistory(board.getHash());
 		isGameOver = false;
-		isMoveMade = false;
 		numberOfMoves = 0;
-		moveChecker = new MoveCheckerImpl();
+		moveChecker = new MoveCheckerImpl(koRule);
 		maxBlackStones = 0;
 		maxWhiteStones = 0;
+		this.executor = executor;
+		mailbox = new ConcurrentLinkedQueue<Runnable>();
+		isScheduled = new AtomicBoolean(false);
+		this.timer = timer;
+		this.moveTimeout = moveTimeout;
+		this.deadStoneEstimator = deadStoneEstimator;
 	}
 
 	@Override
-	public synchronized void run() {
-		while (!isGameOver) {
-			if (numberOfMoves == 0) {
-				firstGoClientHandler.sendMessage(Server.TURN + General.DELIMITER1 + 
-						firstGoClientHandler.getGoClientName() + General.DELIMITER1 + 
-						Server.FIRST + General.DELIMITER1 + 
-						firstGoClientHandler.getGoClientName() + General.COMMAND_END);
-				numberOfMoves++;
-			}
-			while (!isMoveMade) {
+	public void start() {
+		submit(() -> {
+			firstGoClientHandler.sendCommand(CommandType.TURN,
+					firstGoClientHandler.getGoClientName(), Server.FIRST,
+					firstGoClientHandler.getGoClientName());
+			numberOfMoves++;
+			startMoveClock();
+		});
+	}
+
+	/**
+	 * Add the event to the mailbox and ask the executor to handle the mailbox 
+	 * if no thread is handling it yet.
+	 * @param event
+	 * 			The event.
+	 */
+	private void submit(Runnable event) {
+		mailbox.add(event);
+		if (isScheduled.compareAndSet(false, true)) {
+			executor.execute(this::handleEvents);
+		}
+	}
+
+	/**
+	 * Handle the events in the mailbox in the order in which they were submitted.
+	 * The mailbox is handled again if an event was submitted after the last poll.
+	 */
+	private void handleEvents() {
+		do {
+			Runnable event;
+			while ((event = mailbox.poll()) != null) {
 				try {
-					wait();
-				} catch (InterruptedException e) {
-					e.printStackTrace();
+					event.run();
+				} catch (RuntimeException e) {
+					System.out.println("ERROR: Event of the game between " + 
+							firstGoClientHandler.getGoClientName() + " and " + 
+							secondGoClientHandler.getGoClientName() + " failed: " + e);
 				}
-				if (numberOfMoves % 2 == 1) {
-					firstGoClientHandler.sendMessage(Server.TURN + General.DELIMITER1 + 
-							firstGoClientHandler.getGoClientName() + General.DELIMITER1 + 
-							move + General.DELIMITER1 + secondGoClientHandler.getGoClientName() + 
-							General.COMMAND_END);
-					secondGoClientHandler.sendMessage(Server.TURN + General.DELIMITER1 + 
-							firstGoClientHandler.getGoClientName() + General.DELIMITER1 + 
-							move + General.DELIMITER1 + secondGoClientHandler.getGoClientName() + 
-							General.COMMAND_END);
-					numberOfMoves++;
-				} else if (numberOfMoves % 2 == 0) {
-					firstGoClientHandler.sendMessage(Server.TURN + General.DELIMITER1 + 
-							secondGoClientHandler.getGoClientName() + General.DELIMITER1 + 
-							move + General.DELIMITER1 + firstGoClientHandler.getGoClientName() + 
-							General.COMMAND_END);
-					secondGoClientHandler.sendMessage(Server.TURN + General.DELIMITER1 + 
-							secondGoClientHandler.getGoClientName() + General.DELIMITER1 + 
-							move + General.DELIMITER1 + firstGoClientHandler.getGoClientName() + 
-							General.COMMAND_END);
-					numberOfMoves++;
+			}
+			isScheduled.set(false);
+		} while (!mailbox.isEmpty() && isScheduled.compareAndSet(false, true));
+	}
+
+	/**
+	 * Encode the command once, send it to every recipient of the game 
+	 * and offer it to every spectator.
+	 * @param type
+	 * 			The type of the command.
+	 * @param arguments
+	 * 			The arguments of the command.
+	 */
+	private void broadcast(CommandType type, String... arguments) {
+		EncodedCommand command = EncodedCommand.encode(type, arguments);
+		snapshot = null;
+		for (GoClientHandler recipient : recipients) {
+			recipient.sendEncodedCommand(command);
+		}
+		for (Spectator spectator : spectators) {
+			spectator.offer(command, this::getSnapshot);
+		}
+	}
+	
+	/**
+	 * Return the snapshot of the game, which is encoded once after every move.
+	 * @return
+	 * 			The BOARD command.
+	 */
+	private EncodedCommand getSnapshot() {
+		if (snapshot == null) {
+			int size = board.getSize();
+			BoardState boardState = board.getBoardState();
+			char[] stones = new char[size * size];
+			for (int index = 0; index < stones.length; index++) {
+				StoneColor stoneColor = boardState.getStoneColor(index);
+				if (stoneColor == StoneColor.BLACK) {
+					stones[index] = SpectatorProtocol.BLACK_STONE;
+				} else if (stoneColor == StoneColor.WHITE) {
+					stones[index] = SpectatorProtocol.WHITE_STONE;
+				} else {
+					stones[index] = SpectatorProtocol.EMPTY;
+				}
+			}
+			GoClientHandler playerToMove = numberOfMoves % 2 == 1 ? firstGoClientHandler : 
+					secondGoClientHandler;
+			snapshot = EncodedCommand.encode(CommandType.BOARD, Integer.toString(size), 
+					firstGoClientHandler.getGoClientName(), 
+					secondGoClientHandler.getGoClientName(), 
+					playerToMove.getGoClientName(), new String(stones), 
+					Integer.toString(board.estimateScore()));
+		}
+		return snapshot;
+	}
+	
+	@Override
+	public void addSpectator(GoClientHandler goClientHandler) {
+		submit(() -> {
+			Spectator spectator = new Spectator(goClientHandler, spectatorExecutor);
+			spectator.offer(getSnapshot(), this::getSnapshot);
+			if (!isGameOver) {
+				spectators.add(spectator);
+			}
+		});
+	}
+	
+	@Override
+	public void removeSpectator(GoClientHandler goClientHandler) {
+		submit(() -> {
+			for (Spectator spectator : spectators) {
+				if (spectator.getGoClientHandler() == goClientHandler) {
+					spectator.close();
 				}
 			}
+			spectators.removeIf(Spectator::isClosed);
+		});
+	}
+	
+	/**
+	 * Stop offering commands to the spectators after the ENDGAME command, 
+	 * which they still receive.
+	 */
+	private void endSpectators() {
+		spectators.clear();
+	}
+
+	/**
+	 * Send the move to both GoClients, since it is accepted.
+	 */
+	private void sendMove() {
+		if (numberOfMoves % 2 == 1) {
+			broadcast(CommandType.TURN,
+					firstGoClientHandler.getGoClientName(), move,
+					secondGoClientHandler.getGoClientName());
+			numberOfMoves++;
+		} else if (numberOfMoves % 2 == 0) {
+			broadcast(CommandType.TURN,
+					secondGoClientHandler.getGoClientName(), move,
+					firstGoClientHandler.getGoClientName());
+			numberOfMoves++;
+		}
+		startMoveClock();
+	}
+	
+	/**
+	 * Start the move clock of the player to move, cancelling the clock of the previous move.
+	 */
+	private void startMoveClock() {
+		stopMoveClock();
+		if (moveTimeout > 0) {
+			int moveNumber = numberOfMoves;
+			moveClock = timer.newTimeout(() -> submit(() -> handleTimeout(moveNumber)), 
+					moveTimeout, TimeUnit.MILLISECONDS);
 		}
-		
+	}
+	
+	/**
+	 * Cancel the move clock, if it is running.
+	 */
+	private void stopMoveClock() {
+		if (moveClock != null) {
+			moveClock.cancel();
+			moveClock = null;
+		}
+	}
+	
+	/**
+	 * End the game with ENDGAME TIMEOUT if the player to move has not made a valid move
+	 * since the move clock started.
+	 * @param moveNumber
+	 * 			The number of moves when the move clock started.
+	 */
+	private void handleTimeout(int moveNumber) {
+		if (!isGameOver && moveNumber == numberOfMoves) {
+			moveClock = null;
+			calculateWinnerTimeout();
+			System.out.println("GO SERVER: Game ended between " + 
+					firstGoClientHandler.getGoClientName().toUpperCase() + " and " + 
+					secondGoClientHandler.getGoClientName().toUpperCase() + 
+					" since the time for a move ran out");
+			isGameOver = true;
+			endSpectators();
+		}
+	}
+	
+	/**
+	 * Calculate the winner if the player to move ran out of time.
+	 */
+	private void calculateWinnerTimeout() {
+		board.calculateWinner();
+		blackScore = board.getBlackScore();
+		whiteScore = board.getWhiteScore();
+		if (numberOfMoves % 2 == 1) {
+			blackScore = 0;
+			broadcast(CommandType.ENDGAME, Server.TIMEOUT,
+					secondGoClientHandler.getGoClientName(), Integer.toString(whiteScore),
+					firstGoClientHandler.getGoClientName(), Integer.toString(blackScore));
+		} else {
+			whiteScore = 0;
+			broadcast(CommandType.ENDGAME, Server.TIMEOUT,
+					firstGoClientHandler.getGoClientName(), Integer.toString(blackScore),
+					secondGoClientHandler.getGoClientName(), Integer.toString(whiteScore));
+		}
+		firstGoClientHandler.setGoClientState(GoClientState.CONNECTED);
+		secondGoClientHandler.setGoClientState(GoClientState.CONNECTED);
 	}
 
 	@Override
-	public synchronized void confirmMove(String moveMade, GoClientHandler goClientHandler) {
-		if (!isGameOver) {
+	public void confirmMove(int moveMade, GoClientHandler goClientHandler) {
+		submit(() -> handleMove(moveMade, goClientHandler));
+	}
+	
+	/**
+	 * Check the move made by the GoClient and send it to both GoClients if it is valid.
+	 * @param moveMade
+	 * 			The index of the move, MoveCodec.PASS for a pass or a negative index
+	 * 			if the move is not on the board.
+	 * @param goClientHandler
+	 * 			The GoClientHandler of the GoClient that made the move.
+	 */
+	private void handleMove(int moveMade, GoClientHandler goClientHandler) {
+		if (!isGameOver && !isScoring) {
 			if (maxBlackStones != (board.getSize() * board.getSize() / 2) && 
 				maxWhiteStones != (board.getSize() * board.getSize() / 2)) {
 				if ((numberOfMoves % 2 == 1 && goClientHandler.equals(firstGoClientHandler)) || 
 						(numberOfMoves % 2 == 0 && goClientHandler.equals(secondGoClientHandler))) {
-					if (!moveMade.equals(Client.PASS)) {
+					if (moveMade != MoveCodec.PASS) {
 						if (goClientHandler.equals(firstGoClientHandler)) {
 							maxBlackStones++;
 						} else if (goClientHandler.equals(secondGoClientHandler)) {
 							maxWhiteStones++;
 						}
-						String[] moveCoordinates = moveMade.split(General.DELIMITER2);
-						try {
-							int moveX = Integer.parseInt(moveCoordinates[0]);
-							int moveY = Integer.parseInt(moveCoordinates[1]);
+						if (numberOfMoves % 2 == 1) {
+							isValidMove = moveChecker.checkMove(moveMade, StoneColor.BLACK, board, 
+									positionHistory); 
+						} else if (numberOfMoves % 2 == 0) {
+							isValidMove = moveChecker.checkMove(moveMade, StoneColor.WHITE, board, 
+									positionHistory); 
+						}
+						if (isValidMove) {
+							this.move = MoveCodec.format(moveMade, board.getSize());
 							if (numberOfMoves % 2 == 1) {
-								isValidMove = moveChecker.checkMove(moveX, moveY, StoneColor.BLACK, 
-										board, previousBoard, nextBoard); 
-							} else if (numberOfMoves % 2 == 0) {
-								isValidMove = moveChecker.checkMove(moveX, moveY, StoneColor.WHITE, 
-										board, previousBoard, nextBoard); 
-							}
-							if (isValidMove) {
-								this.move = moveMade;
-								previousBoard = board.copy();
-								if (numberOfMoves % 2 == 1) {
-									board.setStone(moveX, moveY, StoneColor.BLACK);
-								} else {
-									board.setStone(moveX, moveY, StoneColor.WHITE);
-								}
-								nextBoard = board.copy(); 
-								notifyAll();
+								board.setStone(moveMade, StoneColor.BLACK);
 							} else {
-								goClientHandler.sendMessage(Server.ERROR + General.DELIMITER1 + 
-										Server.INVALID + General.DELIMITER1 + "The move " + 
-										moveMade + " was invalid" + General.COMMAND_END);
+								board.setStone(moveMade, StoneColor.WHITE);
 							}
-						} catch (NumberFormatException e) {
-							goClientHandler.sendMessage(Server.ERROR + General.DELIMITER1 + 
-									Server.INVALID + General.DELIMITER1 + "The move " + moveMade + 
-									" was invalid" + General.COMMAND_END);
+							positionHistory.addPosition(board.getHash());
+							sendMove();
+						} else {
+							goClientHandler.sendCommand(CommandType.ERROR, Server.INVALID,
+									moveMade >= 0 ? "The move " + MoveCodec.format(moveMade,
+									board.getSize()) + " was invalid" :
+									"The move was not a row_column on the board");
 						}
 					} else {
-						this.move = moveMade;
-						if (move.equals(previousMove)) {
+						this.move = Client.PASS;
+						positionHistory.addPosition(board.getHash());
+						if (previousMove == MoveCodec.PASS) {
 							calculateWinner();
-							System.out.println("GO SERVER: Game ended between " + 
-									firstGoClientHandler.getGoClientName().toUpperCase() + 
-									" and " + 
-									secondGoClientHandler.getGoClientName().toUpperCase());
 						} else {
-							notifyAll();
+							sendMove();
 						}
 					}
 					this.previousMove = moveMade;
 				}
 			} else {
 				calculateWinner();
-				System.out.println("GO SERVER: Game ended between " + 
-						firstGoClientHandler.getGoClientName().toUpperCase() + " and " + 
-						secondGoClientHandler.getGoClientName().toUpperCase());
 			}
 		}
 	}
 
 	/**
 	 * Calculate the winner after both players passed in adjacent moves.
+	 * The dead stones are estimated on the pool of the estimator, so the thread handling
+	 * the events is not blocked by the playouts. The moves made in the meantime are
+	 * ignored, and the board is scored by an event submitted when the estimate is done.
 	 */
 	private void calculateWinner() {
-		board.calculateWinner();
+		stopMoveClock();
 		if (numberOfMoves == 2) {
 			blackScore = 0;
 			whiteScore = 0;
+			endFinishedGame();
+		} else {
+			isScoring = true;
+			deadStoneEstimator.estimateDeadStones(board).whenComplete((deadStones, exception) ->
+					submit(() -> scoreFinishedGame(deadStones, exception)));
+		}
+	}
+
+	/**
+	 * Score the board without the estimated dead stones and end the game, 
+	 * unless it was ended by one of the players while the dead stones were estimated.
+	 * @param deadStones
+	 * 			Whether the stone at each intersection is dead, or null if the estimate failed.
+	 * @param exception
+	 * 			The exception the estimate failed with, or null if it did not fail.
+	 */
+	private void scoreFinishedGame(boolean[] deadStones, Throwable exception) {
+		if (!isScoring) {
+			return;
+		}
+		isScoring = false;
+		if (exception != null) {
+			System.out.println("ERROR: Estimate of the dead stones of the game between " + 
+					firstGoClientHandler.getGoClientName() + " and " + 
+					secondGoClientHandler.getGoClientName() + " failed: " + exception);
+			board.calculateWinner();
 		} else {
-			blackScore = board.getBlackScore();
-			whiteScore = board.getWhiteScore();
+			board.calculateWinner(deadStones);
 		}
+		blackScore = board.getBlackScore();
+		whiteScore = board.getWhiteScore();
+		endFinishedGame();
+	}
+
+	/**
+	 * Send the scores of the finished game to both GoClients and end the game.
+	 */
+	private void endFinishedGame() {
 		if (blackScore >= whiteScore) {
-			firstGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.FINISHED + General.DELIMITER1 + 
-					firstGoClientHandler.getGoClientName() + General.DELIMITER1 + blackScore + 
-					General.DELIMITER1 + secondGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + whiteScore + General.COMMAND_END);
-			secondGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.FINISHED + General.DELIMITER1 + 
-					firstGoClientHandler.getGoClientName() + General.DELIMITER1 + blackScore + 
-					General.DELIMITER1 + secondGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + whiteScore + General.COMMAND_END);
-		} else if (blackScore < whiteScore) {
-			firstGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.FINISHED + General.DELIMITER1 + 
-					secondGoClientHandler.getGoClientName() + General.DELIMITER1 + whiteScore + 
-					General.DELIMITER1 + firstGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + blackScore + General.COMMAND_END);
-			secondGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.FINISHED + General.DELIMITER1 + 
-					secondGoClientHandler.getGoClientName() + General.DELIMITER1 + whiteScore + 
-					General.DELIMITER1 + firstGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + blackScore + General.COMMAND_END);
+			broadcast(CommandType.ENDGAME, Server.FINISHED,
+					firstGoClientHandler.getGoClientName(), Integer.toString(blackScore),
+					secondGoClientHandler.getGoClientName(), Integer.toString(whiteScore));
+		} else {
+			broadcast(CommandType.ENDGAME, Server.FINISHED,
+					secondGoClientHandler.getGoClientName(), Integer.toString(whiteScore),
+					firstGoClientHandler.getGoClientName(), Integer.toString(blackScore));
 		}
 		firstGoClientHandler.setGoClientState(GoClientState.CONNECTED);
-		gameManager.goClientStateChanged(firstGoClientHandler, GoClientState.CONNECTED);
 		secondGoClientHandler.setGoClientState(GoClientState.CONNECTED);
-		gameManager.goClientStateChanged(secondGoClientHandler, GoClientState.CONNECTED);
 		isGameOver = true;
+		endSpectators();
+		System.out.println("GO SERVER: Game ended between " + 
+				firstGoClientHandler.getGoClientName().toUpperCase() + " and " + 
+				secondGoClientHandler.getGoClientName().toUpperCase());
 	}
 
 	@Override
@@ -256,11 +509,15 @@ public class GameImpl implements Game {
 
 	@Override
 	public void endAbortedGame(GoClientHandler goClientHandler) {
-		calculateWinnerAbortedGame(goClientHandler);
-		System.out.println("GO SERVER: Game ended between " + 
-				firstGoClientHandler.getGoClientName().toUpperCase() + " and " + 
-				secondGoClientHandler.getGoClientName().toUpperCase());
-		isGameOver = true;
+		submit(() -> {
+			isScoring = false;
+			calculateWinnerAbortedGame(goClientHandler);
+			System.out.println("GO SERVER: Game ended between " + 
+					firstGoClientHandler.getGoClientName().toUpperCase() + " and " + 
+					secondGoClientHandler.getGoClientName().toUpperCase());
+			isGameOver = true;
+			endSpectators();
+		});
 	}
 
 	/**
@@ -269,47 +526,36 @@ public class GameImpl implements Game {
 	 * 			The GoClientHandler of the GoClient ending the game.
 	 */
 	private void calculateWinnerAbortedGame(GoClientHandler goClientHandler) {
+		stopMoveClock();
 		board.calculateWinner();
 		blackScore = board.getBlackScore();
 		whiteScore = board.getWhiteScore();
 		if (goClientHandler.equals(secondGoClientHandler)) {
 			whiteScore = 0;
-			firstGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.ABORTED + General.DELIMITER1 + 
-					firstGoClientHandler.getGoClientName() + General.DELIMITER1 + blackScore + 
-					General.DELIMITER1 + secondGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + whiteScore + General.COMMAND_END);
-			secondGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.ABORTED + General.DELIMITER1 + 
-					firstGoClientHandler.getGoClientName() + General.DELIMITER1 + blackScore + 
-					General.DELIMITER1 + secondGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + whiteScore + General.COMMAND_END);
+			broadcast(CommandType.ENDGAME, Server.ABORTED,
+					firstGoClientHandler.getGoClientName(), Integer.toString(blackScore),
+					secondGoClientHandler.getGoClientName(), Integer.toString(whiteScore));
 		} else if (goClientHandler.equals(firstGoClientHandler)) {
 			blackScore = 0;
-			firstGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.ABORTED + General.DELIMITER1 + 
-					secondGoClientHandler.getGoClientName() + General.DELIMITER1 + whiteScore + 
-					General.DELIMITER1 + firstGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + blackScore + General.COMMAND_END);
-			secondGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.ABORTED + General.DELIMITER1 + 
-					secondGoClientHandler.getGoClientName() + General.DELIMITER1 + whiteScore + 
-					General.DELIMITER1 + firstGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + blackScore + General.COMMAND_END);
+			broadcast(CommandType.ENDGAME, Server.ABORTED,
+					secondGoClientHandler.getGoClientName(), Integer.toString(whiteScore),
+					firstGoClientHandler.getGoClientName(), Integer.toString(blackScore));
 		}
 		firstGoClientHandler.setGoClientState(GoClientState.CONNECTED);
-		gameManager.goClientStateChanged(firstGoClientHandler, GoClientState.CONNECTED);
 		secondGoClientHandler.setGoClientState(GoClientState.CONNECTED);
-		gameManager.goClientStateChanged(secondGoClientHandler, GoClientState.CONNECTED);
 	}
 
 	@Override
 	public void endGameExit(GoClientHandler goClientHandler) {
-		calculateWinnerExitGame(goClientHandler);
-		System.out.println("GO SERVER: Game ended between " + 
-				firstGoClientHandler.getGoClientName().toUpperCase() + " and " + 
-				secondGoClientHandler.getGoClientName().toUpperCase());
-		isGameOver = true;
+		submit(() -> {
+			isScoring = false;
+			calculateWinnerExitGame(goClientHandler);
+			System.out.println("GO SERVER: Game ended between " + 
+					firstGoClientHandler.getGoClientName().toUpperCase() + " and " + 
+					secondGoClientHandler.getGoClientName().toUpperCase());
+			isGameOver = true;
+			endSpectators();
+		});
 	}
 
 	/**
@@ -318,27 +564,23 @@ public class GameImpl implements Game {
 	 * 			The GoClientHandler of the GoClient ending the game.
 	 */
 	private void calculateWinnerExitGame(GoClientHandler goClientHandler) {
+		stopMoveClock();
 		board.calculateWinner();
 		blackScore = board.getBlackScore();
 		whiteScore = board.getWhiteScore();
+		recipients.remove(goClientHandler);
 		if (goClientHandler.equals(firstGoClientHandler)) {
 			blackScore = 0;
-			secondGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.ABORTED + General.DELIMITER1 + 
-					secondGoClientHandler.getGoClientName() + General.DELIMITER1 + whiteScore + 
-					General.DELIMITER1 + firstGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + blackScore + General.COMMAND_END);
+			broadcast(CommandType.ENDGAME, Server.ABORTED,
+					secondGoClientHandler.getGoClientName(), Integer.toString(whiteScore),
+					firstGoClientHandler.getGoClientName(), Integer.toString(blackScore));
 			secondGoClientHandler.setGoClientState(GoClientState.CONNECTED);
-			gameManager.goClientStateChanged(secondGoClientHandler, GoClientState.CONNECTED);
 		} else if (goClientHandler.equals(secondGoClientHandler)) {
 			whiteScore = 0;
-			firstGoClientHandler.sendMessage(Server.ENDGAME + General.DELIMITER1 + 
-					Server.ABORTED + General.DELIMITER1 + 
-					firstGoClientHandler.getGoClientName() + General.DELIMITER1 + blackScore + 
-					General.DELIMITER1 + secondGoClientHandler.getGoClientName() + 
-					General.DELIMITER1 + whiteScore + General.COMMAND_END);
+			broadcast(CommandType.ENDGAME, Server.ABORTED,
+					firstGoClientHandler.getGoClientName(), Integer.toString(blackScore),
+					secondGoClientHandler.getGoClientName(), Integer.toString(whiteScore));
 			firstGoClientHandler.setGoClientState(GoClientState.CONNECTED);
-			gameManager.goClientStateChanged(firstGoClientHandler, GoClientState.CONNECTED);
 		}
 	}
 }
@@ -1,88 +1,294 @@
 package game;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import client.handler.GoClientHandler;
-import protocol.Protocol.General;
-import protocol.Protocol.Server;
+import game.matchmaking.BoardSizePairingPolicy;
+import game.matchmaking.FifoPairingPolicy;
+import game.matchmaking.MatchmakingService;
+import game.matchmaking.PairingPolicy;
+import game.timer.HashedWheelTimer;
+import protocol.CommandType;
 import client.GoClientState;
+import protocol.Protocol.General;
 
 /**
  * Manage the initiation of a game for GoClients that requested a game.
  * @author janine.kleinrot
  *
  */
-public class GameManager implements GoClientStateListener {
+public final class GameManager implements GoClientStateListener {
 
-	/**	The GoClientHandlers corresponding to the GoClients that requested a game. */
-	private List<GoClientHandler> goClientHandlersGameRequested;
+	/**	The MatchmakingService that pairs the GoClients that requested a game. */
+	private MatchmakingService matchmakingService;
 	
 	/**	The GoClientHandlers corresponding to the GoClients that play a game. */
-	private List<GoClientHandler> goClientHandlersPlayingGame;
+	private Set<GoClientHandler> goClientHandlersPlayingGame;
 	
 	/** A game of Go. */
 	private Game game;
 	
+	/** The Ko rule of the games. */
+	private KoRule koRule;
+	
+	/** The executor that handles the events of the games. */
+	private ExecutorService gameExecutor;
+	
+	/** 
+	 * The executor that sends the commands of the games to the spectators,
+	 * on virtual threads, so a slow spectator only blocks a thread of its own.
+	 */
+	private ExecutorService spectatorExecutor;
+	
+	/** The timer of the move clocks of all games and of the rescans of the waiting requests. */
+	private HashedWheelTimer moveTimer;
+	
+	/** The time in milliseconds a player has for a move, 0 if the moves are not timed. */
+	private long moveTimeout;
+	
+	/** The estimator of the dead stones at the end of all games. */
+	private DeadStoneEstimator deadStoneEstimator;
+	
+	/** 
+	 * The pool of the estimator, of its own so the estimates do not compete with 
+	 * the searches of the computer players on the common pool.
+	 */
+	private ForkJoinPool deadStonePool;
+	
+	/** Whether the GameManager is shut down. */
+	private volatile boolean isShutdown;
+	
+	/** The default time in milliseconds a player has for a move. */
+	public static final long DEFAULT_MOVE_TIMEOUT = General.TIMEOUTSECONDS * 1000L;
+	
+	/** The time in milliseconds between the rescans of the waiting requests. */
+	public static final long RESCAN_INTERVAL = 1000;
+	
+	/**
+	 * Create a GameManager with games using the provided Ko rule 
+	 * whose events are handled by the provided executor,
+	 * whose players are paired by the provided pairing policy
+	 * and have the provided time for a move.
+	 * All games share one timer for their move clocks, and the dead stones at the end of
+	 * the games are estimated on a ForkJoinPool of the GameManager. 
+	 * A GameManager is created with a Builder, which starts the rescans of the waiting 
+	 * requests after the GameManager is created.
+	 * @param koRule
+	 * 			The Ko rule.
+	 * @param gameExecutor
+	 * 			The executor that handles the events of the games, which the GameManager
+	 * 			shuts down.
+	 * @param pairingPolicy
+	 * 			The policy that decides which GoClients that requested a game are paired.
+	 * @param moveTimeout
+	 * 			The time in milliseconds a player has for a move, 0 if the moves are not timed.
+	 */
+	private GameManager(KoRule koRule, ExecutorService gameExecutor, 
+			PairingPolicy pairingPolicy, long moveTimeout) {
+		this.koRule = koRule;
+		this.moveTimeout = moveTimeout;
+		moveTimer = new HashedWheelTimer();
+		deadStonePool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		deadStoneEstimator = new DeadStoneEstimatorImpl(deadStonePool);
+		this.gameExecutor = gameExecutor;
+		spectatorExecutor = Executors.newVirtualThreadPerTaskExecutor();
+		goClientHandlersPlayingGame = ConcurrentHashMap.newKeySet();
+		matchmakingService = new MatchmakingService(pairingPolicy, this::getGameSettings);
+	}
+	
+	/**
+	 * Return a new Builder of a GameManager with games using the simple Ko rule
+	 * whose events are handled by a daemon platform thread per processor,
+	 * whose players are paired in order of request
+	 * and have DEFAULT_MOVE_TIMEOUT for a move.
+	 * @return
+	 * 			The Builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+	
+	/**
+	 * Rescan the waiting requests after RESCAN_INTERVAL and schedule the next rescan,
+	 * so requests that may only be paired after waiting are paired, until the GameManager
+	 * is shut down.
+	 */
+	private void scheduleRescan() {
+		if (isShutdown) {
+			return;
+		}
+		moveTimer.newTimeout(() -> gameExecutor.execute(() -> {
+			if (matchmakingService.getWaitingCount() > 1) {
+				matchmakingService.rescan();
+			}
+			scheduleRescan();
+		}), RESCAN_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+	
 	/**
-	 * Create a GameManager.
+	 * Stop the rescans and the move clocks, and shut down the executors of the games and 
+	 * of the spectators and the pool of the estimator. The events that are handled already
+	 * are finished, the games that are not over are not ended.
 	 */
-	public GameManager() {
-		goClientHandlersGameRequested = new ArrayList<GoClientHandler>();
-		goClientHandlersPlayingGame = new ArrayList<GoClientHandler>();
+	public void shutdown() {
+		isShutdown = true;
+		moveTimer.stop();
+		gameExecutor.shutdown();
+		spectatorExecutor.shutdown();
+		deadStonePool.shutdown();
 	}
 	
 	@Override
 	public void goClientStateChanged(GoClientHandler goClientHandler, GoClientState goClientState) {
 		if (goClientState == GoClientState.GAME_REQUESTED) {
-			goClientHandlersGameRequested.add(goClientHandler);
-			if (goClientHandlersGameRequested.size() % 2 == 0 && 
-					!goClientHandlersGameRequested.isEmpty()) {
-				getGameSettings(goClientHandlersGameRequested.get(0), 
-						goClientHandlersGameRequested.get(1));
+			if (goClientHandler.getGoClientState() != GoClientState.GAME_REQUESTED) {
+				return;
 			}
+			matchmakingService.request(goClientHandler, goClientHandler.getRequestedBoardSize(), 
+					goClientHandler.getRequestedOpponent());
 		} else if (goClientState == GoClientState.PLAYING_GAME) {
-			goClientHandlersGameRequested.remove(goClientHandler);
 			goClientHandlersPlayingGame.add(goClientHandler);
 		} else {
-			if (!goClientHandlersGameRequested.isEmpty()) {
-				if (goClientHandlersGameRequested.contains(goClientHandler)) {
-					goClientHandlersGameRequested.remove(goClientHandler);
-				}
-			} else if (!goClientHandlersPlayingGame.isEmpty()) {
-				if (goClientHandlersPlayingGame.contains(goClientHandler)) {
-					goClientHandlersPlayingGame.remove(goClientHandler);
-				}
-			}
+			matchmakingService.cancel(goClientHandler);
+			goClientHandlersPlayingGame.remove(goClientHandler);
 		}
 	}
+	
+	/**
+	 * Return the MatchmakingService that pairs the GoClients that requested a game.
+	 * @return
+	 * 			The MatchmakingService.
+	 */
+	public MatchmakingService getMatchmakingService() {
+		return matchmakingService;
+	}
 
 	@Override
 	public void getGameSettings(GoClientHandler firstGoClientHandler, 
 			GoClientHandler secondGoClientHandler) {
 		firstGoClientHandler.setGoClientState(GoClientState.PLAYING_GAME);
-		goClientStateChanged(firstGoClientHandler, GoClientState.PLAYING_GAME);
 		secondGoClientHandler.setGoClientState(GoClientState.PLAYING_GAME);
-		goClientStateChanged(secondGoClientHandler, GoClientState.PLAYING_GAME);
 		firstGoClientHandler.setOpponent(secondGoClientHandler);
 		secondGoClientHandler.setOpponent(firstGoClientHandler);
 		System.out.println("GO SERVER: Waiting for " + 
 				firstGoClientHandler.getGoClientName() + 
 				" to set game settings...");
 		System.out.println("GO SERVER: Waiting for clients to connect...");
-		firstGoClientHandler.sendMessage(Server.START + General.DELIMITER1 + 2 + 
-				General.COMMAND_END);
+		int boardSize = BoardSizePairingPolicy.getStartBoardSize(
+				firstGoClientHandler.getRequestedBoardSize(), 
+				secondGoClientHandler.getRequestedBoardSize());
+		if (boardSize != 0) {
+			firstGoClientHandler.sendCommand(CommandType.START, "2", Integer.toString(boardSize));
+		} else {
+			firstGoClientHandler.sendCommand(CommandType.START, "2");
+		}
 	}
 	
 	@Override 
 	public void startGame(GoClientHandler firstGoClientHandler, 
 			GoClientHandler secondGoClientHandler) {
-		game = new GameImpl(firstGoClientHandler, secondGoClientHandler, this);
+		game = new GameImpl(firstGoClientHandler, secondGoClientHandler, koRule, gameExecutor, 
+				spectatorExecutor, moveTimer, moveTimeout, deadStoneEstimator);
 		System.out.println("GO SERVER: Game started between " + 
 				firstGoClientHandler.getGoClientName() + " and " + 
 				secondGoClientHandler.getGoClientName());
-		Thread gameThread = new Thread(game);
-		gameThread.start();
+		game.start();
+	}
+	
+	/**
+	 * Builder of a GameManager, of which every setting that is not provided keeps its default.
+	 */
+	public static final class Builder {
+		
+		/** The Ko rule of the games. */
+		private KoRule koRule = KoRule.SIMPLE_KO;
+		
+		/** The executor that handles the events of the games, or null for the default. */
+		private ExecutorService gameExecutor;
+		
+		/** The policy that decides which GoClients that requested a game are paired. */
+		private PairingPolicy pairingPolicy = new FifoPairingPolicy();
+		
+		/** The time in milliseconds a player has for a move, 0 if the moves are not timed. */
+		private long moveTimeout = DEFAULT_MOVE_TIMEOUT;
+		
+		/**
+		 * Create a new Builder with the default settings.
+		 */
+		private Builder() {
+		}
+		
+		/**
+		 * Set the Ko rule of the games.
+		 * @param koRule
+		 * 			The Ko rule.
+		 * @return
+		 * 			The Builder.
+		 */
+		public Builder koRule(KoRule koRule) {
+			this.koRule = koRule;
+			return this;
+		}
+		
+		/**
+		 * Set the executor that handles the events of the games.
+		 * @param gameExecutor
+		 * 			The executor, which the GameManager shuts down.
+		 * @return
+		 * 			The Builder.
+		 */
+		public Builder gameExecutor(ExecutorService gameExecutor) {
+			this.gameExecutor = gameExecutor;
+			return this;
+		}
+		
+		/**
+		 * Set the policy that decides which GoClients that requested a game are paired.
+		 * @param pairingPolicy
+		 * 			The pairing policy.
+		 * @return
+		 * 			The Builder.
+		 */
+		public Builder pairingPolicy(PairingPolicy pairingPolicy) {
+			this.pairingPolicy = pairingPolicy;
+			return this;
+		}
+		
+		/**
+		 * Set the time a player has for a move.
+		 * @param moveTimeout
+		 * 			The time in milliseconds, 0 if the moves are not timed.
+		 * @return
+		 * 			The Builder.
+		 */
+		public Builder moveTimeout(long moveTimeout) {
+			this.moveTimeout = moveTimeout;
+			return this;
+		}
+		
+		/**
+		 * Create the GameManager and start the rescans of its waiting requests every 
+		 * RESCAN_INTERVAL on the executor of the games.
+		 * @return
+		 * 			The GameManager.
+		 */
+		public GameManager build() {
+			ExecutorService executor = gameExecutor;
+			if (executor == null) {
+				executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), 
+						Thread.ofPlatform().name("Game ", 0).daemon().factory());
+			}
+			GameManager gameManager = new GameManager(koRule, executor, pairingPolicy, 
+					moveTimeout);
+			gameManager.scheduleRescan();
+			return gameManager;
+		}
+		
 	}
 
 }
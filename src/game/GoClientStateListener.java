@@ -18,6 +18,10 @@ public interface GoClientStateListener {
 
 	/**
 	 * Asks the first GoClientHandler for the settings of the game.
+	 * If the pair agreed on a board size when it requested the game, the first GoClient
+	 * gets that size with START if it asked for a size itself, and its SETTINGS have to
+	 * use that size. A first GoClient that asked for any size is not sent a size and can
+	 * choose any size.
 	 * @param firstGoClientHandler
 	 * 			The first client entered in the game.
 	 * @param secondGoClientHandler
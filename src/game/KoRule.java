@@ -0,0 +1,14 @@
+package game;
+
+/**
+ * The rule that decides which board situations may not be repeated.
+ * Possible values are:
+ * SIMPLE_KO, a move may not recreate the board situation from before the previous move
+ * POSITIONAL_SUPERKO, a move may not recreate any earlier board situation of the game
+ * @author janine.kleinrot
+ */
+public enum KoRule {
+	
+	SIMPLE_KO, POSITIONAL_SUPERKO;
+
+}
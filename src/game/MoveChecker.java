@@ -19,15 +19,29 @@ public interface MoveChecker {
 	 * 			The stone color of the move.
 	 * @param board
 	 * 			The current board situation.
-	 * @param previousBoard
-	 * 			The previous board situation.
-	 * @param nextBoard
-	 * 			The next board situation.
+	 * @param positionHistory
+	 * 			The board situations that occurred earlier in the game.
 	 * @return
 	 * 			True if the move was valid.
 	 */
 	public boolean checkMove(int moveX, int moveY, StoneColor stoneColor, Board board, 
-			Board previousBoard, Board nextBoard);
+			PositionHistory positionHistory);
+	
+	/**
+	 * Check if a move at the intersection with the provided index is valid.
+	 * @param index
+	 * 			The index x * size + y of the move, or a negative index if it is not on the board.
+	 * @param stoneColor
+	 * 			The stone color of the move.
+	 * @param board
+	 * 			The current board situation.
+	 * @param positionHistory
+	 * 			The board situations that occurred earlier in the game.
+	 * @return
+	 * 			True if the move was valid.
+	 */
+	public boolean checkMove(int index, StoneColor stoneColor, Board board, 
+			PositionHistory positionHistory);
 	
 	/**
 	 * Return the string containing the concatenated messages from the different move checks.
@@ -1,7 +1,6 @@
 package game;
 
 import game.board.Board;
-import game.board.Position;
 import game.board.stone.StoneColor;
 
 /**
@@ -13,11 +12,11 @@ public class MoveCheckerImpl implements MoveChecker {
 	/** The current board situation. */
 	private Board board;
 	
-	/** The previous board situation. */
-	private Board previousBoard;
+	/** The board situations that occurred earlier in the game. */
+	private PositionHistory positionHistory;
 	
-	/** The next board situation. */
-	private Board nextBoard;
+	/** The Ko rule. */
+	private KoRule koRule;
 	
 	/** The stone color of the move. */
 	private StoneColor stoneColor;
@@ -26,28 +25,46 @@ public class MoveCheckerImpl implements MoveChecker {
 	private String checkMessage;
 	
 	/**
-	 * Create a new MoveCheckerImpl.
+	 * Create a new MoveCheckerImpl with the simple Ko rule.
 	 */
 	public MoveCheckerImpl() {
-
+		this(KoRule.SIMPLE_KO);
+	}
+	
+	/**
+	 * Create a new MoveCheckerImpl with the provided Ko rule.
+	 * @param koRule
+	 * 			The Ko rule.
+	 */
+	public MoveCheckerImpl(KoRule koRule) {
+		this.koRule = koRule;
 	}
 	
 	@Override
 	public boolean checkMove(int moveX, int moveY, StoneColor aStoneColor, Board aBoard, 
-			Board aPreviousBoard, Board aNextBoard) {
+			PositionHistory aPositionHistory) {
+		int size = aBoard.getSize();
+		if (moveX >= size || moveY >= size || moveX < 0 || moveY < 0) {
+			return checkMove(-1, aStoneColor, aBoard, aPositionHistory);
+		}
+		return checkMove(moveX * size + moveY, aStoneColor, aBoard, aPositionHistory);
+	}
+	
+	@Override
+	public boolean checkMove(int index, StoneColor aStoneColor, Board aBoard, 
+			PositionHistory aPositionHistory) {
 		this.board = aBoard;
-		this.previousBoard = aPreviousBoard;
-		this.nextBoard = aNextBoard;
+		this.positionHistory = aPositionHistory;
 		this.stoneColor = aStoneColor;
-		checkMessage = checkOutOfRange(moveX, moveY);
+		checkMessage = checkOutOfRange(index);
 		if (checkMessage.contains("Move")) {
 			return false;
 		}
-		checkMessage = checkMessage.concat(checkIsOccupied(moveX, moveY));
+		checkMessage = checkMessage.concat(checkIsOccupied(index));
 		if (checkMessage.contains("Occupied")) {
 			return false;
 		}
-		checkMessage = checkMessage.concat(checkKoRule(moveX, moveY));
+		checkMessage = checkMessage.concat(checkKoRule(index));
 		if (checkMessage.contains("Ko")) {
 			return false;
 		} else {
@@ -57,15 +74,13 @@ public class MoveCheckerImpl implements MoveChecker {
 	
 	/**
 	 * Check if the move is out of range of the board.
-	 * @param moveX
-	 * 			The x coordinate of the move.
-	 * @param moveY
-	 * 			The y coordinate of the move.
+	 * @param index
+	 * 			The index of the move.
 	 * @return
 	 * 			A message describing the error or an empty string.
 	 */
-	private String checkOutOfRange(int moveX, int moveY) {
-		if (moveX >= board.getSize() || moveY >= board.getSize() || moveX < 0 || moveY < 0) {
+	private String checkOutOfRange(int index) {
+		if (index < 0 || index >= board.getSize() * board.getSize()) {
 			return "Move not on board ";
 		} else {
 			return "";
@@ -74,15 +89,13 @@ public class MoveCheckerImpl implements MoveChecker {
 	
 	/**
 	 * Check if the intersection of the move is already occupied.
-	 * @param moveX
-	 * 			The x coordinate of the move.
-	 * @param moveY
-	 * 			The y coordinate of the move.
+	 * @param index
+	 * 			The index of the move.
 	 * @return
 	 * 			A message describing the error or an empty string.
 	 */
-	private String checkIsOccupied(int moveX, int moveY) {
-		if (board.getIntersection(new Position(moveX, moveY)).isOccupied()) {
+	private String checkIsOccupied(int index) {
+		if (board.getBoardState().isOccupied(index)) {
 			return "Occupied intersection ";
 		} else {
 			return "";
@@ -91,34 +104,18 @@ public class MoveCheckerImpl implements MoveChecker {
 	
 	/**
 	 * Check if the move violates the Ko rule.
-	 * @param moveX
-	 * 			The x coordinate of the move.
-	 * @param moveY
-	 * 			The y coordinate of the move.
+	 * The hash of the board situation after the move is compared to the hash of the situation 
+	 * before the previous move, or to the hashes of all earlier situations for positional 
+	 * superko.
+	 * @param index
+	 * 			The index of the move.
 	 * @return
 	 * 			A message describing the error or an empty string.
 	 */
-	private String checkKoRule(int moveX, int moveY) {
-		nextBoard.setStone(moveX, moveY, stoneColor);
-		int equalsCount = 0;
-		for (int x = 0; x < board.getSize(); x++) {
-			for (int y = 0; y < board.getSize(); y++) {
-				if (previousBoard.getIntersection(new Position(x, y)).isOccupied() == 
-						nextBoard.getIntersection(new Position(x, y)).isOccupied() && 
-						previousBoard.getIntersection(new Position(x, y)).isOccupied()) {
-					if (previousBoard.getIntersection(new Position(x, y)).getStone().getColor()
-							.equals(nextBoard.getIntersection(new Position(x, y)).getStone()
-									.getColor())) {
-						equalsCount++;
-					} 
-				} else if (previousBoard.getIntersection(new Position(x, y)).isOccupied() == 
-						nextBoard.getIntersection(new Position(x, y)).isOccupied() && 
-						!previousBoard.getIntersection(new Position(x, y)).isOccupied()) {
-					equalsCount++;
-				}
-			}
-		}
-		if (equalsCount == board.getSize() * board.getSize()) {
+	private String checkKoRule(int index) {
+		long hash = board.getHashAfterMove(index, stoneColor);
+		if (positionHistory.isPreviousPosition(hash) || 
+				(koRule == KoRule.POSITIONAL_SUPERKO && positionHistory.containsPosition(hash))) {
 			return "Ko rule";
 		} else {
 			return "";
@@ -0,0 +1,145 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * The Zobrist hashes of all board situations of a game, in the order they occurred.
+ * The hashes are kept in a long array and in an open-addressing hash set of longs, so
+ * adding and looking up a board situation does not box the hash.
+ * @author janine.kleinrot
+ */
+public final class PositionHistory {
+	
+	/** The initial amount of board situations there is room for. */
+	private static final int INITIAL_CAPACITY = 64;
+	
+	/** The hashes of the board situations in the order they occurred. */
+	private long[] positions;
+	
+	/** The amount of board situations in the history. */
+	private int positionCount;
+	
+	/** The slots of the hash set of all board situations, 0 for an empty slot. */
+	private long[] positionSet;
+	
+	/** The amount of hashes other than 0 in the hash set. */
+	private int positionSetSize;
+	
+	/** Whether the hash 0, which marks an empty slot, is in the hash set. */
+	private boolean containsZero;
+	
+	/**
+	 * Create a new position history starting with the provided board situation.
+	 * @param initialHash
+	 * 			The hash of the initial board situation.
+	 */
+	public PositionHistory(long initialHash) {
+		positions = new long[INITIAL_CAPACITY];
+		positionSet = new long[INITIAL_CAPACITY * 2];
+		addPosition(initialHash);
+	}
+	
+	/**
+	 * Add the board situation after a move to the history.
+	 * @param hash
+	 * 			The hash of the board situation.
+	 */
+	public void addPosition(long hash) {
+		if (positionCount == positions.length) {
+			positions = Arrays.copyOf(positions, positionCount * 2);
+		}
+		positions[positionCount] = hash;
+		positionCount++;
+		if (hash == 0) {
+			containsZero = true;
+		} else if (insert(positionSet, hash)) {
+			positionSetSize++;
+			if (positionSetSize * 2 > positionSet.length) {
+				long[] slots = new long[positionSet.length * 2];
+				for (long setHash : positionSet) {
+					if (setHash != 0) {
+						insert(slots, setHash);
+					}
+				}
+				positionSet = slots;
+			}
+		}
+	}
+	
+	/**
+	 * Whether the board situation occurred earlier in the game.
+	 * @param hash
+	 * 			The hash of the board situation.
+	 * @return
+	 * 			True if the board situation occurred before and false otherwise.
+	 */
+	public boolean containsPosition(long hash) {
+		if (hash == 0) {
+			return containsZero;
+		}
+		int mask = positionSet.length - 1;
+		for (int slot = getSlot(hash, mask); positionSet[slot] != 0; slot = (slot + 1) & mask) {
+			if (positionSet[slot] == hash) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Whether the board situation is the situation from before the previous move.
+	 * @param hash
+	 * 			The hash of the board situation.
+	 * @return
+	 * 			True if the board situation equals the situation before the previous move.
+	 */
+	public boolean isPreviousPosition(long hash) {
+		return positionCount > 1 && positions[positionCount - 2] == hash;
+	}
+	
+	/**
+	 * Return the hash of the current board situation.
+	 * @return
+	 * 			The hash.
+	 */
+	public long getCurrentPosition() {
+		return positions[positionCount - 1];
+	}
+	
+	/**
+	 * Put the provided hash other than 0 in the first empty slot from its own slot on,
+	 * unless it is in the slots already.
+	 * @param slots
+	 * 			The slots of the hash set, of which the amount is a power of two.
+	 * @param hash
+	 * 			The hash of the board situation.
+	 * @return
+	 * 			True if the hash was put in a slot and false if it was in the slots already.
+	 */
+	private static boolean insert(long[] slots, long hash) {
+		int mask = slots.length - 1;
+		int slot = getSlot(hash, mask);
+		while (slots[slot] != 0) {
+			if (slots[slot] == hash) {
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = hash;
+		return true;
+	}
+	
+	/**
+	 * Return the slot the provided hash starts looking for its place at.
+	 * @param hash
+	 * 			The hash of the board situation.
+	 * @param mask
+	 * 			The amount of slots minus 1.
+	 * @return
+	 * 			The slot.
+	 */
+	private static int getSlot(long hash, int mask) {
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+}
@@ -0,0 +1,224 @@
+package game;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import client.handler.GoClientHandler;
+import protocol.CommandType;
+import protocol.EncodedCommand;
+
+/**
+ * A GoClient that watches a game without playing.
+ * The commands of the game are offered to a bounded buffer by the thread of the game, which
+ * never waits for the spectator, and are sent to the GoClient by a thread of the spectator
+ * executor. The spectator executor does not hand more commands to the GoClientHandler while
+ * the commands sent before are not written yet. If the buffer is full, the commands in it are
+ * dropped and replaced by a snapshot of the game, so a slow spectator resyncs instead of
+ * holding up the game or keeping an ever growing backlog.
+ * @author janine.kleinrot
+ */
+public class Spectator {
+
+	/** The default amount of commands the buffer holds. */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	/** The amount of bytes not written to the GoClient above which no commands are sent. */
+	public static final int MAX_PENDING_BYTES = 16384;
+
+	/** The time in milliseconds after which a spectator that could not be sent to is retried. */
+	private static final long RETRY_DELAY = 50;
+
+	/** The GoClientHandler communicating with the GoClient. */
+	private GoClientHandler goClientHandler;
+
+	/** The executor that sends the commands to the GoClient. */
+	private Executor executor;
+
+	/** The executor that sends the commands to the GoClient after the retry delay. */
+	private Executor retryExecutor;
+
+	/** The amount of commands the buffer holds. */
+	private int capacity;
+
+	/** The commands waiting to be sent. */
+	private Queue<EncodedCommand> buffer;
+
+	/** The lock of the buffer. */
+	private Lock lock;
+
+	/** Whether a thread of the executor is asked to send the commands in the buffer. */
+	private AtomicBoolean isScheduled;
+
+	/** Whether the spectator stopped watching the game. */
+	private volatile boolean isClosed;
+
+	/** The amount of times the buffer was replaced by a snapshot. */
+	private int resyncCount;
+
+	/**
+	 * Create a new Spectator with a buffer of the default capacity.
+	 * @param goClientHandler
+	 * 			The GoClientHandler communicating with the GoClient.
+	 * @param executor
+	 * 			The executor that sends the commands to the GoClient.
+	 */
+	public Spectator(GoClientHandler goClientHandler, Executor executor) {
+		this(goClientHandler, executor, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a new Spectator.
+	 * @param goClientHandler
+	 * 			The GoClientHandler communicating with the GoClient.
+	 * @param executor
+	 * 			The executor that sends the commands to the GoClient.
+	 * @param capacity
+	 * 			The amount of commands the buffer holds.
+	 */
+	public Spectator(GoClientHandler goClientHandler, Executor executor, int capacity) {
+		this.goClientHandler = goClientHandler;
+		this.executor = executor;
+		this.capacity = capacity;
+		retryExecutor = CompletableFuture.delayedExecutor(RETRY_DELAY, TimeUnit.MILLISECONDS,
+				executor);
+		buffer = new ArrayDeque<EncodedCommand>();
+		lock = new ReentrantLock();
+		isScheduled = new AtomicBoolean(false);
+	}
+
+	/**
+	 * Return the GoClientHandler communicating with the GoClient.
+	 * @return
+	 * 			The GoClientHandler.
+	 */
+	public GoClientHandler getGoClientHandler() {
+		return goClientHandler;
+	}
+
+	/**
+	 * Offer a command of the game without waiting for the GoClient. If the buffer is full,
+	 * the commands in it are replaced by the snapshot of the game after the command,
+	 * followed by the command itself if it is not a TURN.
+	 * @param command
+	 * 			The command.
+	 * @param snapshot
+	 * 			The supplier of the snapshot of the game, only called if the buffer is full.
+	 */
+	public void offer(EncodedCommand command, Supplier<EncodedCommand> snapshot) {
+		if (isClosed) {
+			return;
+		}
+		lock.lock();
+		try {
+			if (buffer.size() < capacity) {
+				buffer.add(command);
+			} else {
+				buffer.clear();
+				buffer.add(snapshot.get());
+				if (command.getType() != CommandType.TURN) {
+					buffer.add(command);
+				}
+				resyncCount++;
+			}
+		} finally {
+			lock.unlock();
+		}
+		schedule();
+	}
+
+	/**
+	 * Stop sending the commands of the game. The commands in the buffer are dropped.
+	 */
+	public void close() {
+		isClosed = true;
+		lock.lock();
+		try {
+			buffer.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Whether the spectator stopped watching the game.
+	 * @return
+	 * 			True if the spectator stopped watching and false otherwise.
+	 */
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Return the amount of commands waiting to be sent.
+	 * @return
+	 * 			The amount of commands.
+	 */
+	public int getBufferedCommandCount() {
+		lock.lock();
+		try {
+			return buffer.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the amount of times the commands in the buffer were replaced by a snapshot.
+	 * @return
+	 * 			The amount of resyncs.
+	 */
+	public int getResyncCount() {
+		lock.lock();
+		try {
+			return resyncCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Ask the executor to send the commands in the buffer if no thread is sending them yet.
+	 */
+	private void schedule() {
+		if (isScheduled.compareAndSet(false, true)) {
+			executor.execute(this::sendCommands);
+		}
+	}
+
+	/**
+	 * Send the commands in the buffer while the GoClientHandler keeps up with writing them.
+	 * If it does not, sending is retried after the retry delay, and the buffer fills up
+	 * in the meantime. The buffer is handled again if a command was offered after the last poll.
+	 */
+	private void sendCommands() {
+		do {
+			while (!isClosed) {
+				if (goClientHandler.getPendingBytes() > MAX_PENDING_BYTES) {
+					retryExecutor.execute(this::sendCommands);
+					return;
+				}
+				EncodedCommand command;
+				lock.lock();
+				try {
+					command = buffer.poll();
+				} finally {
+					lock.unlock();
+				}
+				if (command == null) {
+					break;
+				}
+				goClientHandler.sendEncodedCommand(command);
+			}
+			isScheduled.set(false);
+		} while (!isClosed && getBufferedCommandCount() > 0 &&
+				isScheduled.compareAndSet(false, true));
+	}
+
+}
@@ -0,0 +1,345 @@
+package game;
+
+import java.util.Arrays;
+
+import game.board.BoardState;
+import game.board.NeighborTable;
+import game.board.stone.StoneColor;
+
+/**
+ * The stones of a board situation that are alive or dead whatever is played,
+ * found with Benson's algorithm for unconditional life.
+ * For every color the chains of that color and the regions of the intersections without
+ * a stone of that color are found. A region is vital to a chain if all its empty
+ * intersections are liberties of the chain. Chains with less than two vital regions and
+ * the regions bordering such a chain are removed until nothing changes; the chains that are
+ * left can never be captured, even if their player passes. The stones of the other color
+ * in a region that is left and whose empty intersections all border such a chain can never
+ * make an eye, so they are dead. The liberties a region gives every bordering chain are
+ * counted in a single walk over the region, and the chains and regions are kept in int
+ * arrays, so a removed chain only revisits the regions it borders.
+ * @author janine.kleinrot
+ */
+public class UnconditionalLife {
+
+	/** The size of the board. */
+	private int size;
+
+	/** The shared neighbor table of the board size. */
+	private int[] neighbors;
+
+	/** Whether the stone at each intersection is unconditionally alive. */
+	private boolean[] isAlive;
+
+	/** Whether the stone at each intersection is unconditionally dead. */
+	private boolean[] isDead;
+
+	/**
+	 * Find the unconditionally alive and dead stones of the provided board state.
+	 * @param boardState
+	 * 			The board state.
+	 */
+	public UnconditionalLife(BoardState boardState) {
+		size = boardState.getSize();
+		neighbors = NeighborTable.get(size);
+		isAlive = new boolean[size * size];
+		isDead = new boolean[size * size];
+		analyze(boardState, StoneColor.BLACK);
+		analyze(boardState, StoneColor.WHITE);
+	}
+
+	/**
+	 * Whether the stone at the intersection with the provided index is unconditionally alive.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			True if the stone can never be captured and false otherwise.
+	 */
+	public boolean isAlive(int index) {
+		return isAlive[index];
+	}
+
+	/**
+	 * Whether the stone at the intersection with the provided index is unconditionally dead.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			True if the stone lies in an unconditionally alive area of the other color.
+	 */
+	public boolean isDead(int index) {
+		return isDead[index];
+	}
+
+	/**
+	 * Find the unconditionally alive chains of the provided color and the stones of the other
+	 * color in their regions.
+	 * @param boardState
+	 * 			The board state.
+	 * @param color
+	 * 			The stone color.
+	 */
+	private void analyze(BoardState boardState, StoneColor color) {
+		int[] chains = new int[size * size];
+		int chainCount = label(boardState, chains, color, true);
+		int[] regions = new int[size * size];
+		int regionCount = label(boardState, regions, color, false);
+		int[] regionStart = new int[regionCount + 1];
+		int[] regionIntersections = group(regions, regionCount, regionStart);
+		int[] borderStart = new int[regionCount + 1];
+		int[] borderChains = new int[size * size * 4];
+		boolean[] isVital = new boolean[borderChains.length];
+		int borderCount = findBorderChains(boardState, chains, chainCount, regionCount,
+				regionStart, regionIntersections, borderStart, borderChains, isVital);
+		int[] chainStart = new int[chainCount + 1];
+		int[] chainRegions = new int[borderCount];
+		int[] vitalCounts = new int[chainCount];
+		for (int border = 0; border < borderCount; border++) {
+			chainStart[borderChains[border] + 1]++;
+			if (isVital[border]) {
+				vitalCounts[borderChains[border]]++;
+			}
+		}
+		for (int chain = 0; chain < chainCount; chain++) {
+			chainStart[chain + 1] = chainStart[chain + 1] + chainStart[chain];
+		}
+		int[] chainNext = Arrays.copyOf(chainStart, chainCount);
+		for (int region = 0; region < regionCount; region++) {
+			for (int border = borderStart[region]; border < borderStart[region + 1]; border++) {
+				chainRegions[chainNext[borderChains[border]]] = region;
+				chainNext[borderChains[border]]++;
+			}
+		}
+		boolean[] isChainAlive = new boolean[chainCount];
+		boolean[] isRegionAlive = new boolean[regionCount];
+		Arrays.fill(isRegionAlive, true);
+		int[] removedChains = new int[chainCount];
+		int removedCount = 0;
+		for (int chain = 0; chain < chainCount; chain++) {
+			isChainAlive[chain] = vitalCounts[chain] >= 2;
+			if (!isChainAlive[chain]) {
+				removedChains[removedCount] = chain;
+				removedCount++;
+			}
+		}
+		for (int removed = 0; removed < removedCount; removed++) {
+			int chain = removedChains[removed];
+			for (int i = chainStart[chain]; i < chainStart[chain + 1]; i++) {
+				int region = chainRegions[i];
+				if (isRegionAlive[region]) {
+					isRegionAlive[region] = false;
+					for (int border = borderStart[region]; border < borderStart[region + 1];
+							border++) {
+						int vitalChain = borderChains[border];
+						if (isVital[border]) {
+							vitalCounts[vitalChain]--;
+							if (isChainAlive[vitalChain] && vitalCounts[vitalChain] < 2) {
+								isChainAlive[vitalChain] = false;
+								removedChains[removedCount] = vitalChain;
+								removedCount++;
+							}
+						}
+					}
+				}
+			}
+		}
+		boolean[] isEyeless = new boolean[regionCount];
+		Arrays.fill(isEyeless, true);
+		for (int index = 0; index < size * size; index++) {
+			if (chains[index] >= 0 && isChainAlive[chains[index]]) {
+				isAlive[index] = true;
+			} else if (regions[index] >= 0 && !boardState.isOccupied(index) &&
+					!isAdjacentToColor(boardState, index, color)) {
+				isEyeless[regions[index]] = false;
+			}
+		}
+		for (int index = 0; index < size * size; index++) {
+			int region = regions[index];
+			if (region >= 0 && boardState.isOccupied(index) && isRegionAlive[region] &&
+					isEyeless[region] && borderStart[region + 1] > borderStart[region]) {
+				isDead[index] = true;
+			}
+		}
+	}
+
+	/**
+	 * Group the intersections by their label, in order of their index within every label.
+	 * @param labels
+	 * 			The label of every intersection, -1 for the intersections that are left out.
+	 * @param count
+	 * 			The amount of labels.
+	 * @param starts
+	 * 			The position of the first intersection of every label in the groups, followed
+	 * 			by the amount of grouped intersections, which are set.
+	 * @return
+	 * 			The grouped intersections.
+	 */
+	private int[] group(int[] labels, int count, int[] starts) {
+		for (int index = 0; index < labels.length; index++) {
+			if (labels[index] >= 0) {
+				starts[labels[index] + 1]++;
+			}
+		}
+		for (int label = 0; label < count; label++) {
+			starts[label + 1] = starts[label + 1] + starts[label];
+		}
+		int[] groups = new int[starts[count]];
+		int[] next = Arrays.copyOf(starts, count);
+		for (int index = 0; index < labels.length; index++) {
+			if (labels[index] >= 0) {
+				groups[next[labels[index]]] = index;
+				next[labels[index]]++;
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * Find the chains bordering every region and whether the region is vital to them.
+	 * Every region is walked once: for every chain bordering it the empty intersections
+	 * of the region that are liberties of the chain are counted, and the region is vital
+	 * to the chain if that count equals the amount of empty intersections of the region.
+	 * @param boardState
+	 * 			The board state.
+	 * @param chains
+	 * 			The chain of every intersection.
+	 * @param chainCount
+	 * 			The amount of chains.
+	 * @param regionCount
+	 * 			The amount of regions.
+	 * @param regionStart
+	 * 			The position of the first intersection of every region in the grouped
+	 * 			intersections.
+	 * @param regionIntersections
+	 * 			The intersections grouped by region.
+	 * @param borderStart
+	 * 			The position of the first border chain of every region, followed by the
+	 * 			amount of border chains, which are set.
+	 * @param borderChains
+	 * 			The chains bordering the regions, which are set.
+	 * @param isVital
+	 * 			Whether the region is vital to each border chain, which are set.
+	 * @return
+	 * 			The amount of border chains of all regions together.
+	 */
+	private int findBorderChains(BoardState boardState, int[] chains, int chainCount,
+			int regionCount, int[] regionStart, int[] regionIntersections, int[] borderStart,
+			int[] borderChains, boolean[] isVital) {
+		int[] liberties = new int[borderChains.length];
+		int[] chainBorder = new int[chainCount];
+		int[] chainRegion = new int[chainCount];
+		int[] chainIntersection = new int[chainCount];
+		Arrays.fill(chainRegion, -1);
+		Arrays.fill(chainIntersection, -1);
+		int borderCount = 0;
+		for (int region = 0; region < regionCount; region++) {
+			borderStart[region] = borderCount;
+			int emptyCount = 0;
+			for (int i = regionStart[region]; i < regionStart[region + 1]; i++) {
+				int index = regionIntersections[i];
+				boolean isEmpty = !boardState.isOccupied(index);
+				if (isEmpty) {
+					emptyCount++;
+				}
+				for (int direction = 0; direction < 4; direction++) {
+					int adjacentIndex = getAdjacentIndex(index, direction);
+					int chain = adjacentIndex >= 0 ? chains[adjacentIndex] : -1;
+					if (chain >= 0) {
+						if (chainRegion[chain] != region) {
+							chainRegion[chain] = region;
+							chainBorder[chain] = borderCount;
+							borderChains[borderCount] = chain;
+							borderCount++;
+						}
+						if (isEmpty && chainIntersection[chain] != index) {
+							chainIntersection[chain] = index;
+							liberties[chainBorder[chain]]++;
+						}
+					}
+				}
+			}
+			for (int border = borderStart[region]; border < borderCount; border++) {
+				isVital[border] = liberties[border] == emptyCount;
+			}
+		}
+		borderStart[regionCount] = borderCount;
+		return borderCount;
+	}
+
+	/**
+	 * Number the chains of the provided color, or the regions of the intersections without
+	 * a stone of the provided color, in order of their first intersection.
+	 * @param boardState
+	 * 			The board state.
+	 * @param labels
+	 * 			The number of the chain or region of every intersection, -1 for the others.
+	 * @param color
+	 * 			The stone color.
+	 * @param isChain
+	 * 			True to number the chains and false to number the regions.
+	 * @return
+	 * 			The amount of chains or regions.
+	 */
+	private int label(BoardState boardState, int[] labels, StoneColor color, boolean isChain) {
+		Arrays.fill(labels, -1);
+		int[] stack = new int[size * size];
+		int count = 0;
+		for (int start = 0; start < size * size; start++) {
+			if (labels[start] == -1 && (boardState.getStoneColor(start) == color) == isChain) {
+				labels[start] = count;
+				stack[0] = start;
+				int stackSize = 1;
+				while (stackSize > 0) {
+					stackSize--;
+					int index = stack[stackSize];
+					for (int direction = 0; direction < 4; direction++) {
+						int adjacentIndex = getAdjacentIndex(index, direction);
+						if (adjacentIndex >= 0 && labels[adjacentIndex] == -1 &&
+								(boardState.getStoneColor(adjacentIndex) == color) == isChain) {
+							labels[adjacentIndex] = count;
+							stack[stackSize] = adjacentIndex;
+							stackSize++;
+						}
+					}
+				}
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Whether a stone of the provided color is adjacent to the intersection.
+	 * @param boardState
+	 * 			The board state.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param color
+	 * 			The stone color.
+	 * @return
+	 * 			True if an adjacent intersection holds a stone of the color.
+	 */
+	private boolean isAdjacentToColor(BoardState boardState, int index, StoneColor color) {
+		for (int direction = 0; direction < 4; direction++) {
+			int adjacentIndex = getAdjacentIndex(index, direction);
+			if (adjacentIndex >= 0 && boardState.getStoneColor(adjacentIndex) == color) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the index of the adjacent intersection in the provided direction,
+	 * looked up in the neighbor table.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param direction
+	 * 			The direction from 0 to 3.
+	 * @return
+	 * 			The index of the adjacent intersection or -1 if there is none.
+	 */
+	private int getAdjacentIndex(int index, int direction) {
+		return neighbors[index * 4 + direction];
+	}
+
+}
@@ -0,0 +1,159 @@
+package game.board;
+
+import java.util.Arrays;
+
+import game.board.stone.StoneColor;
+
+/**
+ * The occupation of the intersections of a Go board stored as two bitsets,
+ * one for the black stones and one for the white stones.
+ * The intersection at x and y has index x * size + y.
+ * A 19 x 19 board fits in six longs per color.
+ * @author janine.kleinrot
+ */
+public class BitBoardState implements BoardState {
+
+	/** The size of the board. */
+	private int size;
+
+	/** The intersections occupied by a black stone. */
+	private long[] black;
+
+	/** The intersections occupied by a white stone. */
+	private long[] white;
+
+	/** The Zobrist hash of the stones on the board. */
+	private long hash;
+
+	/**
+	 * Create a new empty board state with the provided size.
+	 * @param size
+	 * 			The size of the board.
+	 */
+	public BitBoardState(int size) {
+		this.size = size;
+		int words = (size * size + 63) >>> 6;
+		black = new long[words];
+		white = new long[words];
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public boolean isOccupied(int x, int y) {
+		return isOccupied(x * size + y);
+	}
+
+	@Override
+	public boolean isOccupied(int index) {
+		return ((black[index >>> 6] | white[index >>> 6]) & (1L << index)) != 0;
+	}
+
+	@Override
+	public StoneColor getStoneColor(int x, int y) {
+		return getStoneColor(x * size + y);
+	}
+
+	@Override
+	public StoneColor getStoneColor(int index) {
+		if ((black[index >>> 6] & (1L << index)) != 0) {
+			return StoneColor.BLACK;
+		} else if ((white[index >>> 6] & (1L << index)) != 0) {
+			return StoneColor.WHITE;
+		} else {
+			return null;
+		}
+	}
+
+	@Override
+	public void setStone(int x, int y, StoneColor color) {
+		setStone(x * size + y, color);
+	}
+
+	@Override
+	public void setStone(int index, StoneColor color) {
+		removeStone(index);
+		hash ^= ZobristKeys.getKey(index, color);
+		if (color == StoneColor.BLACK) {
+			black[index >>> 6] |= 1L << index;
+		} else {
+			white[index >>> 6] |= 1L << index;
+		}
+	}
+
+	@Override
+	public void removeStone(int x, int y) {
+		removeStone(x * size + y);
+	}
+
+	@Override
+	public void removeStone(int index) {
+		if ((black[index >>> 6] & (1L << index)) != 0) {
+			hash ^= ZobristKeys.getKey(index, StoneColor.BLACK);
+			black[index >>> 6] &= ~(1L << index);
+		} else if ((white[index >>> 6] & (1L << index)) != 0) {
+			hash ^= ZobristKeys.getKey(index, StoneColor.WHITE);
+			white[index >>> 6] &= ~(1L << index);
+		}
+	}
+
+	@Override
+	public int getStoneCount(StoneColor color) {
+		long[] stones = color == StoneColor.BLACK ? black : white;
+		int count = 0;
+		for (long word : stones) {
+			count = count + Long.bitCount(word);
+		}
+		return count;
+	}
+
+	@Override
+	public long getHash() {
+		return hash;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(black, 0L);
+		Arrays.fill(white, 0L);
+		hash = 0L;
+	}
+
+	@Override
+	public BitBoardState copy() {
+		BitBoardState copy = new BitBoardState(size);
+		System.arraycopy(black, 0, copy.black, 0, black.length);
+		System.arraycopy(white, 0, copy.white, 0, white.length);
+		copy.hash = hash;
+		return copy;
+	}
+
+	/**
+	 * Whether the provided object is a board state of the same size with the same stones.
+	 * @param object
+	 * 			The object compared to.
+	 * @return
+	 * 			True if the board states are equal and false otherwise.
+	 */
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		if (!(object instanceof BitBoardState)) {
+			return false;
+		}
+		BitBoardState other = (BitBoardState) object;
+		return size == other.size && hash == other.hash && Arrays.equals(black, other.black) &&
+				Arrays.equals(white, other.white);
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+}
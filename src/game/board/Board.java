@@ -1,7 +1,7 @@
 package game.board;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 
 import game.board.gui.GoGUIIntegrator;
@@ -9,27 +9,112 @@ import game.board.stone.StoneColor;
 
 /**
  * The Go board.
+ * The stones are kept in a BoardState and the groups of stones in a union-find structure 
+ * over the indices of the intersections, where the intersection at x and y has index 
+ * x * size + y, and the adjacent intersections are looked up in the NeighborTable shared by 
+ * all boards of the same size. The intersections are a view on the board that is brought 
+ * up to date when requested.
  * @author janine.kleinrot
  */
 public class Board {
 	
+	/** The smallest size of a board. */
+	public static final int MIN_SIZE = 5;
+
+	/** The largest size of a board. */
+	public static final int MAX_SIZE = 19;
+
+	/** Journal change of a stone set at an unoccupied intersection. */
+	private static final int STONE_SET = 0;
+	
+	/** Journal change of a stone removed from an intersection. */
+	private static final int STONE_REMOVED = 1;
+	
+	/** Journal change of the root of the group of an intersection. */
+	private static final int GROUP_ROOT = 2;
+	
+	/** Journal change of the amount of stones of a group. */
+	private static final int GROUP_SIZE = 3;
+	
+	/** Journal change of the pseudo liberties of a group. */
+	private static final int GROUP_LIBERTIES = 4;
+	
+	/** Journal change of the next stone in the list of stones of a group. */
+	private static final int GROUP_NEXT = 5;
+	
+	/** Journal change of the intersection where a stone can not be recaptured. */
+	private static final int KO_INDEX = 6;
+	
+	/** The stone colors by ordinal. */
+	private static final StoneColor[] STONE_COLORS = StoneColor.values();
+	
 	/** Two-dimensional array of intersections of the board. */
 	private Intersection[][] intersections;
 	
+	/** The occupation of the intersections of the board. */
+	private BoardState boardState;
+	
+	/** 
+	 * The root of the group of each occupied intersection. 
+	 * The stones of a smaller group are relinked to the root of the larger group on a merge,
+	 * so the root is always found with a single lookup.
+	 */
+	private int[] groupRoots;
+	
+	/** The amount of stones in the group of each root. */
+	private int[] groupSizes;
+	
+	/** 
+	 * The pseudo liberties of the group of each root. 
+	 * An empty intersection is counted once for every adjacent stone of the group, 
+	 * so the group has no liberties if and only if the count is zero.
+	 */
+	private int[] groupLiberties;
+	
+	/** The next stone in the circular list of stones of the group of each intersection. */
+	private int[] groupNext;
+	
+	/** 
+	 * The journal of changes made by the moves that can be taken back, 
+	 * stored as the type of change, the index and the value before the change.
+	 */
+	private int[] journal;
+	
+	/** The amount of values in the journal. */
+	private int journalSize;
+	
+	/** The position in the journal where each move starts. */
+	private int[] moveStarts;
+	
+	/** The amount of moves in the journal. */
+	private int moveCount;
+	
+	/** The moves taken back with undo, stored as twice the index plus the color ordinal. */
+	private int[] undoneMoves;
+	
+	/** The amount of moves that can be made again with redo. */
+	private int undoneMoveCount;
+	
+	/** The index of the intersection where the simple Ko rule forbids a move, or -1. */
+	private int koIndex;
+	
 	/** The size of the board. */
 	private int size;
 	
+	/** The shared neighbor table of the board size. */
+	private int[] neighbors;
+	
 	/**	The GUI of the board. */
 	private GoGUIIntegrator goGUI;
 	
 	/** Whether a GoGUI should be used. */
 	private boolean isGoGUI;
 	
-	/** List of intersection groups. */
-	private List<IntersectionGroup> intersectionGroups;
+	/** The owner of every intersection, brought up to date with every stone set or removed. */
+	private OwnershipMap ownershipMap;
 	
-	/** List of empty intersection groups. */
-	private List<IntersectionGroup> emptyIntersectionGroups;
+	/** The scoring engine, created when the board is scored for the first time. */
+	private ScoringEngine scoringEngine;
 	
 	/** The color of the most recent placed stone. */
 	private StoneColor color;
@@ -52,82 +137,41 @@ public class Board {
 	 */
 	public Board(int size, boolean isGoGUI) {
 		this.isGoGUI = isGoGUI;
-		this.intersectionGroups = new ArrayList<IntersectionGroup>();
-		this.emptyIntersectionGroups = new ArrayList<IntersectionGroup>();
-		if (size < 5) {
-			intersections = new Intersection[5][5];
-			this.size = 5;
-		} else if (size > 19) {
-			intersections = new Intersection[19][19];
-			this.size = 19;
-		} else {
-			intersections = new Intersection[size][size];
-			this.size = size;
-		}
-		for (int x = 0; x < this.size; x++) {
-			for (int y = 0; y < this.size; y++) {
-				intersections[x][y] = new Intersection(new Position(x, y));
-			}
-		}
+		setSize(getValidSize(size));
+	}
+
+	/**
+	 * Return the size a board gets when it is created with the provided size.
+	 * @param size
+	 * 			The size asked for.
+	 * @return
+	 * 			The size, MIN_SIZE if the size is smaller and MAX_SIZE if it is larger.
+	 */
+	public static int getValidSize(int size) {
+		return Math.max(MIN_SIZE, Math.min(MAX_SIZE, size));
 	}
 	
 	/**
 	 * Create a copy of the current board.
+	 * The journal is not copied, so the moves before the copy can not be taken back.
 	 * @return
 	 * 			The copy of the board.
 	 */
 	public Board copy() {
 		Board copy = new Board(size, false);
-		copy.intersections = copyIntersections();
-		copy.intersectionGroups = copyIntersectionGroups();
-		copy.emptyIntersectionGroups = copyEmptyIntersectionGroups();
+		copy.boardState = boardState.copy();
+		copy.ownershipMap = ownershipMap.copy();
+		System.arraycopy(groupRoots, 0, copy.groupRoots, 0, groupRoots.length);
+		System.arraycopy(groupSizes, 0, copy.groupSizes, 0, groupSizes.length);
+		System.arraycopy(groupLiberties, 0, copy.groupLiberties, 0, groupLiberties.length);
+		System.arraycopy(groupNext, 0, copy.groupNext, 0, groupNext.length);
+		copy.koIndex = koIndex;
 		copy.color = color;
 		copy.blackScore = blackScore;
 		copy.whiteScore = whiteScore;
 		return copy;
 	}
 	
-	/**
-	 * Create a copy of the current list of empty intersection groups.
-	 * @return
-	 * 			The list of current empty intersection groups.			
-	 */
-	private List<IntersectionGroup> copyEmptyIntersectionGroups() {
-		List<IntersectionGroup> copy = new ArrayList<IntersectionGroup>();
-		for (IntersectionGroup emptyIntersectionGroup : emptyIntersectionGroups) {
-			copy.add(emptyIntersectionGroup.copy());
-		}
-		return copy;
-	}
-
-	/**
-	 * Create a copy of the current list of intersection groups.
-	 * @return
-	 * 			The list of current intersection groups.
-	 */
-	private List<IntersectionGroup> copyIntersectionGroups() {
-		List<IntersectionGroup> copy = new ArrayList<IntersectionGroup>();
-		for (IntersectionGroup intersectionGroup : intersectionGroups) {
-			copy.add(intersectionGroup.copy());
-		}
-		return copy;
-	}
-
-	/**
-	 * Create a copy of the two-dimensional array of intersections.
-	 * @return
-	 * 			The intersections.
-	 */
-	private Intersection[][] copyIntersections() {
-		Intersection[][] copy = new Intersection[size][size];
-		for (int x = 0; x < size; x++) {
-			for (int y = 0; y < size; y++) {
-				copy[x][y] = intersections[x][y].copy();
-			}
-		}
-		return copy;
-	}
-
 	/** 
 	 * Start a GoGUI.
 	 */
@@ -155,6 +199,7 @@ public class Board {
 	
 	/**
 	 * Set the size of the new board to the provided size.
+	 * All intersections of the new board are unoccupied.
 	 * @param size
 	 * 			The new board size.
 	 */
@@ -162,25 +207,251 @@ public class Board {
 		intersections = new Intersection[size][size];
 		for (int x = 0; x < size; x++) {
 			for (int y = 0; y < size; y++) {
-				intersections[x][y] = new Intersection(new Position(x, y));
+				intersections[x][y] = new Intersection(Position.of(x * size + y, size));
 			}
 		}
 		this.size = size;
+		neighbors = NeighborTable.get(size);
+		scoringEngine = null;
+		boardState = new BitBoardState(size);
+		ownershipMap = new OwnershipMap(size);
+		groupRoots = new int[size * size];
+		groupSizes = new int[size * size];
+		groupLiberties = new int[size * size];
+		groupNext = new int[size * size];
+		journal = new int[64 * size];
+		moveStarts = new int[size * size];
+		undoneMoves = new int[size * size];
+		clearJournal();
 	}
 	
 	/**
 	 * Return the intersection at the provided position.
+	 * The stone at the intersection and its liberties are brought up to date with the board.
 	 * @param position
 	 * 			The position.
 	 * @return
 	 * 			The intersection.
 	 */
 	public Intersection getIntersection(Position position) {
-		return intersections[position.getX()][position.getY()];
+		Intersection intersection = intersections[position.getX()][position.getY()];
+		int index = position.getX() * size + position.getY();
+		StoneColor stoneColor = boardState.getStoneColor(index);
+		if (stoneColor == null) {
+			if (intersection.isOccupied()) {
+				intersection.removeStone();
+			}
+		} else {
+			if (!intersection.isOccupied() || intersection.getStone().getColor() != stoneColor) {
+				intersection.setStone(stoneColor);
+			}
+			int adjacentIntersections = 0;
+			int liberties = 0;
+			for (int direction = 0; direction < 4; direction++) {
+				int adjacentIndex = getAdjacentIndex(index, direction);
+				if (adjacentIndex >= 0) {
+					adjacentIntersections++;
+					if (!boardState.isOccupied(adjacentIndex)) {
+						liberties++;
+					}
+				}
+			}
+			intersection.getStone().setInitialLiberties(adjacentIntersections);
+			intersection.getStone().setLiberties(liberties);
+		}
+		return intersection;
+	}
+	
+	/**
+	 * Return the occupation of the intersections of the board.
+	 * @return
+	 * 			The board state.
+	 */
+	public BoardState getBoardState() {
+		return boardState;
+	}
+
+	/**
+	 * Return the Zobrist hash of the current board situation.
+	 * @return
+	 * 			The hash.
+	 */
+	public long getHash() {
+		return boardState.getHash();
+	}
+
+	/**
+	 * Return the Zobrist hash of the board situation after a stone with the provided color
+	 * is set at the unoccupied intersection at the provided x and y coordinate,
+	 * without changing the board.
+	 * @param x
+	 * 			The x coordinate of the intersection at the board.
+	 * @param y
+	 * 			The y coordinate of the intersection at the board.
+	 * @param stoneColor
+	 * 			The color of the stone.
+	 * @return
+	 * 			The hash of the board situation after the move.
+	 */
+	public long getHashAfterMove(int x, int y, StoneColor stoneColor) {
+		return getHashAfterMove(x * size + y, stoneColor);
+	}
+
+	/**
+	 * Return the hash of the board situation after a stone with the provided color is played
+	 * at the unoccupied intersection with the provided index, without changing the board.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param stoneColor
+	 * 			The color of the stone.
+	 * @return
+	 * 			The hash of the board situation after the move.
+	 */
+	public long getHashAfterMove(int index, StoneColor stoneColor) {
+		long hash = boardState.getHash() ^ ZobristKeys.getKey(index, stoneColor);
+		boolean isCapture = false;
+		int liberties = 0;
+		for (int direction = 0; direction < 4; direction++) {
+			int adjacentIndex = getAdjacentIndex(index, direction);
+			if (adjacentIndex >= 0) {
+				StoneColor adjacentColor = boardState.getStoneColor(adjacentIndex);
+				if (adjacentColor == null) {
+					liberties++;
+				} else if (isFirstAdjacentStoneOfGroup(index, direction)) {
+					int root = groupRoots[adjacentIndex];
+					int remainingLiberties = groupLiberties[root] - countAdjacentStones(index, root);
+					if (adjacentColor == stoneColor) {
+						liberties = liberties + remainingLiberties;
+					} else if (remainingLiberties == 0) {
+						isCapture = true;
+						hash ^= getGroupHash(root, adjacentColor);
+					}
+				}
+			}
+		}
+		if (!isCapture && liberties == 0) {
+			hash ^= ZobristKeys.getKey(index, stoneColor);
+			for (int direction = 0; direction < 4; direction++) {
+				int adjacentIndex = getAdjacentIndex(index, direction);
+				if (adjacentIndex >= 0 && boardState.getStoneColor(adjacentIndex) == stoneColor
+						&& isFirstAdjacentStoneOfGroup(index, direction)) {
+					hash ^= getGroupHash(groupRoots[adjacentIndex], stoneColor);
+				}
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Whether a stone with the provided color at the unoccupied intersection with the provided
+	 * index would capture nothing and be left without liberties.
+	 * The intersection at x and y has index x * size + y.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param stoneColor
+	 * 			The color of the stone.
+	 * @return
+	 * 			True if the move is suicide and false otherwise.
+	 */
+	public boolean isSuicide(int index, StoneColor stoneColor) {
+		for (int direction = 0; direction < 4; direction++) {
+			int adjacentIndex = getAdjacentIndex(index, direction);
+			if (adjacentIndex >= 0) {
+				StoneColor adjacentColor = boardState.getStoneColor(adjacentIndex);
+				if (adjacentColor == null) {
+					return false;
+				}
+				int root = groupRoots[adjacentIndex];
+				boolean hasOtherLiberties = groupLiberties[root] > 
+						countAdjacentStones(index, root);
+				if (adjacentColor == stoneColor ? hasOtherLiberties : !hasOtherLiberties) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the index of the intersection where the simple Ko rule forbids the next move, 
+	 * because the previous move captured a single stone there with a single stone.
+	 * Only moves in the journal are taken into account.
+	 * @return
+	 * 			The index of the intersection or -1 if there is none.
+	 */
+	public int getKoIndex() {
+		return koIndex;
+	}
+
+	/**
+	 * Whether the adjacent stone in the provided direction is the first adjacent stone
+	 * of its group, so every adjacent group is only counted once.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param direction
+	 * 			The direction of the adjacent stone.
+	 * @return
+	 * 			True if no adjacent stone in an earlier direction is in the same group.
+	 */
+	private boolean isFirstAdjacentStoneOfGroup(int index, int direction) {
+		int root = groupRoots[getAdjacentIndex(index, direction)];
+		for (int earlierDirection = 0; earlierDirection < direction; earlierDirection++) {
+			int adjacentIndex = getAdjacentIndex(index, earlierDirection);
+			if (adjacentIndex >= 0 && boardState.isOccupied(adjacentIndex) &&
+					groupRoots[adjacentIndex] == root) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the amount of stones of the group with the provided root adjacent to
+	 * the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param root
+	 * 			The root of the group.
+	 * @return
+	 * 			The amount of adjacent stones of the group.
+	 */
+	private int countAdjacentStones(int index, int root) {
+		int count = 0;
+		for (int direction = 0; direction < 4; direction++) {
+			int adjacentIndex = getAdjacentIndex(index, direction);
+			if (adjacentIndex >= 0 && boardState.isOccupied(adjacentIndex) &&
+					groupRoots[adjacentIndex] == root) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Return the exclusive or of the Zobrist keys of the stones of the group
+	 * with the provided root.
+	 * @param root
+	 * 			The root of the group.
+	 * @param stoneColor
+	 * 			The color of the stones of the group.
+	 * @return
+	 * 			The hash of the group.
+	 */
+	private long getGroupHash(int root, StoneColor stoneColor) {
+		long hash = 0L;
+		int stone = root;
+		do {
+			hash ^= ZobristKeys.getKey(stone, stoneColor);
+			stone = groupNext[stone];
+		} while (stone != root);
+		return hash;
 	}
 	
 	/**
 	 * Set a stone with the provided color at the intersection at the provided x and y coordinate.
+	 * Remove the groups of the other color that have no liberties left, 
+	 * and remove the group of the set stone if it has no liberties left after that.
+	 * The move is added to the journal, so it can be taken back with undo.
 	 * @param x
 	 * 			The x coordinate of the intersection at the board.
 	 * @param y
@@ -189,8 +460,24 @@ public class Board {
 	 * 			The color of the stone set at the intersection.
 	 */
 	public void setStone(int x, int y, StoneColor aColor) {
+		setStone(x * size + y, aColor);
+	}
+
+	/**
+	 * Set a stone with the provided color at the intersection with the provided index.
+	 * Remove the groups of the other color that have no liberties left, 
+	 * and remove the group of the set stone if it has no liberties left after that.
+	 * The move is added to the journal, so it can be taken back with undo.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param color
+	 * 			The color of the stone set at the intersection.
+	 */
+	public void setStone(int index, StoneColor aColor) {
 		this.color = aColor;
-		this.getIntersection(new Position(x, y)).setStone(color);
+		if (boardState.isOccupied(index)) {
+			removeStone(Position.of(index, size));
+		}
 		if (isGoGUI) {
 			boolean isWhite;
 			if (color.equals(StoneColor.WHITE)) {
@@ -198,349 +485,398 @@ public class Board {
 			} else {
 				isWhite = false;
 			}
-			goGUI.addStone(y, x, isWhite);
+			goGUI.addStone(index % size, index / size, isWhite);
+		}
+		play(index, aColor);
+		if (isGoGUI) {
+			for (int entry = moveStarts[moveCount - 1]; entry < journalSize; entry += 3) {
+				if (journal[entry] == STONE_REMOVED) {
+					int stone = journal[entry + 1];
+					goGUI.removeStone(stone % size, stone / size);
+					goGUI.removeStone(stone % size, stone / size);
+				}
+			}
 		}
-		setInitialLiberties(x, y);
-		updateBoard(x, y);
 	}
 
 	/**
-	 * Update the liberties of the newly set stone and the surrounding stones or groups.
-	 * Update the stones on the board.
+	 * Play a stone with the provided color at the unoccupied intersection at the provided 
+	 * x and y coordinate, without updating the GoGUI.
+	 * The stones set, the stones captured and the groups merged are recorded in the journal,
+	 * so the move can be taken back with undo without copying the board.
 	 * @param x
 	 * 			The x coordinate of the intersection at the board.
 	 * @param y
 	 * 			The y coordinate of the intersection at the board.
+	 * @param stoneColor
+	 * 			The color of the stone.
 	 */
-	private void updateBoard(int x, int y) {
-		List<Intersection> adjacentIntersections = 
-				getAdjacentIntersectionsWithStone(this.getIntersection(new Position(x, y)));
-		adjustLibertiesOfAdjacentIntersectionsWithStone(adjacentIntersections, 
-				this.getIntersection(new Position(x, y)));
-		addSetStoneToGroup(adjacentIntersections, new Position(x, y));
-		checkForRemovingStones(adjacentIntersections, getIntersection(new Position(x, y)));
+	public void play(int x, int y, StoneColor stoneColor) {
+		play(x * size + y, stoneColor);
 	}
 
 	/**
-	 * Add the set stone to a group or create a new group or do not add to a group.
-	 * @param adjacentIntersections
-	 * 			The adjacent intersections 
-	 * @param position
-	 * 			The position of the intersection.
-	 */
-	private void addSetStoneToGroup(List<Intersection> adjacentIntersections, Position position) {
-		if (this.getIntersection(position).isOccupied()) {
-			for (Intersection adjacentIntersection : adjacentIntersections) {
-				if (adjacentIntersection.getStone().getColor().equals(
-						this.getIntersection(position).getStone().getColor())) {
-					if (!intersectionGroups.isEmpty()) {
-						Iterator<IntersectionGroup> intersectionGroupsIterator = 
-								intersectionGroups.iterator();
-						List<IntersectionGroup> tempIntersectionGroups = 
-								new ArrayList<IntersectionGroup>();
-						List<IntersectionGroup> tempNewIntersectionGroups = 
-								new ArrayList<IntersectionGroup>();
-						while (intersectionGroupsIterator.hasNext()) {
-							IntersectionGroup intersectionGroup = intersectionGroupsIterator.next();
-							for (Intersection intersectionInGroup : 
-								intersectionGroup.getIntersections()) {
-								if (intersectionInGroup.getPosition()
-										.equals(adjacentIntersection.getPosition())) {
-									tempIntersectionGroups.add(intersectionGroup);
-								} else {
-									IntersectionGroup newIntersectionGroup = 
-											new IntersectionGroup();
-									newIntersectionGroup.addIntersection(
-											this.getIntersection(position));
-									newIntersectionGroup.addIntersection(adjacentIntersection);
-									tempNewIntersectionGroups.add(newIntersectionGroup);
-								}
-							}
-						}
-						for (IntersectionGroup intersectionGroup : tempIntersectionGroups) {
-							intersectionGroup.addIntersection(this.getIntersection(position));
-						}
-						for (IntersectionGroup newIntersectionGroup : tempNewIntersectionGroups) {
-							intersectionGroups.add(newIntersectionGroup);
-						}
-					} else {
-						IntersectionGroup newIntersectionGroup = new IntersectionGroup();
-						newIntersectionGroup.addIntersection(this.getIntersection(position));
-						newIntersectionGroup.addIntersection(adjacentIntersection);
-						intersectionGroups.add(newIntersectionGroup);
-					}
-				}
-			}
-			List<IntersectionGroup> intersectionGroupsContainingAdjacentStone = 
-					new ArrayList<IntersectionGroup>();
-			Iterator<IntersectionGroup> intersectionGroupsIterator = 
-					intersectionGroups.iterator();
-			while (intersectionGroupsIterator.hasNext()) {
-				IntersectionGroup intersectionGroup = intersectionGroupsIterator.next();
-				if (intersectionGroup.getIntersections().contains(
-						this.getIntersection(position))) {
-					intersectionGroupsContainingAdjacentStone.add(intersectionGroup);
-				}
-			}
-			if (intersectionGroupsContainingAdjacentStone.size() > 1) {
-				IntersectionGroup resultingIntersectionGroup = 
-						intersectionGroupsContainingAdjacentStone.get(0);
-				for (int i = 1; i < intersectionGroupsContainingAdjacentStone.size(); i++) {
-					List<Intersection> intersectionsInGroup = 
-							intersectionGroupsContainingAdjacentStone.get(i).getIntersections();
-					for (int j = 0; j < intersectionsInGroup.size(); j++) {
-						resultingIntersectionGroup.addIntersection(intersectionsInGroup.get(j));
-					}
-					intersectionGroups.remove(intersectionGroupsContainingAdjacentStone.get(i));
-				}
-			}
+	 * Play a stone with the provided color at the unoccupied intersection with the provided
+	 * index, without updating the GoGUI.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param stoneColor
+	 * 			The color of the stone.
+	 */
+	public void play(int index, StoneColor stoneColor) {
+		startMove();
+		undoneMoveCount = 0;
+		placeStone(index, stoneColor);
+	}
+
+	/**
+	 * Take back the most recent move in the journal.
+	 * The GoGUI is not updated.
+	 * @return
+	 * 			True if a move was taken back and false if the journal is empty.
+	 */
+	public boolean undo() {
+		if (moveCount == 0) {
+			return false;
 		}
-		List<IntersectionGroup> intersectionGroupsContainingSetStone = 
-				new ArrayList<IntersectionGroup>();
-		Iterator<IntersectionGroup> intersectionGroupsIterator = 
-				intersectionGroups.iterator();
-		while (intersectionGroupsIterator.hasNext()) {
-			IntersectionGroup intersectionGroup = intersectionGroupsIterator.next();
-			if (intersectionGroup.getIntersections().contains(
-					this.getIntersection(position))) {
-				intersectionGroupsContainingSetStone.add(intersectionGroup);
-			}
+		moveCount--;
+		int moveStart = moveStarts[moveCount];
+		int placedStone = journal[moveStart + 1];
+		if (undoneMoveCount == undoneMoves.length) {
+			undoneMoves = Arrays.copyOf(undoneMoves, undoneMoves.length * 2);
 		}
-		if (intersectionGroupsContainingSetStone.size() > 1) {
-			IntersectionGroup resultingIntersectionGroup = 
-					intersectionGroupsContainingSetStone.get(0);
-			for (int i = 1; i < intersectionGroupsContainingSetStone.size(); i++) {
-				List<Intersection> intersectionsInGroup = 
-						intersectionGroupsContainingSetStone.get(i).getIntersections();
-				for (int j = 0; j < intersectionsInGroup.size(); j++) {
-					resultingIntersectionGroup.addIntersection(intersectionsInGroup.get(j));
-				}
-				intersectionGroups.remove(intersectionGroupsContainingSetStone.get(i));
+		undoneMoves[undoneMoveCount] = placedStone * 2 + journal[moveStart + 2];
+		undoneMoveCount++;
+		while (journalSize > moveStart) {
+			journalSize = journalSize - 3;
+			int change = journal[journalSize];
+			int index = journal[journalSize + 1];
+			int previousValue = journal[journalSize + 2];
+			if (change == GROUP_ROOT) {
+				groupRoots[index] = previousValue;
+			} else if (change == GROUP_SIZE) {
+				groupSizes[index] = previousValue;
+			} else if (change == GROUP_LIBERTIES) {
+				groupLiberties[index] = previousValue;
+			} else if (change == GROUP_NEXT) {
+				groupNext[index] = previousValue;
+			} else if (change == KO_INDEX) {
+				koIndex = previousValue;
+			} else if (change == STONE_SET) {
+				boardState.removeStone(index);
+				ownershipMap.stoneRemoved(index);
+			} else {
+				boardState.setStone(index, STONE_COLORS[previousValue]);
+				ownershipMap.stoneSet(index, STONE_COLORS[previousValue]);
 			}
 		}
+		return true;
 	}
 
 	/**
-	 * Adjust the liberties of the surrounding stones of the altered intersection.
-	 * @param adjacentIntersections
-	 * 			The adjacent intersections.
-	 * @param intersection
-	 * 			The altered intersection.
+	 * Make the most recent move taken back with undo again.
+	 * The GoGUI is not updated.
+	 * @return
+	 * 			True if a move was made again and false if no move was taken back.
 	 */
-	private void adjustLibertiesOfAdjacentIntersectionsWithStone(
-			List<Intersection> adjacentIntersections, Intersection intersection) {
-		Iterator<Intersection> adjacentIntersectionsIterator = adjacentIntersections.iterator();
-		while (adjacentIntersectionsIterator.hasNext()) {
-			Intersection adjacentIntersection = adjacentIntersectionsIterator.next();
-			List<Intersection> adjacentIntersectionsOfAdjacentIntersection = 
-					getAdjacentIntersectionsWithStone(adjacentIntersection);
-			if (intersection.isOccupied()) {
-				int setStoneLiberties = 0;
-				List<StoneColor> stoneColorAdjacentIntersectionOfAdjacentIntersection = 
-						new ArrayList<StoneColor>();
-				Iterator<Intersection> adjacentIntersectionsOfAdjacentIntersectionIterator = 
-						adjacentIntersectionsOfAdjacentIntersection.iterator();
-				while (adjacentIntersectionsOfAdjacentIntersectionIterator.hasNext()) {
-					Intersection adjacentIntersectionOfAdjacentIntersection = 
-							adjacentIntersectionsOfAdjacentIntersectionIterator.next();
-					stoneColorAdjacentIntersectionOfAdjacentIntersection.add(
-							adjacentIntersectionOfAdjacentIntersection.getStone().getColor());
-					adjacentIntersectionOfAdjacentIntersection.getStone().setLiberties(
-							adjacentIntersectionOfAdjacentIntersection.getStone()
-							.getInitialLiberties() - getAdjacentIntersectionsWithStone(
-									adjacentIntersectionOfAdjacentIntersection).size());
-					setStoneLiberties++;
-				}
-				adjacentIntersection.getStone().setLiberties(adjacentIntersection.getStone()
-						.getInitialLiberties() - setStoneLiberties);
-			} else {
-				if (adjacentIntersectionsOfAdjacentIntersection.isEmpty()) {
-					adjacentIntersection.getStone().setLiberties(adjacentIntersection.getStone()
-							.getInitialLiberties());
-				} else {
-					adjacentIntersection.getStone().setLiberties(adjacentIntersection.getStone()
-							.getInitialLiberties() - 
-							adjacentIntersectionsOfAdjacentIntersection.size());
-				}
-			}
+	public boolean redo() {
+		if (undoneMoveCount == 0) {
+			return false;
 		}
+		undoneMoveCount--;
+		int undoneMove = undoneMoves[undoneMoveCount];
+		startMove();
+		placeStone(undoneMove / 2, STONE_COLORS[undoneMove % 2]);
+		return true;
 	}
 
 	/**
-	 * Check if an adjacent stone of the set stone or a group that the adjacent stone is in 
-	 * should be removed.
-	 * @param adjacentIntersections
-	 * 			The adjacent intersections of the set stone.
-	 * @param intersection
-	 * 			The intersection.
+	 * Return the amount of moves in the journal that can be taken back with undo.
+	 * @return
+	 * 			The amount of moves.
 	 */
-	private void checkForRemovingStones(List<Intersection> adjacentIntersections, 
-			Intersection intersection) {
-		if (intersection.isOccupied()) {
-			// Make list of all adjacent intersections of the other color
-			List<Intersection> adjacentIntersectionsOtherColor = new ArrayList<Intersection>();
-			for (Intersection adjacentIntersection : adjacentIntersections) {
-				if (!adjacentIntersection.getStone().getColor().equals(intersection.getStone()
-						.getColor())) {
-					adjacentIntersectionsOtherColor.add(adjacentIntersection);
-				}
-			}
-			// See if adjacent intersection with other color is in group with zero liberties
-			List<IntersectionGroup> removedIntersectionGroups = new ArrayList<IntersectionGroup>();
-			for (Intersection adjacentIntersectionOtherColor : adjacentIntersectionsOtherColor) {
-				for (IntersectionGroup intersectionGroup : intersectionGroups) {
-					if (intersectionGroup.getIntersections()
-							.contains(adjacentIntersectionOtherColor)) {
-						int zeroLibertiesCount = 0;
-						for (Intersection intersectionInGroup : 
-							intersectionGroup.getIntersections()) {
-							if (intersectionInGroup.isOccupied()) {
-								if (intersectionInGroup.getStone().getLiberties() == 0) {
-									zeroLibertiesCount++;
-								}
-							}
-						}
-						if (zeroLibertiesCount == intersectionGroup.getIntersections().size()) {
-							removeStones(intersectionGroup.getIntersections());
-							removedIntersectionGroups.add(intersectionGroup);
-							intersectionGroups.remove(intersectionGroup);
-							return;
-						}
-					}
-				}
-			}
-			for (IntersectionGroup removedIntersectionGroup : removedIntersectionGroups) {
-				intersectionGroups.remove(removedIntersectionGroup);
-			}
-			// See if adjacent intersection with other color is not in group and has zero liberties
-			for (Intersection adjacentIntersectionOtherColor : adjacentIntersectionsOtherColor) {
-				if (adjacentIntersectionOtherColor.isOccupied()) {
-					if (adjacentIntersectionOtherColor.getStone().getLiberties() == 0) {
-						int otherColorCount = 0;
-						List<Intersection> adjacentIntersectionsOfAdjacentIntersectionOtherColor = 
-								this.getAdjacentIntersectionsWithStone(
-										adjacentIntersectionOtherColor);
-						
-						for (Intersection adjacentIntersectionOfAdjacentIntersectionOtherColor : 
-							adjacentIntersectionsOfAdjacentIntersectionOtherColor) {
-							if (!adjacentIntersectionOfAdjacentIntersectionOtherColor.getStone()
-									.getColor().equals(adjacentIntersectionOtherColor.getStone()
-											.getColor())) {
-								otherColorCount++;
-							}
-						}
-						if (otherColorCount == adjacentIntersectionsOfAdjacentIntersectionOtherColor
-								.size()) {
-							removeStone(adjacentIntersectionOtherColor.getPosition());
-							return;
-						}
-					}
-				}
-			}
-			// See if the move is suicide
-			if (adjacentIntersectionsOtherColor.size() == 
-					intersection.getStone().getInitialLiberties()) {
-				removeStone(intersection.getPosition());
-				return;
-			}
-			// See if the move is suicide for the group of stones
-			for (IntersectionGroup intersectionGroup : intersectionGroups) {
-				if (intersectionGroup.getIntersections().contains(intersection)) {
-					int zeroLibertiesCount = 0;
-					for (Intersection intersectionInGroup : intersectionGroup.getIntersections()) {
-						if (intersectionInGroup.isOccupied()) {
-							if (intersectionInGroup.getStone().getLiberties() == 0) {
-								zeroLibertiesCount++;
-							}
-						}
-					}
-					if (zeroLibertiesCount == intersectionGroup.getIntersections().size()) {
-						removeStones(intersectionGroup.getIntersections());
-						removedIntersectionGroups.add(intersectionGroup);
-						intersectionGroups.remove(intersectionGroup);
-						return;
-					}
+	public int getMoveCount() {
+		return moveCount;
+	}
+
+	/**
+	 * Start recording a new move in the journal.
+	 */
+	private void startMove() {
+		if (moveCount == moveStarts.length) {
+			moveStarts = Arrays.copyOf(moveStarts, moveStarts.length * 2);
+		}
+		moveStarts[moveCount] = journalSize;
+		moveCount++;
+	}
+
+	/**
+	 * Remove all moves from the journal.
+	 */
+	private void clearJournal() {
+		koIndex = -1;
+		journalSize = 0;
+		moveCount = 0;
+		undoneMoveCount = 0;
+	}
+
+	/**
+	 * Add a change to the journal.
+	 * @param change
+	 * 			The type of change.
+	 * @param index
+	 * 			The index of the changed intersection.
+	 * @param previousValue
+	 * 			The value before the change.
+	 */
+	private void record(int change, int index, int previousValue) {
+		if (journalSize + 3 > journal.length) {
+			journal = Arrays.copyOf(journal, journal.length * 2);
+		}
+		journal[journalSize] = change;
+		journal[journalSize + 1] = index;
+		journal[journalSize + 2] = previousValue;
+		journalSize = journalSize + 3;
+	}
+
+	/**
+	 * Set the root of the group of the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param root
+	 * 			The root.
+	 */
+	private void setGroupRoot(int index, int root) {
+		record(GROUP_ROOT, index, groupRoots[index]);
+		groupRoots[index] = root;
+	}
+
+	/**
+	 * Set the amount of stones in the group with the provided root.
+	 * @param root
+	 * 			The root of the group.
+	 * @param groupSize
+	 * 			The amount of stones.
+	 */
+	private void setGroupSize(int root, int groupSize) {
+		record(GROUP_SIZE, root, groupSizes[root]);
+		groupSizes[root] = groupSize;
+	}
+
+	/**
+	 * Set the pseudo liberties of the group with the provided root.
+	 * @param root
+	 * 			The root of the group.
+	 * @param liberties
+	 * 			The pseudo liberties.
+	 */
+	private void setGroupLiberties(int root, int liberties) {
+		record(GROUP_LIBERTIES, root, groupLiberties[root]);
+		groupLiberties[root] = liberties;
+	}
+
+	/**
+	 * Set the next stone in the circular list of stones of the group.
+	 * @param index
+	 * 			The index of the stone.
+	 * @param next
+	 * 			The index of the next stone.
+	 */
+	private void setGroupNext(int index, int next) {
+		record(GROUP_NEXT, index, groupNext[index]);
+		groupNext[index] = next;
+	}
+
+	/**
+	 * Place a stone at the intersection with the provided index, merge it with the adjacent 
+	 * groups of the same color and remove the groups left without liberties.
+	 * The first change recorded for a move is always the placed stone.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param stoneColor
+	 * 			The color of the stone.
+	 */
+	private void placeStone(int index, StoneColor stoneColor) {
+		record(STONE_SET, index, stoneColor.ordinal());
+		boardState.setStone(index, stoneColor);
+		ownershipMap.stoneSet(index, stoneColor);
+		setGroupRoot(index, index);
+		setGroupSize(index, 1);
+		setGroupNext(index, index);
+		int liberties = 0;
+		for (int direction = 0; direction < 4; direction++) {
+			int adjacentIndex = getAdjacentIndex(index, direction);
+			if (adjacentIndex >= 0) {
+				if (boardState.isOccupied(adjacentIndex)) {
+					int adjacentRoot = groupRoots[adjacentIndex];
+					setGroupLiberties(adjacentRoot, groupLiberties[adjacentRoot] - 1);
+				} else {
+					liberties++;
 				}
 			}
-			for (IntersectionGroup removedIntersectionGroup : removedIntersectionGroups) {
-				intersectionGroups.remove(removedIntersectionGroup);
+		}
+		setGroupLiberties(index, liberties);
+		for (int direction = 0; direction < 4; direction++) {
+			int adjacentIndex = getAdjacentIndex(index, direction);
+			if (adjacentIndex >= 0 && boardState.getStoneColor(adjacentIndex) == stoneColor) {
+				mergeGroups(groupRoots[index], groupRoots[adjacentIndex]);
 			}
 		}
-	}
-
-	/** 
-	 * Remove a group of stones.
-	 * @param intersectionsRemoved
-	 * 			The list of intersections removed.
-	 */
-	private void removeStones(List<Intersection> intersectionsRemoved) {
-		for (Intersection intersection : intersectionsRemoved) {
-			if (isGoGUI) {
-				goGUI.removeStone(intersection.getPosition().getY(), 
-						intersection.getPosition().getX());
-				goGUI.removeStone(intersection.getPosition().getY(), 
-						intersection.getPosition().getX());
+		int capturedStones = 0;
+		int capturedIndex = -1;
+		for (int direction = 0; direction < 4; direction++) {
+			int adjacentIndex = getAdjacentIndex(index, direction);
+			if (adjacentIndex >= 0 && boardState.getStoneColor(adjacentIndex) == stoneColor.other()
+					&& groupLiberties[groupRoots[adjacentIndex]] == 0) {
+				capturedStones = capturedStones + groupSizes[groupRoots[adjacentIndex]];
+				capturedIndex = adjacentIndex;
+				removeGroup(groupRoots[adjacentIndex]);
 			}
-			intersection.removeStone();
 		}
-		for (Intersection intersection: intersectionsRemoved) {
-			updateBoard(intersection.getPosition().getX(), intersection.getPosition().getY());
+		record(KO_INDEX, index, koIndex);
+		if (capturedStones == 1 && groupSizes[groupRoots[index]] == 1 && 
+				groupLiberties[groupRoots[index]] == 1) {
+			koIndex = capturedIndex;
+		} else {
+			koIndex = -1;
+		}
+		if (groupLiberties[groupRoots[index]] == 0) {
+			removeGroup(groupRoots[index]);
 		}
 	}
 
 	/**
-	 * Return a list of adjacent intersections to the stone occupied by a stone. 
-	 * @param intersection
-	 * 			The intersection.
-	 * @return
-	 * 			A list of adjacent intersections occupied by a stone.
-	 */
-	private List<Intersection> getAdjacentIntersectionsWithStone(Intersection intersection) {
-		List<Intersection> adjacentIntersectionsList = getAdjacentIntersections(intersection);
-		Iterator<Intersection> adjacentIntersectionsIterator = adjacentIntersectionsList.iterator();
-		while (adjacentIntersectionsIterator.hasNext()) {
-			Intersection adjacentIntersection = adjacentIntersectionsIterator.next();
-			if (!adjacentIntersection.isOccupied()) {
-				adjacentIntersectionsIterator.remove();
+	 * Merge the groups with the provided roots. 
+	 * The stones of the smaller group are added to the larger group.
+	 * @param root
+	 * 			The root of the first group.
+	 * @param otherRoot
+	 * 			The root of the second group.
+	 */
+	private void mergeGroups(int root, int otherRoot) {
+		if (root != otherRoot) {
+			if (groupSizes[root] < groupSizes[otherRoot]) {
+				int smallerRoot = root;
+				root = otherRoot;
+				otherRoot = smallerRoot;
 			}
+			int stone = otherRoot;
+			do {
+				setGroupRoot(stone, root);
+				stone = groupNext[stone];
+			} while (stone != otherRoot);
+			int next = groupNext[root];
+			setGroupNext(root, groupNext[otherRoot]);
+			setGroupNext(otherRoot, next);
+			setGroupSize(root, groupSizes[root] + groupSizes[otherRoot]);
+			setGroupLiberties(root, groupLiberties[root] + groupLiberties[otherRoot]);
 		}
-		return adjacentIntersectionsList;
 	}
 
+	/** 
+	 * Remove the group of stones with the provided root and give the adjacent groups 
+	 * their liberties back.
+	 * @param root
+	 * 			The root of the group.
+	 */
+	private void removeGroup(int root) {
+		int stone = root;
+		do {
+			record(STONE_REMOVED, stone, boardState.getStoneColor(stone).ordinal());
+			boardState.removeStone(stone);
+			ownershipMap.stoneRemoved(stone);
+			stone = groupNext[stone];
+		} while (stone != root);
+		do {
+			for (int direction = 0; direction < 4; direction++) {
+				int adjacentIndex = getAdjacentIndex(stone, direction);
+				if (adjacentIndex >= 0 && boardState.isOccupied(adjacentIndex)) {
+					int adjacentRoot = groupRoots[adjacentIndex];
+					setGroupLiberties(adjacentRoot, groupLiberties[adjacentRoot] + 1);
+				}
+			}
+			stone = groupNext[stone];
+		} while (stone != root);
+	}
+	
 	/**
-	 * Set the initial liberties of the stone at the intersection 
-	 * at the provided x and y coordinate.
-	 * @param x
-	 * 			The x coordinate of the stone.
-	 * @param y
-	 * 			The y coordinate of the stone.
+	 * Rebuild the groups of stones and their liberties from the stones on the board
+	 * and clear the journal.
 	 */
-	private void setInitialLiberties(int x, int y) {
-		if (x == 0 || x == size - 1 || y == 0 || y == size - 1) {
-			if ((x == 0 || x == size - 1) && (y == 0 || y == size - 1)) {
-				this.getIntersection(new Position(x, y)).getStone().setLiberties(2);
-				this.getIntersection(new Position(x, y)).getStone().setInitialLiberties(2);
-			} else {
-				this.getIntersection(new Position(x, y)).getStone().setLiberties(3);
-				this.getIntersection(new Position(x, y)).getStone().setInitialLiberties(3);
+	private void rebuildGroups() {
+		for (int index = 0; index < size * size; index++) {
+			if (boardState.isOccupied(index)) {
+				groupRoots[index] = index;
+				groupSizes[index] = 1;
+				groupNext[index] = index;
+				groupLiberties[index] = 0;
+				for (int direction = 0; direction < 4; direction++) {
+					int adjacentIndex = getAdjacentIndex(index, direction);
+					if (adjacentIndex >= 0 && !boardState.isOccupied(adjacentIndex)) {
+						groupLiberties[index]++;
+					}
+				}
+			}
+		}
+		for (int index = 0; index < size * size; index++) {
+			StoneColor stoneColor = boardState.getStoneColor(index);
+			if (stoneColor != null) {
+				for (int direction = 0; direction < 4; direction++) {
+					int adjacentIndex = getAdjacentIndex(index, direction);
+					if (adjacentIndex > index && 
+							boardState.getStoneColor(adjacentIndex) == stoneColor) {
+						mergeGroups(groupRoots[index], groupRoots[adjacentIndex]);
+					}
+				}
 			}
-		} else {
-			this.getIntersection(new Position(x, y)).getStone().setInitialLiberties(4);
 		}
+		clearJournal();
+	}
+	
+	/**
+	 * Return the index of the adjacent intersection in the provided direction, 
+	 * looked up in the neighbor table of the board size.
+	 * The adjacent intersections come first, so at the edge the last directions return -1.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param direction
+	 * 			The direction from 0 to 3.
+	 * @return
+	 * 			The index of the adjacent intersection or -1 if there is none.
+	 */
+	private int getAdjacentIndex(int index, int direction) {
+		return neighbors[(index << 2) + direction];
 	}
 	
 	/**
 	 * Remove the stone at the intersection at the provided position.
+	 * The journal is cleared, so earlier moves can no longer be taken back.
 	 * @param position
 	 * 			The position.
 	 */
 	public void removeStone(Position position) {
-		this.getIntersection(position).removeStone();
+		int index = position.getX() * size + position.getY();
+		boolean isOccupied = boardState.isOccupied(index);
+		boolean isInGroup = isOccupied && groupSizes[groupRoots[index]] > 1;
+		boardState.removeStone(index);
+		if (isOccupied) {
+			ownershipMap.stoneRemoved(index);
+		}
 		if (isGoGUI) {
 			goGUI.removeStone(position.getY(), position.getX());
 			goGUI.removeStone(position.getY(), position.getX());
 		}
-		updateBoard(position.getX(), position.getY());
+		if (isInGroup) {
+			rebuildGroups();
+		} else {
+			for (int direction = 0; direction < 4; direction++) {
+				int adjacentIndex = getAdjacentIndex(index, direction);
+				if (adjacentIndex >= 0 && boardState.isOccupied(adjacentIndex)) {
+					groupLiberties[groupRoots[adjacentIndex]]++;
+				}
+			}
+			clearJournal();
+		}
 	}
 	
 	/**
@@ -553,108 +889,58 @@ public class Board {
 	}
 	
 	/**
-	 * Return a list of adjacent intersections.
-	 * @param intersection
-	 * 			The intersection.
-	 * @return
-	 * 			The adjacent intersections.
+	 * Calculate a winner for the current board situation with area scoring:
+	 * the stones of each color plus the empty regions that border only that color.
 	 */
-	private List<Intersection> getAdjacentIntersections(Intersection intersection) {
-		List<Intersection> adjacentIntersections = new ArrayList<Intersection>();
-		List<Position> adjacentPositions = getAdjacentPositions(intersection.getPosition());
-		Iterator<Position> adjacentPositionsIterator = adjacentPositions.iterator();
-		while (adjacentPositionsIterator.hasNext()) {
-			Position adjacentPosition = adjacentPositionsIterator.next();
-			adjacentIntersections.add(intersections[adjacentPosition.getX()]
-					[adjacentPosition.getY()]);
-		}
-		return adjacentIntersections;
+	public void calculateWinner() {
+		calculateWinner(null);
 	}
 
 	/**
-	 * Return a list of adjacent positions.
-	 * @param position
-	 * 			The position.
+	 * Calculate a winner for the current board situation with area scoring after the provided
+	 * dead stones are removed. The board itself is not changed.
+	 * @param deadStones
+	 * 			Whether the stone at each intersection is dead, or null if all stones are alive.
+	 */
+	public void calculateWinner(boolean[] deadStones) {
+		ScoringEngine engine = getScoringEngine();
+		engine.score(boardState, deadStones);
+		blackScore = engine.getAreaScore(StoneColor.BLACK);
+		whiteScore = engine.getAreaScore(StoneColor.WHITE);
+	}
+
+	/**
+	 * Return the scoring engine of the board, which holds the territory and the empty regions
+	 * of the most recent calculateWinner.
 	 * @return
-	 * 			The adjacent positions.
+	 * 			The scoring engine.
 	 */
-	private List<Position> getAdjacentPositions(Position position) {
-		List<Position> adjacentPositions = new ArrayList<Position>();
-		adjacentPositions = addPositionIfValid(new Position(position.getX(), position.getY() + 1), 
-				adjacentPositions);
-		adjacentPositions = addPositionIfValid(new Position(position.getX(), position.getY() - 1), 
-				adjacentPositions);
-		adjacentPositions = addPositionIfValid(new Position(position.getX() + 1, position.getY()), 
-				adjacentPositions);
-		adjacentPositions = addPositionIfValid(new Position(position.getX() - 1, position.getY()), 
-				adjacentPositions);
-		return adjacentPositions;
+	public ScoringEngine getScoringEngine() {
+		if (scoringEngine == null) {
+			scoringEngine = new ScoringEngine(size);
+		}
+		return scoringEngine;
 	}
 	
 	/**
-	 * Add position to a list of positions only if it is a valid position.
-	 * @param position
-	 * 			The position.
-	 * @param positionList
-	 * 			The list of positions.
+	 * Return the ownership map of the board, which gives the owner of every intersection.
+	 * Only the empty regions changed since the previous request are reclassified.
 	 * @return
-	 * 			The list of valid positions.
+	 * 			The ownership map.
 	 */
-	private List<Position> addPositionIfValid(Position position, List<Position> positionList) {
-		if (position.getX() >= 0 && position.getX() < size && position.getY() >= 0 && 
-				position.getY() < size) {
-			positionList.add(position);
-		}
-		return positionList;
+	public OwnershipMap getOwnershipMap() {
+		return ownershipMap;
 	}
-
+	
 	/**
-	 * Calculate a winner for the current board situation.
+	 * Return an estimate of the score of the current board situation without rescanning
+	 * the board: the area score of black minus the area score of white, without komi.
+	 * All stones on the board count as alive.
+	 * @return
+	 * 			The estimated score.
 	 */
-	public void calculateWinner() {
-		int blackArea = 0;
-		int whiteArea = 0;
-		int blackStone = 0;
-		int whiteStone = 0;
-		for (int x = 0; x < size; x++) {
-			for (int y = 0; y < size; y++) {
-				Intersection intersection = this.getIntersection(new Position(x, y));
-				if (!intersection.isOccupied()) {
-					addEmptyIntersectionToEmptyIntersectionGroup(intersection);
-				} else {
-					if (intersection.getStone().getColor().equals(StoneColor.BLACK)) {
-						blackStone++;
-					} else {
-						whiteStone++;
-					}
-				}
-			}
-		}
-		for (IntersectionGroup emptyIntersectionGroup : emptyIntersectionGroups) {
-			int blackCount = 0;
-			int whiteCount = 0;
-			List<Intersection> emptyIntersections = emptyIntersectionGroup.getIntersections();
-			for (Intersection emptyIntersection : emptyIntersections) {
-				List<Intersection> adjacentIntersections = 
-						getAdjacentIntersections(emptyIntersection);
-				for (Intersection adjacentIntersection : adjacentIntersections) {
-					if (adjacentIntersection.isOccupied()) {
-						if (adjacentIntersection.getStone().getColor().equals(StoneColor.BLACK)) {
-							blackCount++;
-						} else {
-							whiteCount++;
-						}
-					}
-				}
-			}
-			if (blackCount == 0) {
-				whiteArea = whiteArea + emptyIntersectionGroup.getIntersections().size();
-			} else if (whiteCount == 0) {
-				blackArea = blackArea + emptyIntersectionGroup.getIntersections().size();
-			} 
-		}
-		blackScore = blackArea + blackStone;
-		whiteScore = whiteArea + whiteStone;
+	public int estimateScore() {
+		return ownershipMap.estimateScore();
 	}
 	
 	/**
@@ -676,89 +962,52 @@ public class Board {
 	}
 	
 	/**
-	 * Add the empty intersection to a group of empty intersections.
-	 * @param emptyIntersection
-	 * 			The empty intersection.
-	 */
-	private void addEmptyIntersectionToEmptyIntersectionGroup(Intersection emptyIntersection) {
-		List<Intersection> adjacentIntersections = getAdjacentIntersections(emptyIntersection);
-		Iterator<Intersection> adjacentIntersectionsIterator = adjacentIntersections.iterator();
-		while (adjacentIntersectionsIterator.hasNext()) {
-			Intersection adjacentIntersection = adjacentIntersectionsIterator.next();
-			if (!emptyIntersectionGroups.isEmpty()) {
-				Iterator<IntersectionGroup> emptyIntersectionGroupsIterator = 
-						emptyIntersectionGroups.iterator();
-				List<IntersectionGroup> tempEmptyIntersectionGroups = 
-						new ArrayList<IntersectionGroup>();
-				List<IntersectionGroup> tempNewEmptyIntersectionGroups = 
-						new ArrayList<IntersectionGroup>();
-				while (emptyIntersectionGroupsIterator.hasNext()) {
-					IntersectionGroup emptyIntersectionGroup = 
-							emptyIntersectionGroupsIterator.next();
-					if (emptyIntersectionGroup.getIntersections().contains(adjacentIntersection)) {
-						tempEmptyIntersectionGroups.add(emptyIntersectionGroup);
-					} else {
-						IntersectionGroup newIntersectionGroup = new IntersectionGroup();
-						newIntersectionGroup.addIntersection(emptyIntersection);
-						tempNewEmptyIntersectionGroups.add(newIntersectionGroup);
-					}
-					IntersectionGroup newIntersectionGroup = new IntersectionGroup();
-					newIntersectionGroup.addIntersection(emptyIntersection);
-					tempNewEmptyIntersectionGroups.add(newIntersectionGroup);
-				}
-				for (IntersectionGroup intersectionGroup : tempEmptyIntersectionGroups) {
-					intersectionGroup.addIntersection(emptyIntersection);
-				}
-				for (IntersectionGroup newIntersectionGroup : tempNewEmptyIntersectionGroups) {
-					emptyIntersectionGroups.add(newIntersectionGroup);
-				}
-			} else {
-				IntersectionGroup newIntersectionGroup = new IntersectionGroup();
-				newIntersectionGroup.addIntersection(emptyIntersection);
-				emptyIntersectionGroups.add(newIntersectionGroup);
-			}
-			List<IntersectionGroup> emptyIntersectionGroupsContainingSetStone = 
-					new ArrayList<IntersectionGroup>();
-			Iterator<IntersectionGroup> emptyIntersectionGroupsIterator = 
-					emptyIntersectionGroups.iterator();
-			while (emptyIntersectionGroupsIterator.hasNext()) {
-				IntersectionGroup intersectionGroup = emptyIntersectionGroupsIterator.next();
-				if (intersectionGroup.getIntersections().contains(emptyIntersection)) {
-					emptyIntersectionGroupsContainingSetStone.add(intersectionGroup);
-				}
-			}
-			if (emptyIntersectionGroupsContainingSetStone.size() > 1) {
-				IntersectionGroup resultingEmptyIntersectionGroup = 
-						emptyIntersectionGroupsContainingSetStone.get(0);
-				for (int i = 1; i < emptyIntersectionGroupsContainingSetStone.size(); i++) {
-					List<Intersection> intersectionsInGroup = 
-							emptyIntersectionGroupsContainingSetStone.get(i).getIntersections();
-					for (int j = 0; j < intersectionsInGroup.size(); j++) {
-						resultingEmptyIntersectionGroup.addIntersection(
-								intersectionsInGroup.get(j));
-					}
-					emptyIntersectionGroups.remove(emptyIntersectionGroupsContainingSetStone
-							.get(i));
-				}
-			}
-		}
-	}
-	
-	/**
-	 * Return the list of intersection groups.
+	 * Return the list of intersection groups with more than one stone,
+	 * ordered by the first intersection of each group.
 	 * @return 
 	 * 			The list of intersection groups.
 	 */
 	public List<IntersectionGroup> getIntersectionGroups() {
+		List<IntersectionGroup> intersectionGroups = new ArrayList<IntersectionGroup>();
+		boolean[] isAdded = new boolean[size * size];
+		for (int index = 0; index < size * size; index++) {
+			if (boardState.isOccupied(index) && groupSizes[groupRoots[index]] > 1 && 
+					!isAdded[groupRoots[index]]) {
+				int root = groupRoots[index];
+				isAdded[root] = true;
+				IntersectionGroup intersectionGroup = new IntersectionGroup();
+				int stone = root;
+				do {
+					intersectionGroup.addIntersection(
+							getIntersection(Position.of(stone, size)));
+					stone = groupNext[stone];
+				} while (stone != root);
+				intersectionGroups.add(intersectionGroup);
+			}
+		}
 		return intersectionGroups;
 	}
 	
 	/**
-	 * Return the list of empty intersection groups.
+	 * Return the list of groups of adjacent empty intersections,
+	 * ordered by the first intersection of each group.
 	 * @return 
 	 * 			The list of empty intersection groups.
 	 */
 	public List<IntersectionGroup> getEmptyIntersectionGroups() {
+		ScoringEngine engine = getScoringEngine();
+		engine.score(boardState);
+		List<IntersectionGroup> emptyIntersectionGroups = new ArrayList<IntersectionGroup>();
+		for (int region = 0; region < engine.getRegionCount(); region++) {
+			emptyIntersectionGroups.add(new IntersectionGroup());
+		}
+		for (int index = 0; index < size * size; index++) {
+			int region = engine.getRegion(index);
+			if (region >= 0) {
+				emptyIntersectionGroups.get(region).addIntersection(
+						getIntersection(Position.of(index, size)));
+			}
+		}
 		return emptyIntersectionGroups;
 	}
 	
@@ -775,11 +1024,9 @@ public class Board {
 	 * Clear the board and the GoGUI.
 	 */
 	public void clear() {
-		for (Intersection[] intersectionRows : intersections) {
-			for (Intersection intersection : intersectionRows) {
-				intersection.removeStone();
-			}
-		}
+		boardState.clear();
+		ownershipMap.clear();
+		clearJournal();
 		if (isGoGUI) {
 			goGUI.clearBoard();
 		}
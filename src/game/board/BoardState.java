@@ -0,0 +1,126 @@
+package game.board;
+
+import game.board.stone.StoneColor;
+
+/**
+ * The occupation of the intersections of a Go board.
+ * Only stores which intersections hold a black or a white stone,
+ * the rules of the game are applied by the Board.
+ * @author janine.kleinrot
+ */
+public interface BoardState {
+
+	/**
+	 * Return the size of the board.
+	 * @return
+	 * 			The size of the board.
+	 */
+	public int getSize();
+
+	/**
+	 * Whether or not a stone is at the intersection at the provided x and y coordinate.
+	 * @param x
+	 * 			The x coordinate of the intersection.
+	 * @param y
+	 * 			The y coordinate of the intersection.
+	 * @return
+	 * 			True if a stone occupies the intersection and false otherwise.
+	 */
+	public boolean isOccupied(int x, int y);
+
+	/**
+	 * Return the color of the stone at the intersection at the provided x and y coordinate.
+	 * @param x
+	 * 			The x coordinate of the intersection.
+	 * @param y
+	 * 			The y coordinate of the intersection.
+	 * @return
+	 * 			The stone color or null if the intersection is unoccupied.
+	 */
+	public StoneColor getStoneColor(int x, int y);
+
+	/**
+	 * Set a stone with the provided color at the intersection at the provided x and y coordinate.
+	 * @param x
+	 * 			The x coordinate of the intersection.
+	 * @param y
+	 * 			The y coordinate of the intersection.
+	 * @param color
+	 * 			The color of the stone.
+	 */
+	public void setStone(int x, int y, StoneColor color);
+
+	/**
+	 * Remove the stone at the intersection at the provided x and y coordinate.
+	 * @param x
+	 * 			The x coordinate of the intersection.
+	 * @param y
+	 * 			The y coordinate of the intersection.
+	 */
+	public void removeStone(int x, int y);
+
+	/**
+	 * Whether or not a stone is at the intersection with the provided index.
+	 * The intersection at x and y has index x * size + y.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			True if a stone occupies the intersection and false otherwise.
+	 */
+	public boolean isOccupied(int index);
+
+	/**
+	 * Return the color of the stone at the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			The stone color or null if the intersection is unoccupied.
+	 */
+	public StoneColor getStoneColor(int index);
+
+	/**
+	 * Set a stone with the provided color at the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param color
+	 * 			The color of the stone.
+	 */
+	public void setStone(int index, StoneColor color);
+
+	/**
+	 * Remove the stone at the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 */
+	public void removeStone(int index);
+
+	/**
+	 * Return the amount of stones of the provided color on the board.
+	 * @param color
+	 * 			The stone color.
+	 * @return
+	 * 			The amount of stones.
+	 */
+	public int getStoneCount(StoneColor color);
+
+	/**
+	 * Return the Zobrist hash of the stones on the board.
+	 * The hash is kept up to date with every stone set or removed.
+	 * @return
+	 * 			The hash.
+	 */
+	public long getHash();
+
+	/**
+	 * Remove all stones from the board.
+	 */
+	public void clear();
+
+	/**
+	 * Create a copy of the current board state.
+	 * @return
+	 * 			The copy of the board state.
+	 */
+	public BoardState copy();
+
+}
@@ -0,0 +1,88 @@
+package game.board;
+
+/**
+ * Precomputed tables of the adjacent intersections for every board size, shared by all
+ * boards, board states and scoring of that size, so the innermost loops of the board engine
+ * look their neighbors up instead of computing and checking coordinates.
+ * The intersection at x and y has index x * size + y. The table is a flat array with four
+ * entries for every intersection, starting at index * 4: first the indices of its adjacent
+ * intersections and then SENTINEL for the missing neighbors at the edge of the board.
+ * A loop over the neighbors can therefore stop at the first SENTINEL:
+ * <pre>
+ * for (int i = index * 4; i &lt; index * 4 + 4 &amp;&amp; table[i] != SENTINEL; i++)
+ * </pre>
+ * @author janine.kleinrot
+ */
+public final class NeighborTable {
+
+	/** The entry after the last adjacent intersection of an intersection at the edge. */
+	public static final int SENTINEL = -1;
+
+	/** The largest board size whose table is precomputed. */
+	public static final int MAX_SIZE = 19;
+
+	/** The tables by board size. */
+	private static final int[][] TABLES = new int[MAX_SIZE + 1][];
+
+	static {
+		for (int size = 1; size <= MAX_SIZE; size++) {
+			TABLES[size] = createTable(size);
+		}
+	}
+
+	/**
+	 * The tables are only used through the static methods.
+	 */
+	private NeighborTable() {
+	}
+
+	/**
+	 * Return the table of the adjacent intersections for boards of the provided size.
+	 * The table is shared and should not be changed.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The table, precomputed if the size is at most MAX_SIZE and created otherwise.
+	 */
+	public static int[] get(int size) {
+		if (size > 0 && size <= MAX_SIZE) {
+			return TABLES[size];
+		}
+		return createTable(size);
+	}
+
+	/**
+	 * Create the table of the adjacent intersections for boards of the provided size.
+	 * The neighbors are listed in the order y + 1, y - 1, x + 1, x - 1.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The table.
+	 */
+	private static int[] createTable(int size) {
+		int[] table = new int[4 * size * size];
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				int index = x * size + y;
+				int entry = index * 4;
+				if (y + 1 < size) {
+					table[entry++] = index + 1;
+				}
+				if (y > 0) {
+					table[entry++] = index - 1;
+				}
+				if (x + 1 < size) {
+					table[entry++] = index + size;
+				}
+				if (x > 0) {
+					table[entry++] = index - size;
+				}
+				while (entry < index * 4 + 4) {
+					table[entry++] = SENTINEL;
+				}
+			}
+		}
+		return table;
+	}
+
+}
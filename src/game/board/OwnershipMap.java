@@ -0,0 +1,267 @@
+package game.board;
+
+import game.board.stone.StoneColor;
+
+/**
+ * The owner of every intersection of a board, kept up to date while stones are set and
+ * removed. The board reports every change, which only marks the empty intersections next
+ * to the change. When the ownership is requested, only the empty regions that contain a
+ * marked intersection are filled again and reclassified, and the territory and stone counts
+ * are adjusted by the difference, so the score is never counted over the whole board.
+ * An empty region is territory of a color if it borders only stones of that color.
+ * @author janine.kleinrot
+ */
+public class OwnershipMap {
+
+	/** The size of the board. */
+	private final int size;
+
+	/** The shared neighbor table of the board size. */
+	private final int[] neighbors;
+
+	/** The stone at each intersection, as a cell value of the RegionFill. */
+	private final byte[] cells;
+
+	/** The owner of each empty intersection as a cell value, and EMPTY for stones. */
+	private final byte[] owners;
+
+	/** The empty intersections whose region has to be reclassified. */
+	private final int[] changed;
+
+	/** The amount of intersections in changed. */
+	private int changedCount;
+
+	/** Whether each intersection is in changed. */
+	private final boolean[] isChanged;
+
+	/** The update in which each intersection was last filled. */
+	private final int[] visits;
+
+	/** The flood fill of the empty regions, which marks them with the update in visits. */
+	private final RegionFill regionFill;
+
+	/** The number of the current update, so visits never has to be cleared. */
+	private int updateNumber;
+
+	/** The amount of black stones. */
+	private int blackStones;
+
+	/** The amount of white stones. */
+	private int whiteStones;
+
+	/** The amount of empty intersections in the territory of black. */
+	private int blackTerritory;
+
+	/** The amount of empty intersections in the territory of white. */
+	private int whiteTerritory;
+
+	/**
+	 * Create a new OwnershipMap of an empty board of the provided size.
+	 * The empty board is one neutral region.
+	 * @param size
+	 * 			The size of the board.
+	 */
+	public OwnershipMap(int size) {
+		this.size = size;
+		neighbors = NeighborTable.get(size);
+		cells = new byte[size * size];
+		owners = new byte[size * size];
+		changed = new int[size * size];
+		isChanged = new boolean[size * size];
+		visits = new int[size * size];
+		regionFill = new RegionFill(cells, neighbors, visits);
+	}
+
+	/**
+	 * Record that a stone with the provided color is set at the unoccupied intersection
+	 * with the provided index. The regions of the adjacent empty intersections change.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param color
+	 * 			The color of the stone.
+	 */
+	void stoneSet(int index, StoneColor color) {
+		removeOwner(index);
+		if (color == StoneColor.BLACK) {
+			cells[index] = RegionFill.BLACK;
+			blackStones++;
+		} else {
+			cells[index] = RegionFill.WHITE;
+			whiteStones++;
+		}
+		for (int i = index * 4; i < index * 4 + 4 && neighbors[i] != NeighborTable.SENTINEL; i++) {
+			markChanged(neighbors[i]);
+		}
+	}
+
+	/**
+	 * Record that the stone at the intersection with the provided index is removed.
+	 * The intersection joins the regions of the adjacent empty intersections.
+	 * @param index
+	 * 			The index of the intersection.
+	 */
+	void stoneRemoved(int index) {
+		if (cells[index] == RegionFill.BLACK) {
+			blackStones--;
+		} else if (cells[index] == RegionFill.WHITE) {
+			whiteStones--;
+		}
+		cells[index] = RegionFill.EMPTY;
+		markChanged(index);
+	}
+
+	/**
+	 * Record that all stones are removed from the board.
+	 */
+	void clear() {
+		for (int index = 0; index < cells.length; index++) {
+			cells[index] = RegionFill.EMPTY;
+			owners[index] = RegionFill.EMPTY;
+			isChanged[index] = false;
+		}
+		changedCount = 0;
+		blackStones = 0;
+		whiteStones = 0;
+		blackTerritory = 0;
+		whiteTerritory = 0;
+	}
+
+	/**
+	 * Create a copy of the current ownership map.
+	 * @return
+	 * 			The copy of the ownership map.
+	 */
+	OwnershipMap copy() {
+		OwnershipMap copy = new OwnershipMap(size);
+		System.arraycopy(cells, 0, copy.cells, 0, cells.length);
+		System.arraycopy(owners, 0, copy.owners, 0, owners.length);
+		System.arraycopy(changed, 0, copy.changed, 0, changedCount);
+		System.arraycopy(isChanged, 0, copy.isChanged, 0, isChanged.length);
+		copy.changedCount = changedCount;
+		copy.blackStones = blackStones;
+		copy.whiteStones = whiteStones;
+		copy.blackTerritory = blackTerritory;
+		copy.whiteTerritory = whiteTerritory;
+		return copy;
+	}
+
+	/**
+	 * Mark the intersection with the provided index, so its region is reclassified
+	 * by the next update.
+	 * @param index
+	 * 			The index of the intersection.
+	 */
+	private void markChanged(int index) {
+		if (!isChanged[index]) {
+			isChanged[index] = true;
+			changed[changedCount] = index;
+			changedCount++;
+		}
+	}
+
+	/**
+	 * Remove the intersection with the provided index from the territory of its owner.
+	 * @param index
+	 * 			The index of the intersection.
+	 */
+	private void removeOwner(int index) {
+		if (owners[index] == RegionFill.BLACK) {
+			blackTerritory--;
+		} else if (owners[index] == RegionFill.WHITE) {
+			whiteTerritory--;
+		}
+		owners[index] = RegionFill.EMPTY;
+	}
+
+	/**
+	 * Reclassify the regions of the marked intersections that are still empty.
+	 * Every region is filled once, even if it contains several marked intersections.
+	 */
+	private void update() {
+		if (changedCount == 0) {
+			return;
+		}
+		updateNumber++;
+		for (int i = 0; i < changedCount; i++) {
+			int start = changed[i];
+			isChanged[start] = false;
+			if (cells[start] == RegionFill.EMPTY && visits[start] != updateNumber) {
+				reclassify(start);
+			}
+		}
+		changedCount = 0;
+	}
+
+	/**
+	 * Fill the empty region of the provided intersection and give all its intersections
+	 * the owner of the region.
+	 * @param start
+	 * 			The index of an empty intersection of the region.
+	 */
+	private void reclassify(int start) {
+		regionFill.fill(start, updateNumber);
+		byte owner = regionFill.getOwner();
+		int regionSize = regionFill.getRegionSize();
+		for (int i = 0; i < regionSize; i++) {
+			int index = regionFill.getIntersection(i);
+			removeOwner(index);
+			owners[index] = owner;
+		}
+		if (owner == RegionFill.BLACK) {
+			blackTerritory = blackTerritory + regionSize;
+		} else if (owner == RegionFill.WHITE) {
+			whiteTerritory = whiteTerritory + regionSize;
+		}
+	}
+
+	/**
+	 * Return the color whose territory contains the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			The stone color or null if the intersection is occupied or neutral.
+	 */
+	public StoneColor getOwner(int index) {
+		update();
+		if (owners[index] == RegionFill.BLACK) {
+			return StoneColor.BLACK;
+		} else if (owners[index] == RegionFill.WHITE) {
+			return StoneColor.WHITE;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Return the amount of empty intersections in the territory of the provided color.
+	 * @param color
+	 * 			The stone color.
+	 * @return
+	 * 			The amount of intersections.
+	 */
+	public int getTerritory(StoneColor color) {
+		update();
+		return color == StoneColor.BLACK ? blackTerritory : whiteTerritory;
+	}
+
+	/**
+	 * Return the area score of the provided color, its stones plus its territory.
+	 * @param color
+	 * 			The stone color.
+	 * @return
+	 * 			The area score.
+	 */
+	public int getAreaScore(StoneColor color) {
+		return getTerritory(color) + (color == StoneColor.BLACK ? blackStones : whiteStones);
+	}
+
+	/**
+	 * Return the area score of black minus the area score of white, without komi.
+	 * @return
+	 * 			The score.
+	 */
+	public int estimateScore() {
+		return getAreaScore(StoneColor.BLACK) - getAreaScore(StoneColor.WHITE);
+	}
+
+}
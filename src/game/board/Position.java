@@ -2,16 +2,31 @@ package game.board;
 
 /**
  * A position a the board.
+ * The intersection at x and y has index x * size + y. The positions of the boards up to
+ * NeighborTable.MAX_SIZE are created once and shared, so they can be looked up by index
+ * instead of creating a new position for every intersection that is read.
  * @author janine.kleinrot
  */
 public class Position {
-	
+
+	/** The shared positions by board size and index. */
+	private static final Position[][] POSITIONS = new Position[NeighborTable.MAX_SIZE + 1][];
+
+	static {
+		for (int size = 1; size <= NeighborTable.MAX_SIZE; size++) {
+			POSITIONS[size] = new Position[size * size];
+			for (int index = 0; index < size * size; index++) {
+				POSITIONS[size][index] = new Position(index / size, index % size);
+			}
+		}
+	}
+
 	/** The x coordinate of the position. */
-	private int x;
-	
+	private final int x;
+
 	/** The y coordinate of the position. */
-	private int y;
-	
+	private final int y;
+
 	/**
 	 * Create a new position with the provided x and y coordinate.
 	 * @param x
@@ -23,7 +38,24 @@ public class Position {
 		this.x = x;
 		this.y = y;
 	}
-	
+
+	/**
+	 * Return the position of the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The shared position if the size is at most NeighborTable.MAX_SIZE
+	 * 			and a new position otherwise.
+	 */
+	public static Position of(int index, int size) {
+		if (size > 0 && size <= NeighborTable.MAX_SIZE) {
+			return POSITIONS[size][index];
+		}
+		return new Position(index / size, index % size);
+	}
+
 	/**
 	 * Return the x coordinate of the position.
 	 * @return
@@ -32,7 +64,7 @@ public class Position {
 	public int getX() {
 		return x;
 	}
-	
+
 	/**
 	 * Return the y coordinate of the position.
 	 * @return
@@ -42,4 +74,29 @@ public class Position {
 		return y;
 	}
 
+	/**
+	 * Return the index of the position at a board of the provided size.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The index of the intersection.
+	 */
+	public int getIndex(int size) {
+		return x * size + y;
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof Position)) {
+			return false;
+		}
+		Position position = (Position) object;
+		return x == position.x && y == position.y;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * x + y;
+	}
+
 }
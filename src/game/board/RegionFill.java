@@ -0,0 +1,118 @@
+package game.board;
+
+/**
+ * The flood fill of the empty regions shared by the ScoringEngine and the OwnershipMap.
+ * Both keep the stone at each intersection as a cell value: EMPTY, BLACK or WHITE.
+ * BLACK and WHITE are single bits, so the borders of a region can be combined with or;
+ * the combined borders are BLACK or WHITE if the region borders only that color.
+ * The fill labels the intersections of a region in an array of marks of its owner,
+ * and keeps the intersections in a queue that is allocated once.
+ * @author janine.kleinrot
+ */
+final class RegionFill {
+
+	/** The cell value of an empty intersection and the owner of a neutral region. */
+	static final byte EMPTY = 0;
+
+	/** The cell value and region owner of black. */
+	static final byte BLACK = 1;
+
+	/** The cell value and region owner of white. */
+	static final byte WHITE = 2;
+
+	/** The stone at each intersection, EMPTY, BLACK or WHITE. */
+	private final byte[] cells;
+
+	/** The shared neighbor table of the board size. */
+	private final int[] neighbors;
+
+	/** The mark of each intersection, equal to the mark of a fill once it is filled. */
+	private final int[] marks;
+
+	/** The intersections of the region that is filled, also used as the queue of the fill. */
+	private final int[] region;
+
+	/** The amount of intersections in the region filled last. */
+	private int regionSize;
+
+	/** The owner of the region filled last, EMPTY, BLACK or WHITE. */
+	private byte owner;
+
+	/**
+	 * Create a new RegionFill over the provided cells.
+	 * @param cells
+	 * 			The stone at each intersection, EMPTY, BLACK or WHITE.
+	 * @param neighbors
+	 * 			The shared neighbor table of the board size.
+	 * @param marks
+	 * 			The mark of each intersection, which the fill sets.
+	 */
+	RegionFill(byte[] cells, int[] neighbors, int[] marks) {
+		this.cells = cells;
+		this.neighbors = neighbors;
+		this.marks = marks;
+		region = new int[cells.length];
+	}
+
+	/**
+	 * Fill the empty region of the provided intersection, give all its intersections the
+	 * provided mark and find the owner of the region. An empty intersection that already
+	 * has the mark is taken to be filled, so the mark should differ from the marks of the
+	 * intersections of the region before the fill.
+	 * @param start
+	 * 			The index of an empty intersection of the region.
+	 * @param mark
+	 * 			The mark.
+	 */
+	void fill(int start, int mark) {
+		marks[start] = mark;
+		region[0] = start;
+		regionSize = 1;
+		int borders = EMPTY;
+		for (int next = 0; next < regionSize; next++) {
+			int index = region[next];
+			for (int i = index * 4; i < index * 4 + 4 &&
+					neighbors[i] != NeighborTable.SENTINEL; i++) {
+				int adjacentIndex = neighbors[i];
+				if (cells[adjacentIndex] == EMPTY && marks[adjacentIndex] != mark) {
+					marks[adjacentIndex] = mark;
+					region[regionSize] = adjacentIndex;
+					regionSize++;
+				}
+				borders |= cells[adjacentIndex];
+			}
+		}
+		owner = borders == BLACK || borders == WHITE ? (byte) borders : EMPTY;
+	}
+
+	/**
+	 * Return the amount of intersections in the region filled last.
+	 * @return
+	 * 			The amount of intersections.
+	 */
+	int getRegionSize() {
+		return regionSize;
+	}
+
+	/**
+	 * Return an intersection of the region filled last.
+	 * @param i
+	 * 			The number of the intersection in the region, from 0 to the region size.
+	 * @return
+	 * 			The index of the intersection.
+	 */
+	int getIntersection(int i) {
+		return region[i];
+	}
+
+	/**
+	 * Return the owner of the region filled last.
+	 * @return
+	 * 			BLACK or WHITE if the region borders only stones of that color and EMPTY if
+	 * 			it borders both colors or no stones at all.
+	 */
+	byte getOwner() {
+		return owner;
+	}
+
+}
@@ -0,0 +1,272 @@
+package game.board;
+
+import java.util.Arrays;
+
+import game.board.stone.StoneColor;
+
+/**
+ * Scores the board situation of a BoardState with a single flood fill over a primitive
+ * array of cells. Every empty region that borders stones of only one color is territory
+ * of that color, an empty region that borders both colors or no stones at all is neutral.
+ * All arrays are allocated once for the size of the board and reused for every score,
+ * so scoring takes time linear in the amount of intersections and creates no garbage.
+ * A scoring engine is not thread safe, every thread should use an engine of its own.
+ * @author janine.kleinrot
+ */
+public class ScoringEngine {
+
+	/** The size of the board. */
+	private final int size;
+
+	/** The stone at each intersection, as a cell value of the RegionFill. */
+	private final byte[] cells;
+
+	/** The empty region of each intersection, or -1 if the intersection is occupied. */
+	private final int[] regions;
+
+	/** The owner of each empty region, as a cell value of the RegionFill. */
+	private final byte[] regionOwners;
+
+	/** The flood fill of the empty regions, which labels them in regions. */
+	private final RegionFill regionFill;
+
+	/** The amount of empty regions found by the most recent score. */
+	private int regionCount;
+
+	/** The amount of black stones on the board. */
+	private int blackStones;
+
+	/** The amount of white stones on the board. */
+	private int whiteStones;
+
+	/** The amount of empty intersections in the territory of black. */
+	private int blackTerritory;
+
+	/** The amount of empty intersections in the territory of white. */
+	private int whiteTerritory;
+
+	/**
+	 * Create a new ScoringEngine for boards of the provided size.
+	 * @param size
+	 * 			The size of the board.
+	 */
+	public ScoringEngine(int size) {
+		this.size = size;
+		cells = new byte[size * size];
+		regions = new int[size * size];
+		regionOwners = new byte[size * size];
+		regionFill = new RegionFill(cells, NeighborTable.get(size), regions);
+	}
+
+	/**
+	 * Score the board situation of the provided board state.
+	 * The results can be read until the next score.
+	 * @param boardState
+	 * 			The board state, of the size of the engine.
+	 * @throws IllegalArgumentException
+	 * 			If the size of the board state differs from the size of the engine.
+	 */
+	public void score(BoardState boardState) {
+		score(boardState, null);
+	}
+
+	/**
+	 * Score the board situation of the provided board state with the provided dead stones
+	 * removed, so their intersections count for the color that surrounds them.
+	 * The results can be read until the next score.
+	 * @param boardState
+	 * 			The board state, of the size of the engine.
+	 * @param deadStones
+	 * 			Whether the stone at each intersection is dead, or null if all stones are alive.
+	 * @throws IllegalArgumentException
+	 * 			If the size of the board state differs from the size of the engine.
+	 */
+	public void score(BoardState boardState, boolean[] deadStones) {
+		if (boardState.getSize() != size) {
+			throw new IllegalArgumentException("The board state should have size " + size);
+		}
+		blackStones = 0;
+		whiteStones = 0;
+		for (int index = 0; index < cells.length; index++) {
+			StoneColor stoneColor = boardState.getStoneColor(index);
+			if (stoneColor == null || (deadStones != null && deadStones[index])) {
+				cells[index] = RegionFill.EMPTY;
+			} else if (stoneColor == StoneColor.BLACK) {
+				cells[index] = RegionFill.BLACK;
+				blackStones++;
+			} else {
+				cells[index] = RegionFill.WHITE;
+				whiteStones++;
+			}
+		}
+		fillRegions();
+	}
+
+	/**
+	 * Find the empty regions with a flood fill from every empty intersection
+	 * that is not in a region yet, and give every region its owner.
+	 * Every intersection is filled at most once.
+	 */
+	private void fillRegions() {
+		Arrays.fill(regions, -1);
+		regionCount = 0;
+		blackTerritory = 0;
+		whiteTerritory = 0;
+		for (int start = 0; start < cells.length; start++) {
+			if (cells[start] == RegionFill.EMPTY && regions[start] == -1) {
+				int region = regionCount;
+				regionCount++;
+				regionFill.fill(start, region);
+				byte owner = regionFill.getOwner();
+				if (owner == RegionFill.BLACK) {
+					blackTerritory = blackTerritory + regionFill.getRegionSize();
+				} else if (owner == RegionFill.WHITE) {
+					whiteTerritory = whiteTerritory + regionFill.getRegionSize();
+				}
+				regionOwners[region] = owner;
+			}
+		}
+	}
+
+	/**
+	 * Return the size of the board.
+	 * @return
+	 * 			The size of the board.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Return the amount of empty regions.
+	 * @return
+	 * 			The amount of empty regions.
+	 */
+	public int getRegionCount() {
+		return regionCount;
+	}
+
+	/**
+	 * Return the empty region of the intersection with the provided index.
+	 * The regions are numbered from 0 in order of their first intersection.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			The region or -1 if the intersection is occupied.
+	 */
+	public int getRegion(int index) {
+		return regions[index];
+	}
+
+	/**
+	 * Return the color whose territory contains the intersection with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			The stone color or null if the intersection is occupied or neutral.
+	 */
+	public StoneColor getTerritoryOwner(int index) {
+		int region = regions[index];
+		if (region == -1 || regionOwners[region] == RegionFill.EMPTY) {
+			return null;
+		}
+		return regionOwners[region] == RegionFill.BLACK ? StoneColor.BLACK : StoneColor.WHITE;
+	}
+
+	/**
+	 * Fill the provided mask with the territory of the provided color, as a bitset with
+	 * the same layout as a BitBoardState: the intersection with index i is bit i % 64
+	 * of word i / 64.
+	 * @param color
+	 * 			The stone color.
+	 * @param mask
+	 * 			The mask, with at least (size * size + 63) / 64 words.
+	 */
+	public void getTerritoryMask(StoneColor color, long[] mask) {
+		byte owner = color == StoneColor.BLACK ? RegionFill.BLACK : RegionFill.WHITE;
+		Arrays.fill(mask, 0, (cells.length + 63) >>> 6, 0L);
+		for (int index = 0; index < cells.length; index++) {
+			int region = regions[index];
+			if (region != -1 && regionOwners[region] == owner) {
+				mask[index >>> 6] |= 1L << index;
+			}
+		}
+	}
+
+	/**
+	 * Return the amount of stones of the provided color.
+	 * @param color
+	 * 			The stone color.
+	 * @return
+	 * 			The amount of stones.
+	 */
+	public int getStoneCount(StoneColor color) {
+		return color == StoneColor.BLACK ? blackStones : whiteStones;
+	}
+
+	/**
+	 * Return the amount of empty intersections in the territory of the provided color.
+	 * @param color
+	 * 			The stone color.
+	 * @return
+	 * 			The amount of intersections.
+	 */
+	public int getTerritory(StoneColor color) {
+		return color == StoneColor.BLACK ? blackTerritory : whiteTerritory;
+	}
+
+	/**
+	 * Return the area score of the provided color, its stones plus its territory.
+	 * @param color
+	 * 			The stone color.
+	 * @return
+	 * 			The area score.
+	 */
+	public int getAreaScore(StoneColor color) {
+		return getStoneCount(color) + getTerritory(color);
+	}
+
+	/**
+	 * Return the territory score of the provided color, its territory plus the stones
+	 * it captured. The board does not count captured stones, so they are provided.
+	 * @param color
+	 * 			The stone color.
+	 * @param prisoners
+	 * 			The amount of stones of the other color captured by the color.
+	 * @return
+	 * 			The territory score.
+	 */
+	public int getTerritoryScore(StoneColor color, int prisoners) {
+		return getTerritory(color) + prisoners;
+	}
+
+	/**
+	 * Return the result of area scoring, the area score of black minus the area score
+	 * of white and the komi.
+	 * @param komi
+	 * 			The points given to white.
+	 * @return
+	 * 			The result, positive if black wins and negative if white wins.
+	 */
+	public double getAreaResult(double komi) {
+		return getAreaScore(StoneColor.BLACK) - getAreaScore(StoneColor.WHITE) - komi;
+	}
+
+	/**
+	 * Return the result of territory scoring, the territory score of black minus
+	 * the territory score of white and the komi.
+	 * @param komi
+	 * 			The points given to white.
+	 * @param blackPrisoners
+	 * 			The amount of white stones captured by black.
+	 * @param whitePrisoners
+	 * 			The amount of black stones captured by white.
+	 * @return
+	 * 			The result, positive if black wins and negative if white wins.
+	 */
+	public double getTerritoryResult(double komi, int blackPrisoners, int whitePrisoners) {
+		return getTerritoryScore(StoneColor.BLACK, blackPrisoners) -
+				getTerritoryScore(StoneColor.WHITE, whitePrisoners) - komi;
+	}
+
+}
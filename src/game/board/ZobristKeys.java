@@ -0,0 +1,55 @@
+package game.board;
+
+import java.util.Random;
+
+import game.board.stone.StoneColor;
+
+/**
+ * The random 64 bit keys used for the Zobrist hash of a board situation.
+ * The hash of a board is the exclusive or of the keys of all stones on the board,
+ * so setting or removing a stone changes the hash with a single exclusive or.
+ * The keys are generated from a fixed seed, so every GoServer and GoClient
+ * calculates the same hash for the same board situation.
+ * @author janine.kleinrot
+ */
+public final class ZobristKeys {
+
+	/** The seed of the keys. */
+	private static final long SEED = 0x5DEECE66DL;
+
+	/** The keys of a black stone at each index of a 19 x 19 board. */
+	private static final long[] BLACK_KEYS = new long[19 * 19];
+
+	/** The keys of a white stone at each index of a 19 x 19 board. */
+	private static final long[] WHITE_KEYS = new long[19 * 19];
+
+	static {
+		Random random = new Random(SEED);
+		for (int index = 0; index < 19 * 19; index++) {
+			BLACK_KEYS[index] = random.nextLong();
+			WHITE_KEYS[index] = random.nextLong();
+		}
+	}
+
+	/**
+	 * The keys are only used statically.
+	 */
+	private ZobristKeys() {
+
+	}
+
+	/**
+	 * Return the key of a stone of the provided color at the intersection
+	 * with the provided index.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param color
+	 * 			The color of the stone.
+	 * @return
+	 * 			The key.
+	 */
+	public static long getKey(int index, StoneColor color) {
+		return color == StoneColor.BLACK ? BLACK_KEYS[index] : WHITE_KEYS[index];
+	}
+
+}
@@ -0,0 +1,108 @@
+package game.board.test;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import game.board.BitBoardState;
+import game.board.Board;
+import game.board.stone.StoneColor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for BitBoardState.
+ * @author janine.kleinrot
+ */
+public class BitBoardStateTest {
+
+	/** Test variable for a BitBoardState object of 9 x 9. */
+	private BitBoardState boardState9x9;
+
+	/** Test variable for a BitBoardState object of 19 x 19. */
+	private BitBoardState boardState19x19;
+
+	/**
+	 * Create a board state of 9 x 9 and 19 x 19 intersections.
+	 */
+	@Before
+	public void setUp() {
+		boardState9x9 = new BitBoardState(9);
+		boardState19x19 = new BitBoardState(19);
+	}
+
+	/**
+	 * Test that the board state is initially empty.
+	 */
+	@Test
+	public void testInitialState() {
+		assertEquals(9, boardState9x9.getSize());
+		for (int x = 0; x < 9; x++) {
+			for (int y = 0; y < 9; y++) {
+				assertFalse(boardState9x9.isOccupied(x, y));
+				assertNull(boardState9x9.getStoneColor(x, y));
+			}
+		}
+		assertEquals(0, boardState9x9.getStoneCount(StoneColor.BLACK));
+		assertEquals(0, boardState9x9.getStoneCount(StoneColor.WHITE));
+	}
+
+	/**
+	 * Test setting and removing stones, also in the last intersection of a 19 x 19 board.
+	 */
+	@Test
+	public void testSetAndRemoveStone() {
+		boardState19x19.setStone(0, 0, StoneColor.BLACK);
+		boardState19x19.setStone(18, 18, StoneColor.WHITE);
+		boardState19x19.setStone(3, 7, StoneColor.WHITE);
+		assertEquals(StoneColor.BLACK, boardState19x19.getStoneColor(0, 0));
+		assertEquals(StoneColor.WHITE, boardState19x19.getStoneColor(18, 18));
+		assertEquals(StoneColor.WHITE, boardState19x19.getStoneColor(3, 7));
+		assertFalse(boardState19x19.isOccupied(7, 3));
+		assertEquals(1, boardState19x19.getStoneCount(StoneColor.BLACK));
+		assertEquals(2, boardState19x19.getStoneCount(StoneColor.WHITE));
+		boardState19x19.setStone(3, 7, StoneColor.BLACK);
+		assertEquals(StoneColor.BLACK, boardState19x19.getStoneColor(3, 7));
+		assertEquals(1, boardState19x19.getStoneCount(StoneColor.WHITE));
+		boardState19x19.removeStone(18, 18);
+		assertFalse(boardState19x19.isOccupied(18, 18));
+		boardState19x19.clear();
+		assertEquals(0, boardState19x19.getStoneCount(StoneColor.BLACK));
+	}
+
+	/**
+	 * Test that a copy equals the original and changes independently.
+	 */
+	@Test
+	public void testCopyAndEquals() {
+		boardState9x9.setStone(4, 4, StoneColor.BLACK);
+		BitBoardState copy = boardState9x9.copy();
+		assertEquals(boardState9x9, copy);
+		assertEquals(boardState9x9.hashCode(), copy.hashCode());
+		copy.setStone(4, 5, StoneColor.WHITE);
+		assertNotEquals(boardState9x9, copy);
+		assertFalse(boardState9x9.isOccupied(4, 5));
+		assertNotEquals(new BitBoardState(9), new BitBoardState(13));
+	}
+
+	/**
+	 * Test that the board state of a board follows the stones set and captured on the board.
+	 */
+	@Test
+	public void testBoardKeepsBoardState() {
+		Board board = new Board(9, false);
+		board.setStone(1, 1, StoneColor.WHITE);
+		board.setStone(1, 0, StoneColor.BLACK);
+		board.setStone(0, 1, StoneColor.BLACK);
+		board.setStone(1, 2, StoneColor.BLACK);
+		assertTrue(board.getBoardState().isOccupied(1, 1));
+		board.setStone(2, 1, StoneColor.BLACK);
+		assertFalse(board.getBoardState().isOccupied(1, 1));
+		assertEquals(4, board.getBoardState().getStoneCount(StoneColor.BLACK));
+		assertEquals(0, board.getBoardState().getStoneCount(StoneColor.WHITE));
+		assertEquals(board.getBoardState(), board.copy().getBoardState());
+	}
+}
@@ -193,6 +193,18 @@ public class BoardTest {
 		assertEquals(10, board9x9.getSize());
 	}
 	
+	/**
+	 * Test that a size outside 5 to 19 is changed to the nearest size a board can have.
+	 */
+	@Test
+	public void testGetValidSize() {
+		assertEquals(5, Board.getValidSize(-1));
+		assertEquals(5, Board.getValidSize(3));
+		assertEquals(9, Board.getValidSize(9));
+		assertEquals(19, Board.getValidSize(25));
+		assertEquals(board22x22.getSize(), Board.getValidSize(22));
+	}
+	
 	/**
 	 * Test that the stone is added to a new group if it is placed adjacent to a stone 
 	 * of the same color that not in a group. 
@@ -300,6 +312,58 @@ public class BoardTest {
 				board9x9.getIntersection(new Position(1, 4))));
 	}
 	
+	/**
+	 * Test that a stone connecting three groups merges them into one group that is captured 
+	 * as a whole once its last liberty is taken.
+	 */
+	@Test
+	public void testCaptureMergedGroups() {
+		board9x9.setStone(3, 2, StoneColor.WHITE);
+		board9x9.setStone(2, 3, StoneColor.WHITE);
+		board9x9.setStone(4, 3, StoneColor.WHITE);
+		board9x9.setStone(3, 3, StoneColor.WHITE);
+		assertEquals(1, board9x9.getIntersectionGroups().size());
+		assertEquals(4, board9x9.getIntersectionGroups().get(0).getIntersections().size());
+		int[][] surroundingStones = {{3, 1}, {2, 2}, {4, 2}, {1, 3}, {5, 3}, {2, 4}, {4, 4}};
+		for (int[] stone : surroundingStones) {
+			board9x9.setStone(stone[0], stone[1], StoneColor.BLACK);
+		}
+		assertEquals(StoneColor.WHITE, board9x9.getIntersection(new Position(3, 3)).getStone()
+				.getColor());
+		board9x9.setStone(3, 4, StoneColor.BLACK);
+		assertNull(board9x9.getIntersection(new Position(3, 2)).getStone());
+		assertNull(board9x9.getIntersection(new Position(2, 3)).getStone());
+		assertNull(board9x9.getIntersection(new Position(4, 3)).getStone());
+		assertNull(board9x9.getIntersection(new Position(3, 3)).getStone());
+		assertEquals(2, board9x9.getIntersection(new Position(3, 4)).getStone().getLiberties());
+		board9x9.setStone(3, 3, StoneColor.WHITE);
+		assertEquals(StoneColor.WHITE, board9x9.getIntersection(new Position(3, 3)).getStone()
+				.getColor());
+	}
+	
+	/**
+	 * Test that removing a stone from the middle of a group splits the group.
+	 */
+	@Test
+	public void testRemoveStoneSplitsGroup() {
+		board9x9.setStone(1, 1, StoneColor.BLACK);
+		board9x9.setStone(1, 2, StoneColor.BLACK);
+		board9x9.setStone(1, 3, StoneColor.BLACK);
+		board9x9.setStone(1, 4, StoneColor.BLACK);
+		board9x9.removeStone(new Position(1, 2));
+		assertEquals(1, board9x9.getIntersectionGroups().size());
+		assertEquals(2, board9x9.getIntersectionGroups().get(0).getIntersections().size());
+		assertTrue(board9x9.getIntersectionGroups().get(0).getIntersections().contains(
+				board9x9.getIntersection(new Position(1, 3))));
+		board9x9.setStone(0, 1, StoneColor.WHITE);
+		board9x9.setStone(2, 1, StoneColor.WHITE);
+		board9x9.setStone(1, 0, StoneColor.WHITE);
+		board9x9.setStone(1, 2, StoneColor.WHITE);
+		assertNull(board9x9.getIntersection(new Position(1, 1)).getStone());
+		assertEquals(StoneColor.BLACK, board9x9.getIntersection(new Position(1, 3)).getStone()
+				.getColor());
+	}
+	
 	/**
 	 * Test that the liberties are correct after a suicide move of one stone 
 	 * and that the stone is removed.
@@ -414,6 +478,60 @@ public class BoardTest {
 		assertEquals(3, boardGoGUI.getIntersection(new Position(0, 1)).getStone().getLiberties());
 	}
 	
+	/**
+	 * Test that the hash predicted for a capturing move equals the hash after the move,
+	 * and that removing the stones again restores the hash of the empty board.
+	 */
+	@Test
+	public void testHashAfterMove() {
+		long emptyHash = board9x9.getHash();
+		board9x9.setStone(1, 1, StoneColor.WHITE);
+		board9x9.setStone(1, 0, StoneColor.BLACK);
+		board9x9.setStone(0, 1, StoneColor.BLACK);
+		board9x9.setStone(1, 2, StoneColor.BLACK);
+		long predictedHash = board9x9.getHashAfterMove(2, 1, StoneColor.BLACK);
+		board9x9.setStone(2, 1, StoneColor.BLACK);
+		assertEquals(predictedHash, board9x9.getHash());
+		long suicideHash = board9x9.getHashAfterMove(1, 1, StoneColor.WHITE);
+		assertEquals(board9x9.getHash(), suicideHash);
+		board9x9.removeStone(new Position(1, 0));
+		board9x9.removeStone(new Position(0, 1));
+		board9x9.removeStone(new Position(1, 2));
+		board9x9.removeStone(new Position(2, 1));
+		assertEquals(emptyHash, board9x9.getHash());
+	}
+
+	/**
+	 * Test taking back a capture with undo and making it again with redo.
+	 */
+	@Test
+	public void testUndoRedo() {
+		long emptyHash = board9x9.getHash();
+		assertFalse(board9x9.undo());
+		board9x9.play(1, 1, StoneColor.WHITE);
+		board9x9.play(1, 0, StoneColor.BLACK);
+		board9x9.play(0, 1, StoneColor.BLACK);
+		board9x9.play(1, 2, StoneColor.BLACK);
+		long hashBeforeCapture = board9x9.getHash();
+		board9x9.play(2, 1, StoneColor.BLACK);
+		assertFalse(board9x9.getBoardState().isOccupied(1, 1));
+		assertEquals(5, board9x9.getMoveCount());
+		assertTrue(board9x9.undo());
+		assertEquals(hashBeforeCapture, board9x9.getHash());
+		assertEquals(StoneColor.WHITE, board9x9.getBoardState().getStoneColor(1, 1));
+		assertEquals(1, board9x9.getIntersection(new Position(1, 1)).getStone().getLiberties());
+		assertTrue(board9x9.redo());
+		assertFalse(board9x9.redo());
+		assertFalse(board9x9.getBoardState().isOccupied(1, 1));
+		assertEquals(4, board9x9.getBoardState().getStoneCount(StoneColor.BLACK));
+		while (board9x9.undo()) {
+			assertTrue(board9x9.getMoveCount() >= 0);
+		}
+		assertEquals(emptyHash, board9x9.getHash());
+		board9x9.play(4, 4, StoneColor.BLACK);
+		assertFalse(board9x9.redo());
+	}
+
 	/**
 	 * Test a draw.
 	 */
@@ -0,0 +1,59 @@
+package game.board.test;
+
+import org.junit.Test;
+
+import game.board.NeighborTable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test program for NeighborTable.
+ * @author janine.kleinrot
+ */
+public class NeighborTableTest {
+
+	/**
+	 * Test the neighbors of a corner, an edge and a center intersection of a board of 9 x 9.
+	 */
+	@Test
+	public void testNeighbors() {
+		int[] neighbors = NeighborTable.get(9);
+		assertEquals(4 * 81, neighbors.length);
+		assertArrayEquals(new int[] {1, 9, NeighborTable.SENTINEL, NeighborTable.SENTINEL},
+				getNeighbors(neighbors, 0));
+		assertArrayEquals(new int[] {80 - 1, 80 - 9, NeighborTable.SENTINEL, 
+				NeighborTable.SENTINEL}, getNeighbors(neighbors, 80));
+		assertArrayEquals(new int[] {5, 3, 13, NeighborTable.SENTINEL}, 
+				getNeighbors(neighbors, 4));
+		assertArrayEquals(new int[] {41, 39, 49, 31}, getNeighbors(neighbors, 40));
+	}
+
+	/**
+	 * Test that the boards of a size share the table and that larger sizes get a table too.
+	 */
+	@Test
+	public void testSizes() {
+		assertSame(NeighborTable.get(19), NeighborTable.get(19));
+		int[] neighbors = NeighborTable.get(21);
+		assertArrayEquals(new int[] {21 * 21 - 2, 21 * 21 - 1 - 21, NeighborTable.SENTINEL,
+				NeighborTable.SENTINEL}, getNeighbors(neighbors, 21 * 21 - 1));
+	}
+
+	/**
+	 * Return the four entries of the intersection with the provided index.
+	 * @param neighbors
+	 * 			The neighbor table.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			The entries.
+	 */
+	private int[] getNeighbors(int[] neighbors, int index) {
+		int[] entries = new int[4];
+		System.arraycopy(neighbors, index * 4, entries, 0, 4);
+		return entries;
+	}
+
+}
@@ -0,0 +1,112 @@
+package game.board.test;
+
+import java.util.SplittableRandom;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import game.board.Board;
+import game.board.OwnershipMap;
+import game.board.Position;
+import game.board.ScoringEngine;
+import game.board.stone.StoneColor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test program for OwnershipMap.
+ * @author janine.kleinrot
+ */
+public class OwnershipMapTest {
+
+	/** Test variable for a Board object of 9 x 9. */
+	private Board board;
+
+	/** The scoring engine that scores the whole board to compare with. */
+	private ScoringEngine engine;
+
+	/**
+	 * Create an empty board and a scoring engine of 9 x 9.
+	 */
+	@Before
+	public void setUp() {
+		board = new Board(9, false);
+		engine = new ScoringEngine(9);
+	}
+
+	/**
+	 * Test the owners after a stone is set and after a group is captured.
+	 */
+	@Test
+	public void testOwner() {
+		OwnershipMap ownershipMap = board.getOwnershipMap();
+		assertEquals(0, board.estimateScore());
+		assertNull(ownershipMap.getOwner(0));
+		board.setStone(0, 1, StoneColor.BLACK);
+		board.setStone(1, 0, StoneColor.BLACK);
+		assertEquals(81, board.estimateScore());
+		board.setStone(5, 5, StoneColor.WHITE);
+		assertEquals(StoneColor.BLACK, ownershipMap.getOwner(0));
+		assertNull(ownershipMap.getOwner(40));
+		assertEquals(3 - 1, board.estimateScore());
+		board.setStone(4, 5, StoneColor.BLACK);
+		board.setStone(6, 5, StoneColor.BLACK);
+		board.setStone(5, 4, StoneColor.BLACK);
+		board.setStone(5, 6, StoneColor.BLACK);
+		assertEquals(81, board.estimateScore());
+		assertEquals(StoneColor.BLACK, ownershipMap.getOwner(5 * 9 + 5));
+	}
+
+	/**
+	 * Test that the estimated score equals the score of the whole board after every move,
+	 * undo, redo and removed stone of random games.
+	 */
+	@Test
+	public void testRandomGames() {
+		SplittableRandom random = new SplittableRandom(7);
+		for (int game = 0; game < 20; game++) {
+			board.clear();
+			assertScore(board);
+			StoneColor stoneColor = StoneColor.BLACK;
+			for (int move = 0; move < 150; move++) {
+				int index = random.nextInt(81);
+				if (!board.getBoardState().isOccupied(index)) {
+					board.play(index / 9, index % 9, stoneColor);
+					stoneColor = stoneColor.other();
+				}
+				if (move % 10 == 0) {
+					board.undo();
+					assertScore(board);
+					board.redo();
+				}
+				if (move % 37 == 0 && board.getBoardState().isOccupied(index)) {
+					board.removeStone(new Position(index / 9, index % 9));
+				}
+				assertScore(board);
+				if (move % 50 == 0) {
+					assertScore(board.copy());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Assert that the ownership map of the board agrees with a score of the whole board.
+	 * @param scoredBoard
+	 * 			The board.
+	 */
+	private void assertScore(Board scoredBoard) {
+		engine.score(scoredBoard.getBoardState());
+		OwnershipMap ownershipMap = scoredBoard.getOwnershipMap();
+		assertEquals(engine.getAreaResult(0), scoredBoard.estimateScore(), 0.0);
+		assertEquals(engine.getTerritory(StoneColor.BLACK),
+				ownershipMap.getTerritory(StoneColor.BLACK));
+		assertEquals(engine.getTerritory(StoneColor.WHITE),
+				ownershipMap.getTerritory(StoneColor.WHITE));
+		for (int index = 0; index < 81; index++) {
+			assertEquals(engine.getTerritoryOwner(index), ownershipMap.getOwner(index));
+		}
+	}
+
+}
@@ -0,0 +1,33 @@
+package game.board.test;
+
+import org.junit.Test;
+
+import game.board.Position;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test program for Position.
+ * @author janine.kleinrot
+ */
+public class PositionTest {
+
+	/**
+	 * Test that the positions of a board size are shared and equal to new positions.
+	 */
+	@Test
+	public void testOf() {
+		Position position = Position.of(3 * 9 + 4, 9);
+		assertSame(position, Position.of(3 * 9 + 4, 9));
+		assertEquals(3, position.getX());
+		assertEquals(4, position.getY());
+		assertEquals(3 * 9 + 4, position.getIndex(9));
+		assertEquals(new Position(3, 4), position);
+		assertEquals(new Position(3, 4).hashCode(), position.hashCode());
+		assertNotEquals(new Position(4, 3), position);
+		assertEquals(new Position(20, 1), Position.of(20 * 21 + 1, 21));
+	}
+
+}
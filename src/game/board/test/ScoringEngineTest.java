@@ -0,0 +1,114 @@
+package game.board.test;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import game.board.BitBoardState;
+import game.board.ScoringEngine;
+import game.board.stone.StoneColor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test program for ScoringEngine.
+ * @author janine.kleinrot
+ */
+public class ScoringEngineTest {
+
+	/** Test variable for a BitBoardState object of 9 x 9. */
+	private BitBoardState boardState;
+
+	/** Test variable for a ScoringEngine object of 9 x 9. */
+	private ScoringEngine engine;
+
+	/**
+	 * Create an empty board state and a scoring engine of 9 x 9.
+	 */
+	@Before
+	public void setUp() {
+		boardState = new BitBoardState(9);
+		engine = new ScoringEngine(9);
+	}
+
+	/**
+	 * Test that the empty board is one neutral region.
+	 */
+	@Test
+	public void testEmptyBoard() {
+		engine.score(boardState);
+		assertEquals(1, engine.getRegionCount());
+		assertEquals(0, engine.getAreaScore(StoneColor.BLACK));
+		assertEquals(0, engine.getAreaScore(StoneColor.WHITE));
+		assertNull(engine.getTerritoryOwner(40));
+	}
+
+	/**
+	 * Test the territory and the scores of a board divided by a wall of each color,
+	 * with a neutral column between the walls.
+	 */
+	@Test
+	public void testWalls() {
+		for (int y = 0; y < 9; y++) {
+			boardState.setStone(2, y, StoneColor.BLACK);
+			boardState.setStone(4, y, StoneColor.WHITE);
+		}
+		engine.score(boardState);
+		assertEquals(3, engine.getRegionCount());
+		assertEquals(9, engine.getStoneCount(StoneColor.BLACK));
+		assertEquals(18, engine.getTerritory(StoneColor.BLACK));
+		assertEquals(36, engine.getTerritory(StoneColor.WHITE));
+		assertEquals(27, engine.getAreaScore(StoneColor.BLACK));
+		assertEquals(45, engine.getAreaScore(StoneColor.WHITE));
+		assertEquals(20, engine.getTerritoryScore(StoneColor.BLACK, 2));
+		assertEquals(-25.5, engine.getAreaResult(7.5), 0.0);
+		assertEquals(-23.5, engine.getTerritoryResult(7.5, 2, 0), 0.0);
+		assertEquals(StoneColor.BLACK, engine.getTerritoryOwner(0));
+		assertNull(engine.getTerritoryOwner(3 * 9 + 4));
+		assertEquals(StoneColor.WHITE, engine.getTerritoryOwner(80));
+		assertEquals(-1, engine.getRegion(2 * 9));
+	}
+
+	/**
+	 * Test that the territory mask holds exactly the territory of the color.
+	 */
+	@Test
+	public void testTerritoryMask() {
+		boardState.setStone(0, 1, StoneColor.BLACK);
+		boardState.setStone(1, 0, StoneColor.BLACK);
+		boardState.setStone(8, 7, StoneColor.WHITE);
+		boardState.setStone(7, 8, StoneColor.WHITE);
+		engine.score(boardState);
+		long[] mask = new long[] {-1L, -1L};
+		engine.getTerritoryMask(StoneColor.BLACK, mask);
+		assertEquals(1L, mask[0]);
+		assertEquals(0L, mask[1]);
+		engine.getTerritoryMask(StoneColor.WHITE, mask);
+		assertEquals(0L, mask[0]);
+		assertEquals(1L << (80 - 64), mask[1]);
+	}
+
+	/**
+	 * Test that scoring again after a change does not keep the regions of the previous score.
+	 */
+	@Test
+	public void testScoreAgain() {
+		boardState.setStone(4, 4, StoneColor.BLACK);
+		engine.score(boardState);
+		assertEquals(81, engine.getAreaScore(StoneColor.BLACK));
+		boardState.setStone(0, 0, StoneColor.WHITE);
+		engine.score(boardState);
+		assertEquals(1, engine.getRegionCount());
+		assertEquals(1, engine.getAreaScore(StoneColor.BLACK));
+		assertEquals(1, engine.getAreaScore(StoneColor.WHITE));
+	}
+
+	/**
+	 * Test that a board state of another size is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testOtherSize() {
+		engine.score(new BitBoardState(13));
+	}
+
+}
@@ -0,0 +1,54 @@
+package game.matchmaking;
+
+/**
+ * Pair requests for the same board size, or with a request for any board size.
+ * An opponent that asked for the same board size is preferred over one that accepts any size.
+ * @author janine.kleinrot
+ */
+public class BoardSizePairingPolicy implements PairingPolicy {
+
+	@Override
+	public boolean canPair(MatchRequest request, MatchRequest candidate, long now) {
+		return request.getBoardSize() == 0 || candidate.getBoardSize() == 0 ||
+				request.getBoardSize() == candidate.getBoardSize();
+	}
+
+	@Override
+	public long getCost(MatchRequest request, MatchRequest candidate) {
+		return request.getBoardSize() == candidate.getBoardSize() ? 0 : 1;
+	}
+
+	/**
+	 * Return the board size that both GoClients of a pair asked for.
+	 * @param boardSize
+	 * 			The board size one GoClient asked for, or 0 if any board size is fine.
+	 * @param otherBoardSize
+	 * 			The board size the other GoClient asked for, or 0 if any board size is fine.
+	 * @return
+	 * 			The board size, or 0 if both accept any board size or their sizes differ.
+	 */
+	public static int getAgreedBoardSize(int boardSize, int otherBoardSize) {
+		if (boardSize != 0 && otherBoardSize != 0 && boardSize != otherBoardSize) {
+			return 0;
+		}
+		return Math.max(boardSize, otherBoardSize);
+	}
+
+	/**
+	 * Return the board size sent with START to the GoClient that sets the game settings,
+	 * which its SETTINGS have to use. A GoClient that did not ask for a board size is not
+	 * sent one, since it may not expect a board size in START, so it can choose any size.
+	 * @param firstBoardSize
+	 * 			The board size the GoClient that sets the settings asked for, or 0 if any
+	 * 			board size is fine.
+	 * @param secondBoardSize
+	 * 			The board size the other GoClient asked for, or 0 if any board size is fine.
+	 * @return
+	 * 			The agreed board size if the first GoClient asked for a board size, 
+	 * 			or 0 if it is not sent.
+	 */
+	public static int getStartBoardSize(int firstBoardSize, int secondBoardSize) {
+		return firstBoardSize == 0 ? 0 : getAgreedBoardSize(firstBoardSize, secondBoardSize);
+	}
+
+}
@@ -0,0 +1,19 @@
+package game.matchmaking;
+
+/**
+ * Pair every request with the request that waits longest.
+ * @author janine.kleinrot
+ */
+public class FifoPairingPolicy implements PairingPolicy {
+
+	@Override
+	public boolean canPair(MatchRequest request, MatchRequest candidate, long now) {
+		return true;
+	}
+
+	@Override
+	public long getCost(MatchRequest request, MatchRequest candidate) {
+		return 0;
+	}
+
+}
@@ -0,0 +1,184 @@
+package game.matchmaking;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import client.handler.GoClientHandler;
+
+/**
+ * The request of a GoClient to be paired with an opponent.
+ * A request is claimed with compare-and-set, so it is paired at most once
+ * and is never paired after it is cancelled.
+ * @author janine.kleinrot
+ */
+public class MatchRequest {
+
+	/** The status of a request that waits for an opponent. */
+	static final int WAITING = 0;
+
+	/** The status of a request that is claimed while its opponent is claimed. */
+	static final int CLAIMED = 1;
+
+	/** The status of a request that is paired. */
+	static final int MATCHED = 2;
+
+	/** The status of a request that is cancelled. */
+	static final int CANCELLED = 3;
+
+	/** The GoClientHandler of the GoClient. */
+	private final GoClientHandler goClientHandler;
+
+	/** The requested board size, or 0 if any board size is fine. */
+	private final int boardSize;
+
+	/** The name of the GoClient asked for as opponent, or null if any opponent is fine. */
+	private final String opponentName;
+
+	/** The rating of the GoClient. */
+	private final int rating;
+
+	/** The order in which the request was made. */
+	private final long sequence;
+
+	/** The time in nanoseconds at which the request was made. */
+	private final long requestTime;
+
+	/** The status. */
+	private final AtomicInteger status;
+
+	/**
+	 * Create a new waiting MatchRequest.
+	 * @param goClientHandler
+	 * 			The GoClientHandler of the GoClient.
+	 * @param boardSize
+	 * 			The requested board size, or 0 if any board size is fine.
+	 * @param opponentName
+	 * 			The name of the GoClient asked for as opponent, or null if any opponent is fine.
+	 * @param rating
+	 * 			The rating of the GoClient.
+	 * @param sequence
+	 * 			The order in which the request was made.
+	 * @param requestTime
+	 * 			The time in nanoseconds at which the request was made.
+	 */
+	public MatchRequest(GoClientHandler goClientHandler, int boardSize, String opponentName,
+			int rating, long sequence, long requestTime) {
+		this.goClientHandler = goClientHandler;
+		this.boardSize = boardSize;
+		this.opponentName = opponentName;
+		this.rating = rating;
+		this.sequence = sequence;
+		this.requestTime = requestTime;
+		status = new AtomicInteger(WAITING);
+	}
+
+	/**
+	 * Return the GoClientHandler of the GoClient.
+	 * @return
+	 * 			The GoClientHandler.
+	 */
+	public GoClientHandler getGoClientHandler() {
+		return goClientHandler;
+	}
+
+	/**
+	 * Return the requested board size.
+	 * @return
+	 * 			The board size, or 0 if any board size is fine.
+	 */
+	public int getBoardSize() {
+		return boardSize;
+	}
+
+	/**
+	 * Return the name of the GoClient asked for as opponent.
+	 * @return
+	 * 			The name, or null if any opponent is fine.
+	 */
+	public String getOpponentName() {
+		return opponentName;
+	}
+
+	/**
+	 * Whether the request and the candidate accept each other as opponent, which is the case
+	 * if neither asked for another GoClient.
+	 * @param candidate
+	 * 			The request of the candidate opponent.
+	 * @return
+	 * 			True if both accept the other and false otherwise.
+	 */
+	public boolean acceptsOpponent(MatchRequest candidate) {
+		return (opponentName == null || 
+				opponentName.equals(candidate.getGoClientHandler().getGoClientName())) &&
+				(candidate.opponentName == null ||
+				candidate.opponentName.equals(goClientHandler.getGoClientName()));
+	}
+
+	/**
+	 * Return the rating of the GoClient.
+	 * @return
+	 * 			The rating.
+	 */
+	public int getRating() {
+		return rating;
+	}
+
+	/**
+	 * Return the order in which the request was made.
+	 * @return
+	 * 			The sequence number, lower for older requests.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Return the time at which the request was made.
+	 * @return
+	 * 			The time in nanoseconds, as returned by System.nanoTime.
+	 */
+	public long getRequestTime() {
+		return requestTime;
+	}
+
+	/**
+	 * Whether the request waits for an opponent.
+	 * @return
+	 * 			True if the request waits and false otherwise.
+	 */
+	public boolean isWaiting() {
+		return status.get() == WAITING;
+	}
+
+	/**
+	 * Whether the request is paired or cancelled.
+	 * @return
+	 * 			True if the request is paired or cancelled and false otherwise.
+	 */
+	public boolean isDone() {
+		int currentStatus = status.get();
+		return currentStatus == MATCHED || currentStatus == CANCELLED;
+	}
+
+	/**
+	 * Change the status if it is the expected status.
+	 * @param expected
+	 * 			The expected status.
+	 * @param newStatus
+	 * 			The new status.
+	 * @return
+	 * 			True if the status is changed and false otherwise.
+	 */
+	boolean changeStatus(int expected, int newStatus) {
+		return status.compareAndSet(expected, newStatus);
+	}
+
+	/**
+	 * Set the status.
+	 * @param newStatus
+	 * 			The new status.
+	 */
+	void setStatus(int newStatus) {
+		status.set(newStatus);
+	}
+
+}
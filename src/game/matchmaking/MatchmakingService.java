@@ -0,0 +1,243 @@
+package game.matchmaking;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+import client.GoClientState;
+import client.handler.GoClientHandler;
+
+/**
+ * Pair the GoClients that requested a game without locks, so many GoClientHandlers can
+ * request games at the same time.
+ * A request is added to the queue of waiting requests before it looks for an opponent,
+ * so of two requests made at the same time at least one finds the other. A pair is claimed
+ * with compare-and-set, the older request first, so every request is paired at most once.
+ * If the claim of the second request fails, the first request is released and looks for
+ * an opponent again, so no pair that could be made is missed.
+ * Paired and cancelled requests, and the requests of GoClients that are no longer waiting
+ * for a game, are unlinked from the queue while looking for an opponent, so pairing and
+ * cancelling do not search the queue.
+ * A request can ask for a GoClient by name, and is then only paired with that GoClient
+ * if its request accepts this GoClient too, whatever the pairing policy.
+ * A policy can allow a pair only after the requests have waited for some time, so the owner
+ * of the service calls rescan regularly to pair those requests without a new request.
+ * @author janine.kleinrot
+ */
+public class MatchmakingService {
+
+	/** The rating of every GoClient if no ratings are provided. */
+	public static final int DEFAULT_RATING = 1500;
+
+	/** The policy that decides which requests are paired. */
+	private PairingPolicy pairingPolicy;
+
+	/** The ratings of the GoClients. */
+	private ToIntFunction<GoClientHandler> ratings;
+
+	/** The action that starts the game of a pair, with the older request first. */
+	private BiConsumer<GoClientHandler, GoClientHandler> matchAction;
+
+	/** The waiting requests, oldest first. */
+	private Queue<MatchRequest> waitingRequests;
+
+	/** The waiting request of every GoClientHandler. */
+	private ConcurrentHashMap<GoClientHandler, MatchRequest> requests;
+
+	/** The amount of requests made. */
+	private AtomicLong requestCount;
+
+	/**
+	 * Create a new MatchmakingService where every GoClient has the default rating.
+	 * @param pairingPolicy
+	 * 			The policy that decides which requests are paired.
+	 * @param matchAction
+	 * 			The action that starts the game of a pair, with the older request first.
+	 */
+	public MatchmakingService(PairingPolicy pairingPolicy,
+			BiConsumer<GoClientHandler, GoClientHandler> matchAction) {
+		this(pairingPolicy, goClientHandler -> DEFAULT_RATING, matchAction);
+	}
+
+	/**
+	 * Create a new MatchmakingService.
+	 * @param pairingPolicy
+	 * 			The policy that decides which requests are paired.
+	 * @param ratings
+	 * 			The ratings of the GoClients.
+	 * @param matchAction
+	 * 			The action that starts the game of a pair, with the older request first.
+	 */
+	public MatchmakingService(PairingPolicy pairingPolicy, ToIntFunction<GoClientHandler> ratings,
+			BiConsumer<GoClientHandler, GoClientHandler> matchAction) {
+		this.pairingPolicy = pairingPolicy;
+		this.ratings = ratings;
+		this.matchAction = matchAction;
+		waitingRequests = new ConcurrentLinkedQueue<MatchRequest>();
+		requests = new ConcurrentHashMap<GoClientHandler, MatchRequest>();
+		requestCount = new AtomicLong();
+	}
+
+	/**
+	 * Add a request of the GoClient for a game and pair it if an opponent is waiting.
+	 * A GoClient that is already waiting keeps its older request.
+	 * @param goClientHandler
+	 * 			The GoClientHandler of the GoClient.
+	 * @param boardSize
+	 * 			The requested board size, or 0 if any board size is fine.
+	 */
+	public void request(GoClientHandler goClientHandler, int boardSize) {
+		request(goClientHandler, boardSize, null);
+	}
+
+	/**
+	 * Add a request of the GoClient for a game against the GoClient with the provided name
+	 * and pair it if that GoClient is waiting for a game against this GoClient or any opponent.
+	 * A GoClient that is already waiting keeps its older request.
+	 * @param goClientHandler
+	 * 			The GoClientHandler of the GoClient.
+	 * @param boardSize
+	 * 			The requested board size, or 0 if any board size is fine.
+	 * @param opponentName
+	 * 			The name of the GoClient asked for as opponent, or null if any opponent is fine.
+	 */
+	public void request(GoClientHandler goClientHandler, int boardSize, String opponentName) {
+		MatchRequest request = new MatchRequest(goClientHandler, boardSize, opponentName,
+				ratings.applyAsInt(goClientHandler), requestCount.getAndIncrement(),
+				System.nanoTime());
+		if (requests.putIfAbsent(goClientHandler, request) != null) {
+			return;
+		}
+		waitingRequests.add(request);
+		findOpponent(request);
+	}
+
+	/**
+	 * Cancel the waiting request of the GoClient, if any.
+	 * @param goClientHandler
+	 * 			The GoClientHandler of the GoClient.
+	 * @return
+	 * 			True if a waiting request is cancelled and false otherwise.
+	 */
+	public boolean cancel(GoClientHandler goClientHandler) {
+		MatchRequest request = requests.get(goClientHandler);
+		return request != null && cancel(request);
+	}
+
+	/**
+	 * Look for an opponent for every waiting request again, so requests that the pairing
+	 * policy only allows to pair after waiting are paired without a new request.
+	 */
+	public void rescan() {
+		for (MatchRequest request : waitingRequests) {
+			if (request.isWaiting() && !isStale(request)) {
+				findOpponent(request);
+			}
+		}
+	}
+
+	/**
+	 * Return the amount of waiting requests.
+	 * @return
+	 * 			The amount of requests.
+	 */
+	public int getWaitingCount() {
+		return requests.size();
+	}
+
+	/**
+	 * Pair the request with the best opponent allowed by the pairing policy, if any.
+	 * @param request
+	 * 			The request, which is in the queue of waiting requests.
+	 */
+	private void findOpponent(MatchRequest request) {
+		while (request.isWaiting()) {
+			MatchRequest opponent = null;
+			long opponentCost = Long.MAX_VALUE;
+			long now = System.nanoTime();
+			Iterator<MatchRequest> iterator = waitingRequests.iterator();
+			while (iterator.hasNext()) {
+				MatchRequest candidate = iterator.next();
+				if (candidate == request) {
+					continue;
+				} else if (candidate.isDone() || isStale(candidate) && cancel(candidate)) {
+					iterator.remove();
+				} else if (candidate.isWaiting() && request.acceptsOpponent(candidate) &&
+						pairingPolicy.canPair(request, candidate, now)) {
+					long cost = pairingPolicy.getCost(request, candidate);
+					if (cost < opponentCost) {
+						opponent = candidate;
+						opponentCost = cost;
+					}
+				}
+			}
+			if (opponent == null) {
+				return;
+			}
+			if (claim(request, opponent)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Claim both requests and start their game.
+	 * @param request
+	 * 			The request that looks for an opponent.
+	 * @param opponent
+	 * 			The request of the opponent.
+	 * @return
+	 * 			True if the requests are paired and false if one of them is no longer waiting.
+	 */
+	private boolean claim(MatchRequest request, MatchRequest opponent) {
+		MatchRequest first = request.getSequence() < opponent.getSequence() ? request : opponent;
+		MatchRequest second = first == request ? opponent : request;
+		if (!first.changeStatus(MatchRequest.WAITING, MatchRequest.CLAIMED)) {
+			return false;
+		}
+		if (!second.changeStatus(MatchRequest.WAITING, MatchRequest.MATCHED)) {
+			first.setStatus(MatchRequest.WAITING);
+			if (first != request) {
+				findOpponent(first);
+			}
+			return false;
+		}
+		first.setStatus(MatchRequest.MATCHED);
+		requests.remove(first.getGoClientHandler(), first);
+		requests.remove(second.getGoClientHandler(), second);
+		matchAction.accept(first.getGoClientHandler(), second.getGoClientHandler());
+		return true;
+	}
+
+	/**
+	 * Whether the GoClient of the waiting request is no longer waiting for a game.
+	 * @param request
+	 * 			The request.
+	 * @return
+	 * 			True if the request is stale and false otherwise.
+	 */
+	private boolean isStale(MatchRequest request) {
+		return request.isWaiting() &&
+				request.getGoClientHandler().getGoClientState() != GoClientState.GAME_REQUESTED;
+	}
+
+	/**
+	 * Cancel the request if it is waiting.
+	 * @param request
+	 * 			The request.
+	 * @return
+	 * 			True if the request is cancelled and false otherwise.
+	 */
+	private boolean cancel(MatchRequest request) {
+		if (request.changeStatus(MatchRequest.WAITING, MatchRequest.CANCELLED)) {
+			requests.remove(request.getGoClientHandler(), request);
+			return true;
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,35 @@
+package game.matchmaking;
+
+/**
+ * The policy that decides which waiting requests can be paired and which opponent is best.
+ * Of the opponents with the lowest cost the request that waits longest is chosen,
+ * so every policy is fair among equally good opponents.
+ * @author janine.kleinrot
+ */
+public interface PairingPolicy {
+
+	/**
+	 * Whether the request can be paired with the candidate.
+	 * @param request
+	 * 			The request that looks for an opponent.
+	 * @param candidate
+	 * 			The waiting request of the possible opponent.
+	 * @param now
+	 * 			The current time in nanoseconds.
+	 * @return
+	 * 			True if they can be paired and false otherwise.
+	 */
+	public boolean canPair(MatchRequest request, MatchRequest candidate, long now);
+
+	/**
+	 * Return how bad the candidate is as opponent of the request.
+	 * @param request
+	 * 			The request that looks for an opponent.
+	 * @param candidate
+	 * 			The waiting request of the possible opponent, which can be paired.
+	 * @return
+	 * 			The cost, lower for a better opponent.
+	 */
+	public long getCost(MatchRequest request, MatchRequest candidate);
+
+}
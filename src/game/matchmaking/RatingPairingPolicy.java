@@ -0,0 +1,55 @@
+package game.matchmaking;
+
+/**
+ * Pair requests of GoClients with close ratings.
+ * The allowed difference in rating grows with the time the candidate waits,
+ * so a GoClient with an unusual rating is paired eventually by a rescan of the
+ * MatchmakingService, even if no new request arrives.
+ * Of the opponents within the allowed difference the closest rating is preferred.
+ * @author janine.kleinrot
+ */
+public class RatingPairingPolicy implements PairingPolicy {
+
+	/** The default allowed difference in rating. */
+	public static final int DEFAULT_MAX_DIFFERENCE = 100;
+
+	/** The default growth of the allowed difference for every second the candidate waits. */
+	public static final int DEFAULT_DIFFERENCE_PER_SECOND = 50;
+
+	/** The allowed difference in rating of a candidate that has just made its request. */
+	private int maxDifference;
+
+	/** The growth of the allowed difference for every second the candidate waits. */
+	private int differencePerSecond;
+
+	/**
+	 * Create a new RatingPairingPolicy with the default allowed difference and growth.
+	 */
+	public RatingPairingPolicy() {
+		this(DEFAULT_MAX_DIFFERENCE, DEFAULT_DIFFERENCE_PER_SECOND);
+	}
+
+	/**
+	 * Create a new RatingPairingPolicy.
+	 * @param maxDifference
+	 * 			The allowed difference in rating of a candidate that has just made its request.
+	 * @param differencePerSecond
+	 * 			The growth of the allowed difference for every second the candidate waits.
+	 */
+	public RatingPairingPolicy(int maxDifference, int differencePerSecond) {
+		this.maxDifference = maxDifference;
+		this.differencePerSecond = differencePerSecond;
+	}
+
+	@Override
+	public boolean canPair(MatchRequest request, MatchRequest candidate, long now) {
+		long secondsWaited = (now - candidate.getRequestTime()) / 1000000000L;
+		return getCost(request, candidate) <= maxDifference + differencePerSecond * secondsWaited;
+	}
+
+	@Override
+	public long getCost(MatchRequest request, MatchRequest candidate) {
+		return Math.abs((long) request.getRating() - candidate.getRating());
+	}
+
+}
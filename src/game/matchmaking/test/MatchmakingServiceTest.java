@@ -0,0 +1,271 @@
+package game.matchmaking.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import client.GoClientState;
+import client.handler.GoClientHandler;
+import client.handler.test.GoClientHandlerStub;
+import game.matchmaking.BoardSizePairingPolicy;
+import game.matchmaking.FifoPairingPolicy;
+import game.matchmaking.MatchRequest;
+import game.matchmaking.MatchmakingService;
+import game.matchmaking.PairingPolicy;
+import game.matchmaking.RatingPairingPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for MatchmakingService.
+ * @author janine.kleinrot
+ */
+public class MatchmakingServiceTest {
+
+	/** Test variable for the pairs made, with the older request first. */
+	private List<GoClientHandler[]> pairs = new ArrayList<GoClientHandler[]>();
+
+	/**
+	 * Test that the requests are paired in order of request.
+	 */
+	@Test
+	public void testFifo() {
+		MatchmakingService service = new MatchmakingService(new FifoPairingPolicy(),
+				this::addPair);
+		RequestingGoClientHandler piet = new RequestingGoClientHandler("piet");
+		RequestingGoClientHandler jan = new RequestingGoClientHandler("jan");
+		RequestingGoClientHandler koos = new RequestingGoClientHandler("koos");
+		service.request(piet, 0);
+		service.request(piet, 0);
+		assertEquals(1, service.getWaitingCount());
+		service.request(jan, 9);
+		service.request(koos, 19);
+		assertEquals(1, pairs.size());
+		assertSame(piet, pairs.get(0)[0]);
+		assertSame(jan, pairs.get(0)[1]);
+		assertEquals(1, service.getWaitingCount());
+	}
+
+	/**
+	 * Test that requests for the same board size are preferred
+	 * and that requests for different board sizes are not paired.
+	 */
+	@Test
+	public void testBoardSize() {
+		MatchmakingService service = new MatchmakingService(new BoardSizePairingPolicy(),
+				this::addPair);
+		RequestingGoClientHandler piet = new RequestingGoClientHandler("piet");
+		RequestingGoClientHandler jan = new RequestingGoClientHandler("jan");
+		RequestingGoClientHandler koos = new RequestingGoClientHandler("koos");
+		RequestingGoClientHandler henk = new RequestingGoClientHandler("henk");
+		service.request(piet, 9);
+		service.request(jan, 19);
+		assertTrue(pairs.isEmpty());
+		service.request(koos, 0);
+		service.request(henk, 19);
+		assertEquals(2, pairs.size());
+		assertSame(piet, pairs.get(0)[0]);
+		assertSame(koos, pairs.get(0)[1]);
+		assertSame(jan, pairs.get(1)[0]);
+		assertSame(henk, pairs.get(1)[1]);
+	}
+
+	/**
+	 * Test that a request that asks for an opponent by name is only paired with that
+	 * opponent, and only if the opponent accepts it too.
+	 */
+	@Test
+	public void testOpponentName() {
+		MatchmakingService service = new MatchmakingService(new FifoPairingPolicy(),
+				this::addPair);
+		RequestingGoClientHandler piet = new RequestingGoClientHandler("piet");
+		RequestingGoClientHandler jan = new RequestingGoClientHandler("jan");
+		RequestingGoClientHandler koos = new RequestingGoClientHandler("koos");
+		RequestingGoClientHandler henk = new RequestingGoClientHandler("henk");
+		service.request(piet, 0, "jan");
+		service.request(koos, 0, "henk");
+		service.request(henk, 0, "piet");
+		assertTrue(pairs.isEmpty());
+		service.request(jan, 0);
+		assertEquals(1, pairs.size());
+		assertSame(piet, pairs.get(0)[0]);
+		assertSame(jan, pairs.get(0)[1]);
+		assertEquals(2, service.getWaitingCount());
+	}
+
+	/**
+	 * Test the board size a pair agreed on and the board size sent with START.
+	 */
+	@Test
+	public void testAgreedBoardSize() {
+		assertEquals(9, BoardSizePairingPolicy.getAgreedBoardSize(9, 9));
+		assertEquals(9, BoardSizePairingPolicy.getAgreedBoardSize(0, 9));
+		assertEquals(19, BoardSizePairingPolicy.getAgreedBoardSize(19, 0));
+		assertEquals(0, BoardSizePairingPolicy.getAgreedBoardSize(0, 0));
+		assertEquals(0, BoardSizePairingPolicy.getAgreedBoardSize(9, 19));
+		assertEquals(9, BoardSizePairingPolicy.getStartBoardSize(9, 0));
+		assertEquals(0, BoardSizePairingPolicy.getStartBoardSize(0, 9));
+	}
+
+	/**
+	 * Test that only requests with close ratings are paired, the closest rating first.
+	 */
+	@Test
+	public void testRating() {
+		Map<GoClientHandler, Integer> ratings = new ConcurrentHashMap<GoClientHandler, Integer>();
+		MatchmakingService service = new MatchmakingService(new RatingPairingPolicy(100, 0),
+				ratings::get, this::addPair);
+		RequestingGoClientHandler piet = new RequestingGoClientHandler("piet");
+		RequestingGoClientHandler jan = new RequestingGoClientHandler("jan");
+		RequestingGoClientHandler koos = new RequestingGoClientHandler("koos");
+		ratings.put(piet, 1000);
+		ratings.put(jan, 1500);
+		ratings.put(koos, 1450);
+		service.request(piet, 0);
+		service.request(jan, 0);
+		assertTrue(pairs.isEmpty());
+		service.request(koos, 0);
+		assertEquals(1, pairs.size());
+		assertSame(jan, pairs.get(0)[0]);
+		assertSame(koos, pairs.get(0)[1]);
+	}
+
+	/**
+	 * Test that a rescan pairs waiting requests that the policy allows to pair
+	 * after they were made.
+	 */
+	@Test
+	public void testRescan() {
+		AtomicBoolean isPairAllowed = new AtomicBoolean();
+		MatchmakingService service = new MatchmakingService(new PairingPolicy() {
+
+			@Override
+			public boolean canPair(MatchRequest request, MatchRequest candidate, long now) {
+				return isPairAllowed.get();
+			}
+
+			@Override
+			public long getCost(MatchRequest request, MatchRequest candidate) {
+				return 0;
+			}
+
+		}, this::addPair);
+		RequestingGoClientHandler piet = new RequestingGoClientHandler("piet");
+		RequestingGoClientHandler jan = new RequestingGoClientHandler("jan");
+		service.request(piet, 0);
+		service.request(jan, 0);
+		service.rescan();
+		assertTrue(pairs.isEmpty());
+		isPairAllowed.set(true);
+		service.rescan();
+		assertEquals(1, pairs.size());
+		assertSame(piet, pairs.get(0)[0]);
+		assertSame(jan, pairs.get(0)[1]);
+		assertEquals(0, service.getWaitingCount());
+	}
+
+	/**
+	 * Test that cancelled requests and requests of GoClients
+	 * that no longer wait for a game are not paired.
+	 */
+	@Test
+	public void testCancelAndStale() {
+		MatchmakingService service = new MatchmakingService(new FifoPairingPolicy(),
+				this::addPair);
+		RequestingGoClientHandler piet = new RequestingGoClientHandler("piet");
+		RequestingGoClientHandler jan = new RequestingGoClientHandler("jan");
+		RequestingGoClientHandler koos = new RequestingGoClientHandler("koos");
+		RequestingGoClientHandler henk = new RequestingGoClientHandler("henk");
+		service.request(piet, 0);
+		assertTrue(service.cancel(piet));
+		assertFalse(service.cancel(piet));
+		service.request(jan, 0);
+		jan.setGoClientState(GoClientState.UNCONNECTED);
+		service.request(koos, 0);
+		assertTrue(pairs.isEmpty());
+		assertEquals(1, service.getWaitingCount());
+		service.request(henk, 0);
+		assertEquals(1, pairs.size());
+		assertSame(koos, pairs.get(0)[0]);
+		assertSame(henk, pairs.get(0)[1]);
+	}
+
+	/**
+	 * Test that every GoClient is paired exactly once if many GoClients request a game
+	 * at the same time.
+	 */
+	@Test
+	public void testConcurrentRequests() throws InterruptedException {
+		Map<GoClientHandler, Integer> pairCounts =
+				new ConcurrentHashMap<GoClientHandler, Integer>();
+		MatchmakingService service = new MatchmakingService(new FifoPairingPolicy(),
+				(first, second) -> {
+					pairCounts.merge(first, 1, Integer::sum);
+					pairCounts.merge(second, 1, Integer::sum);
+				});
+		int threadCount = 8;
+		int requestsPerThread = 250;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < threadCount; i++) {
+			int threadNumber = i;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < requestsPerThread; j++) {
+					service.request(new RequestingGoClientHandler(threadNumber + "_" + j), 0);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(threadCount * requestsPerThread, pairCounts.size());
+		for (int pairCount : pairCounts.values()) {
+			assertEquals(1, pairCount);
+		}
+		assertEquals(0, service.getWaitingCount());
+	}
+
+	/**
+	 * Add the pair to the pairs made.
+	 * @param first
+	 * 			The GoClientHandler with the older request.
+	 * @param second
+	 * 			The GoClientHandler with the newer request.
+	 */
+	private void addPair(GoClientHandler first, GoClientHandler second) {
+		pairs.add(new GoClientHandler[] {first, second});
+	}
+
+	/**
+	 * A GoClientHandler without connection that requested a game.
+	 */
+	private static class RequestingGoClientHandler extends GoClientHandlerStub {
+
+		/**
+		 * Create a new RequestingGoClientHandler in the state GAME_REQUESTED.
+		 * @param goClientName
+		 * 			The name of the GoClient.
+		 */
+		private RequestingGoClientHandler(String goClientName) {
+			super(goClientName, GoClientState.GAME_REQUESTED);
+		}
+
+	}
+
+}
@@ -4,12 +4,12 @@ import java.util.Observable;
 
 import game.MoveChecker;
 import game.MoveCheckerImpl;
+import game.PositionHistory;
 import game.board.Board;
-import game.board.Position;
 import game.board.gui.GoGUIIntegrator;
 import game.board.stone.StoneColor;
+import protocol.MoveCodec;
 import protocol.Protocol.Client;
-import protocol.Protocol.General;
 import protocol.Protocol.Server;
 
 public abstract class AbstractPlayer extends Observable implements Player {
@@ -17,11 +17,8 @@ public abstract class AbstractPlayer extends Observable implements Player {
 	/** The board. */
 	private Board board;
 	
-	/** The previous board situation. */
-	private Board previousBoard;
-	
-	/** The next board situation. */
-	private Board nextBoard;
+	/** The board situations that occurred in the game. */
+	private PositionHistory positionHistory;
 	
 	/** The name of the player. */
 	private String name;
@@ -60,6 +57,15 @@ public abstract class AbstractPlayer extends Observable implements Player {
 		return board;
 	}
 	
+	/**
+	 * Return the board situations that occurred in the game.
+	 * @return
+	 * 			The position history.
+	 */
+	public PositionHistory getPositionHistory() {
+		return positionHistory;
+	}
+	
 	@Override
 	public String getName() {
 		return name;
@@ -73,8 +79,7 @@ public abstract class AbstractPlayer extends Observable implements Player {
 	@Override
 	public void setBoard(String boardSize) {
 		board = new Board(Integer.parseInt(boardSize), true);
-		previousBoard = board.copy();
-		nextBoard = board.copy();
+		positionHistory = new PositionHistory(board.getHash());
 	}
 	
 	@Override
@@ -82,8 +87,7 @@ public abstract class AbstractPlayer extends Observable implements Player {
 		board = new Board(Integer.parseInt(boardSize), true);
 		board.setGoGUI(aGoGUI);
 		board.getGoGUI().setBoardSize(Integer.parseInt(boardSize));
-		previousBoard = board.copy();
-		nextBoard = board.copy();
+		positionHistory = new PositionHistory(board.getHash());
 	}
 	
 	@Override
@@ -96,24 +100,16 @@ public abstract class AbstractPlayer extends Observable implements Player {
 		if (!move.equals(Server.FIRST)) {
 			if (previousPlayer.equals(name)) {
 				if (!move.equals(Server.PASS)) {
-					previousBoard = board.copy();
-					String[] moveCoordinates = move.split(General.DELIMITER2); 
-					board.setStone(Integer.parseInt(moveCoordinates[0]), 
-							Integer.parseInt(moveCoordinates[1]), 
-							stoneColor);
-					nextBoard = board.copy();
+					board.setStone(MoveCodec.parse(move, board.getSize()), stoneColor);
 				}
+				positionHistory.addPosition(board.getHash());
 				setChanged();
 				notifyObservers("Move made");
 			} else {
 				if (!move.equals(Server.PASS)) {
-					previousBoard = board.copy();
-					String[] moveCoordinates = move.split(General.DELIMITER2); 
-					board.setStone(Integer.parseInt(moveCoordinates[0]), 
-							Integer.parseInt(moveCoordinates[1]), 
-							stoneColor.other());
-					nextBoard = board.copy();
+					board.setStone(MoveCodec.parse(move, board.getSize()), stoneColor.other());
 				}
+				positionHistory.addPosition(board.getHash());
 				setChanged();
 				notifyObservers("Other move made");
 			} 
@@ -124,26 +120,18 @@ public abstract class AbstractPlayer extends Observable implements Player {
 	public void makeMove(String move) {
 		board.getGoGUI().removeHintIdicator();
 		if (!move.equals(Client.PASS)) {
-			String[] moveCoordinates = move.split(General.DELIMITER2);
-			if (moveCoordinates.length != 2) {
+			int index = MoveCodec.parse(move, board.getSize());
+			if (index == MoveCodec.INVALID) {
 				setChanged();
 				notifyObservers("Invalid move input");
 			} else {
-				try {
-					int moveX = Integer.parseInt(moveCoordinates[0]);
-					int moveY = Integer.parseInt(moveCoordinates[1]);
-					isValidMove = moveChecker.checkMove(moveX, moveY, stoneColor, board, 
-							previousBoard, nextBoard);
-					if (isValidMove) {
-						setChanged();
-						notifyObservers("Valid move " + move);
-					} else {
-						checkMessage = moveChecker.getMoveViolations();
-						handleCheckMessage(checkMessage);
-					}
-				} catch (NumberFormatException e) {
+				isValidMove = moveChecker.checkMove(index, stoneColor, board, positionHistory);
+				if (isValidMove) {
 					setChanged();
-					notifyObservers("Invalid move input");
+					notifyObservers("Valid move " + move);
+				} else {
+					checkMessage = moveChecker.getMoveViolations();
+					handleCheckMessage(checkMessage);
 				}
 			}
 		} else {
@@ -179,7 +167,7 @@ public abstract class AbstractPlayer extends Observable implements Player {
 	public void provideHint() {
 		for (int x = 0; x < getBoard().getSize(); x++) {
 			for (int y = 0; y < getBoard().getSize(); y++) {
-				if (!getBoard().getIntersection(new Position(x, y)).isOccupied()) {
+				if (!getBoard().getBoardState().isOccupied(x, y)) {
 					board.getGoGUI().addHintIndicator(x, y);
 					return;
 				}
@@ -1,9 +1,13 @@
 package game.player;
 
-import game.board.Position;
+import java.util.concurrent.ForkJoinPool;
+
+import game.KoRule;
 import game.board.stone.StoneColor;
+import game.player.ai.MonteCarloTreeSearch;
+import game.player.ai.ParallelMonteCarloTreeSearch;
+import protocol.MoveCodec;
 import protocol.Protocol.Client;
-import protocol.Protocol.General;
 
 /**
  * Computer player for Go.
@@ -11,30 +15,52 @@ import protocol.Protocol.General;
  */
 public class ComputerPlayer extends AbstractPlayer {
 	
+	/** The time in milliseconds kept free of the move time to send the move. */
+	private static final long MOVE_TIME_MARGIN = 250;
+	
+	/** The search for the best move. */
+	private MonteCarloTreeSearch search;
+	
 	/**
-	 * Create a computer player with a given name and stone color.
+	 * Create a computer player with a given name and stone color
+	 * that searches on the common ForkJoinPool.
 	 * @param name
 	 * 			The name of the computer player.
 	 * @param color
 	 * 			The color of the stones of the computer player.
 	 */
 	public ComputerPlayer(String name, StoneColor color) {
+		this(name, color, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Create a computer player with a given name and stone color
+	 * that runs a search on every thread of the provided pool.
+	 * @param name
+	 * 			The name of the computer player.
+	 * @param color
+	 * 			The color of the stones of the computer player.
+	 * @param pool
+	 * 			The pool that runs the searches.
+	 */
+	public ComputerPlayer(String name, StoneColor color, ForkJoinPool pool) {
 		super(name, color);
+		search = new ParallelMonteCarloTreeSearch(pool, KoRule.SIMPLE_KO);
 	}
 
 	/**
-	 * Determine the move.
+	 * Determine the move with a Monte Carlo Tree Search within the move time.
 	 */
 	public void determineMove() {
-		long startTime = System.currentTimeMillis() / 1000;
-		int x = (int) (Math.floor(Math.random() * getBoard().getSize()));
-		int y = (int) (Math.floor(Math.random() * getBoard().getSize()));
-		if (!getBoard().getIntersection(new Position(x, y)).isOccupied()  && 
-				(System.currentTimeMillis() / 1000) < startTime + getMoveTime()) {
-			makeMove(x + General.DELIMITER2 + y);
-			return;
-		} else {
+		long searchTime = Math.max(0, getMoveTime() * 1000L - MOVE_TIME_MARGIN);
+		int move = search.search(getBoard(), getStoneColor(), getPositionHistory(), searchTime);
+		setChanged();
+		notifyObservers("Searched " + search.getPlayouts() + " playouts at " + 
+				search.getPlayoutsPerSecond() + " playouts per second");
+		if (move == MonteCarloTreeSearch.PASS) {
 			makeMove(Client.PASS);
+		} else {
+			makeMove(MoveCodec.format(move, getBoard().getSize()));
 		}
 	}
 	
@@ -0,0 +1,48 @@
+package game.player.ai;
+
+import game.PositionHistory;
+import game.board.Board;
+import game.board.stone.StoneColor;
+
+/**
+ * Search for the best move on a Go board with Monte Carlo Tree Search.
+ * Moves are returned as the index x * size + y of the intersection, or PASS.
+ * @author janine.kleinrot
+ */
+public interface MonteCarloTreeSearch {
+
+	/** The move that passes. */
+	public static final int PASS = -1;
+
+	/**
+	 * Search for the best move for the player with the provided stone color.
+	 * The board is copied, so the provided board is not changed.
+	 * @param board
+	 * 			The current board.
+	 * @param stoneColor
+	 * 			The stone color of the player to move.
+	 * @param positionHistory
+	 * 			The board situations that occurred earlier in the game.
+	 * @param searchTime
+	 * 			The time in milliseconds the search is allowed to take.
+	 * @return
+	 * 			The index of the intersection of the best move or PASS.
+	 */
+	public int search(Board board, StoneColor stoneColor, PositionHistory positionHistory,
+			long searchTime);
+
+	/**
+	 * Return the amount of playouts of the last search.
+	 * @return
+	 * 			The amount of playouts.
+	 */
+	public long getPlayouts();
+
+	/**
+	 * Return the amount of playouts per second of the last search.
+	 * @return
+	 * 			The amount of playouts per second.
+	 */
+	public long getPlayoutsPerSecond();
+
+}
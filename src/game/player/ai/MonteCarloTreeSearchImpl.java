@@ -0,0 +1,232 @@
+package game.player.ai;
+
+import java.util.SplittableRandom;
+
+import game.MoveChecker;
+import game.PositionHistory;
+import game.board.Board;
+import game.board.stone.StoneColor;
+
+/**
+ * Monte Carlo Tree Search with UCT selection and light random playouts.
+ * Every iteration walks down the tree with Board.play, adds one node, finishes the game with
+ * a playout and takes all moves back with Board.undo, so a single board copy is used
+ * for the whole search. The moves at the root are checked with the MoveChecker against the
+ * board situations that occurred earlier in the game, deeper in the tree and in the playouts
+ * the simple Ko rule is applied.
+ * @author janine.kleinrot
+ */
+public class MonteCarloTreeSearchImpl implements MonteCarloTreeSearch {
+
+	/** The move of the root node, which is neither an intersection nor a pass. */
+	private static final int ROOT_MOVE = -2;
+
+	/** The weight of the exploration term of the upper confidence bound. */
+	private static final double EXPLORATION = 1.0;
+
+	/** The amount of visits after which the legal moves of a node are generated. */
+	private static final int EXPANSION_VISITS = 2;
+
+	/** The move checker for the moves at the root. */
+	private MoveChecker moveChecker;
+
+	/** The random number generator. */
+	private SplittableRandom random;
+
+	/** The playout. */
+	private Playout playout;
+
+	/** The root of the search tree of the last search. */
+	private SearchNode root;
+
+	/** The amount of playouts of the last search. */
+	private long playouts;
+
+	/** The duration of the last search in milliseconds. */
+	private long searchDuration;
+
+	/**
+	 * Create a new MonteCarloTreeSearchImpl without komi.
+	 * @param moveChecker
+	 * 			The move checker for the moves at the root.
+	 */
+	public MonteCarloTreeSearchImpl(MoveChecker moveChecker) {
+		this(moveChecker, new SplittableRandom(), 0.0);
+	}
+
+	/**
+	 * Create a new MonteCarloTreeSearchImpl.
+	 * @param moveChecker
+	 * 			The move checker for the moves at the root.
+	 * @param random
+	 * 			The random number generator.
+	 * @param komi
+	 * 			The komi added to the score of white.
+	 */
+	public MonteCarloTreeSearchImpl(MoveChecker moveChecker, SplittableRandom random,
+			double komi) {
+		this.moveChecker = moveChecker;
+		this.random = random;
+		playout = new Playout(random, komi);
+	}
+
+	@Override
+	public int search(Board board, StoneColor stoneColor, PositionHistory positionHistory,
+			long searchTime) {
+		long startTime = System.currentTimeMillis();
+		long endTime = startTime + searchTime;
+		Board searchBoard = board.copy();
+		root = new SearchNode(ROOT_MOVE, stoneColor.other(), null);
+		root.setMoves(getRootMoves(searchBoard, stoneColor, positionHistory));
+		playouts = 0;
+		do {
+			iterate(searchBoard);
+			playouts++;
+		} while (System.currentTimeMillis() < endTime);
+		searchDuration = System.currentTimeMillis() - startTime;
+		SearchNode bestChild = root.getMostVisitedChild();
+		return bestChild == null ? PASS : bestChild.getMove();
+	}
+
+	/**
+	 * Walk down the tree, add a node, play out the game and update the nodes on the path.
+	 * All moves are taken back afterwards.
+	 * @param board
+	 * 			The board in the situation of the root.
+	 */
+	private void iterate(Board board) {
+		int rootMoveCount = board.getMoveCount();
+		SearchNode node = root;
+		while (!node.isTerminal()) {
+			if (!node.isExpanded()) {
+				if (node.getVisits() < EXPANSION_VISITS) {
+					break;
+				}
+				node.setMoves(getMoves(board, node.getStoneColor().other(),
+						node.getMove() == PASS));
+			}
+			node = node.hasUntriedMove() ? node.addChild() : node.selectChild(EXPLORATION);
+			if (node.getMove() != PASS) {
+				board.play(node.getMove(), node.getStoneColor());
+			}
+			if (node.getVisits() == 0) {
+				break;
+			}
+		}
+		StoneColor winner;
+		if (node.isTerminal()) {
+			winner = playout.getWinner(board);
+		} else {
+			winner = playout.play(board, node.getStoneColor().other(), node.getMove() == PASS);
+		}
+		while (node != null) {
+			if (winner == null) {
+				node.update(0.5);
+			} else {
+				node.update(winner == node.getStoneColor() ? 1.0 : 0.0);
+			}
+			node = node.getParent();
+		}
+		while (board.getMoveCount() > rootMoveCount) {
+			board.undo();
+		}
+	}
+
+	/**
+	 * Return the legal moves at the root, checked with the move checker, in random order.
+	 * @param board
+	 * 			The board.
+	 * @param stoneColor
+	 * 			The stone color of the player to move.
+	 * @param positionHistory
+	 * 			The board situations that occurred earlier in the game.
+	 * @return
+	 * 			The legal moves followed by PASS.
+	 */
+	private int[] getRootMoves(Board board, StoneColor stoneColor,
+			PositionHistory positionHistory) {
+		int size = board.getSize();
+		int[] moves = new int[size * size + 1];
+		int moveCount = 0;
+		for (int index = 0; index < size * size; index++) {
+			if (!board.getBoardState().isOccupied(index) &&
+					!Playout.isEye(board.getBoardState(), index, stoneColor) &&
+					!board.isSuicide(index, stoneColor) &&
+					moveChecker.checkMove(index, stoneColor, board, positionHistory)) {
+				moves[moveCount] = index;
+				moveCount++;
+			}
+		}
+		return shuffle(moves, moveCount);
+	}
+
+	/**
+	 * Return the moves that do not fill an own eye, are not suicide and do not violate
+	 * the simple Ko rule, in random order.
+	 * @param board
+	 * 			The board.
+	 * @param stoneColor
+	 * 			The stone color of the player to move.
+	 * @param isPreviousMovePass
+	 * 			Whether the previous move was a pass, which lifts the Ko.
+	 * @return
+	 * 			The legal moves followed by PASS.
+	 */
+	private int[] getMoves(Board board, StoneColor stoneColor, boolean isPreviousMovePass) {
+		int size = board.getSize();
+		int koIndex = isPreviousMovePass ? -1 : board.getKoIndex();
+		int[] moves = new int[size * size + 1];
+		int moveCount = 0;
+		for (int index = 0; index < size * size; index++) {
+			if (!board.getBoardState().isOccupied(index) && index != koIndex &&
+					!Playout.isEye(board.getBoardState(), index, stoneColor) &&
+					!board.isSuicide(index, stoneColor)) {
+				moves[moveCount] = index;
+				moveCount++;
+			}
+		}
+		return shuffle(moves, moveCount);
+	}
+
+	/**
+	 * Shuffle the first moves and add PASS as the last move.
+	 * @param moves
+	 * 			The array of moves with room for PASS.
+	 * @param moveCount
+	 * 			The amount of moves.
+	 * @return
+	 * 			The moves.
+	 */
+	private int[] shuffle(int[] moves, int moveCount) {
+		for (int i = moveCount - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int move = moves[i];
+			moves[i] = moves[j];
+			moves[j] = move;
+		}
+		moves[moveCount] = PASS;
+		int[] legalMoves = new int[moveCount + 1];
+		System.arraycopy(moves, 0, legalMoves, 0, moveCount + 1);
+		return legalMoves;
+	}
+
+	/**
+	 * Return the root of the search tree of the last search.
+	 * @return
+	 * 			The root.
+	 */
+	public SearchNode getRoot() {
+		return root;
+	}
+
+	@Override
+	public long getPlayouts() {
+		return playouts;
+	}
+
+	@Override
+	public long getPlayoutsPerSecond() {
+		return playouts * 1000 / Math.max(1, searchDuration);
+	}
+
+}
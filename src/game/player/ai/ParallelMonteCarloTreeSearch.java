@@ -0,0 +1,123 @@
+package game.player.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import game.KoRule;
+import game.MoveCheckerImpl;
+import game.PositionHistory;
+import game.board.Board;
+import game.board.stone.StoneColor;
+
+/**
+ * Monte Carlo Tree Search parallelized at the root.
+ * Every thread of the ForkJoinPool searches its own tree on its own board copy for the whole
+ * search time, after which the visits of the moves at the roots are added up and the move
+ * with the most visits is chosen. Every search copies the board itself, so the provided
+ * board is only read. The trees share nothing, so no locking is needed.
+ * @author janine.kleinrot
+ */
+public class ParallelMonteCarloTreeSearch implements MonteCarloTreeSearch {
+
+	/** The pool that runs the searches. */
+	private ForkJoinPool pool;
+
+	/** The searches, one per thread of the pool. */
+	private MonteCarloTreeSearchImpl[] searches;
+
+	/** The amount of playouts of the last search. */
+	private long playouts;
+
+	/** The duration of the last search in milliseconds. */
+	private long searchDuration;
+
+	/**
+	 * Create a new ParallelMonteCarloTreeSearch without komi that runs a search for every
+	 * thread of the provided pool.
+	 * @param pool
+	 * 			The pool that runs the searches.
+	 * @param koRule
+	 * 			The Ko rule for the moves at the root.
+	 */
+	public ParallelMonteCarloTreeSearch(ForkJoinPool pool, KoRule koRule) {
+		this(pool, koRule, 0.0, new SplittableRandom());
+	}
+
+	/**
+	 * Create a new ParallelMonteCarloTreeSearch that runs a search for every thread of the
+	 * provided pool.
+	 * @param pool
+	 * 			The pool that runs the searches.
+	 * @param koRule
+	 * 			The Ko rule for the moves at the root.
+	 * @param komi
+	 * 			The komi added to the score of white.
+	 * @param random
+	 * 			The random number generator split for every search.
+	 */
+	public ParallelMonteCarloTreeSearch(ForkJoinPool pool, KoRule koRule, double komi,
+			SplittableRandom random) {
+		this.pool = pool;
+		searches = new MonteCarloTreeSearchImpl[pool.getParallelism()];
+		for (int i = 0; i < searches.length; i++) {
+			searches[i] = new MonteCarloTreeSearchImpl(new MoveCheckerImpl(koRule),
+					random.split(), komi);
+		}
+	}
+
+	@Override
+	public int search(Board board, StoneColor stoneColor, PositionHistory positionHistory,
+			long searchTime) {
+		long startTime = System.currentTimeMillis();
+		List<ForkJoinTask<Integer>> tasks = new ArrayList<ForkJoinTask<Integer>>();
+		for (MonteCarloTreeSearchImpl search : searches) {
+			tasks.add(pool.submit(() ->
+				search.search(board, stoneColor, positionHistory, searchTime)));
+		}
+		int[] visits = new int[board.getSize() * board.getSize() + 1];
+		playouts = 0;
+		for (int i = 0; i < searches.length; i++) {
+			tasks.get(i).join();
+			SearchNode root = searches[i].getRoot();
+			for (int child = 0; child < root.getChildCount(); child++) {
+				int move = root.getChild(child).getMove();
+				int moveIndex = move == PASS ? visits.length - 1 : move;
+				visits[moveIndex] = visits[moveIndex] + root.getChild(child).getVisits();
+			}
+			playouts = playouts + searches[i].getPlayouts();
+		}
+		searchDuration = System.currentTimeMillis() - startTime;
+		int bestMove = PASS;
+		int bestVisits = visits[visits.length - 1];
+		for (int move = 0; move < visits.length - 1; move++) {
+			if (visits[move] > bestVisits) {
+				bestMove = move;
+				bestVisits = visits[move];
+			}
+		}
+		return bestMove;
+	}
+
+	/**
+	 * Return the amount of searches that run at the same time.
+	 * @return
+	 * 			The amount of searches.
+	 */
+	public int getParallelism() {
+		return searches.length;
+	}
+
+	@Override
+	public long getPlayouts() {
+		return playouts;
+	}
+
+	@Override
+	public long getPlayoutsPerSecond() {
+		return playouts * 1000 / Math.max(1, searchDuration);
+	}
+
+}
@@ -0,0 +1,205 @@
+package game.player.ai;
+
+import java.util.SplittableRandom;
+
+import game.board.Board;
+import game.board.BoardState;
+import game.board.NeighborTable;
+import game.board.stone.StoneColor;
+
+/**
+ * A light playout that finishes a game on a board with random moves.
+ * The players never fill their own eyes and never commit suicide,
+ * so the game ends when both players pass.
+ * The moves are made with Board.play and taken back by the search with Board.undo.
+ * @author janine.kleinrot
+ */
+public class Playout {
+
+	/** The random number generator. */
+	private SplittableRandom random;
+
+	/** The komi added to the score of white. */
+	private double komi;
+
+	/**
+	 * Create a new playout.
+	 * @param random
+	 * 			The random number generator.
+	 * @param komi
+	 * 			The komi added to the score of white.
+	 */
+	public Playout(SplittableRandom random, double komi) {
+		this.random = random;
+		this.komi = komi;
+	}
+
+	/**
+	 * Play random moves until both players pass or the maximum amount of moves is reached.
+	 * @param board
+	 * 			The board.
+	 * @param stoneColor
+	 * 			The stone color of the player to move.
+	 * @param isPreviousMovePass
+	 * 			Whether the previous move was a pass.
+	 * @return
+	 * 			The stone color of the winner or null for a draw.
+	 */
+	public StoneColor play(Board board, StoneColor stoneColor, boolean isPreviousMovePass) {
+		int maximumMoves = 3 * board.getSize() * board.getSize();
+		boolean isPass = isPreviousMovePass;
+		for (int moves = 0; moves < maximumMoves; moves++) {
+			int move = selectMove(board, stoneColor, isPass);
+			if (move == MonteCarloTreeSearch.PASS) {
+				if (isPass) {
+					break;
+				}
+				isPass = true;
+			} else {
+				board.play(move, stoneColor);
+				isPass = false;
+			}
+			stoneColor = stoneColor.other();
+		}
+		return getWinner(board);
+	}
+
+	/**
+	 * Select a random move that does not fill an own eye, is not suicide
+	 * and does not violate the simple Ko rule.
+	 * The intersections are scanned from a random starting point.
+	 * @param board
+	 * 			The board.
+	 * @param stoneColor
+	 * 			The stone color of the player to move.
+	 * @param isPreviousMovePass
+	 * 			Whether the previous move was a pass, which lifts the Ko.
+	 * @return
+	 * 			The selected move or PASS if there is none.
+	 */
+	public int selectMove(Board board, StoneColor stoneColor, boolean isPreviousMovePass) {
+		BoardState boardState = board.getBoardState();
+		int intersections = board.getSize() * board.getSize();
+		int koIndex = isPreviousMovePass ? -1 : board.getKoIndex();
+		int start = random.nextInt(intersections);
+		for (int i = 0; i < intersections; i++) {
+			int index = start + i;
+			if (index >= intersections) {
+				index = index - intersections;
+			}
+			if (!boardState.isOccupied(index) && index != koIndex &&
+					!isEye(boardState, index, stoneColor) &&
+					!board.isSuicide(index, stoneColor)) {
+				return index;
+			}
+		}
+		return MonteCarloTreeSearch.PASS;
+	}
+
+	/**
+	 * Whether the unoccupied intersection with the provided index is an eye of the provided
+	 * stone color. All adjacent intersections hold a stone of that color, and at most one
+	 * diagonal intersection, or none at the edge of the board, holds a stone of the other color.
+	 * @param boardState
+	 * 			The board state.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param stoneColor
+	 * 			The stone color.
+	 * @return
+	 * 			True if the intersection is an eye and false otherwise.
+	 */
+	public static boolean isEye(BoardState boardState, int index, StoneColor stoneColor) {
+		int size = boardState.getSize();
+		int[] neighbors = NeighborTable.get(size);
+		for (int i = index * 4; i < index * 4 + 4 && neighbors[i] != NeighborTable.SENTINEL; i++) {
+			if (boardState.getStoneColor(neighbors[i]) != stoneColor) {
+				return false;
+			}
+		}
+		int x = index / size;
+		int y = index - x * size;
+		int otherDiagonals = 0;
+		int offBoardDiagonals = 0;
+		for (int dx = -1; dx <= 1; dx = dx + 2) {
+			for (int dy = -1; dy <= 1; dy = dy + 2) {
+				int diagonalX = x + dx;
+				int diagonalY = y + dy;
+				if (diagonalX < 0 || diagonalY < 0 || diagonalX >= size || diagonalY >= size) {
+					offBoardDiagonals = 1;
+				} else if (boardState.getStoneColor(diagonalX * size + diagonalY) ==
+						stoneColor.other()) {
+					otherDiagonals++;
+				}
+			}
+		}
+		return otherDiagonals + offBoardDiagonals < 2;
+	}
+
+	/**
+	 * Return the winner of the game by area scoring.
+	 * An unoccupied intersection counts for a player if all adjacent stones are of that player.
+	 * @param board
+	 * 			The board.
+	 * @return
+	 * 			The stone color of the winner or null for a draw.
+	 */
+	public StoneColor getWinner(Board board) {
+		double score = getScore(board.getBoardState()) - komi;
+		if (score > 0) {
+			return StoneColor.BLACK;
+		} else if (score < 0) {
+			return StoneColor.WHITE;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Return the area score of black minus the area score of white, without komi.
+	 * @param boardState
+	 * 			The board state.
+	 * @return
+	 * 			The score.
+	 */
+	public static int getScore(BoardState boardState) {
+		int size = boardState.getSize();
+		int score = 0;
+		for (int index = 0; index < size * size; index++) {
+			StoneColor stoneColor = boardState.getStoneColor(index);
+			if (stoneColor == null) {
+				stoneColor = getSurroundingColor(boardState, index);
+			}
+			if (stoneColor == StoneColor.BLACK) {
+				score++;
+			} else if (stoneColor == StoneColor.WHITE) {
+				score--;
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Return the color of all stones adjacent to the unoccupied intersection.
+	 * @param boardState
+	 * 			The board state.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @return
+	 * 			The stone color or null if the adjacent stones differ or are missing.
+	 */
+	private static StoneColor getSurroundingColor(BoardState boardState, int index) {
+		StoneColor surroundingColor = null;
+		int[] neighbors = NeighborTable.get(boardState.getSize());
+		for (int i = index * 4; i < index * 4 + 4 && neighbors[i] != NeighborTable.SENTINEL; i++) {
+			StoneColor adjacentColor = boardState.getStoneColor(neighbors[i]);
+			if (adjacentColor == null ||
+					(surroundingColor != null && adjacentColor != surroundingColor)) {
+				return null;
+			}
+			surroundingColor = adjacentColor;
+		}
+		return surroundingColor;
+	}
+
+}
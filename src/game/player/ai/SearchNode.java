@@ -0,0 +1,220 @@
+package game.player.ai;
+
+import game.board.stone.StoneColor;
+
+/**
+ * A node in the search tree of the Monte Carlo Tree Search.
+ * The node stores the move that leads to it and the results of the playouts through it,
+ * seen from the player that made the move.
+ * The children are created one at a time, in the random order of the legal moves.
+ * @author janine.kleinrot
+ */
+public class SearchNode {
+
+	/** The move that leads to this node. */
+	private int move;
+
+	/** The stone color of the player that made the move. */
+	private StoneColor stoneColor;
+
+	/** The parent node or null for the root. */
+	private SearchNode parent;
+
+	/** Whether the move and the move of the parent both passed. */
+	private boolean isTerminal;
+
+	/** The legal moves from this node or null if they are not generated yet. */
+	private int[] moves;
+
+	/** The children created for the first moves. */
+	private SearchNode[] children;
+
+	/** The amount of children created. */
+	private int childCount;
+
+	/** The amount of playouts through this node. */
+	private int visits;
+
+	/** The amount of playouts through this node won by the player that made the move. */
+	private double wins;
+
+	/**
+	 * Create a new search node.
+	 * @param move
+	 * 			The move that leads to the node.
+	 * @param stoneColor
+	 * 			The stone color of the player that made the move.
+	 * @param parent
+	 * 			The parent node or null for the root.
+	 */
+	public SearchNode(int move, StoneColor stoneColor, SearchNode parent) {
+		this.move = move;
+		this.stoneColor = stoneColor;
+		this.parent = parent;
+		isTerminal = parent != null && move == MonteCarloTreeSearch.PASS &&
+				parent.move == MonteCarloTreeSearch.PASS;
+	}
+
+	/**
+	 * Return the move that leads to this node.
+	 * @return
+	 * 			The move.
+	 */
+	public int getMove() {
+		return move;
+	}
+
+	/**
+	 * Return the stone color of the player that made the move.
+	 * @return
+	 * 			The stone color.
+	 */
+	public StoneColor getStoneColor() {
+		return stoneColor;
+	}
+
+	/**
+	 * Return the parent node.
+	 * @return
+	 * 			The parent node or null for the root.
+	 */
+	public SearchNode getParent() {
+		return parent;
+	}
+
+	/**
+	 * Whether the game ends in this node, because both players passed.
+	 * @return
+	 * 			True if the game ends and false otherwise.
+	 */
+	public boolean isTerminal() {
+		return isTerminal;
+	}
+
+	/**
+	 * Whether the legal moves from this node are generated.
+	 * @return
+	 * 			True if the legal moves are generated and false otherwise.
+	 */
+	public boolean isExpanded() {
+		return moves != null;
+	}
+
+	/**
+	 * Set the legal moves from this node.
+	 * @param legalMoves
+	 * 			The legal moves in the order in which children are created.
+	 */
+	public void setMoves(int[] legalMoves) {
+		this.moves = legalMoves;
+		children = new SearchNode[legalMoves.length];
+	}
+
+	/**
+	 * Whether there are legal moves without a child yet.
+	 * @return
+	 * 			True if a child can be added and false otherwise.
+	 */
+	public boolean hasUntriedMove() {
+		return childCount < moves.length;
+	}
+
+	/**
+	 * Add a child for the next legal move without a child.
+	 * @return
+	 * 			The child.
+	 */
+	public SearchNode addChild() {
+		SearchNode child = new SearchNode(moves[childCount], stoneColor.other(), this);
+		children[childCount] = child;
+		childCount++;
+		return child;
+	}
+
+	/**
+	 * Return the child with the highest upper confidence bound.
+	 * @param exploration
+	 * 			The weight of the exploration term.
+	 * @return
+	 * 			The selected child.
+	 */
+	public SearchNode selectChild(double exploration) {
+		double logVisits = Math.log(visits);
+		SearchNode selectedChild = children[0];
+		double bestValue = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < childCount; i++) {
+			SearchNode child = children[i];
+			double value = child.wins / child.visits +
+					exploration * Math.sqrt(logVisits / child.visits);
+			if (value > bestValue) {
+				bestValue = value;
+				selectedChild = child;
+			}
+		}
+		return selectedChild;
+	}
+
+	/**
+	 * Return the child with the most visits.
+	 * @return
+	 * 			The child or null if there are no children.
+	 */
+	public SearchNode getMostVisitedChild() {
+		SearchNode mostVisitedChild = null;
+		for (int i = 0; i < childCount; i++) {
+			if (mostVisitedChild == null || children[i].visits > mostVisitedChild.visits) {
+				mostVisitedChild = children[i];
+			}
+		}
+		return mostVisitedChild;
+	}
+
+	/**
+	 * Return the amount of children.
+	 * @return
+	 * 			The amount of children.
+	 */
+	public int getChildCount() {
+		return childCount;
+	}
+
+	/**
+	 * Return the child with the provided number.
+	 * @param i
+	 * 			The number of the child.
+	 * @return
+	 * 			The child.
+	 */
+	public SearchNode getChild(int i) {
+		return children[i];
+	}
+
+	/**
+	 * Add the result of a playout through this node.
+	 * @param result
+	 * 			1 if the player that made the move won, 0 if the player lost and 0.5 for a draw.
+	 */
+	public void update(double result) {
+		visits++;
+		wins = wins + result;
+	}
+
+	/**
+	 * Return the amount of playouts through this node.
+	 * @return
+	 * 			The amount of playouts.
+	 */
+	public int getVisits() {
+		return visits;
+	}
+
+	/**
+	 * Return the amount of playouts through this node won by the player that made the move.
+	 * @return
+	 * 			The amount of wins.
+	 */
+	public double getWins() {
+		return wins;
+	}
+
+}
@@ -0,0 +1,113 @@
+package game.player.ai.test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import game.KoRule;
+import game.MoveCheckerImpl;
+import game.PositionHistory;
+import game.board.Board;
+import game.board.stone.StoneColor;
+import game.player.ai.MonteCarloTreeSearch;
+import game.player.ai.MonteCarloTreeSearchImpl;
+import game.player.ai.ParallelMonteCarloTreeSearch;
+import game.player.ai.Playout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for MonteCarloTreeSearchImpl.
+ * @author janine.kleinrot
+ */
+public class MonteCarloTreeSearchImplTest {
+
+	/** Test variable for a MonteCarloTreeSearchImpl object. */
+	private MonteCarloTreeSearchImpl search;
+
+	/** Test variable for a Board object. */
+	private Board board;
+
+	/**
+	 * Create a search with a fixed seed and a board of 5 x 5 intersections.
+	 */
+	@Before
+	public void setUp() {
+		search = new MonteCarloTreeSearchImpl(new MoveCheckerImpl(), new SplittableRandom(1),
+				0.0);
+		board = new Board(5, false);
+	}
+
+	/**
+	 * Test that the search captures a large group in atari and leaves the board unchanged.
+	 */
+	@Test
+	public void testCaptureGroupInAtari() {
+		for (int y = 0; y < 4; y++) {
+			board.setStone(2, y, StoneColor.WHITE);
+			board.setStone(1, y, StoneColor.BLACK);
+			board.setStone(3, y, StoneColor.BLACK);
+		}
+		long hash = board.getHash();
+		int move = search.search(board, StoneColor.BLACK, new PositionHistory(hash), 500);
+		assertEquals(2 * 5 + 4, move);
+		assertEquals(hash, board.getHash());
+		assertTrue(search.getPlayouts() > 0);
+		assertTrue(search.getPlayoutsPerSecond() > 0);
+	}
+
+	/**
+	 * Test that the search passes when the only unoccupied intersections are own eyes.
+	 */
+	@Test
+	public void testPassWithOnlyEyes() {
+		for (int x = 0; x < 5; x++) {
+			for (int y = 0; y < 5; y++) {
+				if ((x != 1 || y != 1) && (x != 3 || y != 3)) {
+					board.setStone(x, y, StoneColor.BLACK);
+				}
+			}
+		}
+		assertEquals(MonteCarloTreeSearch.PASS, search.search(board, StoneColor.BLACK,
+				new PositionHistory(board.getHash()), 50));
+	}
+
+	/**
+	 * Test the detection of eyes and the area score.
+	 */
+	@Test
+	public void testEyeAndScore() {
+		board.setStone(0, 1, StoneColor.BLACK);
+		board.setStone(1, 0, StoneColor.BLACK);
+		assertTrue(Playout.isEye(board.getBoardState(), 0, StoneColor.BLACK));
+		assertFalse(Playout.isEye(board.getBoardState(), 0, StoneColor.WHITE));
+		board.setStone(1, 1, StoneColor.WHITE);
+		board.setStone(4, 4, StoneColor.WHITE);
+		assertEquals(3 - 2, Playout.getScore(board.getBoardState()));
+	}
+
+	/**
+	 * Test that the searches on all threads of the pool are merged into the capturing move.
+	 */
+	@Test
+	public void testParallelSearch() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		ParallelMonteCarloTreeSearch parallelSearch = new ParallelMonteCarloTreeSearch(pool, 
+				KoRule.SIMPLE_KO, 0.0, new SplittableRandom(1));
+		for (int y = 0; y < 4; y++) {
+			board.setStone(2, y, StoneColor.WHITE);
+			board.setStone(1, y, StoneColor.BLACK);
+			board.setStone(3, y, StoneColor.BLACK);
+		}
+		int move = parallelSearch.search(board, StoneColor.BLACK, 
+				new PositionHistory(board.getHash()), 300);
+		assertEquals(2 * 5 + 4, move);
+		assertEquals(4, parallelSearch.getParallelism());
+		assertTrue(parallelSearch.getPlayouts() >= 4);
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,107 @@
+package game.test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import game.DeadStoneEstimatorImpl;
+import game.board.Board;
+import game.board.stone.StoneColor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for DeadStoneEstimatorImpl.
+ * @author janine.kleinrot
+ */
+public class DeadStoneEstimatorImplTest {
+
+	/** The pool that runs the playouts. */
+	private ForkJoinPool pool;
+
+	/** Test variable for a DeadStoneEstimatorImpl object with a fixed seed. */
+	private DeadStoneEstimatorImpl estimator;
+
+	/** Test variable for a Board object of 9 x 9. */
+	private Board board;
+
+	/**
+	 * Create an estimator on a pool of four threads and a board divided by a black and
+	 * a white wall, with a white stone in the area of black and a black stone in the area
+	 * of white.
+	 */
+	@Before
+	public void setUp() {
+		pool = new ForkJoinPool(4);
+		estimator = new DeadStoneEstimatorImpl(pool, DeadStoneEstimatorImpl.DEFAULT_PLAYOUTS,
+				new SplittableRandom(1));
+		board = new Board(9, false);
+		for (int y = 0; y < 9; y++) {
+			board.setStone(3, y, StoneColor.BLACK);
+			board.setStone(4, y, StoneColor.WHITE);
+		}
+		board.setStone(1, 4, StoneColor.WHITE);
+		board.setStone(7, 4, StoneColor.BLACK);
+	}
+
+	/**
+	 * Shut the pool down.
+	 */
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Test that the stones in the area of the other color are dead, that the walls are alive
+	 * and that the board is not changed.
+	 */
+	@Test
+	public void testGetDeadStones() {
+		boolean[] deadStones = estimator.getDeadStones(board);
+		assertTrue(deadStones[1 * 9 + 4]);
+		assertTrue(deadStones[7 * 9 + 4]);
+		for (int y = 0; y < 9; y++) {
+			assertFalse(deadStones[3 * 9 + y]);
+			assertFalse(deadStones[4 * 9 + y]);
+		}
+		assertEquals(10, board.getBoardState().getStoneCount(StoneColor.BLACK));
+		assertEquals(10, board.getBoardState().getStoneCount(StoneColor.WHITE));
+	}
+
+	/**
+	 * Test that the asynchronous estimate works on a copy, so the board can change 
+	 * while the estimate runs.
+	 */
+	@Test
+	public void testEstimateDeadStones() throws InterruptedException, ExecutionException {
+		CompletableFuture<boolean[]> future = estimator.estimateDeadStones(board);
+		board.setStone(0, 0, StoneColor.WHITE);
+		boolean[] deadStones = future.get();
+		assertTrue(deadStones[1 * 9 + 4]);
+		assertTrue(deadStones[7 * 9 + 4]);
+		assertFalse(deadStones[0 * 9 + 0]);
+	}
+
+	/**
+	 * Test that the board is scored with the dead stones removed,
+	 * while without them no area is territory.
+	 */
+	@Test
+	public void testCalculateWinnerWithDeadStones() {
+		board.calculateWinner(estimator.getDeadStones(board));
+		assertEquals(36, board.getBlackScore());
+		assertEquals(45, board.getWhiteScore());
+		board.calculateWinner();
+		assertEquals(10, board.getBlackScore());
+		assertEquals(10, board.getWhiteScore());
+	}
+
+}
@@ -0,0 +1,108 @@
+package game.test;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import game.KoRule;
+import game.MoveChecker;
+import game.MoveCheckerImpl;
+import game.PositionHistory;
+import game.board.Board;
+import game.board.Position;
+import game.board.stone.StoneColor;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for MoveCheckerImpl.
+ * @author janine.kleinrot
+ */
+public class MoveCheckerImplTest {
+
+	/** Test variable for a Board object. */
+	private Board board;
+	
+	/** Test variable for a PositionHistory object. */
+	private PositionHistory positionHistory;
+	
+	/** Test variable for a MoveChecker with the simple Ko rule. */
+	private MoveChecker moveChecker;
+	
+	/** Test variable for a MoveChecker with positional superko. */
+	private MoveChecker superkoMoveChecker;
+	
+	/**
+	 * Create a 9 x 9 board with a Ko shape.
+	 */
+	@Before
+	public void setUp() {
+		board = new Board(9, false);
+		positionHistory = new PositionHistory(board.getHash());
+		moveChecker = new MoveCheckerImpl();
+		superkoMoveChecker = new MoveCheckerImpl(KoRule.POSITIONAL_SUPERKO);
+		play(1, 0, StoneColor.BLACK);
+		play(2, 0, StoneColor.WHITE);
+		play(0, 1, StoneColor.BLACK);
+		play(3, 1, StoneColor.WHITE);
+		play(1, 2, StoneColor.BLACK);
+		play(2, 2, StoneColor.WHITE);
+		play(5, 5, StoneColor.BLACK);
+		play(1, 1, StoneColor.WHITE);
+	}
+	
+	/**
+	 * Set a stone and add the board situation to the position history.
+	 * @param x
+	 * 			The x coordinate.
+	 * @param y
+	 * 			The y coordinate.
+	 * @param stoneColor
+	 * 			The stone color.
+	 */
+	private void play(int x, int y, StoneColor stoneColor) {
+		board.setStone(x, y, stoneColor);
+		positionHistory.addPosition(board.getHash());
+	}
+	
+	/**
+	 * Test that moves out of range and on occupied intersections are invalid.
+	 */
+	@Test
+	public void testInvalidMoves() {
+		assertFalse(moveChecker.checkMove(9, 0, StoneColor.BLACK, board, positionHistory));
+		assertFalse(moveChecker.checkMove(1, 1, StoneColor.BLACK, board, positionHistory));
+		assertTrue(moveChecker.checkMove(4, 4, StoneColor.BLACK, board, positionHistory));
+	}
+	
+	/**
+	 * Test that taking back a Ko directly is invalid and allowed again after another move.
+	 */
+	@Test
+	public void testKoRule() {
+		play(2, 1, StoneColor.BLACK);
+		assertFalse(board.getBoardState().isOccupied(1, 1));
+		assertFalse(moveChecker.checkMove(1, 1, StoneColor.WHITE, board, positionHistory));
+		assertTrue(moveChecker.getMoveViolations().contains("Ko"));
+		play(7, 7, StoneColor.WHITE);
+		play(7, 6, StoneColor.BLACK);
+		assertTrue(moveChecker.checkMove(1, 1, StoneColor.WHITE, board, positionHistory));
+	}
+	
+	/**
+	 * Test that positional superko forbids any earlier board situation.
+	 * The stones played in between are removed again, so retaking the Ko recreates the 
+	 * board situation from three moves earlier.
+	 */
+	@Test
+	public void testPositionalSuperko() {
+		play(2, 1, StoneColor.BLACK);
+		play(7, 7, StoneColor.WHITE);
+		play(7, 6, StoneColor.BLACK);
+		board.removeStone(new Position(7, 7));
+		board.removeStone(new Position(7, 6));
+		assertTrue(moveChecker.checkMove(1, 1, StoneColor.WHITE, board, positionHistory));
+		assertFalse(superkoMoveChecker.checkMove(1, 1, StoneColor.WHITE, board, 
+				positionHistory));
+	}
+}
@@ -0,0 +1,38 @@
+package game.test;
+
+import org.junit.Test;
+
+import game.PositionHistory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for PositionHistory.
+ * @author janine.kleinrot
+ */
+public class PositionHistoryTest {
+
+	/**
+	 * Test whether all board situations are found after the history has grown past its
+	 * initial capacity, including the hash 0 and hashes that start at the same slot.
+	 */
+	@Test
+	public void testContainsPosition() {
+		PositionHistory positionHistory = new PositionHistory(0);
+		assertTrue(positionHistory.containsPosition(0));
+		assertFalse(positionHistory.containsPosition(1));
+		for (long hash = 1; hash <= 1000; hash++) {
+			positionHistory.addPosition(hash << 40);
+		}
+		for (long hash = 1; hash <= 1000; hash++) {
+			assertTrue(positionHistory.containsPosition(hash << 40));
+			assertFalse(positionHistory.containsPosition((hash << 40) + 1));
+		}
+		assertTrue(positionHistory.containsPosition(0));
+		assertEquals(1000L << 40, positionHistory.getCurrentPosition());
+		assertTrue(positionHistory.isPreviousPosition(999L << 40));
+	}
+
+}
@@ -0,0 +1,169 @@
+package game.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import client.GoClientState;
+import client.handler.GoClientHandler;
+import client.handler.test.GoClientHandlerStub;
+import game.Spectator;
+import protocol.CommandType;
+import protocol.EncodedCommand;
+import protocol.Protocol.Server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for Spectator.
+ * @author janine.kleinrot
+ */
+public class SpectatorTest {
+
+	/** Test variable for the GoClientHandler of the spectator. */
+	private RecordingGoClientHandler goClientHandler;
+
+	/** Test variable for the tasks given to the executor of the spectator. */
+	private List<Runnable> tasks;
+
+	/** Test variable for a Spectator object with a buffer of 2 commands. */
+	private Spectator spectator;
+
+	/** Test variable for the snapshot of the game. */
+	private EncodedCommand snapshot;
+
+	/**
+	 * Create a spectator whose executor only runs the tasks when the test asks for it.
+	 */
+	@Before
+	public void setUp() {
+		goClientHandler = new RecordingGoClientHandler();
+		tasks = new ArrayList<Runnable>();
+		Executor executor = tasks::add;
+		spectator = new Spectator(goClientHandler, executor, 2);
+		snapshot = EncodedCommand.encode(CommandType.BOARD, "5", "piet", "jan", "piet",
+				".........................");
+	}
+
+	/**
+	 * Test that the commands are sent in the order in which they are offered.
+	 */
+	@Test
+	public void testOffer() {
+		EncodedCommand first = turn("1_1");
+		EncodedCommand second = turn("2_2");
+		spectator.offer(first, () -> snapshot);
+		spectator.offer(second, () -> snapshot);
+		assertEquals(1, tasks.size());
+		runTasks();
+		assertEquals(2, goClientHandler.sent.size());
+		assertSame(first, goClientHandler.sent.get(0));
+		assertSame(second, goClientHandler.sent.get(1));
+		assertEquals(0, spectator.getResyncCount());
+	}
+
+	/**
+	 * Test that a full buffer is replaced by the snapshot, followed by an ENDGAME command.
+	 */
+	@Test
+	public void testResync() {
+		spectator.offer(turn("1_1"), () -> snapshot);
+		spectator.offer(turn("2_2"), () -> snapshot);
+		spectator.offer(turn("3_3"), () -> snapshot);
+		assertEquals(1, spectator.getBufferedCommandCount());
+		assertEquals(1, spectator.getResyncCount());
+		spectator.offer(turn("4_4"), () -> snapshot);
+		EncodedCommand endGame = EncodedCommand.encode(CommandType.ENDGAME, Server.FINISHED,
+				"piet", "3", "jan", "1");
+		spectator.offer(endGame, () -> snapshot);
+		runTasks();
+		assertEquals(2, goClientHandler.sent.size());
+		assertSame(snapshot, goClientHandler.sent.get(0));
+		assertSame(endGame, goClientHandler.sent.get(1));
+		assertEquals(2, spectator.getResyncCount());
+	}
+
+	/**
+	 * Test that no commands are sent while the commands sent before are not written.
+	 */
+	@Test
+	public void testPendingBytes() {
+		goClientHandler.pendingBytes = Spectator.MAX_PENDING_BYTES + 1;
+		spectator.offer(turn("1_1"), () -> snapshot);
+		runTasks();
+		assertTrue(goClientHandler.sent.isEmpty());
+		assertEquals(1, spectator.getBufferedCommandCount());
+	}
+
+	/**
+	 * Test that a closed spectator drops its commands and accepts no new ones.
+	 */
+	@Test
+	public void testClose() {
+		spectator.offer(turn("1_1"), () -> snapshot);
+		spectator.close();
+		spectator.offer(turn("2_2"), () -> snapshot);
+		runTasks();
+		assertTrue(spectator.isClosed());
+		assertTrue(goClientHandler.sent.isEmpty());
+		assertEquals(0, spectator.getBufferedCommandCount());
+	}
+
+	/**
+	 * Run the tasks given to the executor so far.
+	 */
+	private void runTasks() {
+		List<Runnable> tasksToRun = new ArrayList<Runnable>(tasks);
+		tasks.clear();
+		for (Runnable task : tasksToRun) {
+			task.run();
+		}
+	}
+
+	/**
+	 * Encode a TURN command with the provided move.
+	 * @param move
+	 * 			The move.
+	 * @return
+	 * 			The command.
+	 */
+	private static EncodedCommand turn(String move) {
+		return EncodedCommand.encode(CommandType.TURN, "piet", move, "jan");
+	}
+
+	/**
+	 * A GoClientHandler without connection that records the encoded commands sent.
+	 */
+	private static class RecordingGoClientHandler extends GoClientHandlerStub {
+
+		/** The encoded commands sent. */
+		private List<EncodedCommand> sent = new ArrayList<EncodedCommand>();
+
+		/** The amount of bytes that are not written yet. */
+		private int pendingBytes;
+
+		/**
+		 * Create a new RecordingGoClientHandler in the state CONNECTED.
+		 */
+		private RecordingGoClientHandler() {
+			super("koos", GoClientState.CONNECTED);
+		}
+
+		@Override
+		public void sendEncodedCommand(EncodedCommand command) {
+			sent.add(command);
+		}
+
+		@Override
+		public int getPendingBytes() {
+			return pendingBytes;
+		}
+
+	}
+
+}
@@ -0,0 +1,69 @@
+package game.test;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import game.UnconditionalLife;
+import game.board.BitBoardState;
+import game.board.stone.StoneColor;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for UnconditionalLife.
+ * @author janine.kleinrot
+ */
+public class UnconditionalLifeTest {
+
+	/** Test variable for a BitBoardState object of 9 x 9. */
+	private BitBoardState boardState;
+
+	/**
+	 * Create a board state with a black chain along the edge with three eyes,
+	 * one of which holds a white stone.
+	 */
+	@Before
+	public void setUp() {
+		boardState = new BitBoardState(9);
+		for (int y = 0; y < 9; y++) {
+			boardState.setStone(1, y, StoneColor.BLACK);
+		}
+		boardState.setStone(0, 3, StoneColor.BLACK);
+		boardState.setStone(0, 6, StoneColor.BLACK);
+		boardState.setStone(0, 1, StoneColor.WHITE);
+	}
+
+	/**
+	 * Test that the chain with two or more eyes is alive and the stone in its eye is dead,
+	 * while the stones in the open area are neither.
+	 */
+	@Test
+	public void testEyes() {
+		boardState.setStone(6, 6, StoneColor.WHITE);
+		boardState.setStone(5, 5, StoneColor.BLACK);
+		UnconditionalLife unconditionalLife = new UnconditionalLife(boardState);
+		assertTrue(unconditionalLife.isAlive(1 * 9 + 0));
+		assertTrue(unconditionalLife.isAlive(0 * 9 + 3));
+		assertTrue(unconditionalLife.isDead(0 * 9 + 1));
+		assertFalse(unconditionalLife.isAlive(0 * 9 + 1));
+		assertFalse(unconditionalLife.isAlive(5 * 9 + 5));
+		assertFalse(unconditionalLife.isDead(5 * 9 + 5));
+		assertFalse(unconditionalLife.isAlive(6 * 9 + 6));
+		assertFalse(unconditionalLife.isDead(6 * 9 + 6));
+	}
+
+	/**
+	 * Test that the chain is not alive if only one eye is left.
+	 */
+	@Test
+	public void testOneEye() {
+		boardState.removeStone(0, 3);
+		boardState.removeStone(0, 6);
+		boardState.setStone(0, 5, StoneColor.WHITE);
+		UnconditionalLife unconditionalLife = new UnconditionalLife(boardState);
+		assertFalse(unconditionalLife.isAlive(1 * 9 + 0));
+		assertFalse(unconditionalLife.isDead(0 * 9 + 1));
+	}
+
+}
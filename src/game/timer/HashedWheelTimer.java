@@ -0,0 +1,296 @@
+package game.timer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timer for many timeouts that are mostly cancelled before they expire, such as the
+ * move clocks of the games. The timeouts are kept in a wheel of buckets, one bucket per
+ * tick, and a single thread advances the wheel every tick and runs the timeouts of the
+ * bucket whose deadline has passed. Scheduling and cancelling only add the timeout to a
+ * queue, so they take constant time on any thread, and a timeout costs one small object
+ * instead of a thread or a ScheduledFuture. A timeout runs at most one tick late.
+ * The tasks run on the thread of the timer, so they should only hand work to another
+ * thread.
+ * @author janine.kleinrot
+ */
+public class HashedWheelTimer {
+
+	/** The default duration of a tick in milliseconds. */
+	public static final long DEFAULT_TICK_DURATION = 100;
+
+	/** The default amount of buckets of the wheel. */
+	public static final int DEFAULT_WHEEL_SIZE = 512;
+
+	/** The maximum amount of new timeouts put in the wheel every tick. */
+	private static final int MAX_NEW_TIMEOUTS_PER_TICK = 100000;
+
+	/** The duration of a tick in nanoseconds. */
+	private final long tickDuration;
+
+	/** The buckets of the wheel. */
+	private final Bucket[] wheel;
+
+	/** The mask that maps a tick on its bucket, since the amount of buckets is a power of 2. */
+	private final int mask;
+
+	/** The timeouts that are scheduled but not put in the wheel yet. */
+	private final Queue<Timeout> newTimeouts;
+
+	/** The timeouts that are cancelled but not unlinked from the wheel yet. */
+	private final Queue<Timeout> cancelledTimeouts;
+
+	/** The time in nanoseconds at which the timer started. */
+	private final long startTime;
+
+	/** The thread that advances the wheel. */
+	private final Thread workerThread;
+
+	/** The amount of ticks done. Only used by the thread of the timer. */
+	private long tick;
+
+	/** Whether the timer is stopped. */
+	private volatile boolean isStopped;
+
+	/**
+	 * Create a new HashedWheelTimer with the default tick duration and wheel size,
+	 * whose thread is a daemon platform thread.
+	 */
+	public HashedWheelTimer() {
+		this(DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE,
+				Thread.ofPlatform().name("HashedWheelTimer").daemon().factory());
+	}
+
+	/**
+	 * Create a new HashedWheelTimer and start its thread.
+	 * @param tickDuration
+	 * 			The duration of a tick.
+	 * @param unit
+	 * 			The unit of the tick duration.
+	 * @param wheelSize
+	 * 			The amount of buckets, rounded up to a power of 2.
+	 * @param threadFactory
+	 * 			The factory of the thread of the timer.
+	 */
+	public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize,
+			ThreadFactory threadFactory) {
+		if (tickDuration <= 0 || wheelSize <= 0) {
+			throw new IllegalArgumentException(
+					"The tick duration and the wheel size should be positive");
+		}
+		this.tickDuration = unit.toNanos(tickDuration);
+		int size = Integer.highestOneBit(wheelSize);
+		if (size < wheelSize) {
+			size = size << 1;
+		}
+		wheel = new Bucket[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new Bucket();
+		}
+		mask = size - 1;
+		newTimeouts = new ConcurrentLinkedQueue<Timeout>();
+		cancelledTimeouts = new ConcurrentLinkedQueue<Timeout>();
+		startTime = System.nanoTime();
+		workerThread = threadFactory.newThread(this::run);
+		workerThread.start();
+	}
+
+	/**
+	 * Schedule the task to run after the delay.
+	 * @param task
+	 * 			The task, which runs on the thread of the timer.
+	 * @param delay
+	 * 			The delay.
+	 * @param unit
+	 * 			The unit of the delay.
+	 * @return
+	 * 			The timeout, which can be cancelled.
+	 * @throws IllegalStateException
+	 * 			If the timer is stopped.
+	 */
+	public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+		if (isStopped) {
+			throw new IllegalStateException("The timer is stopped");
+		}
+		Timeout timeout = new Timeout(this, task,
+				System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0)));
+		newTimeouts.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Stop the thread of the timer. The timeouts that have not expired never run.
+	 */
+	public void stop() {
+		isStopped = true;
+		workerThread.interrupt();
+	}
+
+	/**
+	 * Return the amount of timeouts in the wheel, for tests and monitoring.
+	 * The count is only exact while no timeouts are scheduled or cancelled.
+	 * @return
+	 * 			The amount of timeouts.
+	 */
+	public int getTimeoutCount() {
+		int count = 0;
+		for (Bucket bucket : wheel) {
+			count = count + bucket.size;
+		}
+		return count;
+	}
+
+	/**
+	 * Ask the thread of the timer to unlink the cancelled timeout from its bucket.
+	 * @param timeout
+	 * 			The cancelled timeout.
+	 */
+	void unlink(Timeout timeout) {
+		cancelledTimeouts.add(timeout);
+	}
+
+	/**
+	 * Advance the wheel every tick until the timer is stopped.
+	 */
+	private void run() {
+		while (!isStopped) {
+			if (!waitForNextTick()) {
+				return;
+			}
+			removeCancelledTimeouts();
+			addNewTimeouts();
+			wheel[(int) (tick & mask)].expireTimeouts();
+			tick++;
+		}
+	}
+
+	/**
+	 * Sleep until the end of the current tick.
+	 * @return
+	 * 			True if the tick has ended and false if the timer is stopped.
+	 */
+	private boolean waitForNextTick() {
+		long deadline = tickDuration * (tick + 1);
+		while (true) {
+			long sleepTime = deadline - (System.nanoTime() - startTime);
+			if (sleepTime <= 0) {
+				return true;
+			}
+			try {
+				TimeUnit.NANOSECONDS.sleep(sleepTime);
+			} catch (InterruptedException e) {
+				if (isStopped) {
+					return false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Unlink the cancelled timeouts from their buckets.
+	 */
+	private void removeCancelledTimeouts() {
+		Timeout timeout;
+		while ((timeout = cancelledTimeouts.poll()) != null) {
+			if (timeout.bucket != null) {
+				timeout.bucket.remove(timeout);
+			}
+		}
+	}
+
+	/**
+	 * Put the new timeouts in the bucket of the tick of their deadline,
+	 * or in the current bucket if that tick has passed already.
+	 */
+	private void addNewTimeouts() {
+		for (int i = 0; i < MAX_NEW_TIMEOUTS_PER_TICK; i++) {
+			Timeout timeout = newTimeouts.poll();
+			if (timeout == null) {
+				return;
+			}
+			if (timeout.isCancelled()) {
+				continue;
+			}
+			long deadlineTick = Math.max(timeout.deadline / tickDuration, tick);
+			timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+			wheel[(int) (deadlineTick & mask)].add(timeout);
+		}
+	}
+
+	/**
+	 * A bucket of the wheel, a doubly linked list of timeouts.
+	 * Only used by the thread of the timer.
+	 */
+	static final class Bucket {
+
+		/** The first timeout. */
+		private Timeout head;
+
+		/** The last timeout. */
+		private Timeout tail;
+
+		/** The amount of timeouts. */
+		private int size;
+
+		/**
+		 * Add the timeout at the end of the bucket.
+		 * @param timeout
+		 * 			The timeout.
+		 */
+		private void add(Timeout timeout) {
+			timeout.bucket = this;
+			if (head == null) {
+				head = timeout;
+			} else {
+				tail.next = timeout;
+				timeout.previous = tail;
+			}
+			tail = timeout;
+			size++;
+		}
+
+		/**
+		 * Remove the timeout from the bucket.
+		 * @param timeout
+		 * 			The timeout, which is in this bucket.
+		 */
+		private void remove(Timeout timeout) {
+			if (timeout.previous != null) {
+				timeout.previous.next = timeout.next;
+			} else {
+				head = timeout.next;
+			}
+			if (timeout.next != null) {
+				timeout.next.previous = timeout.previous;
+			} else {
+				tail = timeout.previous;
+			}
+			timeout.next = null;
+			timeout.previous = null;
+			timeout.bucket = null;
+			size--;
+		}
+
+		/**
+		 * Run the timeouts of the bucket that expire in this turn of the wheel
+		 * and count down the rounds of the others.
+		 */
+		private void expireTimeouts() {
+			Timeout timeout = head;
+			while (timeout != null) {
+				Timeout next = timeout.next;
+				if (timeout.remainingRounds <= 0) {
+					remove(timeout);
+					timeout.expire();
+				} else {
+					timeout.remainingRounds--;
+				}
+				timeout = next;
+			}
+		}
+
+	}
+
+}
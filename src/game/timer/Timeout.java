@@ -0,0 +1,110 @@
+package game.timer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A task scheduled on a HashedWheelTimer, which can be cancelled until it expires.
+ * Cancelling only changes the state and asks the timer to unlink the timeout,
+ * so it takes constant time and can be done by any thread.
+ * @author janine.kleinrot
+ */
+public class Timeout {
+
+	/** The state of a timeout that is scheduled. */
+	private static final int SCHEDULED = 0;
+
+	/** The state of a timeout that is cancelled. */
+	private static final int CANCELLED = 1;
+
+	/** The state of a timeout whose task is run. */
+	private static final int EXPIRED = 2;
+
+	/** The timer. */
+	private final HashedWheelTimer timer;
+
+	/** The task. */
+	private final Runnable task;
+
+	/** The time in nanoseconds, relative to the start of the timer, at which the task runs. */
+	final long deadline;
+
+	/** The amount of turns of the wheel left before the timeout expires. */
+	long remainingRounds;
+
+	/** The next timeout in the bucket. Only used by the thread of the timer. */
+	Timeout next;
+
+	/** The previous timeout in the bucket. Only used by the thread of the timer. */
+	Timeout previous;
+
+	/** The bucket of the timeout, or null if it is not in a bucket. */
+	HashedWheelTimer.Bucket bucket;
+
+	/** The state. */
+	private final AtomicInteger state;
+
+	/**
+	 * Create a new scheduled Timeout.
+	 * @param timer
+	 * 			The timer.
+	 * @param task
+	 * 			The task.
+	 * @param deadline
+	 * 			The time in nanoseconds, relative to the start of the timer,
+	 * 			at which the task runs.
+	 */
+	Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+		this.timer = timer;
+		this.task = task;
+		this.deadline = deadline;
+		state = new AtomicInteger(SCHEDULED);
+	}
+
+	/**
+	 * Cancel the timeout, so its task does not run.
+	 * @return
+	 * 			True if the timeout is cancelled and false if it has expired or
+	 * 			was cancelled before.
+	 */
+	public boolean cancel() {
+		if (!state.compareAndSet(SCHEDULED, CANCELLED)) {
+			return false;
+		}
+		timer.unlink(this);
+		return true;
+	}
+
+	/**
+	 * Whether the timeout is cancelled.
+	 * @return
+	 * 			True if the timeout is cancelled and false otherwise.
+	 */
+	public boolean isCancelled() {
+		return state.get() == CANCELLED;
+	}
+
+	/**
+	 * Whether the task of the timeout has run or is running.
+	 * @return
+	 * 			True if the timeout has expired and false otherwise.
+	 */
+	public boolean isExpired() {
+		return state.get() == EXPIRED;
+	}
+
+	/**
+	 * Run the task if the timeout is not cancelled.
+	 */
+	void expire() {
+		if (!state.compareAndSet(SCHEDULED, EXPIRED)) {
+			return;
+		}
+		try {
+			task.run();
+		} catch (RuntimeException e) {
+			System.out.println("ERROR: Timeout " + task + " with deadline " + 
+					deadline / 1000000 + " ms failed: " + e);
+		}
+	}
+
+}
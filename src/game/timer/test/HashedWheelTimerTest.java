@@ -0,0 +1,101 @@
+package game.timer.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import game.timer.HashedWheelTimer;
+import game.timer.Timeout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for HashedWheelTimer.
+ * @author janine.kleinrot
+ */
+public class HashedWheelTimerTest {
+
+	/** Test variable for a HashedWheelTimer object with ticks of 10 ms and 8 buckets. */
+	private HashedWheelTimer timer;
+
+	/**
+	 * Create a timer with a small wheel, so timeouts go around the wheel several times.
+	 */
+	@Before
+	public void setUp() {
+		timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8,
+				Thread.ofPlatform().daemon().factory());
+	}
+
+	/**
+	 * Stop the timer.
+	 */
+	@After
+	public void tearDown() {
+		timer.stop();
+	}
+
+	/**
+	 * Test that a timeout expires after its delay and not before.
+	 */
+	@Test
+	public void testExpire() throws InterruptedException {
+		CountDownLatch expired = new CountDownLatch(1);
+		long start = System.nanoTime();
+		Timeout timeout = timer.newTimeout(expired::countDown, 200, TimeUnit.MILLISECONDS);
+		assertTrue(expired.await(5, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+		assertTrue(timeout.isExpired());
+		assertFalse(timeout.cancel());
+	}
+
+	/**
+	 * Test that a cancelled timeout does not expire and is removed from the wheel.
+	 */
+	@Test
+	public void testCancel() throws InterruptedException {
+		AtomicInteger expiredCount = new AtomicInteger();
+		Timeout early = timer.newTimeout(expiredCount::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+		assertTrue(early.cancel());
+		Timeout late = timer.newTimeout(expiredCount::incrementAndGet, 150, TimeUnit.MILLISECONDS);
+		Thread.sleep(50);
+		assertTrue(late.cancel());
+		assertFalse(late.cancel());
+		Thread.sleep(250);
+		assertEquals(0, expiredCount.get());
+		assertTrue(late.isCancelled());
+		assertEquals(0, timer.getTimeoutCount());
+	}
+
+	/**
+	 * Test that many timeouts expire, except for the cancelled ones.
+	 */
+	@Test
+	public void testManyTimeouts() throws InterruptedException {
+		int timeoutCount = 10000;
+		CountDownLatch expired = new CountDownLatch(timeoutCount / 2);
+		List<Timeout> timeouts = new ArrayList<Timeout>();
+		for (int i = 0; i < timeoutCount; i++) {
+			timeouts.add(timer.newTimeout(expired::countDown, 500 + i % 200,
+					TimeUnit.MILLISECONDS));
+		}
+		for (int i = 0; i < timeoutCount; i = i + 2) {
+			timeouts.get(i).cancel();
+		}
+		assertTrue(expired.await(5, TimeUnit.SECONDS));
+		Thread.sleep(50);
+		for (int i = 0; i < timeoutCount; i++) {
+			assertEquals(i % 2 == 1, timeouts.get(i).isExpired());
+		}
+		assertEquals(0, timer.getTimeoutCount());
+	}
+
+}
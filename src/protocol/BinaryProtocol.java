@@ -0,0 +1,59 @@
+package protocol;
+
+/**
+ * A compact binary framing of the messages of the Protocol.
+ * A GoClient asks for the binary framing by sending an eighth EXTENSIONS flag of 1
+ * in the NAME command. The GoServer answers with its own NAME command in text,
+ * with the eighth flag set to 1 if it accepts, after which both sides send frames only.
+ * A GoClient that sends seven flags keeps the text messages.<br>
+ * Format of a frame: length (2 bytes) opcode (1 byte) arguments<br>
+ * The length counts the opcode and the arguments, the opcode is the ordinal of the
+ * CommandType. The moves of MOVE and TURN are encoded as row (1 byte) column (1 byte),
+ * with 255 255 for PASS and 254 254 for FIRST. All other arguments are encoded as
+ * length (2 bytes) followed by the UTF-8 bytes.
+ * The frames are written by the CommandEncoder and read by the CommandParser.
+ * @author janine.kleinrot
+ */
+public class BinaryProtocol {
+
+	/** The amount of arguments of a NAME command without the binary flag. */
+	public static final int NAME_ARGUMENTS = 11;
+
+	/** The index of the binary flag in the arguments of the NAME command. */
+	public static final int BINARY_FLAG_INDEX = NAME_ARGUMENTS;
+
+	/** The amount of bytes of the length of a frame. */
+	public static final int LENGTH_BYTES = 2;
+
+	/** The maximum length of a frame. */
+	public static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+	/** The byte of the row and the column of PASS. */
+	static final int PASS_BYTE = 0xFF;
+
+	/** The byte of the row and the column of FIRST. */
+	static final int FIRST_BYTE = 0xFE;
+
+	/**
+	 * Whether the provided NAME command contains the binary flag.
+	 * @param command
+	 * 			The NAME command.
+	 * @return
+	 * 			True if the NAME command contains the binary flag and false otherwise.
+	 */
+	public static boolean hasBinaryFlag(Command command) {
+		return command.getArgumentCount() == NAME_ARGUMENTS + 1;
+	}
+
+	/**
+	 * Whether the provided NAME command asks for the binary framing.
+	 * @param command
+	 * 			The NAME command.
+	 * @return
+	 * 			True if the binary flag is 1 and false otherwise.
+	 */
+	public static boolean isRequested(Command command) {
+		return hasBinaryFlag(command) && command.isArgument(BINARY_FLAG_INDEX, "1");
+	}
+
+}
@@ -0,0 +1,258 @@
+package protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The outbound queue of a blocking connection.
+ * The commands written are appended to a pending buffer, and the pending commands
+ * are written to the stream together in a single write.
+ * With a flush latency of 0 the thread that finds no write in progress writes the pending
+ * commands right away, and the commands written by other threads in the meantime are
+ * written together afterwards. With a positive flush latency the pending commands are written
+ * by the scheduler at most that many milliseconds after the first of them, or right away
+ * when they fill the buffer.
+ * @author janine.kleinrot
+ */
+public class CoalescingWriter {
+
+	/** The amount of pending bytes that are written without waiting for the flush latency. */
+	public static final int MAX_PENDING_BYTES = 16384;
+
+	/** The initial size of the buffers. */
+	private static final int BUFFER_SIZE = 1024;
+
+	/** The stream of the connection. */
+	private OutputStream out;
+
+	/** The maximum time in milliseconds a command waits before it is written. */
+	private long flushLatency;
+
+	/** The scheduler of the delayed writes, or null if the flush latency is 0. */
+	private ScheduledExecutorService scheduler;
+
+	/** The lock of the pending buffer and the flags. */
+	private Lock lock;
+
+	/** The commands waiting to be written. */
+	private byte[] pending;
+
+	/** The amount of bytes waiting to be written. */
+	private int pendingLength;
+
+	/** The buffer that is written while new commands are appended to the pending buffer. */
+	private byte[] writing;
+
+	/** Whether a thread is writing to the stream. */
+	private boolean isWriting;
+
+	/** Whether a delayed write is scheduled. */
+	private boolean isFlushScheduled;
+
+	/**
+	 * Create a new CoalescingWriter that writes the commands without delay.
+	 * @param out
+	 * 			The stream of the connection.
+	 */
+	public CoalescingWriter(OutputStream out) {
+		this(out, 0, null);
+	}
+
+	/**
+	 * Create a new CoalescingWriter.
+	 * @param out
+	 * 			The stream of the connection.
+	 * @param flushLatency
+	 * 			The maximum time in milliseconds a command waits before it is written.
+	 * @param scheduler
+	 * 			The scheduler of the delayed writes, only used if the flush latency is positive.
+	 */
+	public CoalescingWriter(OutputStream out, long flushLatency,
+			ScheduledExecutorService scheduler) {
+		this.out = out;
+		this.flushLatency = flushLatency;
+		this.scheduler = scheduler;
+		lock = new ReentrantLock();
+		pending = new byte[BUFFER_SIZE];
+		writing = new byte[BUFFER_SIZE];
+	}
+
+	/**
+	 * Append the command to the pending commands, and write them if no write is in progress
+	 * and the flush latency is 0 or the pending commands fill the buffer.
+	 * @param bytes
+	 * 			The bytes of the command, which may be reused after the call.
+	 * @param length
+	 * 			The amount of bytes.
+	 * @throws IOException
+	 * 			If the stream could not be written.
+	 */
+	public void write(byte[] bytes, int length) throws IOException {
+		boolean isWriter;
+		lock.lock();
+		try {
+			ensureCapacity(length);
+			System.arraycopy(bytes, 0, pending, pendingLength, length);
+			pendingLength = pendingLength + length;
+			isWriter = isWriterAfterAppend();
+		} finally {
+			lock.unlock();
+		}
+		if (isWriter) {
+			writePending();
+		}
+	}
+
+	/**
+	 * Append the remaining bytes of the command to the pending commands, and write them 
+	 * like write does. The buffer is read up to its limit.
+	 * @param buffer
+	 * 			The bytes of the command.
+	 * @throws IOException
+	 * 			If the stream could not be written.
+	 */
+	public void write(ByteBuffer buffer) throws IOException {
+		boolean isWriter;
+		lock.lock();
+		try {
+			int length = buffer.remaining();
+			ensureCapacity(length);
+			buffer.get(pending, pendingLength, length);
+			pendingLength = pendingLength + length;
+			isWriter = isWriterAfterAppend();
+		} finally {
+			lock.unlock();
+		}
+		if (isWriter) {
+			writePending();
+		}
+	}
+
+	/**
+	 * Grow the pending buffer so the provided amount of bytes can be appended.
+	 * Called with the lock held.
+	 * @param length
+	 * 			The amount of bytes.
+	 */
+	private void ensureCapacity(int length) {
+		if (pending.length < pendingLength + length) {
+			pending = Arrays.copyOf(pending, Math.max(pendingLength + length, pending.length * 2));
+		}
+	}
+
+	/**
+	 * Decide who writes the pending commands after a command is appended, and schedule
+	 * the delayed write if needed. Called with the lock held.
+	 * @return
+	 * 			True if the calling thread has to write the pending commands.
+	 */
+	private boolean isWriterAfterAppend() {
+		if (isWriting) {
+			return false;
+		}
+		if (flushLatency > 0 && pendingLength < MAX_PENDING_BYTES) {
+			if (!isFlushScheduled) {
+				isFlushScheduled = true;
+				scheduler.schedule(this::flushScheduled, flushLatency, TimeUnit.MILLISECONDS);
+			}
+			return false;
+		}
+		isWriting = true;
+		return true;
+	}
+
+	/**
+	 * Return the amount of bytes waiting to be written.
+	 * @return
+	 * 			The amount of bytes.
+	 */
+	public int getPendingLength() {
+		lock.lock();
+		try {
+			return pendingLength;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Write the pending commands now, unless another thread is writing them already.
+	 * @throws IOException
+	 * 			If the stream could not be written.
+	 */
+	public void flush() throws IOException {
+		lock.lock();
+		try {
+			if (isWriting || pendingLength == 0) {
+				return;
+			}
+			isWriting = true;
+		} finally {
+			lock.unlock();
+		}
+		writePending();
+	}
+
+	/**
+	 * Write the pending commands when the flush latency has passed.
+	 */
+	private void flushScheduled() {
+		lock.lock();
+		try {
+			isFlushScheduled = false;
+		} finally {
+			lock.unlock();
+		}
+		try {
+			flush();
+		} catch (IOException e) {
+			System.out.println("ERROR: Connection lost");
+		}
+	}
+
+	/**
+	 * Write the pending commands until none are left, swapping the buffers so other threads
+	 * can append while the stream is written. Only called by the thread that set isWriting.
+	 * @throws IOException
+	 * 			If the stream could not be written.
+	 */
+	private void writePending() throws IOException {
+		try {
+			while (true) {
+				int length;
+				lock.lock();
+				try {
+					if (pendingLength == 0) {
+						isWriting = false;
+						return;
+					}
+					byte[] buffer = writing;
+					writing = pending;
+					pending = buffer;
+					length = pendingLength;
+					pendingLength = 0;
+				} finally {
+					lock.unlock();
+				}
+				out.write(writing, 0, length);
+				out.flush();
+			}
+		} catch (IOException e) {
+			lock.lock();
+			try {
+				isWriting = false;
+				pendingLength = 0;
+			} finally {
+				lock.unlock();
+			}
+			throw e;
+		}
+	}
+
+}
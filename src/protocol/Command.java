@@ -0,0 +1,270 @@
+package protocol;
+
+import java.nio.charset.StandardCharsets;
+
+import protocol.Protocol.Client;
+import protocol.Protocol.General;
+import protocol.Protocol.Server;
+
+/**
+ * A command received from the other side of the connection.
+ * The arguments are kept as ranges of the bytes the command was read from,
+ * so the same Command is reused for every message read and an argument
+ * only becomes a String when it is asked for. The move of a frame is kept as the
+ * row and column bytes it was sent as, so it reaches the game as an index without
+ * being written as text and parsed again.
+ * A Command is only valid until the next message is parsed.
+ * @author janine.kleinrot
+ */
+public class Command {
+
+	/** The maximum amount of arguments that are kept. */
+	public static final int MAX_ARGUMENTS = 16;
+
+	/** The type of the command. */
+	private CommandType type;
+
+	/** The bytes of the arguments. */
+	private byte[] bytes;
+
+	/** The index of the first byte of every argument. */
+	private int[] argumentStarts;
+
+	/** The index after the last byte of every argument. */
+	private int[] argumentEnds;
+
+	/** The amount of arguments, including those that are not kept. */
+	private int argumentCount;
+
+	/** The argument that holds the move of a frame, or -1 if there is none. */
+	private int moveArgument;
+
+	/** The row byte of the move of a frame. */
+	private int moveRow;
+
+	/** The column byte of the move of a frame. */
+	private int moveColumn;
+
+	/**
+	 * Create a new Command of type UNKNOWN without arguments.
+	 */
+	public Command() {
+		type = CommandType.UNKNOWN;
+		argumentStarts = new int[MAX_ARGUMENTS];
+		argumentEnds = new int[MAX_ARGUMENTS];
+	}
+
+	/**
+	 * Start a new command on the provided bytes.
+	 * @param type
+	 * 			The type.
+	 * @param bytes
+	 * 			The bytes of the arguments.
+	 */
+	void reset(CommandType type, byte[] bytes) {
+		this.type = type;
+		this.bytes = bytes;
+		argumentCount = 0;
+		moveArgument = -1;
+	}
+
+	/**
+	 * Replace the bytes of the arguments by a copy at the same indexes.
+	 * @param bytes
+	 * 			The bytes of the arguments.
+	 */
+	void setBytes(byte[] bytes) {
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Add an argument.
+	 * @param start
+	 * 			The index of the first byte of the argument.
+	 * @param end
+	 * 			The index after the last byte of the argument.
+	 */
+	void addArgument(int start, int end) {
+		if (argumentCount < MAX_ARGUMENTS) {
+			argumentStarts[argumentCount] = start;
+			argumentEnds[argumentCount] = end;
+		}
+		argumentCount++;
+	}
+
+	/**
+	 * Add the move of a frame as an argument.
+	 * @param row
+	 * 			The row, or the reserved byte of PASS or FIRST.
+	 * @param column
+	 * 			The column, or the reserved byte of PASS or FIRST.
+	 */
+	void addMove(int row, int column) {
+		moveArgument = argumentCount;
+		moveRow = row;
+		moveColumn = column;
+		addArgument(0, 0);
+	}
+
+	/**
+	 * Remove the empty arguments at the end, as String.split does.
+	 */
+	void removeTrailingEmptyArguments() {
+		while (argumentCount > 0 && argumentCount <= MAX_ARGUMENTS &&
+				argumentStarts[argumentCount - 1] == argumentEnds[argumentCount - 1]) {
+			argumentCount--;
+		}
+	}
+
+	/**
+	 * Return the type of the command.
+	 * @return
+	 * 			The type.
+	 */
+	public CommandType getType() {
+		return type;
+	}
+
+	/**
+	 * Return the amount of arguments after the keyword.
+	 * @return
+	 * 			The amount of arguments.
+	 */
+	public int getArgumentCount() {
+		return argumentCount;
+	}
+
+	/**
+	 * Return the argument with the provided index.
+	 * @param index
+	 * 			The index of the argument.
+	 * @return
+	 * 			The argument.
+	 * @throws IndexOutOfBoundsException
+	 * 			If the argument is not kept.
+	 */
+	public String getArgument(int index) {
+		checkIndex(index);
+		if (index == moveArgument) {
+			return getFrameMove();
+		}
+		return new String(bytes, argumentStarts[index],
+				argumentEnds[index] - argumentStarts[index], StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Whether the argument with the provided index equals the provided value.
+	 * An ASCII value is compared byte by byte without creating a String.
+	 * @param index
+	 * 			The index of the argument.
+	 * @param value
+	 * 			The value.
+	 * @return
+	 * 			True if the argument equals the value and false otherwise.
+	 * @throws IndexOutOfBoundsException
+	 * 			If the argument is not kept.
+	 */
+	public boolean isArgument(int index, String value) {
+		checkIndex(index);
+		if (index == moveArgument) {
+			return getFrameMove().equals(value);
+		}
+		int start = argumentStarts[index];
+		int length = argumentEnds[index] - start;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= 0x80) {
+				return getArgument(index).equals(value);
+			} else if (i >= length || bytes[start + i] != c) {
+				return false;
+			}
+		}
+		return length == value.length();
+	}
+
+	/**
+	 * Return the argument with the provided index as a non-negative integer.
+	 * @param index
+	 * 			The index of the argument.
+	 * @return
+	 * 			The integer, or -1 if the argument is not a non-negative integer.
+	 * @throws IndexOutOfBoundsException
+	 * 			If the argument is not kept.
+	 */
+	public int getIntArgument(int index) {
+		checkIndex(index);
+		if (index == moveArgument) {
+			return -1;
+		}
+		int start = argumentStarts[index];
+		int end = argumentEnds[index];
+		if (start == end || end - start > 9) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	/**
+	 * Return the argument with the provided index as the index of a move at a board of the
+	 * provided size, as MoveCodec parses it. The move of a frame is not parsed from text.
+	 * @param index
+	 * 			The index of the argument.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The index of the intersection, MoveCodec.PASS for PASS, MoveCodec.INVALID if
+	 * 			the argument is not a move or MoveCodec.NOT_ON_BOARD if it is not on the board.
+	 * @throws IndexOutOfBoundsException
+	 * 			If the argument is not kept.
+	 */
+	public int getMove(int index, int size) {
+		checkIndex(index);
+		if (index != moveArgument) {
+			return MoveCodec.parse(bytes, argumentStarts[index], argumentEnds[index], size);
+		} else if (moveRow == BinaryProtocol.PASS_BYTE && 
+				moveColumn == BinaryProtocol.PASS_BYTE) {
+			return MoveCodec.PASS;
+		} else if (moveRow >= BinaryProtocol.FIRST_BYTE || 
+				moveColumn >= BinaryProtocol.FIRST_BYTE) {
+			return MoveCodec.INVALID;
+		}
+		return MoveCodec.toIndex(moveRow, moveColumn, size);
+	}
+
+	/**
+	 * Return the move of the frame as text.
+	 * @return
+	 * 			The move as row_column, PASS or FIRST.
+	 */
+	private String getFrameMove() {
+		if (moveRow == BinaryProtocol.PASS_BYTE && moveColumn == BinaryProtocol.PASS_BYTE) {
+			return Client.PASS;
+		} else if (moveRow == BinaryProtocol.FIRST_BYTE && 
+				moveColumn == BinaryProtocol.FIRST_BYTE) {
+			return Server.FIRST;
+		}
+		return moveRow + General.DELIMITER2 + moveColumn;
+	}
+
+	/**
+	 * Check that the argument with the provided index is kept.
+	 * @param index
+	 * 			The index of the argument.
+	 * @throws IndexOutOfBoundsException
+	 * 			If the argument is not kept.
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= Math.min(argumentCount, MAX_ARGUMENTS)) {
+			throw new IndexOutOfBoundsException("No argument " + index + " in " + type);
+		}
+	}
+
+}
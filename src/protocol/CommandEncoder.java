@@ -0,0 +1,278 @@
+package protocol;
+
+import java.util.Arrays;
+
+import protocol.Protocol.Client;
+import protocol.Protocol.General;
+import protocol.Protocol.Server;
+
+/**
+ * Encode the commands sent over a connection into a reused buffer,
+ * as a line of text or as a frame of the binary framing.
+ * The keyword and the arguments are written directly as UTF-8 bytes,
+ * so no message String is built. The buffer holds one command at a time
+ * and is only valid until the next command is encoded.
+ * A CommandEncoder must not be used by two threads at the same time.
+ * @author janine.kleinrot
+ */
+public class CommandEncoder {
+
+	/** The initial size of the buffer. */
+	private static final int BUFFER_SIZE = 256;
+
+	/** The buffer. */
+	private byte[] buffer;
+
+	/** The amount of bytes of the command in the buffer. */
+	private int length;
+
+	/** Whether the commands are encoded as frames. */
+	private boolean isBinary;
+
+	/**
+	 * Create a new CommandEncoder that encodes the commands as lines of text.
+	 */
+	public CommandEncoder() {
+		buffer = new byte[BUFFER_SIZE];
+	}
+
+	/**
+	 * Set whether the commands are encoded as frames or as lines of text.
+	 * @param isBinary
+	 * 			True for frames and false for lines of text.
+	 */
+	public void setBinary(boolean isBinary) {
+		this.isBinary = isBinary;
+	}
+
+	/**
+	 * Whether the commands are encoded as frames.
+	 * @return
+	 * 			True for frames and false for lines of text.
+	 */
+	public boolean isBinary() {
+		return isBinary;
+	}
+
+	/**
+	 * Encode the command with the provided arguments into the buffer.
+	 * @param type
+	 * 			The type of the command.
+	 * @param arguments
+	 * 			The arguments.
+	 * @return
+	 * 			The amount of bytes of the command in the buffer.
+	 * @throws IllegalArgumentException
+	 * 			If the command is UNKNOWN, a move can not be encoded as a frame
+	 * 			or the frame is too long.
+	 */
+	public int encode(CommandType type, String... arguments) {
+		if (type == CommandType.UNKNOWN) {
+			throw new IllegalArgumentException("UNKNOWN can not be encoded");
+		}
+		length = 0;
+		if (isBinary) {
+			encodeFrame(type, arguments);
+		} else {
+			encodeLine(type, arguments);
+		}
+		return length;
+	}
+
+	/**
+	 * Return the buffer, which holds the last command encoded from index 0.
+	 * @return
+	 * 			The buffer.
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Return the amount of bytes of the last command encoded.
+	 * @return
+	 * 			The amount of bytes.
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Return a copy of the bytes of the last command encoded.
+	 * @return
+	 * 			The bytes.
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buffer, length);
+	}
+
+	/**
+	 * Encode the command as a line of text.
+	 * @param type
+	 * 			The type of the command.
+	 * @param arguments
+	 * 			The arguments.
+	 */
+	private void encodeLine(CommandType type, String[] arguments) {
+		byte[] keyword = type.getKeywordBytes();
+		ensureCapacity(keyword.length);
+		System.arraycopy(keyword, 0, buffer, 0, keyword.length);
+		length = keyword.length;
+		for (String argument : arguments) {
+			putByte(General.DELIMITER1.charAt(0));
+			putUtf8(argument);
+		}
+		putByte(General.COMMAND_END.charAt(0));
+	}
+
+	/**
+	 * Encode the command as a frame.
+	 * @param type
+	 * 			The type of the command.
+	 * @param arguments
+	 * 			The arguments.
+	 */
+	private void encodeFrame(CommandType type, String[] arguments) {
+		length = BinaryProtocol.LENGTH_BYTES;
+		putByte(type.getOpcode());
+		for (int i = 0; i < arguments.length; i++) {
+			if (i == type.getMoveArgument()) {
+				putMove(arguments[i]);
+			} else {
+				int lengthIndex = length;
+				length = length + 2;
+				putUtf8(arguments[i]);
+				putShort(lengthIndex, length - lengthIndex - 2);
+			}
+		}
+		int frameLength = length - BinaryProtocol.LENGTH_BYTES;
+		if (frameLength > BinaryProtocol.MAX_FRAME_LENGTH) {
+			throw new IllegalArgumentException("Frame of " + frameLength + " bytes is too long");
+		}
+		putShort(0, frameLength);
+	}
+
+	/**
+	 * Write the move as row and column.
+	 * @param move
+	 * 			The move as row_column, PASS or FIRST.
+	 * @throws IllegalArgumentException
+	 * 			If the move can not be encoded.
+	 */
+	private void putMove(String move) {
+		if (move.equals(Client.PASS)) {
+			putByte(BinaryProtocol.PASS_BYTE);
+			putByte(BinaryProtocol.PASS_BYTE);
+		} else if (move.equals(Server.FIRST)) {
+			putByte(BinaryProtocol.FIRST_BYTE);
+			putByte(BinaryProtocol.FIRST_BYTE);
+		} else {
+			int delimiter = move.indexOf(General.DELIMITER2);
+			int row = parseCoordinate(move, 0, delimiter);
+			int column = parseCoordinate(move, delimiter + 1, move.length());
+			if (delimiter < 0 || row < 0 || column < 0) {
+				throw new IllegalArgumentException("Move " + move + " can not be encoded");
+			}
+			putByte(row);
+			putByte(column);
+		}
+	}
+
+	/**
+	 * Parse the coordinate of a move without creating a String.
+	 * @param move
+	 * 			The move.
+	 * @param start
+	 * 			The index of the first digit.
+	 * @param end
+	 * 			The index after the last digit.
+	 * @return
+	 * 			The coordinate, or -1 if it is not a number below the reserved bytes.
+	 */
+	private static int parseCoordinate(String move, int start, int end) {
+		if (start < 0 || start >= end || end - start > 3) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = move.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value < BinaryProtocol.FIRST_BYTE ? value : -1;
+	}
+
+	/**
+	 * Write the UTF-8 bytes of the provided text.
+	 * @param text
+	 * 			The text.
+	 */
+	private void putUtf8(String text) {
+		ensureCapacity(length + 3 * text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				buffer[length] = (byte) c;
+				length++;
+			} else if (c < 0x800) {
+				buffer[length] = (byte) (0xC0 | c >> 6);
+				buffer[length + 1] = (byte) (0x80 | c & 0x3F);
+				length = length + 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < text.length() &&
+					Character.isLowSurrogate(text.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+				buffer[length] = (byte) (0xF0 | codePoint >> 18);
+				buffer[length + 1] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+				buffer[length + 2] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+				buffer[length + 3] = (byte) (0x80 | codePoint & 0x3F);
+				length = length + 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				buffer[length] = (byte) '?';
+				length++;
+			} else {
+				buffer[length] = (byte) (0xE0 | c >> 12);
+				buffer[length + 1] = (byte) (0x80 | c >> 6 & 0x3F);
+				buffer[length + 2] = (byte) (0x80 | c & 0x3F);
+				length = length + 3;
+			}
+		}
+	}
+
+	/**
+	 * Write one byte.
+	 * @param value
+	 * 			The byte.
+	 */
+	private void putByte(int value) {
+		ensureCapacity(length + 1);
+		buffer[length] = (byte) value;
+		length++;
+	}
+
+	/**
+	 * Write two bytes at the provided index, which was written before.
+	 * @param index
+	 * 			The index.
+	 * @param value
+	 * 			The value from 0 to 65535.
+	 */
+	private void putShort(int index, int value) {
+		buffer[index] = (byte) (value >> 8);
+		buffer[index + 1] = (byte) value;
+	}
+
+	/**
+	 * Grow the buffer to at least the provided capacity.
+	 * @param capacity
+	 * 			The capacity.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (buffer.length < capacity) {
+			buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+		}
+	}
+
+}
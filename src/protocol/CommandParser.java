@@ -0,0 +1,144 @@
+package protocol;
+
+import java.util.Arrays;
+
+import protocol.Protocol.General;
+
+/**
+ * Parse the lines and frames read from a connection into a reused Command.
+ * A line is split on the delimiter in place, a frame is copied into a reused buffer
+ * with its moves kept as their row and column, so after warming up no objects are created.
+ * A CommandParser is used by one reading thread.
+ * @author janine.kleinrot
+ */
+public class CommandParser {
+
+	/** The initial size of the buffer of the arguments of a frame. */
+	private static final int BUFFER_SIZE = 128;
+
+	/** The delimiter between the keyword and the arguments of a line. */
+	private static final byte DELIMITER = (byte) General.DELIMITER1.charAt(0);
+
+	/** The command that is returned for every message. */
+	private Command command;
+
+	/** The buffer of the arguments of a frame. */
+	private byte[] buffer;
+
+	/**
+	 * Create a new CommandParser.
+	 */
+	public CommandParser() {
+		command = new Command();
+		buffer = new byte[BUFFER_SIZE];
+	}
+
+	/**
+	 * Parse the provided line of text. The line is not copied,
+	 * so it must not change while the command is used.
+	 * @param line
+	 * 			The bytes of the line, without the command end.
+	 * @param length
+	 * 			The length of the line.
+	 * @return
+	 * 			The command, valid until the next message is parsed.
+	 */
+	public Command parseLine(byte[] line, int length) {
+		int end = indexOfDelimiter(line, 0, length);
+		command.reset(CommandType.fromKeyword(line, 0, end), line);
+		while (end < length) {
+			int start = end + 1;
+			end = indexOfDelimiter(line, start, length);
+			command.addArgument(start, end);
+		}
+		command.removeTrailingEmptyArguments();
+		return command;
+	}
+
+	/**
+	 * Parse the provided frame of the binary framing.
+	 * @param frame
+	 * 			The bytes of the frame, starting with the opcode, without the length.
+	 * @param length
+	 * 			The length of the frame.
+	 * @return
+	 * 			The command, valid until the next message is parsed,
+	 * 			of type UNKNOWN if the frame can not be decoded.
+	 */
+	public Command parseFrame(byte[] frame, int length) {
+		CommandType type = length > 0 ? CommandType.fromOpcode(frame[0] & 0xFF) :
+				CommandType.UNKNOWN;
+		command.reset(type, buffer);
+		if (type == CommandType.UNKNOWN) {
+			return command;
+		}
+		int position = 1;
+		int bufferLength = 0;
+		while (position < length) {
+			if (position + 2 > length) {
+				return invalidFrame();
+			}
+			int first = frame[position] & 0xFF;
+			int second = frame[position + 1] & 0xFF;
+			position = position + 2;
+			if (command.getArgumentCount() == type.getMoveArgument()) {
+				command.addMove(first, second);
+			} else {
+				int start = bufferLength;
+				int argumentLength = first << 8 | second;
+				if (position + argumentLength > length) {
+					return invalidFrame();
+				}
+				ensureCapacity(bufferLength + argumentLength);
+				System.arraycopy(frame, position, buffer, bufferLength, argumentLength);
+				position = position + argumentLength;
+				bufferLength = bufferLength + argumentLength;
+				command.addArgument(start, bufferLength);
+			}
+		}
+		return command;
+	}
+
+	/**
+	 * Return the command as UNKNOWN, since the frame can not be decoded.
+	 * @return
+	 * 			The command.
+	 */
+	private Command invalidFrame() {
+		command.reset(CommandType.UNKNOWN, buffer);
+		return command;
+	}
+
+	/**
+	 * Grow the buffer to at least the provided capacity.
+	 * @param capacity
+	 * 			The capacity.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (buffer.length < capacity) {
+			buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+			command.setBytes(buffer);
+		}
+	}
+
+	/**
+	 * Return the index of the next delimiter, or the end if there is none.
+	 * @param line
+	 * 			The line.
+	 * @param from
+	 * 			The index to start at.
+	 * @param end
+	 * 			The end of the line.
+	 * @return
+	 * 			The index.
+	 */
+	private static int indexOfDelimiter(byte[] line, int from, int end) {
+		for (int i = from; i < end; i++) {
+			if (line[i] == DELIMITER) {
+				return i;
+			}
+		}
+		return end;
+	}
+
+}
@@ -0,0 +1,165 @@
+package protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import protocol.Protocol.Client;
+import protocol.Protocol.Server;
+
+/**
+ * The commands of the Protocol, sent by the GoClient, the GoServer or both.
+ * The ordinal of a command is its opcode in the binary framing.
+ * @author janine.kleinrot
+ */
+public enum CommandType {
+
+	UNKNOWN(""),
+	NAME(Client.NAME),
+	MOVE(Client.MOVE, 0),
+	SETTINGS(Client.SETTINGS),
+	QUIT(Client.QUIT),
+	EXIT(Client.EXIT),
+	REQUESTGAME(Client.REQUESTGAME),
+	ACCEPTGAME(Client.ACCEPTGAME),
+	DECLINEGAME(Client.DECLINEGAME),
+	LOBBY(Client.LOBBY),
+	CHAT(Client.CHAT),
+	LEADERBOARD(Client.LEADERBOARD),
+	START(Server.START),
+	TURN(Server.TURN, 1),
+	ENDGAME(Server.ENDGAME),
+	ERROR(Server.ERROR),
+	DECLINED(Server.DECLINED),
+	OBSERVE(SpectatorProtocol.OBSERVE),
+	BOARD(SpectatorProtocol.BOARD);
+
+	/** The commands by opcode. */
+	private static final CommandType[] BY_OPCODE = values();
+
+	/** The commands by the first character of their keyword. */
+	private static final CommandType[][] BY_FIRST_CHARACTER = new CommandType[128][];
+
+	static {
+		for (CommandType type : BY_OPCODE) {
+			if (type != UNKNOWN) {
+				char first = type.keyword.charAt(0);
+				CommandType[] types = BY_FIRST_CHARACTER[first];
+				if (types == null) {
+					types = new CommandType[] {type};
+				} else {
+					types = Arrays.copyOf(types, types.length + 1);
+					types[types.length - 1] = type;
+				}
+				BY_FIRST_CHARACTER[first] = types;
+			}
+		}
+	}
+
+	/** The keyword of the command in the text messages. */
+	private final String keyword;
+
+	/** The keyword of the command as ASCII bytes. */
+	private final byte[] keywordBytes;
+
+	/** The argument that holds a move, or -1 if the command has no move. */
+	private final int moveArgument;
+
+	/**
+	 * Create a command without move.
+	 * @param keyword
+	 * 			The keyword.
+	 */
+	CommandType(String keyword) {
+		this(keyword, -1);
+	}
+
+	/**
+	 * Create a command.
+	 * @param keyword
+	 * 			The keyword.
+	 * @param moveArgument
+	 * 			The argument that holds a move, or -1 if the command has no move.
+	 */
+	CommandType(String keyword, int moveArgument) {
+		this.keyword = keyword;
+		this.keywordBytes = keyword.getBytes(StandardCharsets.US_ASCII);
+		this.moveArgument = moveArgument;
+	}
+
+	/**
+	 * Return the keyword of the command in the text messages.
+	 * @return
+	 * 			The keyword.
+	 */
+	public String getKeyword() {
+		return keyword;
+	}
+
+	/**
+	 * Return the keyword of the command as ASCII bytes. The array must not be changed.
+	 * @return
+	 * 			The keyword.
+	 */
+	byte[] getKeywordBytes() {
+		return keywordBytes;
+	}
+
+	/**
+	 * Return the opcode of the command in the binary framing.
+	 * @return
+	 * 			The opcode.
+	 */
+	public int getOpcode() {
+		return ordinal();
+	}
+
+	/**
+	 * Return the argument that holds a move.
+	 * @return
+	 * 			The index of the argument, or -1 if the command has no move.
+	 */
+	public int getMoveArgument() {
+		return moveArgument;
+	}
+
+	/**
+	 * Return the command with the provided opcode.
+	 * @param opcode
+	 * 			The opcode.
+	 * @return
+	 * 			The command, or UNKNOWN if no command has the opcode.
+	 */
+	public static CommandType fromOpcode(int opcode) {
+		return opcode > 0 && opcode < BY_OPCODE.length ? BY_OPCODE[opcode] : UNKNOWN;
+	}
+
+	/**
+	 * Return the command with the keyword in the provided bytes.
+	 * The candidates are looked up by the first character and compared byte by byte,
+	 * so no String is created.
+	 * @param bytes
+	 * 			The bytes.
+	 * @param start
+	 * 			The index of the first byte of the keyword.
+	 * @param end
+	 * 			The index after the last byte of the keyword.
+	 * @return
+	 * 			The command, or UNKNOWN if no command has the keyword.
+	 */
+	public static CommandType fromKeyword(byte[] bytes, int start, int end) {
+		if (start == end || bytes[start] < 0) {
+			return UNKNOWN;
+		}
+		CommandType[] types = BY_FIRST_CHARACTER[bytes[start]];
+		if (types != null) {
+			for (CommandType type : types) {
+				if (Arrays.equals(type.keywordBytes, 0, type.keywordBytes.length,
+						bytes, start, end)) {
+					return type;
+				}
+			}
+		}
+		return UNKNOWN;
+	}
+
+}
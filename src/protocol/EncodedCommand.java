@@ -0,0 +1,89 @@
+package protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A command that is encoded once, as a line of text and as a frame of the binary framing,
+ * so it can be sent to many recipients without encoding it again for every recipient.
+ * An EncodedCommand is immutable and can be shared by any number of threads.
+ * @author janine.kleinrot
+ */
+public final class EncodedCommand {
+
+	/** The type of the command. */
+	private final CommandType type;
+
+	/** The bytes of the command as a line of text. */
+	private final byte[] line;
+
+	/** The bytes of the command as a frame. */
+	private final byte[] frame;
+
+	/**
+	 * Create a new EncodedCommand.
+	 * @param type
+	 * 			The type of the command.
+	 * @param line
+	 * 			The bytes of the command as a line of text.
+	 * @param frame
+	 * 			The bytes of the command as a frame.
+	 */
+	private EncodedCommand(CommandType type, byte[] line, byte[] frame) {
+		this.type = type;
+		this.line = line;
+		this.frame = frame;
+	}
+
+	/**
+	 * Encode the command with the provided arguments in both forms.
+	 * @param type
+	 * 			The type of the command.
+	 * @param arguments
+	 * 			The arguments.
+	 * @return
+	 * 			The encoded command.
+	 * @throws IllegalArgumentException
+	 * 			If the command can not be encoded.
+	 */
+	public static EncodedCommand encode(CommandType type, String... arguments) {
+		CommandEncoder encoder = new CommandEncoder();
+		encoder.encode(type, arguments);
+		byte[] line = encoder.toByteArray();
+		encoder.setBinary(true);
+		encoder.encode(type, arguments);
+		return new EncodedCommand(type, line, encoder.toByteArray());
+	}
+
+	/**
+	 * Return the type of the command.
+	 * @return
+	 * 			The type.
+	 */
+	public CommandType getType() {
+		return type;
+	}
+
+	/**
+	 * Return a read-only view of the bytes of the command for one recipient.
+	 * The view shares the bytes with all other views.
+	 * @param isBinary
+	 * 			True for the frame and false for the line of text.
+	 * @return
+	 * 			The view, positioned at the first byte.
+	 */
+	public ByteBuffer getBuffer(boolean isBinary) {
+		return ByteBuffer.wrap(isBinary ? frame : line).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Return the amount of bytes of the command.
+	 * @param isBinary
+	 * 			True for the frame and false for the line of text.
+	 * @return
+	 * 			The amount of bytes.
+	 */
+	public int getLength(boolean isBinary) {
+		return isBinary ? frame.length : line.length;
+	}
+
+}
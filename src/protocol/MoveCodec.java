@@ -0,0 +1,249 @@
+package protocol;
+
+import game.board.NeighborTable;
+import protocol.Protocol.Client;
+import protocol.Protocol.General;
+
+/**
+ * Converts the moves of the Protocol, written as row_column, to and from the index
+ * row * size + column of the intersection, so a move travels from the parsed command
+ * to the board as a single int. Parsing reads the digits without splitting the move,
+ * from a String or from the bytes a Command was read from, and the texts of the moves
+ * of the boards up to MAX_SIZE are created once and shared.
+ * @author janine.kleinrot
+ */
+public class MoveCodec {
+
+	/** The index of a move that is not written as row_column. */
+	public static final int INVALID = -1;
+
+	/** The index of a move written as row_column that is not on the board. */
+	public static final int NOT_ON_BOARD = -2;
+
+	/** The index of PASS. */
+	public static final int PASS = -3;
+
+	/** The largest board size whose moves are created once. */
+	public static final int MAX_SIZE = NeighborTable.MAX_SIZE;
+
+	/** The maximum amount of digits of a row or column. */
+	private static final int MAX_DIGITS = 9;
+
+	/** The texts of the moves by board size and index. */
+	private static final String[][] MOVES = new String[MAX_SIZE + 1][];
+
+	static {
+		for (int size = 1; size <= MAX_SIZE; size++) {
+			MOVES[size] = new String[size * size];
+			for (int index = 0; index < size * size; index++) {
+				MOVES[size][index] = index / size + General.DELIMITER2 + index % size;
+			}
+		}
+	}
+
+	/**
+	 * The moves are only converted through the static methods.
+	 */
+	private MoveCodec() {
+	}
+
+	/**
+	 * Return the index of the provided move at a board of the provided size.
+	 * @param move
+	 * 			The move as row_column or PASS.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The index of the intersection, PASS for PASS, INVALID if the move is not
+	 * 			written as row_column or NOT_ON_BOARD if the row or the column is not on
+	 * 			the board.
+	 */
+	public static int parse(String move, int size) {
+		if (move.equals(Client.PASS)) {
+			return PASS;
+		}
+		int delimiter = move.indexOf(General.DELIMITER2);
+		if (delimiter < 0) {
+			return INVALID;
+		}
+		return toIndex(parseCoordinate(move, 0, delimiter, size),
+				parseCoordinate(move, delimiter + 1, move.length(), size), size);
+	}
+
+	/**
+	 * Return the index of the move written in the provided bytes at a board of the
+	 * provided size, without creating a String.
+	 * @param bytes
+	 * 			The bytes of the move as row_column or PASS in ASCII.
+	 * @param start
+	 * 			The index of the first byte of the move.
+	 * @param end
+	 * 			The index after the last byte of the move.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The index of the intersection, PASS for PASS, INVALID if the move is not
+	 * 			written as row_column or NOT_ON_BOARD if the row or the column is not on
+	 * 			the board.
+	 */
+	public static int parse(byte[] bytes, int start, int end, int size) {
+		if (isPass(bytes, start, end)) {
+			return PASS;
+		}
+		int delimiter = start;
+		while (delimiter < end && bytes[delimiter] != General.DELIMITER2.charAt(0)) {
+			delimiter++;
+		}
+		if (delimiter == end) {
+			return INVALID;
+		}
+		return toIndex(parseCoordinate(bytes, start, delimiter, size),
+				parseCoordinate(bytes, delimiter + 1, end, size), size);
+	}
+
+	/**
+	 * Return the index of the move with the provided row and column at a board of the
+	 * provided size.
+	 * @param row
+	 * 			The row, INVALID or NOT_ON_BOARD.
+	 * @param column
+	 * 			The column, INVALID or NOT_ON_BOARD.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The index of the intersection, INVALID if the row or the column is INVALID
+	 * 			or NOT_ON_BOARD if it is not on the board.
+	 */
+	public static int toIndex(int row, int column, int size) {
+		if (row == INVALID || column == INVALID) {
+			return INVALID;
+		} else if (row == NOT_ON_BOARD || column == NOT_ON_BOARD || row >= size ||
+				column >= size) {
+			return NOT_ON_BOARD;
+		}
+		return row * size + column;
+	}
+
+	/**
+	 * Whether the provided bytes are PASS.
+	 * @param bytes
+	 * 			The bytes.
+	 * @param start
+	 * 			The index of the first byte.
+	 * @param end
+	 * 			The index after the last byte.
+	 * @return
+	 * 			True if the bytes are PASS in ASCII and false otherwise.
+	 */
+	private static boolean isPass(byte[] bytes, int start, int end) {
+		if (end - start != Client.PASS.length()) {
+			return false;
+		}
+		for (int i = 0; i < Client.PASS.length(); i++) {
+			if (bytes[start + i] != Client.PASS.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parse the coordinate of a move without creating a String.
+	 * @param move
+	 * 			The move.
+	 * @param start
+	 * 			The index of the first character.
+	 * @param end
+	 * 			The index after the last character.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The coordinate, INVALID if it is not a number or NOT_ON_BOARD if it is
+	 * 			negative or not smaller than the size.
+	 */
+	private static int parseCoordinate(String move, int start, int end, int size) {
+		boolean isNegative = start < end && move.charAt(start) == '-';
+		if (isNegative) {
+			start++;
+		}
+		if (start >= end) {
+			return INVALID;
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = move.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return INVALID;
+			}
+			value = toCoordinate(value, digit, i - start, size);
+		}
+		return (isNegative && value > 0) || value >= size ? NOT_ON_BOARD : value;
+	}
+
+	/**
+	 * Parse the coordinate of a move in ASCII bytes.
+	 * @param bytes
+	 * 			The bytes of the move.
+	 * @param start
+	 * 			The index of the first byte.
+	 * @param end
+	 * 			The index after the last byte.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The coordinate, INVALID if it is not a number or NOT_ON_BOARD if it is
+	 * 			negative or not smaller than the size.
+	 */
+	private static int parseCoordinate(byte[] bytes, int start, int end, int size) {
+		boolean isNegative = start < end && bytes[start] == '-';
+		if (isNegative) {
+			start++;
+		}
+		if (start >= end) {
+			return INVALID;
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				return INVALID;
+			}
+			value = toCoordinate(value, digit, i - start, size);
+		}
+		return (isNegative && value > 0) || value >= size ? NOT_ON_BOARD : value;
+	}
+
+	/**
+	 * Add the provided digit to the coordinate read so far.
+	 * @param value
+	 * 			The coordinate read so far.
+	 * @param digit
+	 * 			The digit.
+	 * @param position
+	 * 			The position of the digit in the coordinate.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The coordinate, or the size once it has more than MAX_DIGITS digits.
+	 */
+	private static int toCoordinate(int value, int digit, int position, int size) {
+		return position < MAX_DIGITS ? value * 10 + digit : size;
+	}
+
+	/**
+	 * Return the move at the intersection with the provided index as row_column.
+	 * @param index
+	 * 			The index of the intersection.
+	 * @param size
+	 * 			The size of the board.
+	 * @return
+	 * 			The shared move if the size is at most MAX_SIZE and a new move otherwise.
+	 */
+	public static String format(int index, int size) {
+		if (size > 0 && size <= MAX_SIZE) {
+			return MOVES[size][index];
+		}
+		return index / size + General.DELIMITER2 + index % size;
+	}
+
+}
@@ -0,0 +1,37 @@
+package protocol;
+
+/**
+ * The commands with which a GoClient watches a game of other GoClients without playing.<br>
+ * Format: OBSERVE player (to the GoServer)<br>
+ * The GoClient starts watching the game the player plays, and stops watching the game it
+ * watched before. OBSERVE without a player stops watching.
+ * If the player does not play a game, the GoServer answers with ERROR OTHER.<br>
+ * Format: BOARD boardsize blackplayer whiteplayer playertomove stones score (to the GoClient)<br>
+ * Example: BOARD 5 piet jan piet .B...W..................B 1<br>
+ * The snapshot of the game, with the stones row by row as B, W or . for an empty
+ * intersection, and the live area score of black minus the area score of white without
+ * komi, counting every stone as alive. It is sent when the GoClient starts watching,
+ * followed by the TURN and ENDGAME commands of the game that the players receive as well.
+ * The GoServer sends a new snapshot instead of the TURN commands the GoClient could not
+ * keep up with.
+ * The GoClient stops watching after the ENDGAME command.
+ * @author janine.kleinrot
+ */
+public class SpectatorProtocol {
+
+	/** The keyword of the command to watch a game. */
+	public static final String OBSERVE = "OBSERVE";
+
+	/** The keyword of the snapshot of a game. */
+	public static final String BOARD = "BOARD";
+
+	/** The character of an intersection with a black stone. */
+	public static final char BLACK_STONE = 'B';
+
+	/** The character of an intersection with a white stone. */
+	public static final char WHITE_STONE = 'W';
+
+	/** The character of an empty intersection. */
+	public static final char EMPTY = '.';
+
+}
@@ -0,0 +1,168 @@
+package protocol.test;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import protocol.BinaryProtocol;
+import protocol.Command;
+import protocol.CommandEncoder;
+import protocol.CommandParser;
+import protocol.CommandType;
+import protocol.MoveCodec;
+import protocol.Protocol.Client;
+import protocol.Protocol.General;
+import protocol.Protocol.Server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for the binary framing of BinaryProtocol.
+ * @author janine.kleinrot
+ */
+public class BinaryProtocolTest {
+
+	/** Test variable for a CommandEncoder object that encodes frames. */
+	private CommandEncoder encoder;
+
+	/** Test variable for a CommandParser object. */
+	private CommandParser parser;
+
+	/**
+	 * Create an encoder of frames and a parser.
+	 */
+	@Before
+	public void setUp() {
+		encoder = new CommandEncoder();
+		encoder.setBinary(true);
+		parser = new CommandParser();
+	}
+
+	/**
+	 * Test that a move is encoded in two bytes after the length and the opcode.
+	 */
+	@Test
+	public void testEncodeMove() {
+		encoder.encode(CommandType.MOVE, "3_18");
+		byte[] frame = encoder.toByteArray();
+		assertArrayEquals(new byte[] {0, 3, (byte) CommandType.MOVE.getOpcode(), 3, 18}, frame);
+		assertArrayEquals(new String[] {Client.MOVE, "3_18"}, parse(frame));
+	}
+
+	/**
+	 * Test that the move of a frame is read as an index without being written as text.
+	 */
+	@Test
+	public void testParseMove() {
+		Command command = parser.parseFrame(new byte[] {
+			(byte) CommandType.MOVE.getOpcode(), 3, 18}, 3);
+		assertEquals(3 * 19 + 18, command.getMove(0, 19));
+		assertEquals(MoveCodec.NOT_ON_BOARD, command.getMove(0, 9));
+		command = parser.parseFrame(new byte[] {(byte) CommandType.MOVE.getOpcode(),
+			(byte) 0xFF, (byte) 0xFF}, 3);
+		assertEquals(MoveCodec.PASS, command.getMove(0, 19));
+		assertTrue(command.isArgument(0, Client.PASS));
+	}
+
+	/**
+	 * Test that the frames of a game are parsed into the words of the text messages.
+	 */
+	@Test
+	public void testEncodeAndParse() {
+		String[][] commands = {{Client.MOVE, Client.PASS},
+			{Server.TURN, "piet", Server.FIRST, "piet"},
+			{Server.TURN, "piet", "0_0", "jän"},
+			{Server.START, "2", General.BLACK, "19", "jan", "piet"},
+			{Server.ENDGAME, Server.FINISHED, "piet", "12", "jan", "10"},
+			{Client.QUIT}};
+		for (String[] words : commands) {
+			String[] arguments = new String[words.length - 1];
+			System.arraycopy(words, 1, arguments, 0, arguments.length);
+			encoder.encode(getType(words[0]), arguments);
+			assertArrayEquals(words, parse(encoder.toByteArray()));
+		}
+	}
+
+	/**
+	 * Test that only a NAME command with an eighth flag of 1 asks for the binary framing.
+	 */
+	@Test
+	public void testIsRequested() {
+		String name = Client.NAME + "$piet$" + Client.VERSION + "$6$" + Client.EXTENSIONS +
+				"$0$0$0$0$0$0$0";
+		assertFalse(BinaryProtocol.isRequested(parseLine(name)));
+		assertFalse(BinaryProtocol.hasBinaryFlag(parseLine(name)));
+		assertTrue(BinaryProtocol.hasBinaryFlag(parseLine(name + "$0")));
+		assertFalse(BinaryProtocol.isRequested(parseLine(name + "$0")));
+		assertTrue(BinaryProtocol.isRequested(parseLine(name + "$1")));
+	}
+
+	/**
+	 * Test that an unknown or truncated frame is parsed into an unknown command.
+	 */
+	@Test
+	public void testParseInvalidFrame() {
+		assertEquals(CommandType.UNKNOWN, parser.parseFrame(new byte[] {(byte) 200}, 1).getType());
+		assertEquals(CommandType.UNKNOWN, parser.parseFrame(new byte[0], 0).getType());
+		assertEquals(CommandType.UNKNOWN, parser.parseFrame(new byte[] {
+			(byte) CommandType.TURN.getOpcode(), 0, 4, 'p'}, 4).getType());
+	}
+
+	/**
+	 * Test that an invalid move can not be encoded.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testEncodeInvalidMove() {
+		encoder.encode(CommandType.MOVE, "3-18");
+	}
+
+	/**
+	 * Parse the provided frame, including the length, into words.
+	 * @param frame
+	 * 			The frame.
+	 * @return
+	 * 			The keyword followed by the arguments.
+	 */
+	private String[] parse(byte[] frame) {
+		int length = (frame[0] & 0xFF) << 8 | (frame[1] & 0xFF);
+		assertEquals(frame.length - BinaryProtocol.LENGTH_BYTES, length);
+		byte[] bytes = new byte[length];
+		System.arraycopy(frame, BinaryProtocol.LENGTH_BYTES, bytes, 0, length);
+		Command command = parser.parseFrame(bytes, length);
+		String[] words = new String[command.getArgumentCount() + 1];
+		words[0] = command.getType().getKeyword();
+		for (int i = 0; i < command.getArgumentCount(); i++) {
+			words[i + 1] = command.getArgument(i);
+		}
+		return words;
+	}
+
+	/**
+	 * Parse the provided line of text.
+	 * @param line
+	 * 			The line.
+	 * @return
+	 * 			The command.
+	 */
+	private Command parseLine(String line) {
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		return parser.parseLine(bytes, bytes.length);
+	}
+
+	/**
+	 * Return the type of the command with the provided keyword.
+	 * @param keyword
+	 * 			The keyword.
+	 * @return
+	 * 			The type.
+	 */
+	private CommandType getType(String keyword) {
+		byte[] bytes = keyword.getBytes(StandardCharsets.US_ASCII);
+		return CommandType.fromKeyword(bytes, 0, bytes.length);
+	}
+
+}
@@ -0,0 +1,137 @@
+package protocol.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import protocol.CoalescingWriter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test program for CoalescingWriter.
+ * @author janine.kleinrot
+ */
+public class CoalescingWriterTest {
+
+	/** Test variable for a stream that counts its writes. */
+	private CountingOutputStream out;
+
+	/** Test variable for a scheduler of the delayed writes. */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Create the stream and the scheduler.
+	 */
+	@Before
+	public void setUp() {
+		out = new CountingOutputStream();
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+	}
+
+	/**
+	 * Stop the scheduler.
+	 */
+	@After
+	public void tearDown() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Test that without a flush latency every command is written right away.
+	 */
+	@Test
+	public void testWriteWithoutLatency() throws IOException {
+		CoalescingWriter writer = new CoalescingWriter(out);
+		writer.write(bytes("TURN$a$1_1$b\n"), 13);
+		assertEquals("TURN$a$1_1$b\n", out.toString(StandardCharsets.UTF_8));
+		assertEquals(1, out.getWriteCount());
+		writer.write(bytes("TURN$b$2_2$a\n"), 13);
+		assertEquals(2, out.getWriteCount());
+	}
+
+	/**
+	 * Test that the commands written within the flush latency are written together in order.
+	 */
+	@Test
+	public void testWriteWithLatency() throws IOException, InterruptedException {
+		CoalescingWriter writer = new CoalescingWriter(out, 50, scheduler);
+		writer.write(bytes("CHAT$a$hi\n"), 10);
+		writer.write(bytes("CHAT$b$hello\n"), 13);
+		assertEquals(0, out.getWriteCount());
+		Thread.sleep(500);
+		assertEquals("CHAT$a$hi\nCHAT$b$hello\n", out.toString(StandardCharsets.UTF_8));
+		assertEquals(1, out.getWriteCount());
+	}
+
+	/**
+	 * Test that flush writes the pending commands before the flush latency passed.
+	 */
+	@Test
+	public void testFlush() throws IOException {
+		CoalescingWriter writer = new CoalescingWriter(out, 60000, scheduler);
+		writer.write(bytes("QUIT\n"), 5);
+		writer.write(bytes("EXIT\n"), 5);
+		writer.flush();
+		assertEquals("QUIT\nEXIT\n", out.toString(StandardCharsets.UTF_8));
+		assertEquals(1, out.getWriteCount());
+	}
+
+	/**
+	 * Test that the pending commands are written without waiting when they fill the buffer.
+	 */
+	@Test
+	public void testWriteFullBuffer() throws IOException {
+		CoalescingWriter writer = new CoalescingWriter(out, 60000, scheduler);
+		byte[] command = bytes("CHAT$a$0123456789\n");
+		int commands = CoalescingWriter.MAX_PENDING_BYTES / command.length + 1;
+		for (int i = 0; i < commands; i++) {
+			writer.write(command, command.length);
+		}
+		assertEquals(1, out.getWriteCount());
+		assertEquals(commands * command.length, out.size());
+	}
+
+	/**
+	 * Return the UTF-8 bytes of the provided text.
+	 * @param text
+	 * 			The text.
+	 * @return
+	 * 			The bytes.
+	 */
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A stream that keeps the bytes and counts the writes.
+	 */
+	private static class CountingOutputStream extends ByteArrayOutputStream {
+
+		/** The amount of writes. */
+		private int writeCount;
+
+		@Override
+		public synchronized void write(byte[] bytes, int offset, int length) {
+			super.write(bytes, offset, length);
+			writeCount++;
+		}
+
+		/**
+		 * Return the amount of writes.
+		 * @return
+		 * 			The amount of writes.
+		 */
+		public synchronized int getWriteCount() {
+			return writeCount;
+		}
+
+	}
+
+}
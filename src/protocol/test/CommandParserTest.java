@@ -0,0 +1,130 @@
+package protocol.test;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import protocol.Command;
+import protocol.CommandEncoder;
+import protocol.CommandParser;
+import protocol.CommandType;
+import protocol.MoveCodec;
+import protocol.Protocol.Client;
+import protocol.Protocol.General;
+import protocol.Protocol.Server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for CommandParser and CommandEncoder with lines of text.
+ * @author janine.kleinrot
+ */
+public class CommandParserTest {
+
+	/** Test variable for a CommandParser object. */
+	private CommandParser parser;
+
+	/** Test variable for a CommandEncoder object. */
+	private CommandEncoder encoder;
+
+	/**
+	 * Create a parser and an encoder of lines of text.
+	 */
+	@Before
+	public void setUp() {
+		parser = new CommandParser();
+		encoder = new CommandEncoder();
+	}
+
+	/**
+	 * Test that a line is split into the type and the arguments.
+	 */
+	@Test
+	public void testParseLine() {
+		Command command = parse(Server.START + "$2$" + General.BLACK + "$19$jan$piet");
+		assertEquals(CommandType.START, command.getType());
+		assertEquals(5, command.getArgumentCount());
+		assertTrue(command.isArgument(1, General.BLACK));
+		assertFalse(command.isArgument(1, General.WHITE));
+		assertEquals(19, command.getIntArgument(2));
+		assertEquals(-1, command.getIntArgument(3));
+		assertEquals("piet", command.getArgument(4));
+	}
+
+	/**
+	 * Test that the move of a line is read as an index without creating a String.
+	 */
+	@Test
+	public void testParseMove() {
+		assertEquals(3 * 9 + 4, parse(Client.MOVE + "$3_4").getMove(0, 9));
+		assertEquals(MoveCodec.PASS, parse(Client.MOVE + "$" + Client.PASS).getMove(0, 9));
+		assertEquals(MoveCodec.NOT_ON_BOARD, parse(Client.MOVE + "$3_9").getMove(0, 9));
+		assertEquals(MoveCodec.INVALID, parse(Client.MOVE + "$three").getMove(0, 9));
+	}
+
+	/**
+	 * Test that the same command is returned for every line and the empty arguments
+	 * at the end are removed, as String.split does.
+	 */
+	@Test
+	public void testParseReusesCommand() {
+		Command move = parse(Client.MOVE + "$1_1");
+		Command quit = parse(Client.QUIT + "$$");
+		assertSame(move, quit);
+		assertEquals(CommandType.QUIT, quit.getType());
+		assertEquals(0, quit.getArgumentCount());
+	}
+
+	/**
+	 * Test that an unknown keyword or an empty line is parsed into an unknown command.
+	 */
+	@Test
+	public void testParseUnknown() {
+		assertEquals(CommandType.UNKNOWN, parse("BOGUS$1").getType());
+		assertEquals(CommandType.UNKNOWN, parse("MOVES$1_1").getType());
+		assertEquals(CommandType.UNKNOWN, parse("").getType());
+	}
+
+	/**
+	 * Test that a name with characters outside ASCII is kept.
+	 */
+	@Test
+	public void testParseUtf8() {
+		Command command = parse(Server.TURN + "$jän$3_4$piet");
+		assertEquals("jän", command.getArgument(0));
+		assertTrue(command.isArgument(0, "jän"));
+	}
+
+	/**
+	 * Test that the encoder writes the same line as the concatenation of the protocol.
+	 */
+	@Test
+	public void testEncodeLine() {
+		int length = encoder.encode(CommandType.ENDGAME, Server.FINISHED, "piet", "12", "jän",
+				"10");
+		assertEquals(Server.ENDGAME + General.DELIMITER1 + Server.FINISHED + General.DELIMITER1 +
+				"piet" + General.DELIMITER1 + 12 + General.DELIMITER1 + "jän" +
+				General.DELIMITER1 + 10 + General.COMMAND_END,
+				new String(encoder.getBuffer(), 0, length, StandardCharsets.UTF_8));
+		length = encoder.encode(CommandType.EXIT);
+		assertEquals(Client.EXIT + General.COMMAND_END,
+				new String(encoder.getBuffer(), 0, length, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parse the provided line.
+	 * @param line
+	 * 			The line.
+	 * @return
+	 * 			The command.
+	 */
+	private Command parse(String line) {
+		byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+		return parser.parseLine(bytes, bytes.length);
+	}
+
+}
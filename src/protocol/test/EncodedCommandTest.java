@@ -0,0 +1,54 @@
+package protocol.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import org.junit.Test;
+
+import protocol.CommandEncoder;
+import protocol.CommandType;
+import protocol.EncodedCommand;
+import protocol.Protocol.Server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for EncodedCommand.
+ * @author janine.kleinrot
+ */
+public class EncodedCommandTest {
+
+	/**
+	 * Test that both forms equal the commands encoded by a CommandEncoder.
+	 */
+	@Test
+	public void testEncode() {
+		EncodedCommand command = EncodedCommand.encode(CommandType.ENDGAME, Server.FINISHED,
+				"alice", "40", "bob", "41");
+		CommandEncoder encoder = new CommandEncoder();
+		encoder.encode(CommandType.ENDGAME, Server.FINISHED, "alice", "40", "bob", "41");
+		assertEquals(ByteBuffer.wrap(encoder.toByteArray()), command.getBuffer(false));
+		assertEquals(encoder.getLength(), command.getLength(false));
+		encoder.setBinary(true);
+		encoder.encode(CommandType.ENDGAME, Server.FINISHED, "alice", "40", "bob", "41");
+		assertEquals(ByteBuffer.wrap(encoder.toByteArray()), command.getBuffer(true));
+		assertEquals(encoder.getLength(), command.getLength(true));
+		assertEquals(CommandType.ENDGAME, command.getType());
+	}
+
+	/**
+	 * Test that every recipient gets its own read-only view of the same bytes.
+	 */
+	@Test(expected = ReadOnlyBufferException.class)
+	public void testBuffersAreIndependent() {
+		EncodedCommand command = EncodedCommand.encode(CommandType.TURN, "alice", "3_4", "bob");
+		ByteBuffer first = command.getBuffer(true);
+		ByteBuffer second = command.getBuffer(true);
+		first.position(first.limit());
+		assertEquals(0, second.position());
+		assertTrue(second.isReadOnly());
+		second.put(0, (byte) 0);
+	}
+
+}
@@ -0,0 +1,63 @@
+package protocol.test;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import protocol.MoveCodec;
+import protocol.Protocol.Client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test program for MoveCodec.
+ * @author janine.kleinrot
+ */
+public class MoveCodecTest {
+
+	/**
+	 * Test the index of valid moves, moves not on the board and moves that are not numbers.
+	 */
+	@Test
+	public void testParse() {
+		assertEquals(0, MoveCodec.parse("0_0", 9));
+		assertEquals(3 * 9 + 4, MoveCodec.parse("3_4", 9));
+		assertEquals(18 * 19 + 18, MoveCodec.parse("18_18", 19));
+		assertEquals(MoveCodec.NOT_ON_BOARD, MoveCodec.parse("9_0", 9));
+		assertEquals(MoveCodec.NOT_ON_BOARD, MoveCodec.parse("0_-1", 9));
+		assertEquals(MoveCodec.NOT_ON_BOARD, MoveCodec.parse("12345678901_1", 9));
+		assertEquals(MoveCodec.INVALID, MoveCodec.parse("3", 9));
+		assertEquals(MoveCodec.INVALID, MoveCodec.parse("3_", 9));
+		assertEquals(MoveCodec.INVALID, MoveCodec.parse("a_4", 9));
+		assertEquals(MoveCodec.INVALID, MoveCodec.parse("3_4_5", 9));
+		assertEquals(MoveCodec.PASS, MoveCodec.parse(Client.PASS, 9));
+	}
+
+	/**
+	 * Test that a move is parsed from a range of bytes as from a String.
+	 */
+	@Test
+	public void testParseBytes() {
+		byte[] bytes = "MOVE$3_4$PASS$9_0$a_4".getBytes(StandardCharsets.US_ASCII);
+		assertEquals(3 * 9 + 4, MoveCodec.parse(bytes, 5, 8, 9));
+		assertEquals(MoveCodec.PASS, MoveCodec.parse(bytes, 9, 13, 9));
+		assertEquals(MoveCodec.NOT_ON_BOARD, MoveCodec.parse(bytes, 14, 17, 9));
+		assertEquals(MoveCodec.INVALID, MoveCodec.parse(bytes, 18, 21, 9));
+		assertEquals(MoveCodec.INVALID, MoveCodec.parse(bytes, 0, 4, 9));
+	}
+
+	/**
+	 * Test that the moves of a board size are shared and that parsing them gives the index.
+	 */
+	@Test
+	public void testFormat() {
+		assertEquals("3_4", MoveCodec.format(3 * 9 + 4, 9));
+		assertSame(MoveCodec.format(3 * 9 + 4, 9), MoveCodec.format(3 * 9 + 4, 9));
+		assertEquals("20_1", MoveCodec.format(20 * 21 + 1, 21));
+		for (int index = 0; index < 19 * 19; index++) {
+			assertEquals(index, MoveCodec.parse(MoveCodec.format(index, 19), 19));
+		}
+	}
+
+}
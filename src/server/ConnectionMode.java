@@ -0,0 +1,17 @@
+package server;
+
+/**
+ * The way the GoServer handles the connections of the GoClients and runs the games.
+ * Possible values are:
+ * PLATFORM_THREADS, a platform thread for every connection
+ * VIRTUAL_THREADS, a virtual thread for every connection and every event of a game
+ * NIO, event loops for all connections
+ * Except for VIRTUAL_THREADS the events of the games are handled by a platform thread 
+ * per processor.
+ * @author janine.kleinrot
+ */
+public enum ConnectionMode {
+	
+	PLATFORM_THREADS, VIRTUAL_THREADS, NIO;
+
+}
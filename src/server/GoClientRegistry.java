@@ -0,0 +1,193 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import client.GoClientState;
+import client.handler.GoClientHandler;
+
+/**
+ * The client handlers of the GoClients connected to the GoServer, by the name of the GoClient.
+ * Adding, finding and removing a client handler take constant time and can be done by any
+ * thread. The amount of client handlers in every GoClientState is kept up to date as
+ * the client handlers report their changes of state.
+ * @author janine.kleinrot
+ */
+public class GoClientRegistry {
+
+	/** The GoClientStates by ordinal. */
+	private static final GoClientState[] GO_CLIENT_STATES = GoClientState.values();
+
+	/** The entries of the client handlers by the name of the GoClient. */
+	private ConcurrentHashMap<String, Entry> entries;
+
+	/** The amount of client handlers in every GoClientState, by ordinal. */
+	private AtomicIntegerArray counts;
+
+	/**
+	 * Create a new empty GoClientRegistry.
+	 */
+	public GoClientRegistry() {
+		entries = new ConcurrentHashMap<String, Entry>();
+		counts = new AtomicIntegerArray(GO_CLIENT_STATES.length);
+	}
+
+	/**
+	 * Add the client handler if no client handler with the same name is added yet.
+	 * @param goClientHandler
+	 * 			The client handler.
+	 * @return
+	 * 			True if the client handler is added and false if the name is taken.
+	 */
+	public boolean add(GoClientHandler goClientHandler) {
+		String goClientName = goClientHandler.getGoClientName();
+		if (goClientName == null) {
+			return false;
+		}
+		boolean[] isAdded = new boolean[1];
+		entries.computeIfAbsent(goClientName, name -> {
+			isAdded[0] = true;
+			GoClientState goClientState = goClientHandler.getGoClientState();
+			counts.incrementAndGet(goClientState.ordinal());
+			return new Entry(goClientHandler, goClientState);
+		});
+		return isAdded[0];
+	}
+
+	/**
+	 * Remove the client handler, if it is added.
+	 * @param goClientHandler
+	 * 			The client handler.
+	 * @return
+	 * 			True if the client handler was added and false otherwise.
+	 */
+	public boolean remove(GoClientHandler goClientHandler) {
+		String goClientName = goClientHandler.getGoClientName();
+		if (goClientName == null) {
+			return false;
+		}
+		boolean[] isRemoved = new boolean[1];
+		entries.computeIfPresent(goClientName, (name, entry) -> {
+			if (entry.goClientHandler != goClientHandler) {
+				return entry;
+			}
+			isRemoved[0] = true;
+			counts.decrementAndGet(entry.goClientState.ordinal());
+			return null;
+		});
+		return isRemoved[0];
+	}
+
+	/**
+	 * Count the client handler in its current GoClientState, if it is added.
+	 * Called after every change of the GoClientState of a client handler. Since the current
+	 * state is read while the entry is locked, the counts are right after the last update
+	 * even if two threads change the state of a client handler at the same time.
+	 * @param goClientHandler
+	 * 			The client handler.
+	 */
+	public void updateGoClientState(GoClientHandler goClientHandler) {
+		String goClientName = goClientHandler.getGoClientName();
+		if (goClientName == null) {
+			return;
+		}
+		entries.computeIfPresent(goClientName, (name, entry) -> {
+			GoClientState goClientState = goClientHandler.getGoClientState();
+			if (entry.goClientHandler == goClientHandler && entry.goClientState != goClientState) {
+				counts.decrementAndGet(entry.goClientState.ordinal());
+				counts.incrementAndGet(goClientState.ordinal());
+				entry.goClientState = goClientState;
+			}
+			return entry;
+		});
+	}
+
+	/**
+	 * Return the client handler of the GoClient with the provided name.
+	 * @param goClientName
+	 * 			The name of the GoClient.
+	 * @return
+	 * 			The client handler, or null if no GoClient with this name is added.
+	 */
+	public GoClientHandler get(String goClientName) {
+		Entry entry = entries.get(goClientName);
+		return entry == null ? null : entry.goClientHandler;
+	}
+
+	/**
+	 * Return the amount of client handlers in the provided GoClientState.
+	 * @param goClientState
+	 * 			The GoClientState.
+	 * @return
+	 * 			The amount of client handlers.
+	 */
+	public int getCount(GoClientState goClientState) {
+		return counts.get(goClientState.ordinal());
+	}
+
+	/**
+	 * Return the amount of client handlers in every GoClientState.
+	 * @return
+	 * 			The amounts by GoClientState.
+	 */
+	public Map<GoClientState, Integer> getCounts() {
+		Map<GoClientState, Integer> countsByState =
+				new EnumMap<GoClientState, Integer>(GoClientState.class);
+		for (GoClientState goClientState : GO_CLIENT_STATES) {
+			countsByState.put(goClientState, counts.get(goClientState.ordinal()));
+		}
+		return countsByState;
+	}
+
+	/**
+	 * Return the amount of client handlers added.
+	 * @return
+	 * 			The amount of client handlers.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Return the client handlers added.
+	 * @return
+	 * 			A new list of the client handlers.
+	 */
+	public List<GoClientHandler> getGoClientHandlers() {
+		List<GoClientHandler> goClientHandlers = new ArrayList<GoClientHandler>(entries.size());
+		for (Entry entry : entries.values()) {
+			goClientHandlers.add(entry.goClientHandler);
+		}
+		return goClientHandlers;
+	}
+
+	/**
+	 * A client handler with the GoClientState in which it is counted.
+	 */
+	private static class Entry {
+
+		/** The client handler. */
+		private final GoClientHandler goClientHandler;
+
+		/** The GoClientState in which the client handler is counted. */
+		private GoClientState goClientState;
+
+		/**
+		 * Create a new entry.
+		 * @param goClientHandler
+		 * 			The client handler.
+		 * @param goClientState
+		 * 			The GoClientState in which the client handler is counted.
+		 */
+		private Entry(GoClientHandler goClientHandler, GoClientState goClientState) {
+			this.goClientHandler = goClientHandler;
+			this.goClientState = goClientState;
+		}
+
+	}
+
+}
@@ -0,0 +1,195 @@
+package server;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import client.GoClientState;
+import client.handler.GoClientHandler;
+import game.GoClientStateListener;
+
+/**
+ * Deliver the changes of the GoClientStates of the GoClients of one GoServer
+ * to the GoClientStateListeners subscribed to it.
+ * Publishing a change only adds it to the mailbox of every listener,
+ * so the GoClientHandler that changes its state never waits for a listener.
+ * The changes are handed to a listener by the executor one at a time
+ * in the order in which they are published, so a listener needs no locks of its own
+ * and a slow listener only delays its own changes.
+ * @author janine.kleinrot
+ */
+public class GoClientStateEventBus {
+
+	/** The subscriptions of the listeners. */
+	private List<Subscription> subscriptions;
+
+	/** The executor that hands the changes to the listeners. */
+	private Executor executor;
+
+	/**
+	 * Create a new GoClientStateEventBus that hands the changes to the listeners
+	 * on virtual threads.
+	 */
+	public GoClientStateEventBus() {
+		this(Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	/**
+	 * Create a new GoClientStateEventBus that hands the changes to the listeners
+	 * with the provided executor.
+	 * @param executor
+	 * 			The executor.
+	 */
+	public GoClientStateEventBus(Executor executor) {
+		this.executor = executor;
+		subscriptions = new CopyOnWriteArrayList<Subscription>();
+	}
+
+	/**
+	 * Subscribe the listener to the changes published from now on.
+	 * @param goClientStateListener
+	 * 			The listener.
+	 */
+	public void subscribe(GoClientStateListener goClientStateListener) {
+		subscriptions.add(new Subscription(goClientStateListener));
+	}
+
+	/**
+	 * Unsubscribe the listener, dropping the changes it has not received yet.
+	 * @param goClientStateListener
+	 * 			The listener.
+	 * @return
+	 * 			True if the listener was subscribed and false otherwise.
+	 */
+	public boolean unsubscribe(GoClientStateListener goClientStateListener) {
+		for (Subscription subscription : subscriptions) {
+			if (subscription.goClientStateListener == goClientStateListener &&
+					subscriptions.remove(subscription)) {
+				subscription.mailbox.clear();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Publish the change of the GoClientState of the GoClient to every listener.
+	 * @param goClientHandler
+	 * 			The GoClientHandler of the GoClient.
+	 * @param goClientState
+	 * 			The new GoClientState.
+	 */
+	public void publish(GoClientHandler goClientHandler, GoClientState goClientState) {
+		for (Subscription subscription : subscriptions) {
+			subscription.offer(new Event(goClientHandler, goClientState));
+		}
+	}
+
+	/**
+	 * Return the amount of subscribed listeners.
+	 * @return
+	 * 			The amount of listeners.
+	 */
+	public int getSubscriberCount() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * A change of the GoClientState of a GoClient.
+	 */
+	private static class Event {
+
+		/** The GoClientHandler of the GoClient. */
+		private final GoClientHandler goClientHandler;
+
+		/** The new GoClientState. */
+		private final GoClientState goClientState;
+
+		/**
+		 * Create a new Event.
+		 * @param goClientHandler
+		 * 			The GoClientHandler of the GoClient.
+		 * @param goClientState
+		 * 			The new GoClientState.
+		 */
+		private Event(GoClientHandler goClientHandler, GoClientState goClientState) {
+			this.goClientHandler = goClientHandler;
+			this.goClientState = goClientState;
+		}
+
+	}
+
+	/**
+	 * The mailbox of a listener, emptied by at most one task of the executor at a time.
+	 */
+	private class Subscription {
+
+		/** The listener. */
+		private final GoClientStateListener goClientStateListener;
+
+		/** The changes the listener has not received yet. */
+		private final Queue<Event> mailbox;
+
+		/** Whether a task of the executor empties the mailbox. */
+		private final AtomicBoolean isScheduled;
+
+		/**
+		 * Create a new Subscription with an empty mailbox.
+		 * @param goClientStateListener
+		 * 			The listener.
+		 */
+		private Subscription(GoClientStateListener goClientStateListener) {
+			this.goClientStateListener = goClientStateListener;
+			mailbox = new ConcurrentLinkedQueue<Event>();
+			isScheduled = new AtomicBoolean();
+		}
+
+		/**
+		 * Add the change to the mailbox and schedule a task to empty it if none is scheduled.
+		 * @param event
+		 * 			The change.
+		 */
+		private void offer(Event event) {
+			mailbox.add(event);
+			schedule();
+		}
+
+		/**
+		 * Schedule a task to empty the mailbox if it is not empty and none is scheduled.
+		 */
+		private void schedule() {
+			if (!mailbox.isEmpty() && isScheduled.compareAndSet(false, true)) {
+				executor.execute(this::deliver);
+			}
+		}
+
+		/**
+		 * Hand the changes in the mailbox to the listener.
+		 * A change published while the last change is handed over is picked up
+		 * by scheduling again after the task ends.
+		 */
+		private void deliver() {
+			try {
+				Event event = mailbox.poll();
+				while (event != null) {
+					try {
+						goClientStateListener.goClientStateChanged(event.goClientHandler,
+								event.goClientState);
+					} catch (RuntimeException e) {
+						System.out.println("GO SERVER: " + e.getMessage());
+					}
+					event = mailbox.poll();
+				}
+			} finally {
+				isScheduled.set(false);
+			}
+			schedule();
+		}
+
+	}
+
+}
@@ -3,15 +3,24 @@ package server;
 import java.io.IOException;
 import java.net.BindException;
 import java.net.ServerSocket;
+import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 import client.handler.GoClientHandler;
 import client.handler.GoClientHandlerImpl;
 import game.GameManager;
-import game.GoClientStateListener;
+import game.KoRule;
+import game.matchmaking.BoardSizePairingPolicy;
+import game.matchmaking.FifoPairingPolicy;
+import game.matchmaking.PairingPolicy;
+import game.matchmaking.RatingPairingPolicy;
+import server.nio.EventLoop;
 
 /**
  * Server to play a game of Go.
@@ -28,11 +37,29 @@ public class GoServer {
 	/**	A scanner to read input. */
 	private Scanner in;
 	
-	/** The list of client handlers. */
-	private List<GoClientHandler> goClientHandlers;
+	/** The client handlers by the name of their GoClient. */
+	private GoClientRegistry goClientRegistry;
+	
+	/** The event bus that delivers the changes of the GoClientStates to the GameManager. */
+	private GoClientStateEventBus goClientStateEventBus;
 	
 	/** The GameManager. */
-	private GoClientStateListener gameManager;
+	private GameManager gameManager;
+	
+	/** The way the connections are handled. */
+	private ConnectionMode connectionMode;
+	
+	/** The factory of the threads that handle a connection each. */
+	private ThreadFactory threadFactory;
+	
+	/** The event loops of the connections. */
+	private EventLoop[] eventLoops;
+	
+	/** The maximum time in milliseconds a command waits to be written with other commands. */
+	private long flushLatency;
+	
+	/** The scheduler of the delayed writes, or null if the flush latency is 0. */
+	private ScheduledExecutorService flushScheduler;
 	
 	/**
 	 * Create a new server with the provided port number to play a game of Go. 
@@ -42,10 +69,119 @@ public class GoServer {
 	 * 			The port of the server.
 	 */
 	public GoServer(String port) {
+		this(port, ConnectionMode.PLATFORM_THREADS);
+	}
+	
+	/**
+	 * Create a new server with the provided port number to play a game of Go. 
+	 * Read standard input using the initialized scanner.
+	 * Initialize a list of client handlers and a GameManager.
+	 * @param port
+	 * 			The port of the server.
+	 * @param connectionMode
+	 * 			The way the connections are handled.
+	 */
+	public GoServer(String port, ConnectionMode connectionMode) {
+		this(port, connectionMode, 0);
+	}
+	
+	/**
+	 * Create a new server with the provided port number to play a game of Go. 
+	 * Read standard input using the initialized scanner.
+	 * Initialize a list of client handlers and a GameManager.
+	 * @param port
+	 * 			The port of the server.
+	 * @param connectionMode
+	 * 			The way the connections are handled.
+	 * @param flushLatency
+	 * 			The maximum time in milliseconds a command waits to be written together with 
+	 * 			the next commands to the same GoClient, 0 to write the commands right away.
+	 */
+	public GoServer(String port, ConnectionMode connectionMode, long flushLatency) {
+		this(port, connectionMode, flushLatency, new FifoPairingPolicy());
+	}
+	
+	/**
+	 * Create a new server with the provided port number to play a game of Go. 
+	 * Read standard input using the initialized scanner.
+	 * Initialize a list of client handlers and a GameManager.
+	 * @param port
+	 * 			The port of the server.
+	 * @param connectionMode
+	 * 			The way the connections are handled.
+	 * @param flushLatency
+	 * 			The maximum time in milliseconds a command waits to be written together with 
+	 * 			the next commands to the same GoClient, 0 to write the commands right away.
+	 * @param pairingPolicy
+	 * 			The policy that decides which GoClients that requested a game are paired.
+	 */
+	public GoServer(String port, ConnectionMode connectionMode, long flushLatency, 
+			PairingPolicy pairingPolicy) {
+		this(port, connectionMode, flushLatency, pairingPolicy, GameManager.DEFAULT_MOVE_TIMEOUT);
+	}
+	
+	/**
+	 * Create a new server with the provided port number to play a game of Go. 
+	 * Read standard input using the initialized scanner.
+	 * Initialize a list of client handlers and a GameManager.
+	 * @param port
+	 * 			The port of the server.
+	 * @param connectionMode
+	 * 			The way the connections are handled.
+	 * @param flushLatency
+	 * 			The maximum time in milliseconds a command waits to be written together with 
+	 * 			the next commands to the same GoClient, 0 to write the commands right away.
+	 * @param pairingPolicy
+	 * 			The policy that decides which GoClients that requested a game are paired.
+	 * @param moveTimeout
+	 * 			The time in milliseconds a player has for a move, 0 if the moves are not timed.
+	 */
+	public GoServer(String port, ConnectionMode connectionMode, long flushLatency, 
+			PairingPolicy pairingPolicy, long moveTimeout) {
+		this(port, connectionMode, flushLatency, pairingPolicy, moveTimeout, KoRule.SIMPLE_KO);
+	}
+	
+	/**
+	 * Create a new server with the provided port number to play a game of Go. 
+	 * Read standard input using the initialized scanner.
+	 * Initialize a list of client handlers and a GameManager.
+	 * @param port
+	 * 			The port of the server.
+	 * @param connectionMode
+	 * 			The way the connections are handled.
+	 * @param flushLatency
+	 * 			The maximum time in milliseconds a command waits to be written together with 
+	 * 			the next commands to the same GoClient, 0 to write the commands right away.
+	 * @param pairingPolicy
+	 * 			The policy that decides which GoClients that requested a game are paired.
+	 * @param moveTimeout
+	 * 			The time in milliseconds a player has for a move, 0 if the moves are not timed.
+	 * @param koRule
+	 * 			The rule that decides which board situations may not be repeated in the games.
+	 */
+	public GoServer(String port, ConnectionMode connectionMode, long flushLatency, 
+			PairingPolicy pairingPolicy, long moveTimeout, KoRule koRule) {
 		this.port = port;
+		this.connectionMode = connectionMode;
+		this.flushLatency = flushLatency;
+		if (flushLatency > 0 && connectionMode != ConnectionMode.NIO) {
+			flushScheduler = Executors.newSingleThreadScheduledExecutor(
+					Thread.ofPlatform().name("GoServer flush").daemon().factory());
+		}
 		this.in = new Scanner(System.in);
-		this.goClientHandlers = new ArrayList<GoClientHandler>();
-		this.gameManager = new GameManager();
+		this.goClientRegistry = new GoClientRegistry();
+		this.goClientStateEventBus = new GoClientStateEventBus();
+		if (connectionMode == ConnectionMode.VIRTUAL_THREADS) {
+			threadFactory = Thread.ofVirtual().name("GoClientHandler ", 0).factory();
+			this.gameManager = GameManager.builder().koRule(koRule)
+					.gameExecutor(Executors.newVirtualThreadPerTaskExecutor())
+					.pairingPolicy(pairingPolicy).moveTimeout(moveTimeout).build();
+		} else {
+			threadFactory = Thread.ofPlatform().factory();
+			this.gameManager = GameManager.builder().koRule(koRule)
+					.pairingPolicy(pairingPolicy).moveTimeout(moveTimeout).build();
+		}
+		goClientStateEventBus.subscribe(gameManager);
 	}
 	
 	/**
@@ -53,15 +189,19 @@ public class GoServer {
 	 */
 	public void run() {
 		try {
-			serverSocket = new ServerSocket(Integer.parseInt(port));
-			System.out.println("GO SERVER: Initialized at port " + port);
-			System.out.println("GO SERVER: Waiting for clients to connect...");
-			while (true) {
-				Socket socket = serverSocket.accept();
-				GoClientHandler goClientHandler = 
-						new GoClientHandlerImpl(socket, gameManager, this);
-				Thread goClientHandlerThread = new Thread(goClientHandler);
-				goClientHandlerThread.start();
+			if (connectionMode == ConnectionMode.NIO) {
+				runEventLoops();
+			} else {
+				serverSocket = new ServerSocket(Integer.parseInt(port));
+				System.out.println("GO SERVER: Initialized at port " + port);
+				System.out.println("GO SERVER: Waiting for clients to connect...");
+				while (true) {
+					Socket socket = serverSocket.accept();
+					GoClientHandler goClientHandler = 
+							new GoClientHandlerImpl(socket, gameManager, this);
+					Thread goClientHandlerThread = threadFactory.newThread(goClientHandler);
+					goClientHandlerThread.start();
+				}
 			}
 		} catch (NumberFormatException e) {
 			System.out.println("ERROR: not a valid port number");
@@ -78,30 +218,114 @@ public class GoServer {
 	}
 	
 	/**
-	 * Add the goClientHandler to the list of client handlers.
+	 * Wait for clients to connect to the Go server and hand the connections to the event loops
+	 * in turn. 
+	 * @throws IOException
+	 * 			If the server socket channel could not be set up.
+	 */
+	private void runEventLoops() throws IOException {
+		int portNumber = Integer.parseInt(port);
+		ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+		try {
+			serverSocketChannel.bind(new InetSocketAddress(portNumber));
+		} catch (IOException e) {
+			serverSocketChannel.close();
+			throw e;
+		}
+		if (eventLoops == null) {
+			eventLoops = new EventLoop[Runtime.getRuntime().availableProcessors()];
+			for (int i = 0; i < eventLoops.length; i++) {
+				eventLoops[i] = new EventLoop();
+				eventLoops[i].start("GoServer event loop " + i);
+			}
+		}
+		System.out.println("GO SERVER: Initialized at port " + port);
+		System.out.println("GO SERVER: Waiting for clients to connect...");
+		int nextEventLoop = 0;
+		while (true) {
+			SocketChannel channel = serverSocketChannel.accept();
+			eventLoops[nextEventLoop].register(channel, gameManager, this);
+			nextEventLoop = (nextEventLoop + 1) % eventLoops.length;
+		}
+	}
+	
+	/**
+	 * Return the maximum time in milliseconds a command waits to be written.
+	 * @return
+	 * 			The flush latency, 0 if the commands are written right away.
+	 */
+	public long getFlushLatency() {
+		return flushLatency;
+	}
+	
+	/**
+	 * Return the scheduler of the delayed writes of the blocking connections.
+	 * @return
+	 * 			The scheduler, or null if the flush latency is 0 or the connections are handled
+	 * 			by event loops.
+	 */
+	public ScheduledExecutorService getFlushScheduler() {
+		return flushScheduler;
+	}
+	
+	/**
+	 * Shut down the GameManager and the scheduler of the delayed writes.
+	 * The connections are not closed.
+	 */
+	public void shutdown() {
+		gameManager.shutdown();
+		if (flushScheduler != null) {
+			flushScheduler.shutdown();
+		}
+	}
+	
+	/**
+	 * Add the goClientHandler to the registry of client handlers.
 	 * @param goClientHandler
 	 * 			The added client handler.
 	 * @return 
 	 * 			True if no GoClient tried to connect with this name and false otherwise.
 	 */
 	public boolean addGoClientHandler(GoClientHandler goClientHandler) {
-		for (GoClientHandler connectedGoClientHandler : goClientHandlers) {
-			if (connectedGoClientHandler.getGoClientName()
-					.equals(goClientHandler.getGoClientName())) {
-				return false;
-			}
-		}
-		goClientHandlers.add(goClientHandler);
-		return true;
+		return goClientRegistry.add(goClientHandler);
+	}
+	
+	/**
+	 * Return the client handler of the GoClient with the provided name.
+	 * @param goClientName
+	 * 			The name of the GoClient.
+	 * @return
+	 * 			The client handler, or null if no GoClient with this name is connected.
+	 */
+	public GoClientHandler getGoClientHandler(String goClientName) {
+		return goClientRegistry.get(goClientName);
+	}
+	
+	/**
+	 * Return the registry of the client handlers, which also counts them by GoClientState.
+	 * @return
+	 * 			The registry.
+	 */
+	public GoClientRegistry getGoClientRegistry() {
+		return goClientRegistry;
 	}
 	
 	/**
-	 * Remove the goClientHandler of the list of client handlers.
+	 * Return the event bus that delivers the changes of the GoClientStates of the GoClients.
+	 * @return
+	 * 			The event bus.
+	 */
+	public GoClientStateEventBus getGoClientStateEventBus() {
+		return goClientStateEventBus;
+	}
+	
+	/**
+	 * Remove the goClientHandler of the registry of client handlers.
 	 * @param goClientHandler
 	 * 			The removed client handler.
 	 */
 	public void removeGoClientHandler(GoClientHandler goClientHandler) {
-		goClientHandlers.remove(goClientHandler);
+		goClientRegistry.remove(goClientHandler);
 		System.out.println("GO SERVER: Client " + goClientHandler.getGoClientName() + 
 				" disconnected");
 		System.out.println("GO SERVER: Waiting for clients to connect...");
@@ -125,16 +349,107 @@ public class GoServer {
 	
 	/**
 	 * Start a new server with the provided port number to play a game of Go.
+	 * With the flag -nio before the port number the connections are handled by event loops,
+	 * with the flag -virtual the connections and games run on virtual threads.
+	 * With the option -latency and a number of milliseconds the commands to a GoClient
+	 * wait at most that long to be written together with the next commands.
+	 * With the option -pairing and fifo, boardsize or rating the GoClients that requested
+	 * a game are paired in order of request, by requested board size or by rating.
+	 * With the option -timeout and a number of seconds a player that does not make a move
+	 * in time loses the game, 0 turns the move clock off.
+	 * With the option -ko and simple or superko a move may not recreate the board situation
+	 * from before the previous move, or any earlier board situation of the game.
 	 * @param args
-	 * 			The port number of the Go server.
+	 * 			The optional flag -nio or -virtual, the optional option -latency with its 
+	 * 			milliseconds, the optional option -pairing with its policy, the optional option
+	 * 			-timeout with its seconds, the optional option -ko with its rule and the port 
+	 * 			number of the Go server.
 	 */
 	public static void main(String[] args) {
-		if (args.length != 1) {
+		ConnectionMode connectionMode = ConnectionMode.PLATFORM_THREADS;
+		long flushLatency = 0;
+		PairingPolicy pairingPolicy = new FifoPairingPolicy();
+		long moveTimeout = GameManager.DEFAULT_MOVE_TIMEOUT;
+		KoRule koRule = KoRule.SIMPLE_KO;
+		int index = 0;
+		try {
+			while (index < args.length - 1) {
+				if (args[index].equals("-nio")) {
+					connectionMode = ConnectionMode.NIO;
+					index++;
+				} else if (args[index].equals("-virtual")) {
+					connectionMode = ConnectionMode.VIRTUAL_THREADS;
+					index++;
+				} else if (args[index].equals("-latency") && index < args.length - 2) {
+					flushLatency = Long.parseLong(args[index + 1]);
+					index = index + 2;
+				} else if (args[index].equals("-pairing") && index < args.length - 2) {
+					pairingPolicy = getPairingPolicy(args[index + 1]);
+					index = index + 2;
+				} else if (args[index].equals("-timeout") && index < args.length - 2) {
+					moveTimeout = Long.parseLong(args[index + 1]) * 1000;
+					index = index + 2;
+				} else if (args[index].equals("-ko") && index < args.length - 2) {
+					koRule = getKoRule(args[index + 1]);
+					index = index + 2;
+				} else {
+					break;
+				}
+			}
+		} catch (NumberFormatException e) {
+			System.out.println("ERROR: The latency and the timeout should be numbers");
+			System.exit(0);
+		}
+		if (flushLatency < 0 || moveTimeout < 0) {
+			System.out.println("ERROR: The latency and the timeout should not be negative");
+			System.exit(0);
+		} else if (pairingPolicy == null) {
+			System.out.println("ERROR: The pairing should be fifo, boardsize or rating");
+			System.exit(0);
+		} else if (koRule == null) {
+			System.out.println("ERROR: The ko rule should be simple or superko");
+			System.exit(0);
+		} else if (index != args.length - 1) {
 			System.out.println("ERROR: A port number should be provided");
 			System.exit(0);
 		}
-		GoServer goServer = new GoServer(args[0]);
+		GoServer goServer = new GoServer(args[index], connectionMode, flushLatency, 
+				pairingPolicy, moveTimeout, koRule);
 		goServer.run();
 	}
+	
+	/**
+	 * Return the pairing policy with the provided name.
+	 * @param name
+	 * 			The name of the pairing policy, fifo, boardsize or rating.
+	 * @return
+	 * 			The pairing policy, or null if no pairing policy has the provided name.
+	 */
+	private static PairingPolicy getPairingPolicy(String name) {
+		if (name.equals("fifo")) {
+			return new FifoPairingPolicy();
+		} else if (name.equals("boardsize")) {
+			return new BoardSizePairingPolicy();
+		} else if (name.equals("rating")) {
+			return new RatingPairingPolicy();
+		}
+		return null;
+	}
+	
+	/**
+	 * Return the ko rule with the provided name.
+	 * @param name
+	 * 			The name of the ko rule, simple or superko.
+	 * @return
+	 * 			The ko rule, or null if no ko rule has the provided name.
+	 */
+	private static KoRule getKoRule(String name) {
+		if (name.equals("simple")) {
+			return KoRule.SIMPLE_KO;
+		} else if (name.equals("superko")) {
+			return KoRule.POSITIONAL_SUPERKO;
+		}
+		return null;
+	}
 
 }
@@ -0,0 +1,123 @@
+package server.gateway;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A ring of nodes on which every key is owned by the first node at or after the hash of
+ * the key. Every node is put on the ring at several points, so the keys are spread evenly,
+ * and adding or removing a node only moves the keys of that node.
+ * The ring is changed and read under its own lock.
+ * @param <T>
+ * 			The type of the nodes.
+ * @author janine.kleinrot
+ */
+public class ConsistentHashRing<T> {
+
+	/** The default amount of points of every node on the ring. */
+	public static final int DEFAULT_POINTS_PER_NODE = 128;
+
+	/** The amount of points of every node on the ring. */
+	private int pointsPerNode;
+
+	/** The nodes by the points on the ring. */
+	private TreeMap<Integer, T> ring;
+
+	/** The nodes in the order in which they are added. */
+	private List<T> nodes;
+
+	/**
+	 * Create a new empty ConsistentHashRing with the default amount of points per node.
+	 */
+	public ConsistentHashRing() {
+		this(DEFAULT_POINTS_PER_NODE);
+	}
+
+	/**
+	 * Create a new empty ConsistentHashRing.
+	 * @param pointsPerNode
+	 * 			The amount of points of every node on the ring.
+	 */
+	public ConsistentHashRing(int pointsPerNode) {
+		this.pointsPerNode = pointsPerNode;
+		ring = new TreeMap<Integer, T>();
+		nodes = new ArrayList<T>();
+	}
+
+	/**
+	 * Add the node to the ring. The points of a node depend on its string only,
+	 * so every gateway with the same nodes has the same ring.
+	 * @param node
+	 * 			The node.
+	 */
+	public synchronized void add(T node) {
+		if (nodes.contains(node)) {
+			return;
+		}
+		nodes.add(node);
+		for (int i = 0; i < pointsPerNode; i++) {
+			ring.putIfAbsent(hash(node + "#" + i), node);
+		}
+	}
+
+	/**
+	 * Remove the node from the ring.
+	 * @param node
+	 * 			The node.
+	 */
+	public synchronized void remove(T node) {
+		if (nodes.remove(node)) {
+			ring.values().removeIf(node::equals);
+		}
+	}
+
+	/**
+	 * Return the node that owns the key.
+	 * @param key
+	 * 			The key.
+	 * @return
+	 * 			The node, or null if the ring is empty.
+	 */
+	public synchronized T get(String key) {
+		if (ring.isEmpty()) {
+			return null;
+		}
+		Map.Entry<Integer, T> entry = ring.ceilingEntry(hash(key));
+		return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+	}
+
+	/**
+	 * Return the nodes on the ring.
+	 * @return
+	 * 			A new list of the nodes in the order in which they are added.
+	 */
+	public synchronized List<T> getNodes() {
+		return new ArrayList<T>(nodes);
+	}
+
+	/**
+	 * Hash the string with FNV-1a over its UTF-8 bytes, followed by the finalizer of
+	 * MurmurHash3 so that strings that differ in one character are far apart on the ring.
+	 * @param string
+	 * 			The string.
+	 * @return
+	 * 			The hash.
+	 */
+	static int hash(String string) {
+		int hash = 0x811C9DC5;
+		for (byte b : string.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xFF;
+			hash *= 0x01000193;
+		}
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		hash *= 0xC2B2AE35;
+		hash ^= hash >>> 16;
+		return hash;
+	}
+
+}
@@ -0,0 +1,454 @@
+package server.gateway;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import protocol.BinaryProtocol;
+import protocol.Command;
+import protocol.CommandEncoder;
+import protocol.CommandParser;
+import protocol.CommandType;
+import protocol.Protocol.General;
+import protocol.Protocol.Server;
+
+/**
+ * The connection of a GoClient with the gateway, and while the GoClient plays,
+ * with the shard that hosts its game.
+ * The GoClient always uses lines of text, since the gateway answers its name without
+ * binary framing. Until the GoClient is connected to a shard the gateway handles its
+ * commands; after that the lines of the GoClient are passed on to the shard and
+ * the bytes of the shard are passed on to the GoClient, by a thread of their own.
+ * @author janine.kleinrot
+ */
+public class GatewayConnection implements Runnable {
+
+	/** The initial size of the buffer of a line. */
+	private static final int LINE_BUFFER_SIZE = 128;
+
+	/** The size of the buffer of the bytes passed on from the shard. */
+	private static final int RELAY_BUFFER_SIZE = 8192;
+
+	/** The timeout in milliseconds of connecting to a shard and reading its answer. */
+	private static final int SHARD_TIMEOUT = 5000;
+
+	/** The time in milliseconds before a name taken at a shard is tried again. */
+	private static final int NAME_RETRY_INTERVAL = 20;
+
+	/** The socket of the GoClient. */
+	private Socket socket;
+
+	/** The gateway. */
+	private GoGateway gateway;
+
+	/** Stream to read from the GoClient. */
+	private InputStream in;
+
+	/** Stream to write to the GoClient. */
+	private OutputStream out;
+
+	/** The lock of the stream to the GoClient, since several threads write to it. */
+	private Lock writeLock;
+
+	/** The bytes of the line read last. */
+	private byte[] line;
+
+	/** The parser of the lines of the GoClient. */
+	private CommandParser parser;
+
+	/** The encoder of the commands of the gateway. */
+	private CommandEncoder encoder;
+
+	/** The name of the GoClient, or null if it has not sent a valid name. */
+	private volatile String goClientName;
+
+	/** The arguments of the name of the GoClient without the binary flag. */
+	private String[] nameArguments;
+
+	/** The board size of the last game request, or 0 if any board size is fine. */
+	private volatile int requestedBoardSize;
+
+	/** The socket of the shard, or null if the GoClient is not connected to a shard. */
+	private volatile Socket shardSocket;
+
+	/** Stream to write to the shard, or null if the GoClient is not connected to a shard. */
+	private volatile OutputStream shardOut;
+
+	/** Whether the connection is closed. */
+	private AtomicBoolean isClosed;
+
+	/**
+	 * Create a new GatewayConnection.
+	 * @param socket
+	 * 			The socket of the GoClient.
+	 * @param gateway
+	 * 			The gateway.
+	 * @throws IOException
+	 * 			If the streams of the socket can not be created.
+	 */
+	public GatewayConnection(Socket socket, GoGateway gateway) throws IOException {
+		this.socket = socket;
+		this.gateway = gateway;
+		in = new BufferedInputStream(socket.getInputStream());
+		out = socket.getOutputStream();
+		writeLock = new ReentrantLock();
+		line = new byte[LINE_BUFFER_SIZE];
+		parser = new CommandParser();
+		encoder = new CommandEncoder();
+		isClosed = new AtomicBoolean();
+	}
+
+	/**
+	 * Read the lines of the GoClient until it disconnects.
+	 */
+	@Override
+	public void run() {
+		try {
+			int length = readLine(in);
+			while (length >= 0) {
+				handleLine(length);
+				length = readLine(in);
+			}
+		} catch (IOException e) {
+			System.out.println("ERROR: Connection lost with " + goClientName);
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * Return the name of the GoClient.
+	 * @return
+	 * 			The name, or null if the GoClient has not sent a valid name.
+	 */
+	public String getGoClientName() {
+		return goClientName;
+	}
+
+	/**
+	 * Return the board size of the last game request.
+	 * @return
+	 * 			The board size, or 0 if any board size is fine.
+	 */
+	public int getRequestedBoardSize() {
+		return requestedBoardSize;
+	}
+
+	/**
+	 * Connect the GoClient to the shard and repeat its name and game request there.
+	 * The shard answers the name, which is not passed on, since the gateway already did.
+	 * The game request asks for the opponent the gateway paired the GoClient with,
+	 * so the shard can not pair the GoClient with the GoClient of another pair.
+	 * A shard that hosted the previous game of the GoClient only frees its name once it
+	 * reads the end of the old connection, so a taken name is tried again every
+	 * NAME_RETRY_INTERVAL until SHARD_TIMEOUT has passed.
+	 * @param shard
+	 * 			The address of the shard, as host:port.
+	 * @param opponentName
+	 * 			The name of the GoClient the gateway paired the GoClient with.
+	 * @throws IOException
+	 * 			If the shard can not be reached or does not accept the name.
+	 */
+	void connect(String shard, String opponentName) throws IOException {
+		int separator = shard.lastIndexOf(':');
+		InetSocketAddress address = new InetSocketAddress(shard.substring(0, separator),
+				Integer.parseInt(shard.substring(separator + 1)));
+		long deadline = System.currentTimeMillis() + SHARD_TIMEOUT;
+		boolean isConnected = false;
+		while (!isConnected) {
+			Socket newShardSocket = new Socket();
+			try {
+				isConnected = connect(newShardSocket, address, opponentName, 
+						System.currentTimeMillis() >= deadline);
+			} catch (IOException e) {
+				newShardSocket.close();
+				throw e;
+			}
+			if (!isConnected) {
+				newShardSocket.close();
+				try {
+					Thread.sleep(NAME_RETRY_INTERVAL);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while connecting to shard " + shard);
+				}
+			}
+		}
+		if (isClosed.get()) {
+			disconnect();
+		}
+	}
+
+	/**
+	 * Connect the provided socket to the shard and repeat the name and game request of
+	 * the GoClient there.
+	 * @param newShardSocket
+	 * 			The socket, which is closed by the caller if it does not get connected.
+	 * @param address
+	 * 			The address of the shard.
+	 * @param opponentName
+	 * 			The name of the GoClient the gateway paired the GoClient with.
+	 * @param isLastTry
+	 * 			Whether a taken name should fail instead of being tried again.
+	 * @return
+	 * 			True if the GoClient is connected to the shard and false if its name is taken.
+	 * @throws IOException
+	 * 			If the shard can not be reached or does not accept the name.
+	 */
+	private boolean connect(Socket newShardSocket, InetSocketAddress address, 
+			String opponentName, boolean isLastTry) throws IOException {
+		newShardSocket.connect(address, SHARD_TIMEOUT);
+		newShardSocket.setTcpNoDelay(true);
+		newShardSocket.setSoTimeout(SHARD_TIMEOUT);
+		InputStream newShardIn = new BufferedInputStream(newShardSocket.getInputStream());
+		OutputStream newShardOut = new BufferedOutputStream(newShardSocket.getOutputStream());
+		CommandEncoder shardEncoder = new CommandEncoder();
+		newShardOut.write(shardEncoder.getBuffer(), 0,
+				shardEncoder.encode(CommandType.NAME, nameArguments));
+		newShardOut.flush();
+		byte[] answer = readAnswer(newShardIn);
+		Command answerCommand = new CommandParser().parseLine(answer, answer.length);
+		if (answerCommand.getType() != CommandType.NAME) {
+			if (!isLastTry && answerCommand.getType() == CommandType.ERROR && 
+					answerCommand.getArgumentCount() > 0 && 
+					answerCommand.isArgument(0, Server.NAMETAKEN)) {
+				return false;
+			}
+			throw new IOException("Name not accepted by shard " + address);
+		}
+		newShardSocket.setSoTimeout(0);
+		int boardSize = requestedBoardSize;
+		if (boardSize == 0) {
+			newShardOut.write(shardEncoder.getBuffer(), 0,
+					shardEncoder.encode(CommandType.REQUESTGAME, "2", opponentName));
+		} else {
+			newShardOut.write(shardEncoder.getBuffer(), 0, shardEncoder.encode(
+					CommandType.REQUESTGAME, "2", opponentName, Integer.toString(boardSize)));
+		}
+		newShardOut.flush();
+		shardOut = newShardOut;
+		shardSocket = newShardSocket;
+		gateway.getThreadFactory().newThread(() -> relay(newShardSocket, newShardIn)).start();
+		return true;
+	}
+
+	/**
+	 * Close the connection with the shard, if any, without closing the connection
+	 * with the GoClient.
+	 */
+	void disconnect() {
+		Socket oldShardSocket = shardSocket;
+		shardSocket = null;
+		shardOut = null;
+		if (oldShardSocket != null) {
+			try {
+				oldShardSocket.close();
+			} catch (IOException e) {
+				System.out.println("ERROR: Could not close the connection with the shard");
+			}
+		}
+	}
+
+	/**
+	 * Send the command of the gateway to the GoClient.
+	 * @param type
+	 * 			The type of the command.
+	 * @param arguments
+	 * 			The arguments.
+	 */
+	void sendCommand(CommandType type, String... arguments) {
+		writeLock.lock();
+		try {
+			out.write(encoder.getBuffer(), 0, encoder.encode(type, arguments));
+			out.flush();
+		} catch (IOException e) {
+			System.out.println("ERROR: Connection lost with " + goClientName);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Handle a line of the GoClient. The lines of a GoClient that is connected to a shard
+	 * are passed on, except for a game request, which disconnects it from the shard
+	 * so the gateway can route its next game.
+	 * @param length
+	 * 			The length of the line, without the command end.
+	 * @throws IOException
+	 * 			If the line can not be passed on to the shard.
+	 */
+	private void handleLine(int length) throws IOException {
+		Command command = parser.parseLine(line, length);
+		int argumentCount = command.getArgumentCount();
+		OutputStream currentShardOut = shardOut;
+		switch (command.getType()) {
+			case NAME:
+				if (goClientName == null && currentShardOut == null &&
+						(argumentCount == BinaryProtocol.NAME_ARGUMENTS ||
+						BinaryProtocol.hasBinaryFlag(command))) {
+					handleName(command);
+					return;
+				}
+				break;
+			case REQUESTGAME:
+				if (goClientName != null && (argumentCount == 2 || argumentCount == 3)) {
+					disconnect();
+					requestedBoardSize = argumentCount == 3 ?
+							Math.max(command.getIntArgument(2), 0) : 0;
+					gateway.requestGame(this);
+					return;
+				}
+				break;
+			case EXIT:
+				if (currentShardOut == null) {
+					close();
+					return;
+				}
+				break;
+			default:
+				break;
+		}
+		if (currentShardOut != null) {
+			currentShardOut.write(line, 0, length);
+			currentShardOut.write(General.COMMAND_END.charAt(0));
+			currentShardOut.flush();
+		} else {
+			sendCommand(CommandType.ERROR, Server.UNKNOWN, "Command not known by Go gateway");
+		}
+	}
+
+	/**
+	 * Answer the name of the GoClient, without binary framing, if the name is not taken.
+	 * @param command
+	 * 			The NAME command.
+	 */
+	private void handleName(Command command) {
+		String name = command.getArgument(0);
+		String[] arguments = new String[BinaryProtocol.NAME_ARGUMENTS];
+		for (int i = 0; i < arguments.length; i++) {
+			arguments[i] = command.getArgument(i);
+		}
+		goClientName = name;
+		if (gateway.addConnection(this)) {
+			nameArguments = arguments;
+			System.out.println("GO GATEWAY: Client " + name.toUpperCase() + " connected");
+			sendCommand(CommandType.NAME, GoGateway.NAME, Server.VERSION,
+					Integer.toString(Server.VERSIONNO), Server.EXTENSIONS,
+					"0", "0", "0", "0", "0", "0", "0");
+		} else {
+			goClientName = null;
+			sendCommand(CommandType.ERROR, Server.NAMETAKEN,
+					"The name " + name + " is already taken");
+		}
+	}
+
+	/**
+	 * Pass the bytes of the shard on to the GoClient until the shard closes the connection.
+	 * If the GoClient is still connected to this shard, the GoClient is disconnected too.
+	 * @param relayedShardSocket
+	 * 			The socket of the shard.
+	 * @param shardIn
+	 * 			Stream to read from the shard.
+	 */
+	private void relay(Socket relayedShardSocket, InputStream shardIn) {
+		byte[] buffer = new byte[RELAY_BUFFER_SIZE];
+		try {
+			int length = shardIn.read(buffer);
+			while (length >= 0) {
+				writeLock.lock();
+				try {
+					out.write(buffer, 0, length);
+					out.flush();
+				} finally {
+					writeLock.unlock();
+				}
+				length = shardIn.read(buffer);
+			}
+		} catch (IOException e) {
+			if (shardSocket == relayedShardSocket) {
+				System.out.println("ERROR: Connection lost between " + goClientName +
+						" and its shard");
+			}
+		}
+		if (shardSocket == relayedShardSocket) {
+			close();
+		}
+	}
+
+	/**
+	 * Close the connections with the GoClient and the shard and remove the connection
+	 * from the gateway.
+	 */
+	private void close() {
+		if (!isClosed.compareAndSet(false, true)) {
+			return;
+		}
+		gateway.removeConnection(this);
+		disconnect();
+		try {
+			socket.close();
+		} catch (IOException e) {
+			System.out.println("ERROR: Could not close the connection with " + goClientName);
+		}
+		if (goClientName != null) {
+			System.out.println("GO GATEWAY: Client " + goClientName + " disconnected");
+		}
+	}
+
+	/**
+	 * Read a line of the GoClient into the line buffer, growing the buffer if needed.
+	 * @param input
+	 * 			The stream to read from.
+	 * @return
+	 * 			The length of the line without the command end, or -1 at the end of the stream.
+	 * @throws IOException
+	 * 			If the line can not be read or is too long.
+	 */
+	private int readLine(InputStream input) throws IOException {
+		int length = 0;
+		int b = input.read();
+		while (b >= 0 && b != General.COMMAND_END.charAt(0)) {
+			if (length == line.length) {
+				if (length >= BinaryProtocol.MAX_FRAME_LENGTH) {
+					throw new IOException("Line too long");
+				}
+				line = Arrays.copyOf(line, length * 2);
+			}
+			line[length++] = (byte) b;
+			b = input.read();
+		}
+		return b < 0 ? -1 : length;
+	}
+
+	/**
+	 * Read the answer of the shard to the name, which is a single line.
+	 * @param input
+	 * 			The stream to read from.
+	 * @return
+	 * 			The bytes of the line without the command end.
+	 * @throws IOException
+	 * 			If the line can not be read.
+	 */
+	private static byte[] readAnswer(InputStream input) throws IOException {
+		ByteArrayOutputStream answer = new ByteArrayOutputStream();
+		int b = input.read();
+		while (b != General.COMMAND_END.charAt(0)) {
+			if (b < 0 || answer.size() >= BinaryProtocol.MAX_FRAME_LENGTH) {
+				throw new IOException("No answer from shard");
+			}
+			answer.write(b);
+			b = input.read();
+		}
+		return answer.toByteArray();
+	}
+
+}
@@ -0,0 +1,230 @@
+package server.gateway;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import protocol.CommandType;
+import protocol.Protocol.Server;
+
+/**
+ * A gateway that accepts the GoClients and hosts every game on one of several GoServers,
+ * the shards. The gateway answers the name of a GoClient itself and pairs the GoClients
+ * that request a game, by requested board size like the GoServer.
+ * Every pair gets a new game id, and the shard that owns the game id on a consistent hash
+ * ring hosts the game: both GoClients get a connection of their own to that shard, on
+ * which the gateway repeats their name and a game request that asks for the other GoClient
+ * by name, so the shard pairs them with each other even if several pairs are routed to it
+ * at the same time. After that every message is passed on unchanged until the GoClient
+ * requests its next game.
+ * The shards are plain GoServers, so several shards and the gateway can run as separate
+ * processes on one machine.
+ * @author janine.kleinrot
+ */
+public class GoGateway {
+
+	/** The name of the gateway, which the GoClients see as the name of the GoServer. */
+	public static final String NAME = "Go Server";
+
+	/** The port of the gateway. */
+	private String port;
+
+	/** The addresses of the shards, as host:port, on the consistent hash ring. */
+	private ConsistentHashRing<String> shards;
+
+	/** The connections of the GoClients by the name of their GoClient. */
+	private ConcurrentHashMap<String, GatewayConnection> connections;
+
+	/** The connections of the GoClients that wait for an opponent, oldest first. */
+	private List<GatewayConnection> waitingConnections;
+
+	/** The amount of games routed to a shard. */
+	private AtomicLong gameCount;
+
+	/** The factory of the threads of the connections. */
+	private ThreadFactory threadFactory;
+
+	/**
+	 * Create a new GoGateway.
+	 * @param port
+	 * 			The port of the gateway.
+	 * @param shardAddresses
+	 * 			The addresses of the shards, as host:port.
+	 */
+	public GoGateway(String port, List<String> shardAddresses) {
+		this.port = port;
+		shards = new ConsistentHashRing<String>();
+		for (String shardAddress : shardAddresses) {
+			shards.add(shardAddress);
+		}
+		connections = new ConcurrentHashMap<String, GatewayConnection>();
+		waitingConnections = new ArrayList<GatewayConnection>();
+		gameCount = new AtomicLong();
+		threadFactory = Thread.ofVirtual().name("GatewayConnection ", 0).factory();
+	}
+
+	/**
+	 * Wait for GoClients to connect to the gateway.
+	 */
+	public void run() {
+		try (ServerSocket serverSocket = new ServerSocket(Integer.parseInt(port))) {
+			System.out.println("GO GATEWAY: Initialized at port " + port + " with shards " +
+					shards.getNodes());
+			while (true) {
+				Socket socket = serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				threadFactory.newThread(new GatewayConnection(socket, this)).start();
+			}
+		} catch (BindException e) {
+			System.out.println("ERROR: Port " + port + " already in use");
+		} catch (IOException | NumberFormatException e) {
+			System.out.println("ERROR: Could not listen at port " + port);
+		}
+	}
+
+	/**
+	 * Return the factory of the threads of the connections.
+	 * @return
+	 * 			The thread factory.
+	 */
+	ThreadFactory getThreadFactory() {
+		return threadFactory;
+	}
+
+	/**
+	 * Add the connection if no connection of a GoClient with the same name is added yet.
+	 * @param connection
+	 * 			The connection, whose GoClient has a name.
+	 * @return
+	 * 			True if the connection is added and false if the name is taken.
+	 */
+	boolean addConnection(GatewayConnection connection) {
+		return connections.putIfAbsent(connection.getGoClientName(), connection) == null;
+	}
+
+	/**
+	 * Remove the connection, cancelling its game request.
+	 * @param connection
+	 * 			The connection.
+	 */
+	void removeConnection(GatewayConnection connection) {
+		cancelGameRequest(connection);
+		if (connection.getGoClientName() != null) {
+			connections.remove(connection.getGoClientName(), connection);
+		}
+	}
+
+	/**
+	 * Pair the connection with the oldest waiting connection that accepts the same board size
+	 * and route their game to a shard, or let the connection wait if no such connection waits.
+	 * @param connection
+	 * 			The connection of the GoClient that requests a game.
+	 */
+	void requestGame(GatewayConnection connection) {
+		GatewayConnection opponent = null;
+		synchronized (waitingConnections) {
+			for (GatewayConnection waitingConnection : waitingConnections) {
+				if (waitingConnection != connection &&
+						isBoardSizeCompatible(waitingConnection, connection)) {
+					opponent = waitingConnection;
+					break;
+				}
+			}
+			if (opponent != null) {
+				waitingConnections.remove(opponent);
+			} else if (!waitingConnections.contains(connection)) {
+				waitingConnections.add(connection);
+			}
+		}
+		if (opponent != null) {
+			routeGame(opponent, connection);
+		}
+	}
+
+	/**
+	 * Remove the connection from the waiting connections.
+	 * @param connection
+	 * 			The connection.
+	 */
+	void cancelGameRequest(GatewayConnection connection) {
+		synchronized (waitingConnections) {
+			waitingConnections.remove(connection);
+		}
+	}
+
+	/**
+	 * Connect both GoClients to the shard that owns a new game id,
+	 * or tell them that no shard could be reached.
+	 * @param first
+	 * 			The connection that requested a game first.
+	 * @param second
+	 * 			The other connection.
+	 */
+	private void routeGame(GatewayConnection first, GatewayConnection second) {
+		String gameId = Long.toString(gameCount.incrementAndGet());
+		String shard = shards.get(gameId);
+		try {
+			if (shard == null) {
+				throw new IOException("No shards");
+			}
+			first.connect(shard, second.getGoClientName());
+			second.connect(shard, first.getGoClientName());
+			System.out.println("GO GATEWAY: Game " + gameId + " between " +
+					first.getGoClientName().toUpperCase() + " and " +
+					second.getGoClientName().toUpperCase() + " hosted by " + shard);
+		} catch (IOException e) {
+			System.out.println("ERROR: Could not reach shard " + shard + " for game " + gameId);
+			first.disconnect();
+			second.disconnect();
+			first.sendCommand(CommandType.ERROR, Server.OTHER, "No Go server available");
+			second.sendCommand(CommandType.ERROR, Server.OTHER, "No Go server available");
+		}
+	}
+
+	/**
+	 * Whether the board sizes of the requests allow a game,
+	 * which is the case if they are equal or one of them is any board size.
+	 * @param first
+	 * 			The first connection.
+	 * @param second
+	 * 			The second connection.
+	 * @return
+	 * 			True if the board sizes are compatible and false otherwise.
+	 */
+	private static boolean isBoardSizeCompatible(GatewayConnection first,
+			GatewayConnection second) {
+		return first.getRequestedBoardSize() == 0 || second.getRequestedBoardSize() == 0 ||
+				first.getRequestedBoardSize() == second.getRequestedBoardSize();
+	}
+
+	/**
+	 * Start a new gateway with the provided port number in front of the provided shards.
+	 * @param args
+	 * 			The addresses of the shards, as host:port, followed by the port number
+	 * 			of the gateway.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.out.println("ERROR: Shard addresses and a port number should be provided");
+			System.exit(0);
+		}
+		List<String> shardAddresses = new ArrayList<String>();
+		for (int i = 0; i < args.length - 1; i++) {
+			int separator = args[i].lastIndexOf(':');
+			if (separator <= 0 || !args[i].substring(separator + 1).matches("\\d{1,5}")) {
+				System.out.println("ERROR: A shard address should be host:port");
+				System.exit(0);
+			}
+			shardAddresses.add(args[i]);
+		}
+		GoGateway goGateway = new GoGateway(args[args.length - 1], shardAddresses);
+		goGateway.run();
+	}
+
+}
@@ -0,0 +1,96 @@
+package server.gateway.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import server.gateway.ConsistentHashRing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for ConsistentHashRing.
+ * @author janine.kleinrot
+ */
+public class ConsistentHashRingTest {
+
+	/** The amount of keys used to check the spread of the keys. */
+	private static final int KEY_COUNT = 10000;
+
+	/** Test variable for a ConsistentHashRing object with three shards. */
+	private ConsistentHashRing<String> ring;
+
+	/**
+	 * Create a ring with three shards.
+	 */
+	@Before
+	public void setUp() {
+		ring = new ConsistentHashRing<String>();
+		ring.add("localhost:2001");
+		ring.add("localhost:2002");
+		ring.add("localhost:2003");
+	}
+
+	/**
+	 * Test that a key is owned by the same shard on every ring with the same shards.
+	 */
+	@Test
+	public void testGet() {
+		ConsistentHashRing<String> otherRing = new ConsistentHashRing<String>();
+		otherRing.add("localhost:2003");
+		otherRing.add("localhost:2001");
+		otherRing.add("localhost:2002");
+		otherRing.add("localhost:2001");
+		assertEquals(3, otherRing.getNodes().size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(ring.get(Integer.toString(i)), otherRing.get(Integer.toString(i)));
+		}
+		assertNull(new ConsistentHashRing<String>().get("1"));
+	}
+
+	/**
+	 * Test that every shard owns roughly a third of the keys.
+	 */
+	@Test
+	public void testSpread() {
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		for (int i = 0; i < KEY_COUNT; i++) {
+			counts.merge(ring.get(Integer.toString(i)), 1, Integer::sum);
+		}
+		assertEquals(3, counts.size());
+		for (int count : counts.values()) {
+			assertTrue(count > KEY_COUNT / 4 && count < KEY_COUNT / 2);
+		}
+	}
+
+	/**
+	 * Test that adding a shard only moves keys to the new shard
+	 * and that removing it again moves them back.
+	 */
+	@Test
+	public void testAddAndRemove() {
+		Map<String, String> owners = new HashMap<String, String>();
+		for (int i = 0; i < KEY_COUNT; i++) {
+			owners.put(Integer.toString(i), ring.get(Integer.toString(i)));
+		}
+		ring.add("localhost:2004");
+		int movedCount = 0;
+		for (Map.Entry<String, String> owner : owners.entrySet()) {
+			String newOwner = ring.get(owner.getKey());
+			if (!newOwner.equals(owner.getValue())) {
+				assertEquals("localhost:2004", newOwner);
+				movedCount++;
+			}
+		}
+		assertTrue(movedCount > KEY_COUNT / 8 && movedCount < KEY_COUNT * 3 / 8);
+		ring.remove("localhost:2004");
+		for (Map.Entry<String, String> owner : owners.entrySet()) {
+			assertEquals(owner.getValue(), ring.get(owner.getKey()));
+		}
+	}
+
+}
@@ -0,0 +1,265 @@
+package server.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import game.GoClientStateListener;
+import server.GoServer;
+
+/**
+ * A thread that reads from and writes to many non-blocking socket channels with one selector.
+ * Tasks of other threads, such as registering a channel or writing a message, are queued
+ * and run by the event loop, so every channel is only used by its own event loop.
+ * Tasks can also be deferred until the ready channels are handled or until a delay has passed,
+ * so the messages caused by one read or sent within the delay are written together.
+ * @author janine.kleinrot
+ */
+public class EventLoop implements Runnable {
+	
+	/** The size of the buffer the channels are read into. */
+	private static final int READ_BUFFER_SIZE = 8192;
+	
+	/** The selector. */
+	private Selector selector;
+	
+	/** The tasks queued by other threads. */
+	private Queue<Runnable> tasks;
+	
+	/** The buffer shared by all channels of the event loop to read into. */
+	private ByteBuffer readBuffer;
+	
+	/** The thread running the event loop. */
+	private Thread thread;
+	
+	/** The tasks waiting for their delay, ordered by deadline. Only used by the event loop. */
+	private PriorityQueue<DelayedTask> delayedTasks;
+	
+	/** The amount of delayed tasks added, to keep tasks with the same deadline in order. */
+	private long delayedTaskCount;
+	
+	/**
+	 * Create a new event loop with its own selector.
+	 * @throws IOException
+	 * 			If the selector could not be opened.
+	 */
+	public EventLoop() throws IOException {
+		selector = Selector.open();
+		tasks = new ConcurrentLinkedQueue<Runnable>();
+		delayedTasks = new PriorityQueue<DelayedTask>();
+		readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+	}
+	
+	/**
+	 * Start the event loop on a new thread with the provided name.
+	 * @param name
+	 * 			The name of the thread.
+	 */
+	public void start(String name) {
+		thread = new Thread(this, name);
+		thread.start();
+	}
+	
+	/**
+	 * Register a connected channel at the event loop and create its client handler.
+	 * @param channel
+	 * 			The channel of the GoClient.
+	 * @param gameManager
+	 * 			The gameManager of the GoServer.
+	 * @param goServer
+	 * 			The GoServer.
+	 */
+	public void register(SocketChannel channel, GoClientStateListener gameManager, 
+			GoServer goServer) {
+		execute(() -> {
+			try {
+				channel.configureBlocking(false);
+				NioGoClientHandler goClientHandler = 
+						new NioGoClientHandler(channel, this, gameManager, goServer);
+				goClientHandler.setSelectionKey(
+						channel.register(selector, SelectionKey.OP_READ, goClientHandler));
+			} catch (IOException e) {
+				System.out.println("ERROR: Could not create GoClientHandler");
+			}
+		});
+	}
+	
+	/**
+	 * Run the task on the event loop.
+	 * The task runs immediately if called by the event loop and is queued otherwise.
+	 * @param task
+	 * 			The task.
+	 */
+	public void execute(Runnable task) {
+		if (Thread.currentThread() == thread) {
+			task.run();
+		} else {
+			tasks.add(task);
+			selector.wakeup();
+		}
+	}
+	
+	/**
+	 * Run the task on the event loop after the channels that are ready now are handled.
+	 * Can be called by any thread.
+	 * @param task
+	 * 			The task.
+	 */
+	public void executeLater(Runnable task) {
+		tasks.add(task);
+		if (Thread.currentThread() != thread) {
+			selector.wakeup();
+		}
+	}
+	
+	/**
+	 * Run the task on the event loop once the provided delay has passed.
+	 * Can be called by any thread.
+	 * @param task
+	 * 			The task.
+	 * @param delay
+	 * 			The delay in milliseconds.
+	 */
+	public void schedule(Runnable task, long delay) {
+		long deadline = System.nanoTime() + delay * 1000000;
+		execute(() -> {
+			delayedTasks.add(new DelayedTask(deadline, delayedTaskCount, task));
+			delayedTaskCount++;
+		});
+	}
+	
+	/**
+	 * Return the buffer to read into, which is only used by the event loop.
+	 * @return
+	 * 			The read buffer.
+	 */
+	public ByteBuffer getReadBuffer() {
+		return readBuffer;
+	}
+	
+	/**
+	 * Wait for channels that are ready and handle them together with the queued tasks
+	 * and the delayed tasks whose delay has passed.
+	 */
+	@Override
+	public void run() {
+		while (true) {
+			try {
+				if (!tasks.isEmpty()) {
+					selector.selectNow();
+				} else if (delayedTasks.isEmpty()) {
+					selector.select();
+				} else {
+					long timeout = (delayedTasks.peek().deadline - System.nanoTime()) / 1000000;
+					if (timeout > 0) {
+						selector.select(timeout);
+					} else {
+						selector.selectNow();
+					}
+				}
+			} catch (IOException e) {
+				System.out.println("ERROR: Could not select channels");
+				return;
+			}
+			Runnable task;
+			while ((task = tasks.poll()) != null) {
+				runTask(task);
+			}
+			long now = System.nanoTime();
+			while (!delayedTasks.isEmpty() && delayedTasks.peek().deadline - now <= 0) {
+				runTask(delayedTasks.poll().task);
+			}
+			Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+			while (selectedKeys.hasNext()) {
+				SelectionKey key = selectedKeys.next();
+				selectedKeys.remove();
+				handleKey(key, (NioGoClientHandler) key.attachment());
+			}
+		}
+	}
+	
+	/**
+	 * Run the task, so a task that fails does not stop the event loop.
+	 * @param task
+	 * 			The task.
+	 */
+	private void runTask(Runnable task) {
+		try {
+			task.run();
+		} catch (RuntimeException e) {
+			System.out.println("ERROR: Task of " + thread.getName() + " failed: " + e);
+		}
+	}
+	
+	/**
+	 * Write to and read from the channel of the ready key. If handling the channel fails,
+	 * only that channel is closed and the event loop goes on with the other channels.
+	 * @param key
+	 * 			The selection key of the channel.
+	 * @param goClientHandler
+	 * 			The client handler of the channel.
+	 */
+	private void handleKey(SelectionKey key, NioGoClientHandler goClientHandler) {
+		try {
+			if (key.isValid() && key.isWritable()) {
+				goClientHandler.flush();
+			}
+			if (key.isValid() && key.isReadable()) {
+				goClientHandler.readMessage();
+			}
+		} catch (RuntimeException e) {
+			System.out.println("ERROR: Closing the connection with " + 
+					goClientHandler.getGoClientName() + " after " + e);
+			try {
+				goClientHandler.close();
+			} catch (RuntimeException closeException) {
+				System.out.println("ERROR: Could not close the connection with " + 
+						goClientHandler.getGoClientName() + ": " + closeException);
+			}
+		}
+	}
+	
+	/**
+	 * A task that waits for its deadline.
+	 */
+	private static class DelayedTask implements Comparable<DelayedTask> {
+		
+		/** The time in nanoseconds at which the task runs. */
+		private final long deadline;
+		
+		/** The order in which the task was added. */
+		private final long sequence;
+		
+		/** The task. */
+		private final Runnable task;
+		
+		/**
+		 * Create a new task that waits for the provided deadline.
+		 * @param deadline
+		 * 			The time in nanoseconds at which the task runs.
+		 * @param sequence
+		 * 			The order in which the task was added.
+		 * @param task
+		 * 			The task.
+		 */
+		private DelayedTask(long deadline, long sequence, Runnable task) {
+			this.deadline = deadline;
+			this.sequence = sequence;
+			this.task = task;
+		}
+		
+		@Override
+		public int compareTo(DelayedTask other) {
+			int order = Long.signum(deadline - other.deadline);
+			return order != 0 ? order : Long.compare(sequence, other.sequence);
+		}
+		
+	}
+
+}
@@ -0,0 +1,299 @@
+package server.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import client.handler.AbstractGoClientHandler;
+import game.GoClientStateListener;
+import protocol.BinaryProtocol;
+import protocol.Protocol.General;
+import server.GoServer;
+
+/**
+ * A client handler for the communication between the server and the clients
+ * over a non-blocking socket channel of an event loop.
+ * The bytes read are split into lines, or into frames once the GoClient switched to the 
+ * binary framing, and the messages sent are queued until the channel can take them.
+ * The queued messages are written together with one gathering write, after the ready channels 
+ * of the event loop are handled or after the flush latency of the GoServer.
+ * @author janine.kleinrot
+ */
+public class NioGoClientHandler extends AbstractGoClientHandler {
+	
+	/** The initial size of the buffer of an incomplete line. */
+	private static final int LINE_BUFFER_SIZE = 128;
+	
+	/** The initial amount of messages that can be written with one gathering write. */
+	private static final int PENDING_SIZE = 16;
+	
+	/** The line handled when the command end is read before any other byte. */
+	private static final byte[] EMPTY_LINE = new byte[0];
+	
+	/** The channel of the GoClient. */
+	private SocketChannel channel;
+	
+	/** The event loop of the channel. */
+	private EventLoop eventLoop;
+	
+	/** The selection key of the channel. */
+	private SelectionKey selectionKey;
+	
+	/** 
+	 * The bytes of the line or frame read so far, reused for every message,
+	 * or null if the GoClient did not send anything yet.
+	 */
+	private byte[] line;
+	
+	/** The amount of bytes of the line read so far. */
+	private int lineLength;
+	
+	/** The length of the frame read so far, or -1 if the length is not read yet. */
+	private int frameLength;
+	
+	/** The messages waiting to be written to the channel. */
+	private Queue<ByteBuffer> writeQueue;
+	
+	/** The amount of bytes of the messages that are not written yet. */
+	private AtomicInteger pendingBytes;
+	
+	/** Whether the event loop is asked to write the queued messages. */
+	private AtomicBoolean isFlushScheduled;
+	
+	/** The maximum time in milliseconds a message waits to be written with other messages. */
+	private long flushLatency;
+	
+	/** 
+	 * The messages taken from the queue that are not completely written yet, 
+	 * from index pendingStart. Only used by the event loop.
+	 */
+	private ByteBuffer[] pending;
+	
+	/** The index of the first message that is not completely written. */
+	private int pendingStart;
+	
+	/** The amount of messages that are not completely written. */
+	private int pendingCount;
+	
+	/**
+	 * Creates a new client handler for the provided channel.
+	 * @param channel
+	 * 			The non-blocking channel of the GoClient.
+	 * @param eventLoop
+	 * 			The event loop of the channel.
+	 * @param gameManager
+	 * 			The gameManager of the GoServer.
+	 * @param goServer
+	 * 			The GoServer.
+	 */
+	public NioGoClientHandler(SocketChannel channel, EventLoop eventLoop, 
+			GoClientStateListener gameManager, GoServer goServer) {
+		super(gameManager, goServer);
+		this.channel = channel;
+		this.eventLoop = eventLoop;
+		frameLength = -1;
+		writeQueue = new ConcurrentLinkedQueue<ByteBuffer>();
+		isFlushScheduled = new AtomicBoolean(false);
+		pendingBytes = new AtomicInteger();
+		flushLatency = goServer.getFlushLatency();
+		pending = new ByteBuffer[PENDING_SIZE];
+	}
+	
+	/**
+	 * Set the selection key of the channel at the selector of the event loop.
+	 * @param selectionKey
+	 * 			The selection key.
+	 */
+	public void setSelectionKey(SelectionKey selectionKey) {
+		this.selectionKey = selectionKey;
+	}
+	
+	/**
+	 * Queue a copy of the command and let the event loop write it together with the 
+	 * other commands queued in the meantime. Can be called by any thread.
+	 * @param bytes
+	 * 			The bytes of the command.
+	 * @param length
+	 * 			The amount of bytes.
+	 */
+	@Override
+	protected void write(byte[] bytes, int length) {
+		write(ByteBuffer.wrap(Arrays.copyOf(bytes, length)));
+	}
+	
+	/**
+	 * Queue the shared command without copying it and let the event loop write it together 
+	 * with the other commands queued in the meantime. Can be called by any thread.
+	 * @param buffer
+	 * 			The read-only view of the bytes of the command.
+	 */
+	@Override
+	protected void write(ByteBuffer buffer) {
+		pendingBytes.addAndGet(buffer.remaining());
+		writeQueue.add(buffer);
+		if (isFlushScheduled.compareAndSet(false, true)) {
+			if (flushLatency > 0) {
+				eventLoop.schedule(this::flush, flushLatency);
+			} else {
+				eventLoop.executeLater(this::flush);
+			}
+		}
+	}
+	
+	/**
+	 * Write the queued messages with gathering writes until the channel can not take more.
+	 * The event loop is asked to call flush again when the channel can take more.
+	 * Only called by the event loop.
+	 */
+	void flush() {
+		isFlushScheduled.set(false);
+		if (!selectionKey.isValid()) {
+			writeQueue.clear();
+			pendingBytes.set(0);
+			return;
+		}
+		ByteBuffer buffer;
+		while ((buffer = writeQueue.poll()) != null) {
+			addPending(buffer);
+		}
+		try {
+			while (pendingCount > 0) {
+				pendingBytes.addAndGet((int) -channel.write(pending, pendingStart, pendingCount));
+				while (pendingCount > 0 && !pending[pendingStart].hasRemaining()) {
+					pending[pendingStart] = null;
+					pendingStart++;
+					pendingCount--;
+				}
+				if (pendingCount > 0) {
+					selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+					return;
+				}
+			}
+			pendingStart = 0;
+			selectionKey.interestOps(SelectionKey.OP_READ);
+		} catch (IOException e) {
+			System.out.println("ERROR: Connection lost with Go server");
+			close();
+		}
+	}
+	
+	/**
+	 * Add the message to the messages that are written with the next gathering write.
+	 * @param buffer
+	 * 			The message.
+	 */
+	private void addPending(ByteBuffer buffer) {
+		if (pendingStart + pendingCount == pending.length) {
+			if (pendingCount * 2 > pending.length) {
+				pending = Arrays.copyOf(pending, pending.length * 2);
+			}
+			System.arraycopy(pending, pendingStart, pending, 0, pendingCount);
+			Arrays.fill(pending, pendingCount, pending.length, null);
+			pendingStart = 0;
+		}
+		pending[pendingStart + pendingCount] = buffer;
+		pendingCount++;
+	}
+	
+	@Override
+	public int getPendingBytes() {
+		return pendingBytes.get();
+	}
+	
+	/**
+	 * Read the bytes available at the channel and handle every complete line or frame.
+	 * Only called by the event loop.
+	 */
+	@Override
+	public void readMessage() {
+		ByteBuffer buffer = eventLoop.getReadBuffer();
+		buffer.clear();
+		int bytesRead;
+		try {
+			bytesRead = channel.read(buffer);
+		} catch (IOException e) {
+			System.out.println("ERROR: Connection lost with Go server");
+			bytesRead = -1;
+		}
+		if (bytesRead == -1) {
+			close();
+			return;
+		}
+		buffer.flip();
+		while (buffer.hasRemaining() && selectionKey.isValid()) {
+			if (isBinary()) {
+				readFrame(buffer);
+				continue;
+			}
+			byte b = buffer.get();
+			if (b == General.COMMAND_END.charAt(0)) {
+				int length = lineLength;
+				if (length > 0 && line[length - 1] == '\r') {
+					length--;
+				}
+				lineLength = 0;
+				handleLine(line == null ? EMPTY_LINE : line, length);
+			} else {
+				if (line == null) {
+					line = new byte[LINE_BUFFER_SIZE];
+				} else if (lineLength == line.length) {
+					line = Arrays.copyOf(line, line.length * 2);
+				}
+				line[lineLength] = b;
+				lineLength++;
+			}
+		}
+	}
+	
+	/**
+	 * Read the bytes of the frame that are available in the buffer 
+	 * and handle the frame when it is complete.
+	 * @param buffer
+	 * 			The buffer with the bytes read.
+	 */
+	private void readFrame(ByteBuffer buffer) {
+		int required = frameLength < 0 ? BinaryProtocol.LENGTH_BYTES : frameLength;
+		if (line == null || line.length < required) {
+			line = Arrays.copyOf(line == null ? new byte[0] : line, 
+					Math.max(required, LINE_BUFFER_SIZE));
+		}
+		int count = Math.min(required - lineLength, buffer.remaining());
+		buffer.get(line, lineLength, count);
+		lineLength = lineLength + count;
+		if (lineLength == required) {
+			lineLength = 0;
+			if (frameLength < 0) {
+				frameLength = (line[0] & 0xFF) << 8 | (line[1] & 0xFF);
+				if (frameLength > 0) {
+					return;
+				}
+			}
+			int length = frameLength;
+			frameLength = -1;
+			handleFrame(line, length);
+		}
+	}
+	
+	/**
+	 * Close the channel, remove it from the selector and handle the disconnect once.
+	 * Only called by the event loop.
+	 */
+	void close() {
+		if (channel.isOpen()) {
+			selectionKey.cancel();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				System.out.println("ERROR: Could not close the connection");
+			}
+			handleDisconnect();
+		}
+	}
+
+}
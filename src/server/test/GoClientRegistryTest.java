@@ -0,0 +1,129 @@
+package server.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import client.GoClientState;
+import client.handler.test.GoClientHandlerStub;
+import server.GoClientRegistry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for GoClientRegistry.
+ * @author janine.kleinrot
+ */
+public class GoClientRegistryTest {
+
+	/** Test variable for a GoClientRegistry object. */
+	private GoClientRegistry registry;
+
+	/**
+	 * Create an empty registry.
+	 */
+	@Before
+	public void setUp() {
+		registry = new GoClientRegistry();
+	}
+
+	/**
+	 * Test that a name can only be added once and is free again after the removal.
+	 */
+	@Test
+	public void testAddAndRemove() {
+		StateGoClientHandler piet = new StateGoClientHandler("piet");
+		StateGoClientHandler otherPiet = new StateGoClientHandler("piet");
+		assertTrue(registry.add(piet));
+		assertFalse(registry.add(otherPiet));
+		assertSame(piet, registry.get("piet"));
+		assertFalse(registry.remove(otherPiet));
+		assertSame(piet, registry.get("piet"));
+		assertTrue(registry.remove(piet));
+		assertNull(registry.get("piet"));
+		assertTrue(registry.add(otherPiet));
+		assertEquals(1, registry.size());
+		assertFalse(registry.add(new StateGoClientHandler(null)));
+	}
+
+	/**
+	 * Test that the client handlers are counted by their GoClientState.
+	 */
+	@Test
+	public void testCounts() {
+		StateGoClientHandler piet = new StateGoClientHandler("piet");
+		StateGoClientHandler jan = new StateGoClientHandler("jan");
+		registry.add(piet);
+		registry.add(jan);
+		assertEquals(2, registry.getCount(GoClientState.UNCONNECTED));
+		piet.setGoClientState(GoClientState.CONNECTED);
+		registry.updateGoClientState(piet);
+		jan.setGoClientState(GoClientState.GAME_REQUESTED);
+		registry.updateGoClientState(jan);
+		assertEquals(0, registry.getCount(GoClientState.UNCONNECTED));
+		assertEquals(1, registry.getCount(GoClientState.CONNECTED));
+		assertEquals(1, (int) registry.getCounts().get(GoClientState.GAME_REQUESTED));
+		registry.remove(jan);
+		assertEquals(0, registry.getCount(GoClientState.GAME_REQUESTED));
+		StateGoClientHandler otherPiet = new StateGoClientHandler("piet");
+		otherPiet.setGoClientState(GoClientState.PLAYING_GAME);
+		registry.updateGoClientState(otherPiet);
+		assertEquals(0, registry.getCount(GoClientState.PLAYING_GAME));
+	}
+
+	/**
+	 * Test that only one of many threads adding the same name succeeds.
+	 */
+	@Test
+	public void testConcurrentAdd() throws InterruptedException {
+		int threadCount = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger addedCount = new AtomicInteger();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < threadCount; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				if (registry.add(new StateGoClientHandler("koos"))) {
+					addedCount.incrementAndGet();
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(1, addedCount.get());
+		assertEquals(1, registry.getCount(GoClientState.UNCONNECTED));
+	}
+
+	/**
+	 * A GoClientHandler without connection with a name, in the state UNCONNECTED.
+	 */
+	private static class StateGoClientHandler extends GoClientHandlerStub {
+
+		/**
+		 * Create a new StateGoClientHandler in the state UNCONNECTED.
+		 * @param goClientName
+		 * 			The name of the GoClient.
+		 */
+		private StateGoClientHandler(String goClientName) {
+			super(goClientName, GoClientState.UNCONNECTED);
+		}
+
+	}
+
+}
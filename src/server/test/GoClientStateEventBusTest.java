@@ -0,0 +1,164 @@
+package server.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import client.GoClientState;
+import client.handler.GoClientHandler;
+import game.GoClientStateListener;
+import server.GoClientStateEventBus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test program for GoClientStateEventBus.
+ * @author janine.kleinrot
+ */
+public class GoClientStateEventBusTest {
+
+	/** Test variable for the tasks given to the executor of the event bus. */
+	private List<Runnable> tasks;
+
+	/** Test variable for a GoClientStateEventBus object. */
+	private GoClientStateEventBus eventBus;
+
+	/**
+	 * Create an event bus whose executor only runs the tasks when the test asks for it.
+	 */
+	@Before
+	public void setUp() {
+		tasks = new ArrayList<Runnable>();
+		eventBus = new GoClientStateEventBus(tasks::add);
+	}
+
+	/**
+	 * Test that publishing does not wait for the listeners
+	 * and that the changes are received in the order in which they are published.
+	 */
+	@Test
+	public void testPublish() {
+		RecordingListener listener = new RecordingListener();
+		eventBus.subscribe(listener);
+		eventBus.publish(null, GoClientState.CONNECTED);
+		eventBus.publish(null, GoClientState.GAME_REQUESTED);
+		eventBus.publish(null, GoClientState.UNCONNECTED);
+		assertTrue(listener.goClientStates.isEmpty());
+		assertEquals(1, tasks.size());
+		runTasks();
+		assertEquals(3, listener.goClientStates.size());
+		assertEquals(GoClientState.CONNECTED, listener.goClientStates.get(0));
+		assertEquals(GoClientState.GAME_REQUESTED, listener.goClientStates.get(1));
+		assertEquals(GoClientState.UNCONNECTED, listener.goClientStates.get(2));
+	}
+
+	/**
+	 * Test that an unsubscribed listener receives no more changes.
+	 */
+	@Test
+	public void testUnsubscribe() {
+		RecordingListener listener = new RecordingListener();
+		eventBus.subscribe(listener);
+		eventBus.publish(null, GoClientState.CONNECTED);
+		assertTrue(eventBus.unsubscribe(listener));
+		assertFalse(eventBus.unsubscribe(listener));
+		eventBus.publish(null, GoClientState.GAME_REQUESTED);
+		runTasks();
+		assertTrue(listener.goClientStates.isEmpty());
+		assertEquals(0, eventBus.getSubscriberCount());
+	}
+
+	/**
+	 * Test that a listener that throws an exception still receives the next changes.
+	 */
+	@Test
+	public void testFailingListener() {
+		RecordingListener listener = new RecordingListener();
+		listener.isFailing = true;
+		eventBus.subscribe(listener);
+		eventBus.publish(null, GoClientState.CONNECTED);
+		eventBus.publish(null, GoClientState.GAME_REQUESTED);
+		runTasks();
+		assertEquals(2, listener.goClientStates.size());
+	}
+
+	/**
+	 * Test that a blocked listener does not delay the other listeners.
+	 */
+	@Test
+	public void testBlockedListener() throws InterruptedException {
+		eventBus = new GoClientStateEventBus(Executors.newVirtualThreadPerTaskExecutor());
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch received = new CountDownLatch(1);
+		eventBus.subscribe(new RecordingListener() {
+			@Override
+			public void goClientStateChanged(GoClientHandler goClientHandler,
+					GoClientState goClientState) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		eventBus.subscribe(new RecordingListener() {
+			@Override
+			public void goClientStateChanged(GoClientHandler goClientHandler,
+					GoClientState goClientState) {
+				received.countDown();
+			}
+		});
+		eventBus.publish(null, GoClientState.CONNECTED);
+		assertTrue(received.await(5, TimeUnit.SECONDS));
+		release.countDown();
+	}
+
+	/**
+	 * Run the tasks given to the executor until no tasks are left.
+	 */
+	private void runTasks() {
+		while (!tasks.isEmpty()) {
+			tasks.remove(0).run();
+		}
+	}
+
+	/**
+	 * A GoClientStateListener that records the GoClientStates received.
+	 */
+	private static class RecordingListener implements GoClientStateListener {
+
+		/** The GoClientStates received. */
+		private List<GoClientState> goClientStates = new ArrayList<GoClientState>();
+
+		/** Whether the listener throws an exception after recording a GoClientState. */
+		private boolean isFailing;
+
+		@Override
+		public void goClientStateChanged(GoClientHandler goClientHandler,
+				GoClientState goClientState) {
+			goClientStates.add(goClientState);
+			if (isFailing) {
+				throw new IllegalStateException("Failing listener");
+			}
+		}
+
+		@Override
+		public void getGameSettings(GoClientHandler firstGoClientHandler,
+				GoClientHandler secondGoClientHandler) {
+		}
+
+		@Override
+		public void startGame(GoClientHandler firstGoClientHandler,
+				GoClientHandler secondGoClientHandler) {
+		}
+
+	}
+
+}